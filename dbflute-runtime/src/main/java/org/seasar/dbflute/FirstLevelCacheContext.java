@@ -0,0 +1,89 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute;
+
+import org.seasar.dbflute.bhv.core.supplement.FirstLevelCache;
+
+/**
+ * The context of first-level cache, which is scoped by your transaction. <br />
+ * Begin it when your transaction begins and end it when your transaction ends (commit or rollback),
+ * e.g. in your transaction interceptor, then selectByPK() and selectByUniqueOf() in the scope
+ * return the cached entity selected before in the scope. <br />
+ * The cache of a table is invalidated when the table is updated or deleted by behavior,
+ * and all caches are invalidated by outside-SQL execution and procedure call.
+ * Updates by database triggers or cascade deletes are not tracked, so invalidate it yourself if needed.
+ * <pre>
+ * FirstLevelCacheContext.beginFirstLevelCacheOnThread();
+ * try {
+ *     ... (your transaction)
+ * } finally {
+ *     FirstLevelCache cache = FirstLevelCacheContext.endFirstLevelCacheOnThread();
+ *     log(cache); // e.g. {cached=3, hit=12, miss=3}
+ * }
+ * </pre>
+ * @author jflute
+ * @since 1.0.5K (2014/08/11 Monday)
+ */
+public class FirstLevelCacheContext {
+
+    // ===================================================================================
+    //                                                                        Thread Local
+    //                                                                        ============
+    /** The thread-local for this. */
+    protected static final ThreadLocal<FirstLevelCache> _threadLocal = new ThreadLocal<FirstLevelCache>();
+
+    /**
+     * Begin the scope of first-level cache on thread.
+     * @return The first-level cache of the scope. (NotNull)
+     * @exception IllegalStateException When the scope has already begun on the thread.
+     */
+    public static FirstLevelCache beginFirstLevelCacheOnThread() {
+        if (_threadLocal.get() != null) {
+            String msg = "The first-level cache has already begun on the thread: " + _threadLocal.get();
+            throw new IllegalStateException(msg);
+        }
+        final FirstLevelCache cache = new FirstLevelCache();
+        _threadLocal.set(cache);
+        return cache;
+    }
+
+    /**
+     * Get the first-level cache on thread.
+     * @return The first-level cache of current scope. (NullAllowed: when out of scope)
+     */
+    public static FirstLevelCache getFirstLevelCacheOnThread() {
+        return _threadLocal.get();
+    }
+
+    /**
+     * Is existing the first-level cache on thread?
+     * @return The determination, true or false.
+     */
+    public static boolean isExistFirstLevelCacheOnThread() {
+        return _threadLocal.get() != null;
+    }
+
+    /**
+     * End the scope of first-level cache on thread. <br />
+     * You should call this in finally block of your transaction.
+     * @return The ended first-level cache, e.g. to see hit count. (NullAllowed: when out of scope)
+     */
+    public static FirstLevelCache endFirstLevelCacheOnThread() {
+        final FirstLevelCache cache = _threadLocal.get();
+        _threadLocal.remove();
+        return cache;
+    }
+}
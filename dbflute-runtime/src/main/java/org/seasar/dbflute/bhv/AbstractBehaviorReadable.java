@@ -26,9 +26,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.seasar.dbflute.BehaviorSelector;
 import org.seasar.dbflute.Entity;
+import org.seasar.dbflute.FirstLevelCacheContext;
 import org.seasar.dbflute.bhv.core.BehaviorCommand;
 import org.seasar.dbflute.bhv.core.BehaviorCommandInvoker;
 import org.seasar.dbflute.bhv.core.command.AbstractBehaviorCommand;
@@ -38,8 +43,10 @@ import org.seasar.dbflute.bhv.core.command.SelectCountCBCommand;
 import org.seasar.dbflute.bhv.core.command.SelectCursorCBCommand;
 import org.seasar.dbflute.bhv.core.command.SelectListCBCommand;
 import org.seasar.dbflute.bhv.core.command.SelectNextValCommand;
+import org.seasar.dbflute.bhv.core.command.SelectNextValListCommand;
 import org.seasar.dbflute.bhv.core.command.SelectNextValSubCommand;
 import org.seasar.dbflute.bhv.core.command.SelectScalarCBCommand;
+import org.seasar.dbflute.bhv.core.supplement.FirstLevelCache;
 import org.seasar.dbflute.cbean.AndQuery;
 import org.seasar.dbflute.cbean.ConditionBean;
 import org.seasar.dbflute.cbean.EntityRowHandler;
@@ -49,6 +56,7 @@ import org.seasar.dbflute.cbean.PagingBean;
 import org.seasar.dbflute.cbean.PagingHandler;
 import org.seasar.dbflute.cbean.PagingInvoker;
 import org.seasar.dbflute.cbean.PagingResultBean;
+import org.seasar.dbflute.cbean.ParallelPagingHandler;
 import org.seasar.dbflute.cbean.ResultBeanBuilder;
 import org.seasar.dbflute.cbean.UnionQuery;
 import org.seasar.dbflute.cbean.chelper.HpFixedConditionQueryResolver;
@@ -56,14 +64,19 @@ import org.seasar.dbflute.cbean.chelper.HpSLSExecutor;
 import org.seasar.dbflute.cbean.chelper.HpSLSFunction;
 import org.seasar.dbflute.cbean.ckey.ConditionKey;
 import org.seasar.dbflute.cbean.coption.CursorSelectOption;
+import org.seasar.dbflute.cbean.sqlclause.SqlClause;
 import org.seasar.dbflute.cbean.sqlclause.clause.SelectClauseType;
 import org.seasar.dbflute.cbean.sqlclause.orderby.OrderByClause;
 import org.seasar.dbflute.cbean.sqlclause.orderby.OrderByElement;
+import org.seasar.dbflute.cbean.sqlclause.query.KeysetQueryClause;
+import org.seasar.dbflute.cbean.sqlclause.query.QueryUsedAliasInfo;
 import org.seasar.dbflute.dbmeta.DBMeta;
 import org.seasar.dbflute.dbmeta.info.ColumnInfo;
 import org.seasar.dbflute.dbmeta.info.ForeignInfo;
 import org.seasar.dbflute.dbmeta.info.ReferrerInfo;
 import org.seasar.dbflute.dbmeta.info.RelationInfo;
+import org.seasar.dbflute.dbmeta.info.UniqueInfo;
+import org.seasar.dbflute.dbmeta.name.ColumnRealName;
 import org.seasar.dbflute.exception.EntityAlreadyDeletedException;
 import org.seasar.dbflute.exception.FetchingOverSafetySizeException;
 import org.seasar.dbflute.exception.IllegalBehaviorStateException;
@@ -80,6 +93,7 @@ import org.seasar.dbflute.optional.OptionalObjectExceptionThrower;
 import org.seasar.dbflute.optional.RelationOptionalFactory;
 import org.seasar.dbflute.outsidesql.executor.OutsideSqlBasicExecutor;
 import org.seasar.dbflute.resource.DBFluteSystem;
+import org.seasar.dbflute.resource.InvocationContext;
 import org.seasar.dbflute.util.DfCollectionUtil;
 import org.seasar.dbflute.util.DfReflectionUtil;
 import org.seasar.dbflute.util.DfTypeUtil;
@@ -219,6 +233,33 @@ public abstract class AbstractBehaviorReadable<ENTITY extends Entity, CB extends
         return entity;
     }
 
+    /**
+     * Select the entity by the unique key, using the first-level cache if it exists on thread. <br />
+     * The selected entity is registered to the cache, and the cached one is returned in the same scope.
+     * @param <RESULT> The type of result entity.
+     * @param cb The condition-bean prepared for the unique key. (NotNull)
+     * @param entityType The type of result entity. (NotNull)
+     * @param uniqueInfo The info of unique key, e.g. primary key. (NotNull)
+     * @param uniqueValues The array of unique values, same order as unique columns. (NotNull)
+     * @return The selected entity. (NullAllowed: when not found)
+     */
+    protected <RESULT extends ENTITY> RESULT helpSelectEntityByUniqueCached(CB cb,
+            Class<? extends RESULT> entityType, UniqueInfo uniqueInfo, Object... uniqueValues) {
+        final FirstLevelCache cache = FirstLevelCacheContext.getFirstLevelCacheOnThread();
+        if (cache == null) { // out of scope
+            return doSelectEntity(cb, entityType);
+        }
+        final RESULT cached = cache.findEntity(uniqueInfo, uniqueValues, entityType);
+        if (cached != null) {
+            return cached;
+        }
+        final RESULT entity = doSelectEntity(cb, entityType);
+        if (entity != null) { // not-found is not cached because it may be inserted later
+            cache.registerEntity(uniqueInfo, uniqueValues, entity);
+        }
+        return entity;
+    }
+
     protected int xcheckSafetyResultAsOne(ConditionBean cb) {
         final int safetyMaxResultSize = cb.getSafetyMaxResultSize();
         cb.checkSafetyResult(1);
@@ -408,17 +449,25 @@ public abstract class AbstractBehaviorReadable<ENTITY extends Entity, CB extends
 
     protected <RESULT extends ENTITY> PagingHandler<RESULT> createPagingHandler(final CB cb,
             final Class<? extends RESULT> entityType) {
-        return new PagingHandler<RESULT>() {
+        return new ParallelPagingHandler<RESULT>() {
             public PagingBean getPagingBean() {
                 return cb;
             }
 
             public int count() {
+                return doCount(cb);
+            }
+
+            public int countByCopy(PagingBean copiedBean) { // in other thread when parallel paging
+                return doCount((ConditionBean) copiedBean);
+            }
+
+            protected int doCount(ConditionBean countCB) {
                 try {
-                    cb.getSqlClause().enablePagingAdjustment();
-                    return delegateSelectCountPlainly(cb);
+                    countCB.getSqlClause().enablePagingAdjustment();
+                    return delegateSelectCountPlainly(countCB);
                 } finally {
-                    cb.getSqlClause().disablePagingAdjustment();
+                    countCB.getSqlClause().disablePagingAdjustment();
                 }
             }
 
@@ -492,6 +541,10 @@ public abstract class AbstractBehaviorReadable<ENTITY extends Entity, CB extends
             EntityRowHandler<RESULT> entityRowHandler, Class<? extends RESULT> entityType, CursorSelectOption option) {
         helpSelectCursorCheckingByPagingAllowed(cb, option);
         helpSelectCursorCheckingOrderByPK(cb, option);
+        if (option.isKeyset()) {
+            helpSelectCursorHandlingByKeyset(cb, entityRowHandler, entityType, option);
+            return;
+        }
         final int pageSize = option.getPageSize();
         int pageNumber = 1;
         while (true) {
@@ -507,6 +560,76 @@ public abstract class AbstractBehaviorReadable<ENTITY extends Entity, CB extends
         }
     }
 
+    protected <RESULT extends ENTITY> void helpSelectCursorHandlingByKeyset(CB cb,
+            EntityRowHandler<RESULT> entityRowHandler, Class<? extends RESULT> entityType, CursorSelectOption option) {
+        final List<ColumnInfo> keyColumnList = new ArrayList<ColumnInfo>();
+        final List<Boolean> ascList = new ArrayList<Boolean>();
+        helpSelectCursorExtractKeysetOrderBy(cb, keyColumnList, ascList);
+        final SqlClause sqlClause = cb.getSqlClause();
+        final String basePointAliasName = sqlClause.getBasePointAliasName();
+        final List<ColumnRealName> keyRealNameList = new ArrayList<ColumnRealName>(keyColumnList.size());
+        for (ColumnInfo columnInfo : keyColumnList) {
+            keyRealNameList.add(ColumnRealName.create(basePointAliasName, columnInfo.getColumnSqlName()));
+        }
+        final int pageSize = option.getPageSize();
+        KeysetQueryClause keysetClause = null;
+        try {
+            while (true) {
+                cb.paging(pageSize, 1); // always first page with the condition of last key
+                List<RESULT> pageList = delegateSelectList(cb, entityType);
+                for (RESULT entity : pageList) {
+                    entityRowHandler.handle(entity);
+                }
+                if (pageList.size() < pageSize) { // means last page
+                    break;
+                }
+                if (keysetClause == null) { // first page done
+                    keysetClause = new KeysetQueryClause(sqlClause, keyRealNameList, ascList);
+                    sqlClause.registerWhereClause(keysetClause, new QueryUsedAliasInfo(basePointAliasName, null));
+                }
+                final RESULT lastEntity = pageList.get(pageList.size() - 1);
+                final List<Object> lastKeyValueList = new ArrayList<Object>(keyColumnList.size());
+                for (ColumnInfo columnInfo : keyColumnList) {
+                    lastKeyValueList.add(columnInfo.read(lastEntity));
+                }
+                keysetClause.acceptLastKey(lastKeyValueList);
+            }
+        } finally {
+            if (keysetClause != null) { // condition-bean can be reused
+                sqlClause.removeWhereClauseOnBaseQuery(keysetClause);
+                keysetClause.clearLastKey();
+            }
+        }
+    }
+
+    protected void helpSelectCursorExtractKeysetOrderBy(CB cb, List<ColumnInfo> keyColumnList, List<Boolean> ascList) {
+        if (cb.hasUnionQueryOrUnionAllQuery()) {
+            String msg = "The cursor select by keyset paging cannot use union: " + cb.getTableDbName();
+            throw new IllegalConditionBeanOperationException(msg);
+        }
+        final DBMeta dbmeta = cb.getDBMeta();
+        final List<ColumnInfo> pkList = dbmeta.getPrimaryUniqueInfo().getUniqueColumnList();
+        final String basePointAliasName = cb.getSqlClause().getBasePointAliasName();
+        final List<OrderByElement> orderByList = cb.getOrderByComponent().getOrderByList();
+        for (OrderByElement element : orderByList) {
+            if (keyColumnList.size() >= pkList.size()) { // all PK columns are found
+                break;
+            }
+            final ColumnInfo columnInfo = element.getColumnInfo();
+            if (columnInfo == null || !pkList.contains(columnInfo) || keyColumnList.contains(columnInfo)
+                    || !basePointAliasName.equals(element.getAliasName()) || element.getManualOrderBean() != null) {
+                break; // not keyset order-by
+            }
+            keyColumnList.add(columnInfo);
+            ascList.add(element.isAsc());
+        }
+        if (keyColumnList.size() < pkList.size()) {
+            String msg = "The cursor select by keyset paging needs order by all primary keys first:";
+            msg = msg + " table=" + cb.getTableDbName() + ", primaryKey=" + pkList + ", orderBy=" + orderByList;
+            throw new IllegalConditionBeanOperationException(msg);
+        }
+    }
+
     protected void helpSelectCursorCheckingByPagingAllowed(CB cb, CursorSelectOption option) {
         if (!cb.getSqlClause().isCursorSelectByPagingAllowed()) {
             String msg = "The cursor select by paging is not allowed at the DBMS.";
@@ -901,47 +1024,26 @@ public abstract class AbstractBehaviorReadable<ENTITY extends Entity, CB extends
             pkLocalEntityMap.put(toLoadReferrerMappingKey(primaryKeyValue), localEntity);
         }
 
-        // - - - - - - - - - - - - - - - -
-        // Prepare referrer condition bean
-        // - - - - - - - - - - - - - - - -
-        final REFERRER_CB cb;
-        if (loadReferrerOption.getReferrerConditionBean() != null) {
-            cb = loadReferrerOption.getReferrerConditionBean();
-        } else {
-            cb = callback.newMyCB();
-        }
-
         // - - - - - - - - - - - - - -
         // Select the list of referrer
         // - - - - - - - - - - - - - -
-        callback.qyFKIn(cb, pkList);
-        final String referrerPropertyName = callback.getRfPrNm();
-        final String fixedCondition = xbuildReferrerCorrelatedFixedCondition(cb, referrerPropertyName);
-        final String basePointAliasName = cb.getSqlClause().getBasePointAliasName();
-        final boolean hasFixedCondition = fixedCondition != null && fixedCondition.trim().length() > 0;
-        if (hasFixedCondition) {
-            cb.getSqlClause().registerWhereClause(fixedCondition, basePointAliasName);
+        final List<REFERRER_ENTITY> referrerList;
+        final int chunkSize = loadReferrerOption.getChunkSize();
+        if (chunkSize > 0 && loadReferrerOption.getReferrerConditionBean() != null) {
+            throwLoadReferrerChunkWithReferrerConditionBeanException(loadReferrerOption);
         }
-        cb.xregisterUnionQuerySynchronizer(new UnionQuery<ConditionBean>() {
-            public void query(ConditionBean unionCB) {
-                @SuppressWarnings("unchecked")
-                REFERRER_CB referrerUnionCB = (REFERRER_CB) unionCB;
-                // for when application uses union query in condition-bean set-upper.
-                callback.qyFKIn(referrerUnionCB, pkList);
-                if (hasFixedCondition) {
-                    referrerUnionCB.getSqlClause().registerWhereClause(fixedCondition, basePointAliasName);
-                }
+        if (chunkSize > 0 && pkList.size() > chunkSize) {
+            referrerList = xselectReferrerListByChunk(pkList, loadReferrerOption, callback, chunkSize);
+        } else { // basically here
+            final REFERRER_CB cb;
+            if (loadReferrerOption.getReferrerConditionBean() != null) {
+                cb = loadReferrerOption.getReferrerConditionBean();
+            } else {
+                cb = callback.newMyCB();
             }
-        });
-        if (pkList.size() > 1) {
-            callback.qyOdFKAsc(cb);
-            cb.getOrderByComponent().exchangeFirstOrderByElementForLastOne();
+            xsetupReferrerConditionBean(cb, pkList, loadReferrerOption, callback);
+            referrerList = callback.selRfLs(cb);
         }
-        loadReferrerOption.delegateConditionBeanSettingUp(cb);
-        if (cb.getSqlClause().hasSpecifiedSelectColumn(basePointAliasName)) {
-            callback.spFKCol(cb); // specify required columns for relation
-        }
-        final List<REFERRER_ENTITY> referrerList = callback.selRfLs(cb);
         loadReferrerOption.delegateEntitySettingUp(referrerList);
 
         // - - - - - - - - - - - - - - - - - - - - - - - -
@@ -990,6 +1092,112 @@ public abstract class AbstractBehaviorReadable<ENTITY extends Entity, CB extends
         };
     }
 
+    protected <LOCAL_ENTITY extends Entity, KEY, REFERRER_CB extends ConditionBean, REFERRER_ENTITY extends Entity> // generic
+    void xsetupReferrerConditionBean(REFERRER_CB cb, final List<KEY> pkList,
+            LoadReferrerOption<REFERRER_CB, REFERRER_ENTITY> loadReferrerOption,
+            final InternalLoadReferrerCallback<LOCAL_ENTITY, KEY, REFERRER_CB, REFERRER_ENTITY> callback) {
+        callback.qyFKIn(cb, pkList);
+        final String referrerPropertyName = callback.getRfPrNm();
+        final String fixedCondition = xbuildReferrerCorrelatedFixedCondition(cb, referrerPropertyName);
+        final String basePointAliasName = cb.getSqlClause().getBasePointAliasName();
+        final boolean hasFixedCondition = fixedCondition != null && fixedCondition.trim().length() > 0;
+        if (hasFixedCondition) {
+            cb.getSqlClause().registerWhereClause(fixedCondition, basePointAliasName);
+        }
+        cb.xregisterUnionQuerySynchronizer(new UnionQuery<ConditionBean>() {
+            public void query(ConditionBean unionCB) {
+                @SuppressWarnings("unchecked")
+                REFERRER_CB referrerUnionCB = (REFERRER_CB) unionCB;
+                // for when application uses union query in condition-bean set-upper.
+                callback.qyFKIn(referrerUnionCB, pkList);
+                if (hasFixedCondition) {
+                    referrerUnionCB.getSqlClause().registerWhereClause(fixedCondition, basePointAliasName);
+                }
+            }
+        });
+        if (pkList.size() > 1) {
+            callback.qyOdFKAsc(cb);
+            cb.getOrderByComponent().exchangeFirstOrderByElementForLastOne();
+        }
+        loadReferrerOption.delegateConditionBeanSettingUp(cb);
+        if (cb.getSqlClause().hasSpecifiedSelectColumn(basePointAliasName)) {
+            callback.spFKCol(cb); // specify required columns for relation
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                        Chunk Referrer
+    //                                        --------------
+    protected <LOCAL_ENTITY extends Entity, KEY, REFERRER_CB extends ConditionBean, REFERRER_ENTITY extends Entity> // generic
+    List<REFERRER_ENTITY> xselectReferrerListByChunk(List<KEY> pkList,
+            LoadReferrerOption<REFERRER_CB, REFERRER_ENTITY> loadReferrerOption,
+            final InternalLoadReferrerCallback<LOCAL_ENTITY, KEY, REFERRER_CB, REFERRER_ENTITY> callback, int chunkSize) {
+        // condition-beans are prepared in this thread because set-upper is application's process
+        // (keys are distinct so that each referrer belongs to only one chunk)
+        final List<KEY> distinctList = new ArrayList<KEY>(new LinkedHashSet<KEY>(pkList));
+        final List<REFERRER_CB> cbList = new ArrayList<REFERRER_CB>();
+        for (int i = 0; i < distinctList.size(); i = i + chunkSize) {
+            final int end = Math.min(i + chunkSize, distinctList.size());
+            final List<KEY> chunkList = new ArrayList<KEY>(distinctList.subList(i, end)); // copy for synchronizer
+            final REFERRER_CB cb = callback.newMyCB();
+            xsetupReferrerConditionBean(cb, chunkList, loadReferrerOption, callback);
+            cbList.add(cb);
+        }
+        final List<REFERRER_ENTITY> referrerList = new ArrayList<REFERRER_ENTITY>();
+        final Executor executor = loadReferrerOption.getChunkExecutor();
+        if (executor == null || cbList.size() == 1) {
+            for (REFERRER_CB cb : cbList) {
+                referrerList.addAll(callback.selRfLs(cb));
+            }
+            return referrerList;
+        }
+        final InvocationContext invocationContext = InvocationContext.capture(); // e.g. access context, callback
+        final List<FutureTask<List<REFERRER_ENTITY>>> taskList = new ArrayList<FutureTask<List<REFERRER_ENTITY>>>();
+        for (final REFERRER_CB cb : cbList) {
+            final FutureTask<List<REFERRER_ENTITY>> task = new FutureTask<List<REFERRER_ENTITY>>(
+                    invocationContext.wrap(new Callable<List<REFERRER_ENTITY>>() {
+                        public List<REFERRER_ENTITY> call() {
+                            return callback.selRfLs(cb);
+                        }
+                    }));
+            executor.execute(task);
+            taskList.add(task);
+        }
+        for (FutureTask<List<REFERRER_ENTITY>> task : taskList) { // merged in chunk order
+            referrerList.addAll(xwaitForChunkReferrerList(task));
+        }
+        return referrerList;
+    }
+
+    protected void throwLoadReferrerChunkWithReferrerConditionBeanException(
+            LoadReferrerOption<? extends ConditionBean, ? extends Entity> loadReferrerOption) {
+        // the original condition-bean cannot be split into chunks
+        String msg = "The chunk size cannot be used with the original instance of referrer condition-bean:";
+        msg = msg + " referrerCB=" + DfTypeUtil.toClassTitle(loadReferrerOption.getReferrerConditionBean());
+        msg = msg + " chunkSize=" + loadReferrerOption.getChunkSize();
+        throw new IllegalStateException(msg);
+    }
+
+    protected <REFERRER_ENTITY extends Entity> List<REFERRER_ENTITY> xwaitForChunkReferrerList(
+            FutureTask<List<REFERRER_ENTITY>> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            String msg = "Failed to select the chunk of referrer: table=" + getTableDbName();
+            throw new IllegalStateException(msg, cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String msg = "Interrupted while waiting for the chunk of referrer: table=" + getTableDbName();
+            throw new IllegalStateException(msg, e);
+        }
+    }
+
     protected String xbuildReferrerCorrelatedFixedCondition(ConditionBean cb, String referrerPropertyName) {
         if (referrerPropertyName == null) {
             return null;
@@ -1299,6 +1507,10 @@ public abstract class AbstractBehaviorReadable<ENTITY extends Entity, CB extends
         return invoke(createSelectNextValCommand(resultType));
     }
 
+    protected <RESULT> List<RESULT> delegateSelectNextValList(Class<RESULT> resultType, int count) {
+        return invoke(createSelectNextValListCommand(resultType, count));
+    }
+
     protected <RESULT> RESULT delegateSelectNextValSub(Class<RESULT> resultType, String columnDbName,
             String sequenceName, Integer incrementSize, Integer cacheSize) {
         return invoke(createSelectNextValSubCommand(resultType, columnDbName, sequenceName, incrementSize, cacheSize));
@@ -1396,6 +1608,22 @@ public abstract class AbstractBehaviorReadable<ENTITY extends Entity, CB extends
         return new SelectNextValCommand<RESULT>();
     }
 
+    protected <RESULT> SelectNextValListCommand<RESULT> createSelectNextValListCommand(Class<RESULT> resultType,
+            int count) {
+        assertBehaviorCommandInvoker("createSelectNextValListCommand");
+        final SelectNextValListCommand<RESULT> cmd = newSelectNextValListCommand();
+        xsetupSelectCommand(cmd);
+        cmd.setElementType(resultType);
+        cmd.setDBMeta(getDBMeta());
+        cmd.setSequenceCacheHandler(_behaviorCommandInvoker.getSequenceCacheHandler());
+        cmd.setCount(count);
+        return cmd;
+    }
+
+    protected <RESULT> SelectNextValListCommand<RESULT> newSelectNextValListCommand() {
+        return new SelectNextValListCommand<RESULT>();
+    }
+
     protected <RESULT> SelectNextValCommand<RESULT> createSelectNextValSubCommand(Class<RESULT> resultType,
             String columnDbName, String sequenceName, Integer incrementSize, Integer cacheSize) {
         assertBehaviorCommandInvoker("createSelectNextValCommand");
@@ -576,6 +576,104 @@ public abstract class AbstractBehaviorWritable<ENTITY extends Entity, CB extends
         }
     }
 
+    // -----------------------------------------------------
+    //                                       Batch Streaming
+    //                                       ---------------
+    /**
+     * Batch-insert the entities per the chunk size of the option while iterating them. <br />
+     * Only entities of the current chunk are held, so you can insert e.g. rows read from a file
+     * without building the whole list. Each chunk is executed as one batch-insert
+     * so executed chunks remain (in the transaction) when a later chunk fails. <br />
+     * Insert columns cannot be derived from the whole list here,
+     * so they should be specified by the option.
+     * <pre>
+     * InsertOption&lt;MemberCB&gt; option = new InsertOption&lt;MemberCB&gt;();
+     * option.chunkBatchInsert(1000);
+     * option.specify(...); <span style="color: #3F7E5E">// insert columns</span>
+     * doBatchInsertStreaming(memberIterable, option); <span style="color: #3F7E5E">// e.g. in your extended behavior</span>
+     * </pre>
+     * @param entities The iterable of entity for batch-insert. (NotNull)
+     * @param option The option of insert that has the chunk size and insert columns. (NotNull)
+     * @return The array of inserted count, merged for all chunks. (NotNull)
+     */
+    protected int[] doBatchInsertStreaming(Iterable<ENTITY> entities, InsertOption<CB> option) {
+        assertObjectNotNull("entities", entities);
+        assertObjectNotNull("option", option);
+        final int chunkSize = extractStreamingChunkSize(option.getBatchInsertChunkSize(), "chunkBatchInsert");
+        if (!option.hasSpecifiedInsertColumn()) {
+            String msg = "The insert columns should be specified by the option for batch streaming: " + option;
+            throw new IllegalArgumentException(msg);
+        }
+        final List<int[]> resultList = new ArrayList<int[]>();
+        List<ENTITY> chunkList = new ArrayList<ENTITY>(chunkSize);
+        for (ENTITY entity : entities) {
+            chunkList.add(entity);
+            if (chunkList.size() >= chunkSize) {
+                resultList.add(doBatchInsert(chunkList, option));
+                chunkList = new ArrayList<ENTITY>(chunkSize); // executed chunk is released
+            }
+        }
+        if (!chunkList.isEmpty()) {
+            resultList.add(doBatchInsert(chunkList, option));
+        }
+        return mergeBatchStreamingResult(resultList);
+    }
+
+    /**
+     * Batch-update the entities per the chunk size of the option while iterating them. <br />
+     * Only entities of the current chunk are held, and each chunk is executed as one batch-update
+     * (the optimistic lock is checked per chunk) so executed chunks remain when a later chunk fails. <br />
+     * Update columns cannot be derived from the whole list here,
+     * so they should be specified by the option.
+     * @param entities The iterable of entity for batch-update. (NotNull)
+     * @param option The option of update that has the chunk size and update columns. (NotNull)
+     * @return The array of updated count, merged for all chunks. (NotNull)
+     */
+    protected int[] doBatchUpdateStreaming(Iterable<ENTITY> entities, UpdateOption<CB> option) {
+        assertObjectNotNull("entities", entities);
+        assertObjectNotNull("option", option);
+        final int chunkSize = extractStreamingChunkSize(option.getBatchUpdateChunkSize(), "chunkBatchUpdate");
+        if (!option.hasSpecifiedUpdateColumn()) {
+            String msg = "The update columns should be specified by the option for batch streaming: " + option;
+            throw new IllegalArgumentException(msg);
+        }
+        final List<int[]> resultList = new ArrayList<int[]>();
+        List<ENTITY> chunkList = new ArrayList<ENTITY>(chunkSize);
+        for (ENTITY entity : entities) {
+            chunkList.add(entity);
+            if (chunkList.size() >= chunkSize) {
+                resultList.add(doBatchUpdate(chunkList, option));
+                chunkList = new ArrayList<ENTITY>(chunkSize); // executed chunk is released
+            }
+        }
+        if (!chunkList.isEmpty()) {
+            resultList.add(doBatchUpdate(chunkList, option));
+        }
+        return mergeBatchStreamingResult(resultList);
+    }
+
+    protected int extractStreamingChunkSize(Integer chunkSize, String optionMethod) {
+        if (chunkSize == null || chunkSize <= 0) {
+            String msg = "The chunk size should be set by " + optionMethod + "() for batch streaming: " + chunkSize;
+            throw new IllegalArgumentException(msg);
+        }
+        return chunkSize;
+    }
+
+    protected int[] mergeBatchStreamingResult(List<int[]> resultList) {
+        int size = 0;
+        for (int[] chunkResult : resultList) {
+            size = size + chunkResult.length;
+        }
+        final int[] result = new int[size];
+        int index = 0;
+        for (int[] chunkResult : resultList) {
+            System.arraycopy(chunkResult, 0, result, index, chunkResult.length);
+            index = index + chunkResult.length;
+        }
+        return result;
+    }
+
     // -----------------------------------------------------
     //                                          Batch Delete
     //                                          ------------
@@ -1139,6 +1237,34 @@ public abstract class AbstractBehaviorWritable<ENTITY extends Entity, CB extends
         dbmeta.getPrimaryUniqueInfo().getFirstColumn().write(entity, readNextVal());
     }
 
+    /**
+     * Inject sequence values to primary keys of the entities at once if it needs. <br />
+     * The values are reserved by one command (a few round trips) instead of each entity.
+     * @param entityList The list of entity for batch insert. (NotNull)
+     */
+    protected void injectSequenceToPrimaryKeyOfBatchIfNeeds(List<? extends Entity> entityList) {
+        final DBMeta dbmeta = getDBMeta();
+        if (!dbmeta.hasSequence() || dbmeta.hasCompoundPrimaryKey()) {
+            return;
+        }
+        final List<Entity> targetList = new ArrayList<Entity>();
+        for (Entity entity : entityList) {
+            if (entity != null && !entity.hasPrimaryKeyValue()) {
+                targetList.add(entity);
+            }
+        }
+        if (targetList.size() <= 1) { // injected at each process as normally
+            return;
+        }
+        final ColumnInfo columnInfo = dbmeta.getPrimaryUniqueInfo().getFirstColumn();
+        final List<?> nextValList = delegateSelectNextValList(columnInfo.getObjectNativeType(), targetList.size());
+        int index = 0;
+        for (Entity entity : targetList) {
+            columnInfo.write(entity, nextValList.get(index));
+            ++index;
+        }
+    }
+
     protected void assertEntityHasOptimisticLockValue(Entity entity) {
         assertEntityHasVersionNoValue(entity);
         assertEntityHasUpdateDateValue(entity);
@@ -1178,6 +1304,7 @@ public abstract class AbstractBehaviorWritable<ENTITY extends Entity, CB extends
     protected <ELEMENT extends Entity> List<ELEMENT> processBatchInternally(List<ELEMENT> entityList,
             InsertOption<? extends ConditionBean> option) {
         assertObjectNotNull("entityList", entityList);
+        injectSequenceToPrimaryKeyOfBatchIfNeeds(entityList);
         final List<ELEMENT> filteredList = new ArrayList<ELEMENT>();
         for (ELEMENT entity : entityList) {
             if (!processBeforeInsert(entity, option)) {
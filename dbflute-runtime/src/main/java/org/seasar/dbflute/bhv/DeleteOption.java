@@ -33,6 +33,7 @@ public class DeleteOption<CB extends ConditionBean> implements WritableOption<CB
     protected boolean _nonQueryDeleteAllowed;
     protected boolean _queryDeleteForcedDirectAllowed;
     protected Integer _batchLoggingDeleteLimit;
+    protected Integer _batchDeleteChunkSize;
     protected StatementConfig _deleteStatementConfig;
 
     // ===================================================================================
@@ -91,6 +92,25 @@ public class DeleteOption<CB extends ConditionBean> implements WritableOption<CB
         return _batchLoggingDeleteLimit;
     }
 
+    // ===================================================================================
+    //                                                                         Batch Chunk
+    //                                                                         ===========
+    /**
+     * Execute batch-delete per the chunk size. <br />
+     * For example, if you set 1000, the batch statement is executed per 1000 records
+     * (in the same transaction) to avoid too large driver buffers. <br />
+     * An optimistic lock is checked per chunk, and synchronized values of entities are
+     * updated once after all chunks succeed (same as no chunk).
+     * @param batchDeleteChunkSize The size of chunk for batch-delete. (NullAllowed: if null and minus, means no chunk)
+     */
+    public void chunkBatchDelete(Integer batchDeleteChunkSize) {
+        _batchDeleteChunkSize = batchDeleteChunkSize;
+    }
+
+    public Integer getBatchDeleteChunkSize() {
+        return _batchDeleteChunkSize;
+    }
+
     // ===================================================================================
     //                                                                           Configure
     //                                                                           =========
@@ -60,6 +60,7 @@ public class InsertOption<CB extends ConditionBean> implements WritableOption<CB
     protected boolean _disableCommonColumnAutoSetup;
     protected boolean _disablePrimaryKeyIdentity;
     protected Integer _batchInsertLoggingLimit;
+    protected Integer _batchInsertChunkSize;
     protected StatementConfig _insertStatementConfig;
 
     // ===================================================================================
@@ -418,6 +419,26 @@ public class InsertOption<CB extends ConditionBean> implements WritableOption<CB
         return _batchInsertLoggingLimit;
     }
 
+    // ===================================================================================
+    //                                                                         Batch Chunk
+    //                                                                         ===========
+    /**
+     * Execute batch-insert per the chunk size. <br />
+     * For example, if you set 1000, the batch statement is executed per 1000 records
+     * (in the same transaction) to avoid too large driver buffers. <br />
+     * An optimistic lock is checked per chunk, and synchronized values of entities are
+     * updated once after all chunks succeed (same as no chunk). <br />
+     * The batch streaming of behavior (from iterable) requires this size and iterates entities per the size.
+     * @param batchInsertChunkSize The size of chunk for batch-insert. (NullAllowed: if null and minus, means no chunk)
+     */
+    public void chunkBatchInsert(Integer batchInsertChunkSize) {
+        _batchInsertChunkSize = batchInsertChunkSize;
+    }
+
+    public Integer getBatchInsertChunkSize() {
+        return _batchInsertChunkSize;
+    }
+
     // ===================================================================================
     //                                                                           Configure
     //                                                                           =========
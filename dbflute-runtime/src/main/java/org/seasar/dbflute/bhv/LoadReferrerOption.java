@@ -16,6 +16,7 @@
 package org.seasar.dbflute.bhv;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.seasar.dbflute.Entity;
 import org.seasar.dbflute.cbean.ConditionBean;
@@ -36,6 +37,8 @@ public class LoadReferrerOption<REFERRER_CB extends ConditionBean, REFERRER_ENTI
     protected ConditionBeanSetupper<REFERRER_CB> _conditionBeanSetupper;
     protected EntityListSetupper<REFERRER_ENTITY> _entityListSetupper;
     protected REFERRER_CB _referrerConditionBean;
+    protected int _chunkSize; // zero means no chunk
+    protected Executor _chunkExecutor; // null means sequential
 
     // ===================================================================================
     //                                                                         Constructor
@@ -191,4 +194,37 @@ public class LoadReferrerOption<REFERRER_CB extends ConditionBean, REFERRER_ENTI
     public void setReferrerConditionBean(REFERRER_CB referrerConditionBean) {
         this._referrerConditionBean = referrerConditionBean;
     }
+
+    public int getChunkSize() {
+        return _chunkSize;
+    }
+
+    /**
+     * Set the size of chunk to split local keys for the IN condition of referrer. <br />
+     * The referrer is selected per chunk (IN list of distinct keys, the last chunk may be smaller)
+     * and the results are merged in chunk order, e.g. for the limit of IN elements or bind parameters on DBMS. <br />
+     * It cannot be used with the original instance of condition-bean (exception when loading).
+     * @param chunkSize The size of chunk. (NotMinus: zero means no chunk)
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 0) {
+            String msg = "The argument 'chunkSize' should not be minus: " + chunkSize;
+            throw new IllegalArgumentException(msg);
+        }
+        _chunkSize = chunkSize;
+    }
+
+    public Executor getChunkExecutor() {
+        return _chunkExecutor;
+    }
+
+    /**
+     * Set the executor to select chunks in parallel. (only when chunk size is specified) <br />
+     * Each chunk is selected on the executor's thread with the thread-bound contexts of the caller
+     * (e.g. access context, callback context) but by its own connection, so it is out of the caller's transaction.
+     * @param chunkExecutor The executor for chunks, e.g. thread pool. (NullAllowed: if null, sequential)
+     */
+    public void setChunkExecutor(Executor chunkExecutor) {
+        _chunkExecutor = chunkExecutor;
+    }
 }
@@ -69,6 +69,7 @@ public class UpdateOption<CB extends ConditionBean> implements WritableOption<CB
     protected boolean _nonQueryUpdateAllowed;
     protected boolean _queryUpdateForcedDirectAllowed;
     protected Integer _batchLoggingUpdateLimit;
+    protected Integer _batchUpdateChunkSize;
     protected StatementConfig _updateStatementConfig;
 
     // ===================================================================================
@@ -655,6 +656,26 @@ public class UpdateOption<CB extends ConditionBean> implements WritableOption<CB
         return _batchLoggingUpdateLimit;
     }
 
+    // ===================================================================================
+    //                                                                         Batch Chunk
+    //                                                                         ===========
+    /**
+     * Execute batch-update per the chunk size. <br />
+     * For example, if you set 1000, the batch statement is executed per 1000 records
+     * (in the same transaction) to avoid too large driver buffers. <br />
+     * An optimistic lock is checked per chunk, and synchronized values of entities are
+     * updated once after all chunks succeed (same as no chunk). <br />
+     * The batch streaming of behavior (from iterable) requires this size and iterates entities per the size.
+     * @param batchUpdateChunkSize The size of chunk for batch-update. (NullAllowed: if null and minus, means no chunk)
+     */
+    public void chunkBatchUpdate(Integer batchUpdateChunkSize) {
+        _batchUpdateChunkSize = batchUpdateChunkSize;
+    }
+
+    public Integer getBatchUpdateChunkSize() {
+        return _batchUpdateChunkSize;
+    }
+
     // ===================================================================================
     //                                                                           Configure
     //                                                                           =========
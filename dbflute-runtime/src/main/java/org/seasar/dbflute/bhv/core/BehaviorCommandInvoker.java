@@ -16,27 +16,43 @@
 package org.seasar.dbflute.bhv.core;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.seasar.dbflute.CallbackContext;
 import org.seasar.dbflute.DBDef;
 import org.seasar.dbflute.Entity;
+import org.seasar.dbflute.FirstLevelCacheContext;
 import org.seasar.dbflute.XLog;
+import org.seasar.dbflute.bhv.BehaviorReadable;
 import org.seasar.dbflute.bhv.core.InvokerAssistant.DisposableProcess;
+import org.seasar.dbflute.bhv.core.supplement.FirstLevelCache;
 import org.seasar.dbflute.bhv.core.supplement.SequenceCacheHandler;
+import org.seasar.dbflute.bhv.core.supplement.TwoWaySqlNodeCache;
 import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeNameExtractor;
 import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeNameResult;
 import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokePathBuilder;
 import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokePathResult;
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeSiteCache;
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeSiteCache.CapturedInvoke;
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeSiteCache.InvokeSiteKey;
 import org.seasar.dbflute.bhv.logging.result.BehaviorResultBuilder;
 import org.seasar.dbflute.cbean.FetchAssistContext;
 import org.seasar.dbflute.cbean.FetchNarrowingBean;
+import org.seasar.dbflute.cbean.chelper.HpInvokingMethodCache;
 import org.seasar.dbflute.dbmeta.DBMeta;
 import org.seasar.dbflute.exception.SQLFailureException;
 import org.seasar.dbflute.exception.handler.SQLExceptionResource;
 import org.seasar.dbflute.exception.thrower.BehaviorExceptionThrower;
+import org.seasar.dbflute.helper.stacktrace.StackTraceCapturer;
 import org.seasar.dbflute.jdbc.ExecutionTimeInfo;
 import org.seasar.dbflute.jdbc.SQLExceptionDigger;
 import org.seasar.dbflute.jdbc.SqlLogInfo;
@@ -50,6 +66,7 @@ import org.seasar.dbflute.outsidesql.factory.OutsideSqlExecutorFactory;
 import org.seasar.dbflute.resource.DBFluteSystem;
 import org.seasar.dbflute.resource.InternalMapContext;
 import org.seasar.dbflute.resource.InternalMapContext.InvokePathProvider;
+import org.seasar.dbflute.resource.InvocationContext;
 import org.seasar.dbflute.resource.ResourceContext;
 import org.seasar.dbflute.util.DfTraceViewUtil;
 import org.seasar.dbflute.util.DfTypeUtil;
@@ -62,6 +79,9 @@ import org.seasar.dbflute.util.Srl;
  *   o clearExecutionCache();
  *   o isExecutionCacheEmpty();
  *   o getExecutionCacheSize();
+ *   o getTwoWaySqlNodeCache();
+ *   o getInvokeSiteCache();
+ *   o warmUpCommandParallel(List behaviorList, Executor executor);
  *   o injectComponentProperty(BehaviorCommandComponentSetup behaviorCommand);
  *   o invoke(BehaviorCommand behaviorCommand);
  *   o createOutsideSqlBasicExecutor(String tableDbName);
@@ -89,6 +109,27 @@ public class BehaviorCommandInvoker {
     /** The lock object to synchronize the execution map for transaction. (NotNull) */
     protected final Object _executionCacheLock = new Object();
 
+    /** The generation of execution cache, incremented by clearing. (synchronized by the cache lock) */
+    protected long _executionCacheGeneration;
+
+    /** The map of SQL execution under creation, which guarantees one creation per key. (NotNull) */
+    protected final ConcurrentMap<String, FutureTask<SqlExecution>> _executionCreationMap = newConcurrentHashMap();
+
+    /** The cache of analyzed nodes for ConditionBean's two-way SQL. (dispose target, NotNull) */
+    protected final TwoWaySqlNodeCache _twoWaySqlNodeCache = createTwoWaySqlNodeCache();
+
+    // -----------------------------------------------------
+    //                                    Invocation Logging
+    //                                    ------------------
+    /** The capturer of head frames for lazy invoke-path capture. (NotNull) */
+    protected final StackTraceCapturer _stackTraceCapturer = createStackTraceCapturer();
+
+    /** The cache of invocation per call site for lazy invoke-path capture. (dispose target, NotNull) */
+    protected final BehaviorInvokeSiteCache _invokeSiteCache = createBehaviorInvokeSiteCache();
+
+    /** The count of invocation logging chances for sampling. (NotNull) */
+    protected final AtomicLong _invocationLogCount = new AtomicLong();
+
     // -----------------------------------------------------
     //                                    Disposable Process
     //                                    ------------------
@@ -111,7 +152,12 @@ public class BehaviorCommandInvoker {
         // basically should be called only for special case (e.g. HotDeploy)
         synchronized (_executionCacheLock) {
             _executionMap.clear();
+            ++_executionCacheGeneration; // creating executions are not registered in the map after it
         }
+        _executionCreationMap.clear();
+        _twoWaySqlNodeCache.clear();
+        _invokeSiteCache.clear(); // line numbers of frames may be changed
+        HpInvokingMethodCache.getSharedCache().clear(); // methods of condition-beans may be reloaded
     }
 
     public boolean isExecutionCacheEmpty() {
@@ -122,6 +168,74 @@ public class BehaviorCommandInvoker {
         return _executionMap.size();
     }
 
+    // ===================================================================================
+    //                                                                          Node Cache
+    //                                                                          ==========
+    protected TwoWaySqlNodeCache createTwoWaySqlNodeCache() {
+        return new TwoWaySqlNodeCache();
+    }
+
+    /**
+     * Get the cache of analyzed nodes for ConditionBean's two-way SQL. {Public Interface} <br />
+     * You can change its limit sizes, and see statistics (hit/miss count) of the cache.
+     * @return The cache instance. (NotNull)
+     */
+    public TwoWaySqlNodeCache getTwoWaySqlNodeCache() {
+        return _twoWaySqlNodeCache;
+    }
+
+    // ===================================================================================
+    //                                                                             Warm up
+    //                                                                             =======
+    /**
+     * Warm up commands of the behaviors in parallel by the executor. {Public Interface} <br />
+     * The warm-up of each behavior is the same as BehaviorReadable.warmUpCommand(),
+     * and SQL executions of different keys are initialized concurrently. <br />
+     * This method waits for all warm-ups and throws the first failure after that.
+     * @param behaviorList The list of behavior to be warmed up. (NotNull)
+     * @param executor The executor to run each warm-up, e.g. thread pool. (NotNull)
+     */
+    public void warmUpCommandParallel(List<? extends BehaviorReadable> behaviorList, Executor executor) {
+        if (behaviorList == null) {
+            throw new IllegalArgumentException("The argument 'behaviorList' should not be null.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("The argument 'executor' should not be null.");
+        }
+        final List<FutureTask<Void>> taskList = new ArrayList<FutureTask<Void>>(behaviorList.size());
+        for (final BehaviorReadable bhv : behaviorList) {
+            final FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+                public void run() {
+                    bhv.warmUpCommand();
+                }
+            }, null);
+            executor.execute(task);
+            taskList.add(task);
+        }
+        Throwable firstCause = null;
+        for (FutureTask<Void> task : taskList) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                if (firstCause == null) {
+                    firstCause = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                String msg = "Interrupted while waiting for the warm-up of behaviors.";
+                throw new IllegalStateException(msg, e);
+            }
+        }
+        if (firstCause != null) {
+            if (firstCause instanceof RuntimeException) {
+                throw (RuntimeException) firstCause;
+            } else if (firstCause instanceof Error) {
+                throw (Error) firstCause;
+            }
+            throw new IllegalStateException("Failed to warm up the behaviors.", firstCause);
+        }
+    }
+
     // ===================================================================================
     //                                                                      Command Set up
     //                                                                      ==============
@@ -155,17 +269,19 @@ public class BehaviorCommandInvoker {
     public <RESULT> RESULT invoke(BehaviorCommand<RESULT> behaviorCommand) {
         RuntimeException cause = null;
         RESULT result = null;
+        InvocationContext savedContext = null; // not null only when recursive call
         try {
             final ResourceContext parentContext = getParentContext();
-            initializeContext();
+            savedContext = initializeContext(parentContext);
             setupResourceContext(behaviorCommand, parentContext);
             processBeforeHook(behaviorCommand);
             result = dispatchInvoking(behaviorCommand);
         } catch (RuntimeException e) {
             cause = e;
         } finally {
+            invalidateFirstLevelCacheIfNeeds(behaviorCommand); // also when failed, e.g. partially updated
             processFinallyHook(behaviorCommand, cause);
-            closeContext();
+            closeContext(savedContext);
         }
         if (cause != null) {
             throw cause;
@@ -183,12 +299,25 @@ public class BehaviorCommandInvoker {
         resourceContext.setDBMetaProvider(_invokerAssistant.assistDBMetaProvider());
         resourceContext.setSqlClauseCreator(_invokerAssistant.assistSqlClauseCreator());
         resourceContext.setSqlAnalyzerFactory(_invokerAssistant.assistSqlAnalyzerFactory());
+        resourceContext.setTwoWaySqlNodeCache(_twoWaySqlNodeCache);
         resourceContext.setSQLExceptionHandlerFactory(_invokerAssistant.assistSQLExceptionHandlerFactory());
         resourceContext.setGearedCipherManager(_invokerAssistant.assistGearedCipherManager());
         resourceContext.setResourceParameter(_invokerAssistant.assistResourceParameter());
         ResourceContext.setResourceContextOnThread(resourceContext);
     }
 
+    protected <RESULT> void invalidateFirstLevelCacheIfNeeds(BehaviorCommand<RESULT> behaviorCommand) {
+        final FirstLevelCache cache = FirstLevelCacheContext.getFirstLevelCacheOnThread();
+        if (cache == null || behaviorCommand.isInitializeOnly() || behaviorCommand.isSelect()) {
+            return;
+        }
+        if (behaviorCommand.isOutsideSql() || behaviorCommand.isProcedure()) { // unknown tables
+            cache.invalidateAll();
+        } else if (!behaviorCommand.isInsert()) { // inserted rows cannot be cached yet
+            cache.invalidateTable(behaviorCommand.getTableDbName());
+        }
+    }
+
     protected <RESULT> void processBeforeHook(BehaviorCommand<RESULT> behaviorCommand) {
         if (!CallbackContext.isExistBehaviorCommandHookOnThread()) {
             return;
@@ -358,7 +487,7 @@ public class BehaviorCommandInvoker {
             }
             return execution;
         } finally {
-            if (logEnabled) {
+            if (logEnabled && isInvocationLogSampled()) {
                 logInvocation(behaviorCommand, false);
             }
             readyInvokePath(behaviorCommand);
@@ -385,35 +514,94 @@ public class BehaviorCommandInvoker {
     }
 
     /**
-     * Get SQL-execution that may be created if it does not exist.
+     * Get SQL-execution that may be created if it does not exist. <br />
+     * Executions of different keys can be created concurrently,
+     * and the execution of the same key is created only once. (others wait for it)
      * @param key The key of SQL-execution. (NotNull)
      * @param executionCreator The creator of SQL-execution. (NotNull)
      * @return The SQL-execution that may be created then. (NotNull)
      */
-    protected SqlExecution getOrCreateSqlExecution(String key, SqlExecutionCreator executionCreator) {
-        SqlExecution execution = null;
-        synchronized (_executionCacheLock) {
-            execution = getSqlExecution(key);
-            if (execution != null) {
-                // previous thread might have initialized
-                // or reading might failed by same-time writing
-                return execution;
+    protected SqlExecution getOrCreateSqlExecution(final String key, final SqlExecutionCreator executionCreator) {
+        final SqlExecution existing = getSqlExecution(key);
+        if (existing != null) {
+            return existing;
+        }
+        final FutureTask<SqlExecution> task = new FutureTask<SqlExecution>(new Callable<SqlExecution>() {
+            public SqlExecution call() {
+                return createSqlExecution(key, executionCreator);
+            }
+        });
+        final FutureTask<SqlExecution> creating = _executionCreationMap.putIfAbsent(key, task);
+        final boolean creator = creating == null;
+        final SqlExecution execution;
+        try {
+            if (creator) {
+                task.run();
             }
-            if (isLogEnabled()) {
-                log("...Initializing sqlExecution for the key '" + key + "'");
+            execution = waitForSqlExecution(key, creator ? task : creating);
+        } finally {
+            if (creator) {
+                _executionCreationMap.remove(key, task); // also when failure to retry later
             }
-            execution = executionCreator.createSqlExecution();
-            _executionMap.put(key, execution);
         }
+        if (creator) {
+            toBeDisposable(); // for HotDeploy
+        }
+        return execution;
+    }
+
+    protected SqlExecution createSqlExecution(String key, SqlExecutionCreator executionCreator) {
+        final SqlExecution existing = getSqlExecution(key);
+        if (existing != null) {
+            // previous thread might have initialized
+            // or reading might failed by same-time writing
+            return existing;
+        }
+        if (isLogEnabled()) {
+            log("...Initializing sqlExecution for the key '" + key + "'");
+        }
+        final long generation = getExecutionCacheGeneration();
+        final SqlExecution execution = executionCreator.createSqlExecution();
         if (execution == null) {
             String msg = "sqlExecutionCreator.createSqlCommand() should not return null:";
             msg = msg + " sqlExecutionCreator=" + executionCreator + " key=" + key;
             throw new IllegalStateException(msg);
         }
-        toBeDisposable(); // for HotDeploy
+        synchronized (_executionCacheLock) {
+            if (generation == _executionCacheGeneration) {
+                _executionMap.put(key, execution);
+            }
+            // else: the cache has been cleared while creating (e.g. HotDeploy)
+            // so the execution is used only by this invocation, not registered
+        }
         return execution;
     }
 
+    protected long getExecutionCacheGeneration() {
+        synchronized (_executionCacheLock) {
+            return _executionCacheGeneration;
+        }
+    }
+
+    protected SqlExecution waitForSqlExecution(String key, FutureTask<SqlExecution> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            String msg = "Failed to create the SQL execution: key=" + key;
+            throw new IllegalStateException(msg, cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String msg = "Interrupted while waiting for the SQL execution: key=" + key;
+            throw new IllegalStateException(msg, e);
+        }
+    }
+
     protected Object executeSql(SqlExecution execution, Object[] args) {
         return execution.execute(args);
     }
@@ -431,11 +619,18 @@ public class BehaviorCommandInvoker {
     //                                                                      Log Invocation
     //                                                                      ==============
     protected <RESULT> void logInvocation(BehaviorCommand<RESULT> behaviorCommand, boolean saveOnly) {
-        final StackTraceElement[] stackTrace = new Exception().getStackTrace();
-        final BehaviorInvokeNameResult behaviorInvokeNameResult = extractBehaviorInvoke(behaviorCommand, stackTrace);
+        final BehaviorInvokeNameResult behaviorInvokeNameResult;
+        final BehaviorInvokePathResult invokePathResult;
+        if (ResourceContext.isLazyInvokePathCapture()) {
+            final CapturedInvoke capturedInvoke = captureInvokeLazily(behaviorCommand);
+            behaviorInvokeNameResult = capturedInvoke.getBehaviorInvokeNameResult();
+            invokePathResult = capturedInvoke.getInvokePathResult();
+        } else {
+            final StackTraceElement[] stackTrace = new Exception().getStackTrace();
+            behaviorInvokeNameResult = extractBehaviorInvoke(behaviorCommand, stackTrace);
+            invokePathResult = buildInvokePath(behaviorCommand, stackTrace, behaviorInvokeNameResult);
+        }
         saveBehaviorInvokeName(behaviorInvokeNameResult);
-        final BehaviorInvokePathResult invokePathResult = buildInvokePath(behaviorCommand, stackTrace,
-                behaviorInvokeNameResult);
         if (invokePathResult != null) {
             saveClientInvokeName(invokePathResult);
             saveByPassInvokeName(invokePathResult);
@@ -469,6 +664,58 @@ public class BehaviorCommandInvoker {
         }
     }
 
+    protected boolean isInvocationLogSampled() {
+        final int interval = ResourceContext.getInvocationLogSamplingInterval();
+        if (interval <= 1) { // no sampling
+            return true;
+        }
+        return _invocationLogCount.getAndIncrement() % interval == 0;
+    }
+
+    // -----------------------------------------------------
+    //                                   Lazy Invoke Capture
+    //                                   -------------------
+    protected StackTraceCapturer createStackTraceCapturer() {
+        // behavior (max 25 frames) and client (max 20 frames after behavior) with margin
+        return new StackTraceCapturer(64);
+    }
+
+    protected BehaviorInvokeSiteCache createBehaviorInvokeSiteCache() {
+        return new BehaviorInvokeSiteCache();
+    }
+
+    /**
+     * Get the cache of invocation per call site for lazy invoke-path capture. {Public Interface}
+     * @return The cache instance. (NotNull)
+     */
+    public BehaviorInvokeSiteCache getInvokeSiteCache() {
+        return _invokeSiteCache;
+    }
+
+    protected <RESULT> CapturedInvoke captureInvokeLazily(BehaviorCommand<RESULT> behaviorCommand) {
+        final StackTraceElement[] frames = _stackTraceCapturer.capture(); // only head frames
+        Class<?> outsideSqlResultType = null;
+        boolean outsideSqlAutoPaging = false;
+        if (behaviorCommand.isOutsideSql()) {
+            final OutsideSqlContext outsideSqlContext = getOutsideSqlContext();
+            outsideSqlResultType = outsideSqlContext.getResultType();
+            outsideSqlAutoPaging = outsideSqlContext.isAutoPagingLogging();
+        }
+        final String tableDbName = behaviorCommand.getTableDbName();
+        final InvokeSiteKey siteKey = new InvokeSiteKey(tableDbName, outsideSqlResultType, outsideSqlAutoPaging,
+                frames);
+        final CapturedInvoke cached = _invokeSiteCache.findCapturedInvoke(siteKey);
+        if (cached != null) {
+            return cached;
+        }
+        final BehaviorInvokeNameResult behaviorInvokeNameResult = extractBehaviorInvoke(behaviorCommand, frames);
+        final BehaviorInvokePathResult invokePathResult = buildInvokePath(behaviorCommand, frames,
+                behaviorInvokeNameResult);
+        final CapturedInvoke capturedInvoke = new CapturedInvoke(behaviorInvokeNameResult, invokePathResult);
+        _invokeSiteCache.registerCapturedInvoke(siteKey, capturedInvoke);
+        return capturedInvoke;
+    }
+
     // -----------------------------------------------------
     //                                Extract BehaviorInvoke
     //                                ----------------------
@@ -589,24 +836,29 @@ public class BehaviorCommandInvoker {
     //                                                                      Context Helper
     //                                                                      ==============
     protected ResourceContext getParentContext() {
-        if (isRecursiveInvoking()) {
-            return ResourceContext.getResourceContextOnThread();
-        }
-        return null;
+        return ResourceContext.getResourceContextOnThread(); // not null only when recursive invoking
     }
 
-    protected void initializeContext() {
-        if (isRecursiveInvoking()) {
-            saveAllContextOnThread();
+    /**
+     * Initialize the contexts on thread for the invoking.
+     * @param parentContext The resource context of the parent invoking. (NullAllowed: when not recursive)
+     * @return The saved contexts of the parent invoking. (NullAllowed: when not recursive)
+     */
+    protected InvocationContext initializeContext(ResourceContext parentContext) {
+        if (parentContext == null) { // mainly here
+            // no clear because contexts are always cleared when the previous invoking is closed
+            return null;
         }
+        final InvocationContext savedContext = saveAllContextOnThread();
         clearAllCurrentContext();
+        return savedContext;
     }
 
-    protected boolean isRecursiveInvoking() { // should be called before initialization
-        return ResourceContext.isExistResourceContextOnThread();
-    }
-
-    protected void closeContext() {
+    /**
+     * Close the contexts on thread for the invoking.
+     * @param savedContext The saved contexts of the parent invoking. (NullAllowed: when not recursive)
+     */
+    protected void closeContext(InvocationContext savedContext) {
         if (FetchAssistContext.isExistFetchNarrowingBeanOnThread()) {
             // /- - - - - - - - - - - - - - - - - - - - - - - - - - - -
             // Because there is possible that fetch narrowing has been
@@ -615,20 +867,23 @@ public class BehaviorCommandInvoker {
             final FetchNarrowingBean fnbean = FetchAssistContext.getFetchNarrowingBeanOnThread();
             fnbean.xenableIgnoredFetchNarrowing();
         }
-        clearAllCurrentContext();
-        restoreAllContextOnThreadIfExists();
+        if (savedContext != null) { // recursive invoking
+            restoreAllContextOnThread(savedContext); // overrides or clears current contexts
+        } else {
+            clearAllCurrentContext();
+        }
     }
 
-    protected void saveAllContextOnThread() {
-        ContextStack.saveAllContextOnThread();
+    protected InvocationContext saveAllContextOnThread() {
+        return InvocationContext.saveInvoking();
     }
 
-    protected void restoreAllContextOnThreadIfExists() {
-        ContextStack.restoreAllContextOnThreadIfExists();
+    protected void restoreAllContextOnThread(InvocationContext savedContext) {
+        savedContext.restoreInvoking();
     }
 
     protected void clearAllCurrentContext() {
-        ContextStack.clearAllCurrentContext();
+        InvocationContext.clearInvoking();
     }
 
     protected OutsideSqlContext getOutsideSqlContext() {
@@ -15,9 +15,6 @@
  */
 package org.seasar.dbflute.bhv.core;
 
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
 import java.util.Stack;
 
 import org.seasar.dbflute.Entity;
@@ -34,7 +31,9 @@ import org.seasar.dbflute.resource.ResourceContext;
  * The context stack for all context.
  * @author jflute
  * @since 0.9.6.5 (2010/02/05 Friday)
+ * @deprecated The invoker saves the contexts of recursive invoking by InvocationContext since 1.0.5K.
  */
+@Deprecated
 public class ContextStack {
 
     // ===================================================================================
@@ -89,7 +88,8 @@ public class ContextStack {
             contextStack.setFetchBean(FetchAssistContext.getFetchBeanOnThread());
         }
         if (InternalMapContext.isExistInternalMapContextOnThread()) {
-            contextStack.setInternalMap(InternalMapContext.internalMap());
+            // copied because the context instance is pooled per thread
+            contextStack.setInternalMapContext(InternalMapContext.copyInternalMapContextOnThread());
         }
         if (ResourceContext.isExistResourceContextOnThread()) {
             contextStack.setResourceContext(ResourceContext.getResourceContextOnThread());
@@ -123,13 +123,9 @@ public class ContextStack {
         if (fetchBean != null) {
             FetchAssistContext.setFetchBeanOnThread(fetchBean);
         }
-        final Map<String, Object> internalMap = contextStack.getInternalMap();
-        if (internalMap != null) {
-            InternalMapContext.clearInternalMapContextOnThread();
-            final Set<Entry<String, Object>> entrySet = internalMap.entrySet();
-            for (Entry<String, Object> entry : entrySet) {
-                InternalMapContext.setObject(entry.getKey(), entry.getValue());
-            }
+        final InternalMapContext internalMapContext = contextStack.getInternalMapContext();
+        if (internalMapContext != null) {
+            InternalMapContext.restoreInternalMapContextOnThread(internalMapContext);
         }
         final ResourceContext resourceContext = contextStack.getResourceContext();
         if (resourceContext != null) {
@@ -165,7 +161,7 @@ public class ContextStack {
     private EntityRowHandler<? extends Entity> _entityRowHandler;
     private OutsideSqlContext _outsideSqlContext;
     private FetchBean _fetchBean;
-    private Map<String, Object> _internalMap;
+    private InternalMapContext _internalMapContext;
     private ResourceContext _resourceContext;
 
     // ===================================================================================
@@ -203,12 +199,12 @@ public class ContextStack {
         this._fetchBean = fetchBean;
     }
 
-    public Map<String, Object> getInternalMap() {
-        return _internalMap;
+    public InternalMapContext getInternalMapContext() {
+        return _internalMapContext;
     }
 
-    public void setInternalMap(Map<String, Object> internalMap) {
-        this._internalMap = internalMap;
+    public void setInternalMapContext(InternalMapContext internalMapContext) {
+        this._internalMapContext = internalMapContext;
     }
 
     public ResourceContext getResourceContext() {
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.command;
+
+import java.util.List;
+import java.util.Map;
+
+import org.seasar.dbflute.bhv.core.SqlExecution;
+import org.seasar.dbflute.bhv.core.SqlExecutionCreator;
+import org.seasar.dbflute.bhv.core.execution.SelectNextValListExecution;
+import org.seasar.dbflute.bhv.core.supplement.SequenceCache;
+import org.seasar.dbflute.dbmeta.DBMeta;
+import org.seasar.dbflute.dbway.DBWay;
+import org.seasar.dbflute.dbway.SequenceListDBWay;
+import org.seasar.dbflute.s2dao.jdbc.TnResultSetHandler;
+
+/**
+ * The command to select next values of sequence for primary key as list. <br />
+ * It reserves the values at once, e.g. for batch insert.
+ * <pre>
+ * o if sequence cache exists, the values are handed out by the cache
+ * o else if the DB supports multi-row select (SequenceListDBWay), the values are selected by one statement
+ * o else the values are selected one by one
+ * </pre>
+ * @author jflute
+ * @since 1.0.5K (2014/08/08 Friday)
+ * @param <RESULT> The type of element of result list.
+ */
+public class SelectNextValListCommand<RESULT> extends SelectNextValCommand<List<RESULT>> {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The bind expression of the count of values in the multi-row SQL. */
+    protected static final String COUNT_BIND_EXP = "/*count*/1";
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The type of element of result list. (NotNull) */
+    protected Class<RESULT> _elementType;
+
+    /** The count of next values. (NotMinus) */
+    protected int _count;
+
+    // ===================================================================================
+    //                                                                   Basic Information
+    //                                                                   =================
+    @Override
+    public String getCommandName() {
+        return "selectNextValList";
+    }
+
+    @Override
+    public Class<?> getCommandReturnType() {
+        return List.class;
+    }
+
+    // ===================================================================================
+    //                                                               SqlExecution Handling
+    //                                                               =====================
+    @Override
+    public SqlExecutionCreator createSqlExecutionCreator() {
+        assertStatus("createSqlExecutionCreator");
+        return new SqlExecutionCreator() {
+            public SqlExecution createSqlExecution() {
+                return createSelectNextValListExecution();
+            }
+        };
+    }
+
+    protected SqlExecution createSelectNextValListExecution() {
+        assertStatus("createSelectNextValListExecution");
+        final DBMeta dbmeta = _dbmeta;
+        assertTableHasSequence();
+        final String nextValSql = getSequenceNextValSql();
+        assertSequenceReturnsNotNull(nextValSql, dbmeta);
+        final Map<String, Class<?>> argNameTypeMap = newArgNameTypeMap();
+        argNameTypeMap.put("count", Integer.class);
+
+        // handling for sequence cache (shared with single next value)
+        final SequenceCache sequenceCache = findSequenceCache(dbmeta);
+        if (sequenceCache != null) {
+            final String sql = prepareSequenceCache(nextValSql, sequenceCache); // with increment size check
+            final TnResultSetHandler handler = createDynamicScalarResultSetHandler(_elementType);
+            return newSelectNextValListExecution(argNameTypeMap, sql, handler, sequenceCache, false);
+        }
+        final String listSql = buildSequenceNextValListSql(dbmeta);
+        if (listSql != null) {
+            final TnResultSetHandler handler = createScalarListResultSetHandler(_elementType);
+            return newSelectNextValListExecution(argNameTypeMap, listSql, handler, null, true);
+        }
+        final TnResultSetHandler handler = createDynamicScalarResultSetHandler(_elementType);
+        return newSelectNextValListExecution(argNameTypeMap, nextValSql, handler, null, false);
+    }
+
+    @Override
+    protected SequenceCache doFindSequenceCache(String tableName, String sequenceName, Integer cacheSize,
+            Integer incrementSize) {
+        // the cache is found by the element type, so it is shared with single next value
+        return _sequenceCacheHandler.findSequenceCache(tableName, sequenceName, _dataSource, _elementType, cacheSize,
+                incrementSize);
+    }
+
+    protected String buildSequenceNextValListSql(DBMeta dbmeta) {
+        final DBWay dbway = dbmeta.getCurrentDBDef().dbway();
+        if (!(dbway instanceof SequenceListDBWay)) { // e.g. your own DB-way
+            return null;
+        }
+        return ((SequenceListDBWay) dbway).buildSequenceNextValListSql(dbmeta.getSequenceName(), COUNT_BIND_EXP);
+    }
+
+    protected SelectNextValListExecution newSelectNextValListExecution(Map<String, Class<?>> argNameTypeMap,
+            String sql, TnResultSetHandler handler, SequenceCache sequenceCache, boolean multiRow) {
+        return new SelectNextValListExecution(_dataSource, _statementFactory, argNameTypeMap, sql, handler,
+                sequenceCache, multiRow);
+    }
+
+    @Override
+    public Object[] getSqlExecutionArgument() {
+        assertStatus("getSqlExecutionArgument");
+        return new Object[] { _count };
+    }
+
+    // ===================================================================================
+    //                                                                       Assert Helper
+    //                                                                       =============
+    @Override
+    protected void assertStatus(String methodName) {
+        super.assertStatus(methodName);
+        if (_elementType == null) {
+            throw new IllegalStateException(buildAssertMessage("_elementType", methodName));
+        }
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public void setElementType(Class<RESULT> elementType) {
+        _elementType = elementType;
+    }
+
+    public void setCount(int count) {
+        _count = count;
+    }
+}
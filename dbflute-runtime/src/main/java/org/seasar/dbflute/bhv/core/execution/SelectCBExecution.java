@@ -25,6 +25,7 @@ import org.seasar.dbflute.CallbackContext;
 import org.seasar.dbflute.Entity;
 import org.seasar.dbflute.bhv.SqlStringFilter;
 import org.seasar.dbflute.bhv.core.BehaviorCommandMeta;
+import org.seasar.dbflute.bhv.core.supplement.TwoWaySqlNodeCache;
 import org.seasar.dbflute.cbean.ConditionBean;
 import org.seasar.dbflute.cbean.ckey.ConditionKey;
 import org.seasar.dbflute.cbean.sqlclause.SqlClause;
@@ -86,7 +87,22 @@ public class SelectCBExecution extends AbstractFixedArgExecution {
 
     @Override
     protected Node getRootNode(Object[] args) {
-        return analyzeTwoWaySql(extractTwoWaySql(args)); // dynamic analysis
+        final String twoWaySql = extractTwoWaySql(args);
+        final TwoWaySqlNodeCache nodeCache = getTwoWaySqlNodeCache();
+        if (nodeCache == null) {
+            return analyzeTwoWaySql(twoWaySql); // dynamic analysis
+        }
+        // same condition-bean shape generates same clause so analyzed node can be reused
+        Node rootNode = nodeCache.findNode(twoWaySql);
+        if (rootNode == null) {
+            rootNode = analyzeTwoWaySql(twoWaySql); // dynamic analysis
+            nodeCache.registerNode(twoWaySql, rootNode);
+        }
+        return rootNode;
+    }
+
+    protected TwoWaySqlNodeCache getTwoWaySqlNodeCache() {
+        return ResourceContext.twoWaySqlNodeCache();
     }
 
     protected String extractTwoWaySql(Object[] args) {
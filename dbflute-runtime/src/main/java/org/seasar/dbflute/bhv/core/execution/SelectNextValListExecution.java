@@ -0,0 +1,113 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.seasar.dbflute.bhv.core.supplement.SequenceCache;
+import org.seasar.dbflute.bhv.core.supplement.SequenceCache.SequenceRealExecutor;
+import org.seasar.dbflute.exception.SequenceSelectIllegalStateException;
+import org.seasar.dbflute.jdbc.StatementFactory;
+import org.seasar.dbflute.s2dao.jdbc.TnResultSetHandler;
+
+/**
+ * The SQL execution to select next values of sequence as list. <br />
+ * The first argument is the count of values. There are three ways:
+ * <pre>
+ * o sequence cache   : values are handed out by the cache (selected per cache size)
+ * o multi-row select : values are selected by one statement per max count
+ * o single select    : values are selected one by one (if the DB does not support multi-row)
+ * </pre>
+ * @author jflute
+ * @since 1.0.5K (2014/08/08 Friday)
+ */
+public class SelectNextValListExecution extends SelectSimpleExecution {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The max count of values selected by one statement in the multi-row select. */
+    public static final int MAX_COUNT_PER_SELECT = 10000;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The cache of sequence. (NullAllowed: if null, not cached) */
+    protected final SequenceCache _sequenceCache;
+
+    /** Does the SQL select next values as rows by the count argument? */
+    protected final boolean _multiRow;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public SelectNextValListExecution(DataSource dataSource, StatementFactory statementFactory,
+            Map<String, Class<?>> argNameTypeMap, String twoWaySql, TnResultSetHandler resultSetHandler,
+            SequenceCache sequenceCache, boolean multiRow) {
+        super(dataSource, statementFactory, argNameTypeMap, twoWaySql, resultSetHandler);
+        _sequenceCache = sequenceCache;
+        _multiRow = multiRow;
+    }
+
+    // ===================================================================================
+    //                                                                             Execute
+    //                                                                             =======
+    @Override
+    public Object execute(final Object[] args) {
+        final int count = (Integer) args[0];
+        final List<Object> nextValList = new ArrayList<Object>(count);
+        if (_sequenceCache != null) {
+            final SequenceRealExecutor executor = new SequenceRealExecutor() {
+                public Object execute() {
+                    return executeSuperExecute(args);
+                }
+            };
+            for (int i = 0; i < count; i++) {
+                nextValList.add(_sequenceCache.nextval(executor));
+            }
+        } else if (_multiRow) {
+            int remaining = count;
+            while (remaining > 0) {
+                final int selectCount = Math.min(remaining, MAX_COUNT_PER_SELECT);
+                final List<?> selectedList = (List<?>) executeSuperExecute(new Object[] { selectCount });
+                assertSelectedCountValid(selectCount, selectedList);
+                nextValList.addAll(selectedList);
+                remaining = remaining - selectCount;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                nextValList.add(executeSuperExecute(args));
+            }
+        }
+        return nextValList;
+    }
+
+    protected Object executeSuperExecute(Object[] args) {
+        return super.execute(args);
+    }
+
+    protected void assertSelectedCountValid(int selectCount, List<?> selectedList) {
+        if (selectedList == null || selectedList.size() != selectCount) {
+            String msg = "The count of selected next values is different from the requested count:";
+            msg = msg + " requested=" + selectCount + " selected=" + (selectedList != null ? selectedList.size() : null);
+            throw new SequenceSelectIllegalStateException(msg);
+        }
+    }
+}
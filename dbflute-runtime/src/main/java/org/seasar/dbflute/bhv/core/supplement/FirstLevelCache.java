@@ -0,0 +1,169 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.seasar.dbflute.Entity;
+import org.seasar.dbflute.dbmeta.info.UniqueInfo;
+
+/**
+ * The first-level cache of entities selected by unique key, as identity map in a scope. <br />
+ * The key is the unique info (DB meta and unique columns) and the unique values,
+ * and the same entity instance is returned while the scope continues. <br />
+ * This is not thread-safe because it is held by the thread, see {@link org.seasar.dbflute.FirstLevelCacheContext}.
+ * @author jflute
+ * @since 1.0.5K (2014/08/11 Monday)
+ */
+public class FirstLevelCache {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The map of entity map keyed by table DB name, for invalidation per table. (NotNull) */
+    protected final Map<String, Map<CacheKey, Entity>> _tableEntityMap = new HashMap<String, Map<CacheKey, Entity>>();
+
+    /** The count of cache hit, which means saved round trips to DB. */
+    protected long _hitCount;
+
+    /** The count of cache miss. */
+    protected long _missCount;
+
+    // ===================================================================================
+    //                                                                         Find Entity
+    //                                                                         ===========
+    /**
+     * Find the cached entity by the unique values.
+     * @param <ENTITY> The type of entity.
+     * @param uniqueInfo The info of unique key used by the selecting. (NotNull)
+     * @param uniqueValues The array of unique values, same order as unique columns. (NotNull)
+     * @param entityType The type of entity to be returned. (NotNull)
+     * @return The cached entity. (NullAllowed: when not cached or the type is different)
+     */
+    public <ENTITY extends Entity> ENTITY findEntity(UniqueInfo uniqueInfo, Object[] uniqueValues,
+            Class<ENTITY> entityType) {
+        final Map<CacheKey, Entity> entityMap = _tableEntityMap.get(extractTableDbName(uniqueInfo));
+        final Entity cached = entityMap != null ? entityMap.get(new CacheKey(uniqueInfo, uniqueValues)) : null;
+        if (cached == null || !entityType.isInstance(cached)) {
+            ++_missCount;
+            return null;
+        }
+        ++_hitCount;
+        return entityType.cast(cached);
+    }
+
+    /**
+     * Register the selected entity to the cache.
+     * @param uniqueInfo The info of unique key used by the selecting. (NotNull)
+     * @param uniqueValues The array of unique values, same order as unique columns. (NotNull)
+     * @param entity The selected entity. (NotNull)
+     */
+    public void registerEntity(UniqueInfo uniqueInfo, Object[] uniqueValues, Entity entity) {
+        final String tableDbName = extractTableDbName(uniqueInfo);
+        Map<CacheKey, Entity> entityMap = _tableEntityMap.get(tableDbName);
+        if (entityMap == null) {
+            entityMap = new HashMap<CacheKey, Entity>();
+            _tableEntityMap.put(tableDbName, entityMap);
+        }
+        entityMap.put(new CacheKey(uniqueInfo, uniqueValues), entity);
+    }
+
+    protected String extractTableDbName(UniqueInfo uniqueInfo) {
+        return uniqueInfo.getDBMeta().getTableDbName();
+    }
+
+    // ===================================================================================
+    //                                                                        Invalidation
+    //                                                                        ============
+    /**
+     * Invalidate the cached entities of the table, e.g. when the table is updated.
+     * @param tableDbName The DB name of table. (NotNull)
+     */
+    public void invalidateTable(String tableDbName) {
+        _tableEntityMap.remove(tableDbName);
+    }
+
+    /**
+     * Invalidate all cached entities, e.g. when unknown tables may be updated by outside-SQL.
+     */
+    public void invalidateAll() {
+        _tableEntityMap.clear();
+    }
+
+    // ===================================================================================
+    //                                                                        Cache Status
+    //                                                                        ============
+    public int getCachedSize() {
+        int size = 0;
+        for (Map<CacheKey, Entity> entityMap : _tableEntityMap.values()) {
+            size = size + entityMap.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return _hitCount;
+    }
+
+    public long getMissCount() {
+        return _missCount;
+    }
+
+    // ===================================================================================
+    //                                                                           Cache Key
+    //                                                                           =========
+    protected static class CacheKey {
+
+        protected final UniqueInfo _uniqueInfo;
+        protected final Object[] _uniqueValues;
+        protected final int _hashCode;
+
+        public CacheKey(UniqueInfo uniqueInfo, Object[] uniqueValues) {
+            _uniqueInfo = uniqueInfo;
+            _uniqueValues = uniqueValues;
+            _hashCode = uniqueInfo.hashCode() * 31 + Arrays.hashCode(uniqueValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey other = (CacheKey) obj;
+            return _uniqueInfo.equals(other._uniqueInfo) && Arrays.equals(_uniqueValues, other._uniqueValues);
+        }
+
+        @Override
+        public String toString() {
+            return _uniqueInfo + ":" + Arrays.asList(_uniqueValues);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "{cached=" + getCachedSize() + ", hit=" + _hitCount + ", miss=" + _missCount + "}";
+    }
+}
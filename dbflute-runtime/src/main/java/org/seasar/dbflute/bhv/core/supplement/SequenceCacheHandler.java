@@ -18,6 +18,7 @@ package org.seasar.dbflute.bhv.core.supplement;
 import java.math.BigDecimal;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 import javax.sql.DataSource;
 
@@ -48,6 +49,12 @@ public class SequenceCacheHandler {
     protected SequenceCacheKeyGenerator _sequenceCacheKeyGenerator;
     protected boolean _internalDebug;
 
+    /** Does it use the prefetch cache that hands out values without locking? */
+    protected boolean _prefetchCacheEnabled;
+
+    /** The executor for background prefetch of the prefetch cache. (NullAllowed: if null, selected when exhausted) */
+    protected Executor _prefetchExecutor;
+
     // ===================================================================================
     //                                                                            Handling
     //                                                                            ========
@@ -97,7 +104,12 @@ public class SequenceCacheHandler {
 
     protected SequenceCache createSequenceCache(String sequenceName, DataSource dataSource, Class<?> resultType,
             Integer cacheSize, Integer incrementSize) {
-        final SequenceCache cache = new SequenceCache(resultType, new BigDecimal(cacheSize), incrementSize);
+        final SequenceCache cache;
+        if (_prefetchCacheEnabled) {
+            cache = new SequencePrefetchCache(resultType, new BigDecimal(cacheSize), incrementSize, _prefetchExecutor);
+        } else {
+            cache = new SequenceCache(resultType, new BigDecimal(cacheSize), incrementSize);
+        }
         cache.setInternalDebug(_internalDebug);
         return cache;
     }
@@ -285,4 +297,22 @@ public class SequenceCacheHandler {
     public void setInternalDebug(boolean internalDebug) {
         _internalDebug = internalDebug;
     }
+
+    /**
+     * Use the prefetch cache that hands out values without locking. <br />
+     * It should be set before the first sequence selecting because existing caches are not replaced.
+     * @param prefetchCacheEnabled The determination, true or false.
+     */
+    public void setPrefetchCacheEnabled(boolean prefetchCacheEnabled) {
+        _prefetchCacheEnabled = prefetchCacheEnabled;
+    }
+
+    /**
+     * Set the executor for background prefetch of the prefetch cache. <br />
+     * The next values are selected by the executor's thread in other connection.
+     * @param prefetchExecutor The executor for background prefetch. (NullAllowed: if null, selected when exhausted)
+     */
+    public void setPrefetchExecutor(Executor prefetchExecutor) {
+        _prefetchExecutor = prefetchExecutor;
+    }
 }
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.seasar.dbflute.resource.InvocationContext;
+import org.seasar.dbflute.util.DfTypeUtil;
+
+/**
+ * The sequence cache that hands out prefetched values without locking. <br />
+ * The selected values are held as an immutable block of primitive long values,
+ * and each thread takes its own position in the block by an atomic counter.
+ * Only switching to the next block is synchronized. <br />
+ * The cacheSize (increment way) and incrementSize (batch way) are the same meaning as the super class.
+ * <pre>
+ * e.g. increment way, cacheSize = 50
+ *  selected 1 : hands out 1 to 50
+ * e.g. batch way, incrementSize = 10
+ *  selected 1, 11, 21 : hands out 1 to 30
+ * </pre>
+ * If the prefetch executor is specified, the next block is selected in background
+ * when the half of the current block is used. (so the sequence is used in other connection) <br />
+ * The background select runs with the contexts of the caller thread captured by {@link InvocationContext}.
+ * @author jflute
+ * @since 1.0.5K (2014/08/07 Thursday)
+ */
+public class SequencePrefetchCache extends SequenceCache {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** Log instance for internal debug. (XLog should be used instead for execute-status log) */
+    private static final Log _log = LogFactory.getLog(SequencePrefetchCache.class);
+
+    /** The empty block as initial state, which is always exhausted. */
+    protected static final PrefetchBlock EMPTY_BLOCK = new PrefetchBlock(new long[] {}, 1, 1, false);
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The executor for background prefetch. (NullAllowed: if null, selected when exhausted) */
+    protected final Executor _prefetchExecutor;
+
+    /** The current block of prefetched values. (NotNull: empty block at first) */
+    protected volatile PrefetchBlock _currentBlock = EMPTY_BLOCK;
+
+    /** The task of background prefetch for the next block. (NotNull, the value is NullAllowed) */
+    protected final AtomicReference<FutureTask<PrefetchBlock>> _prefetchTask = new AtomicReference<FutureTask<PrefetchBlock>>();
+
+    /** The lock object to switch the current block. (NotNull) */
+    protected final Object _switchLock = new Object();
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param resultType The result type of sequence next value.
+     * @param cacheSize The cache size of sequence that is used by increment way only. (NotNull)
+     * @param incrementSize The increment size of sequence that is used by batch way only. (NullAllowed: If null, it cannot use batch way)
+     * @param prefetchExecutor The executor for background prefetch. (NullAllowed: if null, selected when exhausted)
+     */
+    public SequencePrefetchCache(Class<?> resultType, BigDecimal cacheSize, Integer incrementSize,
+            Executor prefetchExecutor) {
+        super(resultType, cacheSize, incrementSize);
+        _prefetchExecutor = prefetchExecutor;
+    }
+
+    // ===================================================================================
+    //                                                                          Next Value
+    //                                                                          ==========
+    /**
+     * Get a next value of sequence. (not synchronized)
+     * @param executor The real executor of sequence. (NotNull)
+     * @return The next value of sequence as result type. (NotNull)
+     */
+    @Override
+    public Object nextval(SequenceRealExecutor executor) {
+        PrefetchBlock block = _currentBlock;
+        while (true) {
+            final int index = block.take();
+            if (index < block.getTotalCount()) {
+                if (index == block.getPrefetchIndex()) {
+                    prefetchNextBlock(executor);
+                }
+                final long value = block.getValue(index);
+                if (isLogEnabled()) {
+                    log("...Getting next value from prefetched block: " + value + " (" + index + "/"
+                            + block.getTotalCount() + ")");
+                }
+                return toResultType(value);
+            }
+            block = switchBlock(block, executor);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        Block Switch
+    //                                                                        ============
+    protected PrefetchBlock switchBlock(PrefetchBlock exhaustedBlock, SequenceRealExecutor executor) {
+        synchronized (_switchLock) {
+            final PrefetchBlock currentBlock = _currentBlock;
+            if (currentBlock != exhaustedBlock) { // other thread has switched it
+                return currentBlock;
+            }
+            PrefetchBlock nextBlock = takePrefetchedBlock();
+            if (nextBlock == null) {
+                if (isLogEnabled()) {
+                    log("...Selecting next value and cache values: cacheSize=" + _cacheSize);
+                }
+                nextBlock = selectBlock(executor);
+            }
+            _currentBlock = nextBlock;
+            return nextBlock;
+        }
+    }
+
+    protected PrefetchBlock takePrefetchedBlock() { // in switch lock
+        final FutureTask<PrefetchBlock> task = _prefetchTask.getAndSet(null);
+        if (task == null) {
+            return null;
+        }
+        try {
+            return task.get(); // basically already done
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null; // select it by the current thread
+        } catch (ExecutionException e) {
+            if (isInternalDebugEnabled()) {
+                _log.debug("Failed to prefetch the sequence so select it again: " + e.getCause());
+            }
+            return null; // select it by the current thread
+        }
+    }
+
+    // ===================================================================================
+    //                                                                            Prefetch
+    //                                                                            ========
+    protected void prefetchNextBlock(final SequenceRealExecutor executor) {
+        if (_prefetchExecutor == null) {
+            return;
+        }
+        // the contexts are attached to the executor's thread and restored after the select
+        final InvocationContext invocationContext = InvocationContext.capture();
+        final FutureTask<PrefetchBlock> task = new FutureTask<PrefetchBlock>(invocationContext
+                .wrap(new Callable<PrefetchBlock>() {
+                    public PrefetchBlock call() throws Exception {
+                        return selectBlock(executor);
+                    }
+                }));
+        if (!_prefetchTask.compareAndSet(null, task)) { // already prefetched
+            return;
+        }
+        try {
+            _prefetchExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            _prefetchTask.compareAndSet(task, null); // selected when exhausted
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        Block Select
+    //                                                                        ============
+    protected PrefetchBlock selectBlock(SequenceRealExecutor executor) {
+        if (isInternalDebugEnabled()) {
+            _log.debug("...Executing sequence prefetch cache: " + executor);
+        }
+        final Object obj = executor.execute();
+        assertSequenceRealExecutorReturnsNotNull(obj, executor);
+        if (obj instanceof List<?>) { // batchWay
+            final List<?> selectedList = (List<?>) obj; // no guarantee of order
+            assertSequenceRealExecutorReturnsNotEmptyList(selectedList, executor);
+            if (_incrementSize == null) {
+                String msg = "The increment size should not be null if it uses batch way!";
+                throw new IllegalStateException(msg); // basically unreachable
+            }
+            final SortedSet<Long> sortedSet = new TreeSet<Long>(); // order ascend
+            for (Object element : selectedList) {
+                sortedSet.add(toInternalLong(element));
+            }
+            final long[] bases = new long[sortedSet.size()];
+            int index = 0;
+            for (Long base : sortedSet) {
+                bases[index] = base;
+                ++index;
+            }
+            if (isInternalDebugEnabled()) {
+                _log.debug("Prefetched sequence values by batch way: " + bases[0] + " to " + bases[bases.length - 1]);
+            }
+            return newPrefetchBlock(bases, _incrementSize);
+        } else { // incrementWay
+            final long[] bases = new long[] { toInternalLong(obj) };
+            return newPrefetchBlock(bases, _cacheSize.intValue());
+        }
+    }
+
+    protected PrefetchBlock newPrefetchBlock(long[] bases, int rangePerBase) {
+        // the add size is the same as the super class's added count
+        return new PrefetchBlock(bases, rangePerBase, getAddSize().intValueExact(), _prefetchExecutor != null);
+    }
+
+    // ===================================================================================
+    //                                                                      Prefetch Block
+    //                                                                      ==============
+    /**
+     * The immutable block of prefetched values, which has only the atomic position.
+     */
+    protected static class PrefetchBlock {
+
+        protected final long[] _bases;
+        protected final int _addSize;
+        protected final int _sizePerBase;
+        protected final int _totalCount;
+        protected final int _prefetchIndex;
+        protected final AtomicInteger _position = new AtomicInteger();
+
+        /**
+         * @param bases The array of selected values as base point, ordered ascend. (NotNull)
+         * @param rangePerBase The range of values per one base point, e.g. cache size. (NotMinus, NotZero)
+         * @param addSize The size added to the previous value in the range. (NotMinus, NotZero)
+         * @param prefetch Does it prefetch the next block? (if false, prefetch index is minus)
+         */
+        public PrefetchBlock(long[] bases, int rangePerBase, int addSize, boolean prefetch) {
+            _bases = bases;
+            _addSize = addSize > 0 ? addSize : 1;
+            final int range = rangePerBase > 0 ? rangePerBase : 1;
+            _sizePerBase = (range + _addSize - 1) / _addSize; // e.g. range 10, add 3 : 0, 3, 6, 9
+            _totalCount = bases.length * _sizePerBase;
+            _prefetchIndex = prefetch ? _totalCount / 2 : -1;
+        }
+
+        /**
+         * Take the next position in the block.
+         * @return The index of value. (equal or greater than total count means exhausted)
+         */
+        public int take() {
+            if (_position.get() >= _totalCount) { // no increment after exhausted
+                return _totalCount;
+            }
+            return _position.getAndIncrement();
+        }
+
+        public long getValue(int index) {
+            return _bases[index / _sizePerBase] + ((long) (index % _sizePerBase)) * _addSize;
+        }
+
+        public int getTotalCount() {
+            return _totalCount;
+        }
+
+        public int getPrefetchIndex() {
+            return _prefetchIndex;
+        }
+
+        public int getRemainingCount() {
+            final int remaining = _totalCount - _position.get();
+            return remaining > 0 ? remaining : 0;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                             Convert
+    //                                                                             =======
+    protected long toInternalLong(Object value) {
+        if (value instanceof Long || value instanceof Integer) {
+            return ((Number) value).longValue();
+        }
+        return toInternalType(value).longValueExact();
+    }
+
+    protected Object toResultType(long value) {
+        final Class<?> resultType = _resultType;
+        if (Long.class.equals(resultType)) {
+            return Long.valueOf(value);
+        } else if (Integer.class.equals(resultType)) {
+            return Integer.valueOf((int) value);
+        } else if (BigDecimal.class.equals(resultType)) {
+            return BigDecimal.valueOf(value);
+        }
+        return DfTypeUtil.toNumber(value, resultType);
+    }
+
+    // ===================================================================================
+    //                                                                      Internal Debug
+    //                                                                      ==============
+    private boolean isInternalDebugEnabled() { // because log instance is private
+        return _internalDebug && _log.isDebugEnabled();
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        final String hash = Integer.toHexString(hashCode());
+        return "{" + "type=" + _resultType + ", cache=" + _cacheSize + ", increment=" + _incrementSize + ", prefetch="
+                + (_prefetchExecutor != null) + "}@" + hash;
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    /**
+     * @return The count of remaining values in the current block. (NotMinus)
+     */
+    public int getRemainingCount() {
+        return _currentBlock.getRemainingCount();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.seasar.dbflute.twowaysql.node.Node;
+
+/**
+ * The bounded cache of analyzed nodes for dynamic two-way SQL, e.g. ConditionBean's clause. <br />
+ * The key is the two-way SQL string itself so the same SQL shape is analyzed only once. <br />
+ * The cache is limited by entry count and by weight (total length of cached SQL).
+ * When it goes over the limit, some entries are evicted in no particular order.
+ * <pre>
+ * The nodes are shared between threads the same way as outside-SQL's fixed root node,
+ * which has no state while applying a command context.
+ * </pre>
+ * @author jflute
+ * @since 1.0.5K (2014/08/03 Sunday)
+ */
+public class TwoWaySqlNodeCache {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The default limit of entry count. */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /** The default limit of weight, which is total length of cached SQL. */
+    public static final long DEFAULT_MAX_WEIGHT = 10000000L; // about 20MB as chars
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The map of analyzed node keyed by two-way SQL. (NotNull) */
+    protected final Map<String, Node> _nodeMap = new ConcurrentHashMap<String, Node>();
+
+    /** The current weight, total length of cached SQL. */
+    protected final AtomicLong _currentWeight = new AtomicLong();
+
+    protected final AtomicLong _hitCount = new AtomicLong();
+    protected final AtomicLong _missCount = new AtomicLong();
+    protected final AtomicLong _evictionCount = new AtomicLong();
+
+    protected volatile int _maxSize = DEFAULT_MAX_SIZE;
+    protected volatile long _maxWeight = DEFAULT_MAX_WEIGHT;
+
+    // ===================================================================================
+    //                                                                      Cache Handling
+    //                                                                      ==============
+    /**
+     * Find the analyzed node by the two-way SQL. <br />
+     * The count of hit or miss is incremented here.
+     * @param twoWaySql The two-way SQL as cache key. (NotNull)
+     * @return The cached root node. (NullAllowed: when not cached)
+     */
+    public Node findNode(String twoWaySql) {
+        final Node node = _nodeMap.get(twoWaySql);
+        if (node != null) {
+            _hitCount.incrementAndGet();
+        } else {
+            _missCount.incrementAndGet();
+        }
+        return node;
+    }
+
+    /**
+     * Register the analyzed node for the two-way SQL. <br />
+     * The SQL heavier than the max weight is not cached.
+     * @param twoWaySql The two-way SQL as cache key. (NotNull)
+     * @param rootNode The analyzed root node. (NotNull)
+     */
+    public void registerNode(String twoWaySql, Node rootNode) {
+        final int weight = twoWaySql.length();
+        if (_maxSize <= 0 || weight > _maxWeight) {
+            return;
+        }
+        if (_nodeMap.put(twoWaySql, rootNode) == null) { // may be registered by other thread
+            _currentWeight.addAndGet(weight);
+        }
+        if (isOverLimit()) {
+            evictOverLimit();
+        }
+    }
+
+    protected boolean isOverLimit() {
+        return _nodeMap.size() > _maxSize || _currentWeight.get() > _maxWeight;
+    }
+
+    protected void evictOverLimit() {
+        final Iterator<String> ite = _nodeMap.keySet().iterator();
+        while (ite.hasNext() && isOverLimit()) {
+            final String key = ite.next();
+            if (_nodeMap.remove(key) != null) { // may be removed by other thread
+                _currentWeight.addAndGet(-key.length());
+                _evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Clear cached nodes and statistics.
+     */
+    public void clear() {
+        _nodeMap.clear();
+        _currentWeight.set(0);
+        _hitCount.set(0);
+        _missCount.set(0);
+        _evictionCount.set(0);
+    }
+
+    // ===================================================================================
+    //                                                                          Statistics
+    //                                                                          ==========
+    public int getCachedSize() {
+        return _nodeMap.size();
+    }
+
+    public long getCurrentWeight() {
+        return _currentWeight.get();
+    }
+
+    public long getHitCount() {
+        return _hitCount.get();
+    }
+
+    public long getMissCount() {
+        return _missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return _evictionCount.get();
+    }
+
+    /**
+     * @return The expression of statistics for logging. (NotNull)
+     */
+    public String toStatisticsExp() {
+        return "{size=" + getCachedSize() + ", weight=" + getCurrentWeight() + ", hit=" + getHitCount() + ", miss="
+                + getMissCount() + ", eviction=" + getEvictionCount() + "}";
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "nodeCache:" + toStatisticsExp();
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public int getMaxSize() {
+        return _maxSize;
+    }
+
+    /**
+     * @param maxSize The limit of entry count. (zero or minus means no caching)
+     */
+    public void setMaxSize(int maxSize) {
+        _maxSize = maxSize;
+    }
+
+    public long getMaxWeight() {
+        return _maxWeight;
+    }
+
+    /**
+     * @param maxWeight The limit of weight, which is total length of cached SQL.
+     */
+    public void setMaxWeight(long maxWeight) {
+        _maxWeight = maxWeight;
+    }
+}
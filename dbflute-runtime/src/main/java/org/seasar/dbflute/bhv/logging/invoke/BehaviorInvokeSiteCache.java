@@ -0,0 +1,166 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.logging.invoke;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The cache of behavior invocation per call site, used by lazy invoke-path capture. <br />
+ * The key is the invoked table, the outside-SQL result info and the captured head frames,
+ * so the same call site reuses the extracted invocation expression and invoke path
+ * without running the extractors again.
+ * @author jflute
+ * @since 1.0.5K (2014/08/12 Tuesday)
+ */
+public class BehaviorInvokeSiteCache {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The default limit size of cached sites. */
+    public static final int DEFAULT_LIMIT_SIZE = 1000;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The map of captured invocation keyed by the site. (NotNull) */
+    protected final ConcurrentMap<InvokeSiteKey, CapturedInvoke> _siteMap;
+
+    /** The limit size of cached sites, new sites are not cached after it. (NotMinus) */
+    protected final int _limitSize;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public BehaviorInvokeSiteCache() {
+        this(DEFAULT_LIMIT_SIZE);
+    }
+
+    public BehaviorInvokeSiteCache(int limitSize) {
+        _siteMap = new ConcurrentHashMap<InvokeSiteKey, CapturedInvoke>();
+        _limitSize = limitSize;
+    }
+
+    // ===================================================================================
+    //                                                                        Cache Access
+    //                                                                        ============
+    /**
+     * @param siteKey The key of call site. (NotNull)
+     * @return The cached invocation of the site. (NullAllowed: when not cached)
+     */
+    public CapturedInvoke findCapturedInvoke(InvokeSiteKey siteKey) {
+        return _siteMap.get(siteKey);
+    }
+
+    /**
+     * Register the captured invocation of the site if the cache is not full.
+     * @param siteKey The key of call site. (NotNull)
+     * @param capturedInvoke The captured invocation. (NotNull)
+     */
+    public void registerCapturedInvoke(InvokeSiteKey siteKey, CapturedInvoke capturedInvoke) {
+        if (_siteMap.size() >= _limitSize) { // e.g. dynamic call sites, keeps memory
+            return;
+        }
+        _siteMap.putIfAbsent(siteKey, capturedInvoke); // same result if conflicted
+    }
+
+    // ===================================================================================
+    //                                                                        Cache Status
+    //                                                                        ============
+    public int getCachedSize() {
+        return _siteMap.size();
+    }
+
+    public void clear() {
+        _siteMap.clear();
+    }
+
+    // ===================================================================================
+    //                                                                            Site Key
+    //                                                                            ========
+    public static class InvokeSiteKey {
+
+        protected final String _tableDbName;
+        protected final Class<?> _outsideSqlResultType;
+        protected final boolean _outsideSqlAutoPaging;
+        protected final StackTraceElement[] _frames;
+        protected final int _hashCode;
+
+        public InvokeSiteKey(String tableDbName, Class<?> outsideSqlResultType, boolean outsideSqlAutoPaging,
+                StackTraceElement[] frames) {
+            _tableDbName = tableDbName;
+            _outsideSqlResultType = outsideSqlResultType;
+            _outsideSqlAutoPaging = outsideSqlAutoPaging;
+            _frames = frames;
+            _hashCode = (tableDbName != null ? tableDbName.hashCode() : 0) * 31 + Arrays.hashCode(frames);
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof InvokeSiteKey)) {
+                return false;
+            }
+            final InvokeSiteKey other = (InvokeSiteKey) obj;
+            if (_tableDbName != null ? !_tableDbName.equals(other._tableDbName) : other._tableDbName != null) {
+                return false;
+            }
+            return _outsideSqlResultType == other._outsideSqlResultType
+                    && _outsideSqlAutoPaging == other._outsideSqlAutoPaging && Arrays.equals(_frames, other._frames);
+        }
+
+        @Override
+        public String toString() {
+            final String head = _frames.length > 0 ? _frames[0].toString() : "";
+            return "{" + _tableDbName + ", " + head + ", frames=" + _frames.length + "}";
+        }
+    }
+
+    // ===================================================================================
+    //                                                                     Captured Invoke
+    //                                                                     ===============
+    public static class CapturedInvoke {
+
+        protected final BehaviorInvokeNameResult _behaviorInvokeNameResult;
+        protected final BehaviorInvokePathResult _invokePathResult;
+
+        public CapturedInvoke(BehaviorInvokeNameResult behaviorInvokeNameResult,
+                BehaviorInvokePathResult invokePathResult) {
+            _behaviorInvokeNameResult = behaviorInvokeNameResult;
+            _invokePathResult = invokePathResult;
+        }
+
+        /**
+         * @return The result of invoke name for behavior. (NotNull)
+         */
+        public BehaviorInvokeNameResult getBehaviorInvokeNameResult() {
+            return _behaviorInvokeNameResult;
+        }
+
+        /**
+         * @return The result of invoke path. (NullAllowed: when client and by-pass are not found)
+         */
+        public BehaviorInvokePathResult getInvokePathResult() {
+            return _invokePathResult;
+        }
+    }
+}
@@ -22,12 +22,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.seasar.dbflute.Entity;
 import org.seasar.dbflute.cbean.chelper.HpCBPurpose;
 import org.seasar.dbflute.cbean.chelper.HpCalcSpecification;
 import org.seasar.dbflute.cbean.chelper.HpCalculator;
 import org.seasar.dbflute.cbean.chelper.HpDerivingSubQueryInfo;
+import org.seasar.dbflute.cbean.chelper.HpInvokingMethodCache;
 import org.seasar.dbflute.cbean.chelper.HpSpecifiedColumn;
 import org.seasar.dbflute.cbean.cipher.ColumnFunctionCipher;
 import org.seasar.dbflute.cbean.coption.CursorSelectOption;
@@ -52,8 +54,6 @@ import org.seasar.dbflute.exception.ConditionInvokingFailureException;
 import org.seasar.dbflute.exception.IllegalConditionBeanOperationException;
 import org.seasar.dbflute.exception.OrScopeQueryAndPartUnsupportedOperationException;
 import org.seasar.dbflute.exception.thrower.ConditionBeanExceptionThrower;
-import org.seasar.dbflute.helper.beans.DfBeanDesc;
-import org.seasar.dbflute.helper.beans.factory.DfBeanDescFactory;
 import org.seasar.dbflute.jdbc.StatementConfig;
 import org.seasar.dbflute.resource.DBFluteSystem;
 import org.seasar.dbflute.twowaysql.factory.SqlAnalyzerFactory;
@@ -89,6 +89,12 @@ public abstract class AbstractConditionBean implements ConditionBean {
     /** Can the paging re-select? {Internal} */
     protected boolean _pagingReSelect = true;
 
+    /** The executor of count for parallel paging. {Internal} (NullAllowed: null means sequential paging) */
+    protected Executor _parallelPagingExecutor;
+
+    /** The copier of paging bean for the count of parallel paging. {Internal} (NullAllowed) */
+    protected PagingBeanCopier _parallelPagingCountBeanCopier;
+
     /** Does it split SQL execution as select and query? {Internal} */
     protected boolean _pagingSelectAndQuerySplit;
 
@@ -889,7 +895,35 @@ public abstract class AbstractConditionBean implements ConditionBean {
      * {@inheritDoc}
      */
     public <ENTITY> PagingInvoker<ENTITY> createPagingInvoker(String tableDbName) {
-        return new PagingInvoker<ENTITY>(tableDbName);
+        final PagingInvoker<ENTITY> invoker = new PagingInvoker<ENTITY>(tableDbName);
+        if (_parallelPagingExecutor != null) {
+            invoker.enableParallelPaging(_parallelPagingExecutor, _parallelPagingCountBeanCopier);
+        }
+        return invoker;
+    }
+
+    /**
+     * Enable parallel paging, which executes the count and the page select at the same time. <br />
+     * The count is executed by the executor with the condition-bean copied by the copier,
+     * so it uses another connection and it is out of the transaction of the caller.
+     * @param executor The executor of count, e.g. thread pool. (NotNull)
+     * @param countBeanCopier The copier that creates the condition-bean having the same conditions. (NotNull)
+     */
+    public void enableParallelPaging(Executor executor, PagingBeanCopier countBeanCopier) {
+        if (executor == null || countBeanCopier == null) {
+            String msg = "The arguments should not be null: executor=" + executor + " copier=" + countBeanCopier;
+            throw new IllegalArgumentException(msg);
+        }
+        _parallelPagingExecutor = executor;
+        _parallelPagingCountBeanCopier = countBeanCopier;
+    }
+
+    /**
+     * Disable parallel paging, back to the sequential paging. (default)
+     */
+    public void disableParallelPaging() {
+        _parallelPagingExecutor = null;
+        _parallelPagingCountBeanCopier = null;
     }
 
     // -----------------------------------------------------
@@ -1409,8 +1443,7 @@ public abstract class AbstractConditionBean implements ConditionBean {
     }
 
     protected Method xhelpGettingCBChainMethod(Class<?> type, String methodName, Class<?>[] argTypes) {
-        final DfBeanDesc beanDesc = DfBeanDescFactory.getBeanDesc(type);
-        return beanDesc.getMethodNoException(methodName, argTypes);
+        return HpInvokingMethodCache.getSharedCache().findMethod(type, methodName, argTypes);
     }
 
     protected Object xhelpInvokingCBChainMethod(Class<?> type, Method method, Object[] args) {
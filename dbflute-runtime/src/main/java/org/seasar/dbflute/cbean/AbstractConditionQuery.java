@@ -29,6 +29,7 @@ import java.util.Map.Entry;
 import org.seasar.dbflute.cbean.chelper.HpDerivingSubQueryInfo;
 import org.seasar.dbflute.cbean.chelper.HpFixedConditionQueryResolver;
 import org.seasar.dbflute.cbean.chelper.HpInvalidQueryInfo;
+import org.seasar.dbflute.cbean.chelper.HpInvokingMethodCache;
 import org.seasar.dbflute.cbean.chelper.HpManualOrderThemeListHandler;
 import org.seasar.dbflute.cbean.chelper.HpQDRFunction;
 import org.seasar.dbflute.cbean.chelper.HpQDRParameter;
@@ -85,8 +86,6 @@ import org.seasar.dbflute.exception.IllegalConditionBeanOperationException;
 import org.seasar.dbflute.exception.OrScopeQueryAndPartUnsupportedOperationException;
 import org.seasar.dbflute.exception.factory.ExceptionMessageBuilder;
 import org.seasar.dbflute.exception.thrower.ConditionBeanExceptionThrower;
-import org.seasar.dbflute.helper.beans.DfBeanDesc;
-import org.seasar.dbflute.helper.beans.factory.DfBeanDescFactory;
 import org.seasar.dbflute.jdbc.Classification;
 import org.seasar.dbflute.jdbc.ParameterUtil;
 import org.seasar.dbflute.jdbc.ParameterUtil.ShortCharHandlingMode;
@@ -2097,6 +2096,9 @@ public abstract class AbstractConditionQuery implements ConditionQuery {
      */
     public ConditionQuery invokeForeignCQ(String foreignPropertyName) {
         assertStringNotNullAndNotTrimmedEmpty("foreignPropertyName", foreignPropertyName);
+        if (foreignPropertyName.indexOf('.') < 0) { // fast path for direct foreign
+            return doInvokeForeignCQ(this, foreignPropertyName);
+        }
         final List<String> splitList = Srl.splitList(foreignPropertyName, ".");
         ConditionQuery foreignCQ = this;
         for (String elementName : splitList) {
@@ -2199,6 +2201,9 @@ public abstract class AbstractConditionQuery implements ConditionQuery {
     }
 
     protected PropertyNameCQContainer xhelpExtractingPropertyNameCQContainer(String name) {
+        if (name.indexOf('.') < 0) { // fast path for local column
+            return new PropertyNameCQContainer(name, this);
+        }
         final String[] strings = name.split("\\.");
         final int length = strings.length;
         String propertyName = null;
@@ -2234,8 +2239,7 @@ public abstract class AbstractConditionQuery implements ConditionQuery {
     }
 
     protected Method xhelpGettingCQMethod(ConditionQuery cq, String methodName, Class<?>[] argTypes) {
-        final DfBeanDesc beanDesc = DfBeanDescFactory.getBeanDesc(cq.getClass());
-        return beanDesc.getMethodNoException(methodName, argTypes);
+        return HpInvokingMethodCache.getSharedCache().findMethod(cq.getClass(), methodName, argTypes);
     }
 
     protected Object xhelpInvokingCQMethod(ConditionQuery cq, Method method, Object[] args) {
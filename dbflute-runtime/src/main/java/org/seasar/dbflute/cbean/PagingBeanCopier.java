@@ -0,0 +1,42 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.cbean;
+
+/**
+ * The copier of paging bean for the count of parallel paging. <br />
+ * The count is executed in other thread at the same time as the page select,
+ * so it needs its own bean that has the same conditions as the original.
+ * <pre>
+ * cb.enableParallelPaging(executor, new PagingBeanCopier() {
+ *     public PagingBean copy(PagingBean original) {
+ *         MemberCB countCB = new MemberCB();
+ *         countCB.query().setMemberName_PrefixSearch("S"); // same conditions
+ *         return countCB;
+ *     }
+ * });
+ * </pre>
+ * @author jflute
+ * @since 1.0.5K (2014/08/11 Monday)
+ */
+public interface PagingBeanCopier {
+
+    /**
+     * Copy the bean of paging for the count.
+     * @param original The original bean of paging, used by the page select. (NotNull)
+     * @return The new-created bean that has the same conditions and type as the original. (NotNull)
+     */
+    PagingBean copy(PagingBean original);
+}
@@ -16,12 +16,17 @@
 package org.seasar.dbflute.cbean;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.seasar.dbflute.exception.DangerousResultSizeException;
 import org.seasar.dbflute.exception.PagingOverSafetySizeException;
 import org.seasar.dbflute.exception.PagingStatusInvalidException;
 import org.seasar.dbflute.exception.factory.ExceptionMessageBuilder;
 import org.seasar.dbflute.resource.DBFluteSystem;
+import org.seasar.dbflute.resource.InvocationContext;
 import org.seasar.dbflute.resource.ManualThreadDataSourceHandler;
 
 /**
@@ -36,6 +41,12 @@ public class PagingInvoker<ENTITY> {
     //                                                                           =========
     protected final String _tableDbName;
 
+    /** The executor of count for parallel paging. (NullAllowed: null means sequential paging) */
+    protected Executor _parallelExecutor;
+
+    /** The copier of paging bean for the count of parallel paging. (NullAllowed: when sequential paging) */
+    protected PagingBeanCopier _countBeanCopier;
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -85,6 +96,9 @@ public class PagingInvoker<ENTITY> {
 
     protected InvocationResultResource<ENTITY> doPaging(PagingHandler<ENTITY> handler, PagingBean pagingBean,
             ResultBeanBuilder<ENTITY> builder) {
+        if (isParallelPaging(handler)) {
+            return doParallelPaging((ParallelPagingHandler<ENTITY>) handler, pagingBean);
+        }
         final int safetyMaxResultSize = pagingBean.getSafetyMaxResultSize();
         final int allRecordCount;
         final List<ENTITY> selectedList;
@@ -112,6 +126,91 @@ public class PagingInvoker<ENTITY> {
         return resource;
     }
 
+    // -----------------------------------------------------
+    //                                       Parallel Paging
+    //                                       ---------------
+    protected boolean isParallelPaging(PagingHandler<ENTITY> handler) {
+        return _parallelExecutor != null && handler instanceof ParallelPagingHandler<?>;
+    }
+
+    protected InvocationResultResource<ENTITY> doParallelPaging(ParallelPagingHandler<ENTITY> handler,
+            PagingBean pagingBean) {
+        final int safetyMaxResultSize = pagingBean.getSafetyMaxResultSize();
+        final PagingBean countBean = copyCountBean(pagingBean);
+        final FutureTask<Integer> countTask = createParallelCountTask(handler, countBean);
+        final boolean countLater = pagingBean.canPagingCountLater();
+        if (countLater) { // e.g. MySQL's found_rows() is not available with other connection
+            pagingBean.disablePagingCountLater();
+        }
+        final List<ENTITY> selectedList;
+        try {
+            _parallelExecutor.execute(countTask);
+            selectedList = executePaging(handler);
+        } catch (RuntimeException e) {
+            countTask.cancel(false); // running count is not interrupted (it has its own connection)
+            throw e;
+        } finally {
+            if (countLater) {
+                pagingBean.enablePagingCountLater();
+            }
+        }
+        final int allRecordCount = joinParallelCount(countTask);
+        checkSafetyResultIfNeeds(safetyMaxResultSize, allRecordCount); // the page is limited by fetch size
+        final InvocationResultResource<ENTITY> resource = new InvocationResultResource<ENTITY>();
+        resource.setAllRecordCount(allRecordCount);
+        resource.setSelectedList(selectedList);
+        return resource;
+    }
+
+    protected PagingBean copyCountBean(PagingBean pagingBean) {
+        final PagingBean countBean = _countBeanCopier.copy(pagingBean);
+        if (countBean == null || countBean == pagingBean || !countBean.getClass().equals(pagingBean.getClass())) {
+            String msg = "The copier of parallel paging should return new bean of the same type:";
+            msg = msg + " original=" + pagingBean.getClass().getName();
+            msg = msg + " copied=" + (countBean != null ? countBean.getClass().getName() : null);
+            msg = msg + " same=" + (countBean == pagingBean);
+            throw new IllegalStateException(msg);
+        }
+        if (countBean.canPagingCountLater()) { // the count is not later
+            countBean.disablePagingCountLater();
+        }
+        return countBean;
+    }
+
+    protected FutureTask<Integer> createParallelCountTask(final ParallelPagingHandler<ENTITY> handler,
+            final PagingBean countBean) {
+        // thread-bound contexts of the caller (e.g. access context) are inherited to the count thread
+        return new FutureTask<Integer>(InvocationContext.propagate(new Callable<Integer>() {
+            public Integer call() throws Exception {
+                return executeParallelCount(handler, countBean);
+            }
+        }));
+    }
+
+    protected int executeParallelCount(ParallelPagingHandler<ENTITY> handler, PagingBean countBean) {
+        return handler.countByCopy(countBean);
+    }
+
+    protected int joinParallelCount(FutureTask<Integer> countTask) {
+        try {
+            return countTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String msg = "Interrupted while waiting for the count of parallel paging: " + _tableDbName;
+            throw new IllegalStateException(msg, e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            String msg = "Failed to execute the count of parallel paging: " + _tableDbName;
+            throw new IllegalStateException(msg, cause);
+        }
+    }
+
     protected static class InvocationResultResource<ENTITY> {
         protected int _allRecordCount;
         protected List<ENTITY> _selectedList;
@@ -263,6 +362,25 @@ public class PagingInvoker<ENTITY> {
         throw new PagingOverSafetySizeException(msg, safetyMaxResultSize, allRecordCount);
     }
 
+    // ===================================================================================
+    //                                                                              Option
+    //                                                                              ======
+    /**
+     * Enable parallel paging, which executes the count and the page select at the same time. <br />
+     * The count is executed by the executor with the bean copied by the copier,
+     * and the page select is executed by the caller thread with the original bean. <br />
+     * It is effective only when the handler is {@link ParallelPagingHandler},
+     * and the count uses another connection so it is out of the transaction of the caller.
+     * @param parallelExecutor The executor of count. (NotNull)
+     * @param countBeanCopier The copier of paging bean for the count. (NotNull)
+     */
+    public void enableParallelPaging(Executor parallelExecutor, PagingBeanCopier countBeanCopier) {
+        assertObjectNotNull("parallelExecutor", parallelExecutor);
+        assertObjectNotNull("countBeanCopier", countBeanCopier);
+        _parallelExecutor = parallelExecutor;
+        _countBeanCopier = countBeanCopier;
+    }
+
     // ===================================================================================
     //                                                                      General Helper
     //                                                                      ==============
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.cbean;
+
+/**
+ * The handler of paging that can execute the count by a copied bean. <br />
+ * The count is executed in other thread with its own connection when parallel paging,
+ * so it should use only the copied bean and no mutable resources of the page select. <br />
+ * And the count uses another connection so it is out of the transaction of the caller.
+ * @param <ENTITY> The type of entity.
+ * @author jflute
+ * @since 1.0.5K (2014/08/11 Monday)
+ */
+public interface ParallelPagingHandler<ENTITY> extends PagingHandler<ENTITY> {
+
+    /**
+     * Execute SQL for count by the copied bean.
+     * @param copiedBean The bean copied from the paging bean for the count. (NotNull)
+     * @return The count of execution.
+     */
+    int countByCopy(PagingBean copiedBean);
+}
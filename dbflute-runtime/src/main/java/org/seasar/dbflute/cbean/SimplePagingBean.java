@@ -17,6 +17,7 @@ package org.seasar.dbflute.cbean;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.seasar.dbflute.cbean.sqlclause.SqlClause;
 import org.seasar.dbflute.cbean.sqlclause.SqlClauseDefault;
@@ -57,6 +58,12 @@ public class SimplePagingBean implements PagingBean, MapParameterBean<Object> {
     /** Can the paging re-select? */
     protected boolean _pagingReSelect = true;
 
+    /** The executor of count for parallel paging. (NullAllowed: null means sequential paging) */
+    protected Executor _parallelPagingExecutor;
+
+    /** The copier of paging bean for the count of parallel paging. (NullAllowed) */
+    protected PagingBeanCopier _parallelPagingCountBeanCopier;
+
     /** Is fetch narrowing valid? */
     protected boolean _fetchNarrowing = true;
 
@@ -193,7 +200,35 @@ public class SimplePagingBean implements PagingBean, MapParameterBean<Object> {
      * {@inheritDoc}
      */
     public <ENTITY> PagingInvoker<ENTITY> createPagingInvoker(String tableDbName) {
-        return new PagingInvoker<ENTITY>(tableDbName);
+        final PagingInvoker<ENTITY> invoker = new PagingInvoker<ENTITY>(tableDbName);
+        if (_parallelPagingExecutor != null) {
+            invoker.enableParallelPaging(_parallelPagingExecutor, _parallelPagingCountBeanCopier);
+        }
+        return invoker;
+    }
+
+    /**
+     * Enable parallel paging, which executes the count and the page select at the same time. <br />
+     * The count is executed by the executor with the parameter-bean copied by the copier,
+     * so it uses another connection and it is out of the transaction of the caller.
+     * @param executor The executor of count, e.g. thread pool. (NotNull)
+     * @param countBeanCopier The copier that creates the parameter-bean having the same conditions. (NotNull)
+     */
+    public void enableParallelPaging(Executor executor, PagingBeanCopier countBeanCopier) {
+        if (executor == null || countBeanCopier == null) {
+            String msg = "The arguments should not be null: executor=" + executor + " copier=" + countBeanCopier;
+            throw new IllegalArgumentException(msg);
+        }
+        _parallelPagingExecutor = executor;
+        _parallelPagingCountBeanCopier = countBeanCopier;
+    }
+
+    /**
+     * Disable parallel paging, back to the sequential paging. (default)
+     */
+    public void disableParallelPaging() {
+        _parallelPagingExecutor = null;
+        _parallelPagingCountBeanCopier = null;
     }
 
     // -----------------------------------------------------
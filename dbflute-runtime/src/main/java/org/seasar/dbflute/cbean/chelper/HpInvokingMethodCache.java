@@ -0,0 +1,138 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.cbean.chelper;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.seasar.dbflute.helper.beans.DfBeanDesc;
+import org.seasar.dbflute.helper.beans.factory.DfBeanDescFactory;
+
+/**
+ * The cache of methods for reflection invoking of condition-bean and condition-query,
+ * e.g. invokeQuery(), invokeOrderBy(), invokeForeignCQ(). <br />
+ * The key is the type, the method name and the argument types.
+ * Not-found methods are also cached. <br />
+ * The shared cache is cleared with the execution cache of behavior (e.g. HotDeploy)
+ * because the keys and methods are classes that may be reloaded.
+ * @author jflute
+ * @since 1.0.5K (2014/08/09 Saturday)
+ */
+public class HpInvokingMethodCache {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The mark of not-found method in the cache. */
+    protected static final Object NOT_FOUND_MARK = new Object();
+
+    /** The shared cache for condition-beans and condition-queries. (dispose target, NotNull) */
+    protected static final HpInvokingMethodCache _sharedCache = new HpInvokingMethodCache();
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The map of method keyed by the invoking key. (NotNull, the value is method or not-found mark) */
+    protected final ConcurrentMap<InvokingKey, Object> _methodMap = new ConcurrentHashMap<InvokingKey, Object>();
+
+    // ===================================================================================
+    //                                                                        Shared Cache
+    //                                                                        ============
+    /**
+     * Get the shared cache for condition-beans and condition-queries.
+     * @return The instance of shared cache. (NotNull)
+     */
+    public static HpInvokingMethodCache getSharedCache() {
+        return _sharedCache;
+    }
+
+    // ===================================================================================
+    //                                                                         Find Method
+    //                                                                         ===========
+    /**
+     * Find the method for invoking from the cache or the bean description.
+     * @param type The type of the target object. (NotNull)
+     * @param methodName The name of method. (NotNull)
+     * @param argTypes The array of argument types. (NullAllowed: means no argument)
+     * @return The found method, which may be non-public so invoke it forcedly. (NullAllowed: when not found)
+     */
+    public Method findMethod(Class<?> type, String methodName, Class<?>[] argTypes) {
+        final InvokingKey key = new InvokingKey(type, methodName, argTypes);
+        final Object cached = _methodMap.get(key);
+        if (cached != null) {
+            return cached != NOT_FOUND_MARK ? (Method) cached : null;
+        }
+        final Method method = resolveMethod(type, methodName, argTypes);
+        _methodMap.putIfAbsent(key, method != null ? method : NOT_FOUND_MARK); // same method if conflicted
+        return method;
+    }
+
+    protected Method resolveMethod(Class<?> type, String methodName, Class<?>[] argTypes) {
+        final DfBeanDesc beanDesc = DfBeanDescFactory.getBeanDesc(type);
+        return beanDesc.getMethodNoException(methodName, argTypes);
+    }
+
+    // ===================================================================================
+    //                                                                        Cache Status
+    //                                                                        ============
+    public int getCachedSize() {
+        return _methodMap.size();
+    }
+
+    public void clear() {
+        _methodMap.clear();
+    }
+
+    // ===================================================================================
+    //                                                                        Invoking Key
+    //                                                                        ============
+    protected static class InvokingKey {
+
+        protected final Class<?> _type;
+        protected final String _methodName;
+        protected final Class<?>[] _argTypes;
+        protected final int _hashCode;
+
+        public InvokingKey(Class<?> type, String methodName, Class<?>[] argTypes) {
+            _type = type;
+            _methodName = methodName;
+            _argTypes = argTypes != null && argTypes.length > 0 ? argTypes : null;
+            _hashCode = (type.hashCode() * 31 + methodName.hashCode()) * 31 + Arrays.hashCode(_argTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof InvokingKey)) {
+                return false;
+            }
+            final InvokingKey other = (InvokingKey) obj;
+            return _type == other._type && _methodName.equals(other._methodName)
+                    && Arrays.equals(_argTypes, other._argTypes);
+        }
+
+        @Override
+        public String toString() {
+            return _type.getName() + "@" + _methodName + "(" + (_argTypes != null ? Arrays.asList(_argTypes) : "") + ")";
+        }
+    }
+}
@@ -27,6 +27,7 @@ public class CursorSelectOption {
     //                                                                           =========
     protected boolean _byPaging;
     protected boolean _orderByPK;
+    protected boolean _keyset;
     protected int _pageSize;
 
     // ===================================================================================
@@ -42,6 +43,25 @@ public class CursorSelectOption {
     public CursorSelectOption byPagingOrderByPK(int pageSize) {
         _byPaging = true;
         _orderByPK = true;
+        _keyset = false;
+        _pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Do cursor select by keyset paging ordering by PK. <br />
+     * The next page is selected by the condition 'after the last PK' instead of offset,
+     * so the DBMS does not skip previous records on each page (effective for large tables). <br />
+     * The order-by should start with all PK columns (compound PK is allowed, and asc or desc). <br />
+     * Consistent-read is not perfect. <br />
+     * You might select records at second or more select that are not target when the first select.
+     * @param pageSize The size of one page. (NotMinus, NotZero)
+     * @return this. (NotNull)
+     */
+    public CursorSelectOption byPagingKeysetOrderByPK(int pageSize) {
+        _byPaging = true;
+        _orderByPK = true;
+        _keyset = true;
         _pageSize = pageSize;
         return this;
     }
@@ -58,6 +78,7 @@ public class CursorSelectOption {
     public CursorSelectOption byPagingSimply(int pageSize) {
         _byPaging = true;
         _orderByPK = false;
+        _keyset = false;
         _pageSize = pageSize;
         return this;
     }
@@ -67,7 +88,7 @@ public class CursorSelectOption {
     //                                                                      ==============
     @Override
     public String toString() {
-        return "{" + _byPaging + ", " + _orderByPK + ", " + _pageSize + "}";
+        return "{" + _byPaging + ", " + _orderByPK + ", " + _keyset + ", " + _pageSize + "}";
     }
 
     // ===================================================================================
@@ -81,6 +102,10 @@ public class CursorSelectOption {
         return _orderByPK;
     }
 
+    public boolean isKeyset() {
+        return _keyset;
+    }
+
     public int getPageSize() {
         return _pageSize;
     }
@@ -1807,6 +1807,13 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public boolean removeWhereClauseOnBaseQuery(QueryClause clause) {
+        return _whereList != null && _whereList.remove(clause);
+    }
+
     public void backupWhereClauseOnBaseQuery() {
         _backupWhereList = _whereList;
     }
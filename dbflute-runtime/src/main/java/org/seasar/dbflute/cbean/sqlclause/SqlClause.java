@@ -476,6 +476,14 @@ public interface SqlClause {
      */
     void clearWhereClauseOnBaseQuery();
 
+    /**
+     * Remove the query clause from where clauses on the base query. <br />
+     * Basically for a clause registered temporarily, e.g. keyset of cursor select.
+     * @param clause The instance of query clause registered before. (NotNull)
+     * @return Is it removed? (false if not found)
+     */
+    boolean removeWhereClauseOnBaseQuery(QueryClause clause);
+
     // ===================================================================================
     //                                                                       In-line Where
     //                                                                       =============
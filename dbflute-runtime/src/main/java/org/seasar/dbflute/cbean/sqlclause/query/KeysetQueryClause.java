@@ -0,0 +1,137 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.cbean.sqlclause.query;
+
+import java.util.List;
+import java.util.Map;
+
+import org.seasar.dbflute.cbean.sqlclause.SqlClause;
+import org.seasar.dbflute.dbmeta.name.ColumnRealName;
+
+/**
+ * The query clause of keyset (seek) paging, which means 'after the last key'. <br />
+ * The key values are bound as free parameters so the clause (SQL string) is same for every page.
+ * <pre>
+ * e.g. compound key (asc, desc)
+ *  (dfloc.KEY1 &gt; /*...*&#47;null
+ *    or (dfloc.KEY1 = /*...*&#47;null and dfloc.KEY2 &lt; /*...*&#47;null))
+ * </pre>
+ * @author jflute
+ * @since 1.0.5K (2014/08/05 Tuesday)
+ */
+public class KeysetQueryClause implements QueryClause {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The theme key of free parameter for key values. */
+    public static final String FREE_PARAMETER_THEME_KEY = "keysetLastKey";
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final SqlClause _sqlClause;
+    protected final List<ColumnRealName> _keyColumnList;
+    protected final List<Boolean> _ascList;
+    protected String _clause; // null until the last key is accepted
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param sqlClause The SQL clause to register free parameters. (NotNull)
+     * @param keyColumnList The list of real name for key columns in order-by sequence. (NotNull, NotEmpty)
+     * @param ascList The list of ascend determination for key columns, same size as columns. (NotNull, NotEmpty)
+     */
+    public KeysetQueryClause(SqlClause sqlClause, List<ColumnRealName> keyColumnList, List<Boolean> ascList) {
+        if (keyColumnList.isEmpty() || keyColumnList.size() != ascList.size()) {
+            String msg = "The key columns should be same size as ascend list: " + keyColumnList + ", " + ascList;
+            throw new IllegalArgumentException(msg);
+        }
+        _sqlClause = sqlClause;
+        _keyColumnList = keyColumnList;
+        _ascList = ascList;
+    }
+
+    // ===================================================================================
+    //                                                                            Last Key
+    //                                                                            ========
+    /**
+     * Accept the key values of the last record in the previous page. <br />
+     * Free parameters for previous key values are removed here.
+     * @param lastKeyValueList The list of key value, same order as key columns. (NotNull, NotNullElement)
+     */
+    public void acceptLastKey(List<Object> lastKeyValueList) {
+        if (lastKeyValueList.size() != _keyColumnList.size()) {
+            String msg = "The key values should be same size as key columns: " + lastKeyValueList;
+            throw new IllegalArgumentException(msg);
+        }
+        clearLastKey();
+        final StringBuilder sb = new StringBuilder();
+        final int keySize = _keyColumnList.size();
+        sb.append("(");
+        for (int i = 0; i < keySize; i++) {
+            if (i > 0) {
+                sb.append(" or ");
+            }
+            final boolean compound = i > 0;
+            if (compound) {
+                sb.append("(");
+            }
+            for (int j = 0; j < i; j++) {
+                sb.append(buildKeyCondition(j, " = ", lastKeyValueList.get(j))).append(" and ");
+            }
+            final String operand = _ascList.get(i) ? " > " : " < ";
+            sb.append(buildKeyCondition(i, operand, lastKeyValueList.get(i)));
+            if (compound) {
+                sb.append(")");
+            }
+        }
+        sb.append(")");
+        _clause = sb.toString();
+    }
+
+    protected String buildKeyCondition(int index, String operand, Object keyValue) {
+        if (keyValue == null) {
+            String msg = "The key value should not be null: column=" + _keyColumnList.get(index);
+            throw new IllegalStateException(msg);
+        }
+        final String bindExp = _sqlClause.registerFreeParameterToThemeList(FREE_PARAMETER_THEME_KEY, keyValue);
+        return _keyColumnList.get(index) + operand + bindExp;
+    }
+
+    /**
+     * Clear the free parameters of the last key.
+     */
+    public void clearLastKey() {
+        final Map<String, Object> freeParameterMap = _sqlClause.getFreeParameterMap();
+        if (freeParameterMap != null) {
+            freeParameterMap.remove(FREE_PARAMETER_THEME_KEY);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        if (_clause == null) {
+            String msg = "The last key has not been accepted yet: " + _keyColumnList;
+            throw new IllegalStateException(msg);
+        }
+        return _clause;
+    }
+}
@@ -427,6 +427,10 @@ public abstract class AbstractDBMeta implements DBMeta {
         return new UniqueInfo(this, uniqueColumnInfoList, true);
     }
 
+    protected UniqueInfo hpcui(List<ColumnInfo> uniqueColumnInfoList) { // helpCreateUniqueInfo()
+        return new UniqueInfo(this, uniqueColumnInfoList, false);
+    }
+
     // ===================================================================================
     //                                                                       Relation Info
     //                                                                       =============
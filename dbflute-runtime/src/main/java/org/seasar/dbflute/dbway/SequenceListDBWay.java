@@ -0,0 +1,34 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.dbway;
+
+/**
+ * The optional interface of DB-way that can select next values of sequence as rows in one statement. <br />
+ * It is separated from {@link DBWay} so that your own DB-way does not need to implement it.
+ * If the DB-way does not implement this, next values for list are selected one by one.
+ * @author jflute
+ * @since 1.0.5K (2014/08/08 Friday)
+ */
+public interface SequenceListDBWay {
+
+    /**
+     * Build the SQL for next values of sequence as rows in one statement.
+     * @param sequenceName The sequence name. (NotNull)
+     * @param countExp The expression of the count of values, e.g. bind variable comment. (NotNull)
+     * @return The SQL for next values of sequence. (NullAllowed: if multi-row next value is unsupported)
+     */
+    String buildSequenceNextValListSql(String sequenceName, String countExp);
+}
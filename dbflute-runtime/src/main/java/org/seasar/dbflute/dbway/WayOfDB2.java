@@ -23,7 +23,7 @@ import java.util.List;
  * The DB-way of DB2.
  * @author jflute
  */
-public class WayOfDB2 implements DBWay, Serializable {
+public class WayOfDB2 implements DBWay, SequenceListDBWay, Serializable {
 
     // ===================================================================================
     //                                                                          Definition
@@ -40,6 +40,11 @@ public class WayOfDB2 implements DBWay, Serializable {
         return "values nextval for " + sequenceName;
     }
 
+    public String buildSequenceNextValListSql(String sequenceName, String countExp) {
+        final String viewSql = "values (1) union all select N + 1 from NUM where N < " + countExp;
+        return "with NUM (N) as (" + viewSql + ") select nextval for " + sequenceName + " from NUM";
+    }
+
     // ===================================================================================
     //                                                                        Identity Way
     //                                                                        ============
@@ -23,7 +23,7 @@ import java.util.List;
  * The DB-way of H2.
  * @author jflute
  */
-public class WayOfH2 implements DBWay, Serializable {
+public class WayOfH2 implements DBWay, SequenceListDBWay, Serializable {
 
     // ===================================================================================
     //                                                                          Definition
@@ -38,6 +38,10 @@ public class WayOfH2 implements DBWay, Serializable {
         return "select next value for " + sequenceName;
     }
 
+    public String buildSequenceNextValListSql(String sequenceName, String countExp) {
+        return "select next value for " + sequenceName + " from system_range(1, " + countExp + ")";
+    }
+
     // ===================================================================================
     //                                                                       Identity Info
     //                                                                       =============
@@ -23,7 +23,7 @@ import java.util.List;
  * The DB-way of Oracle.
  * @author jflute
  */
-public class WayOfOracle implements DBWay, Serializable {
+public class WayOfOracle implements DBWay, SequenceListDBWay, Serializable {
 
     // ===================================================================================
     //                                                                          Definition
@@ -40,6 +40,10 @@ public class WayOfOracle implements DBWay, Serializable {
         return "select " + sequenceName + ".nextval from dual";
     }
 
+    public String buildSequenceNextValListSql(String sequenceName, String countExp) {
+        return "select " + sequenceName + ".nextval from dual connect by level <= " + countExp;
+    }
+
     // ===================================================================================
     //                                                                       Identity Info
     //                                                                       =============
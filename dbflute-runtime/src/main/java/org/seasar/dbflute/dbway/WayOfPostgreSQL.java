@@ -25,7 +25,7 @@ import java.util.Map;
  * The DB-way of PostgreSQL.
  * @author jflute
  */
-public class WayOfPostgreSQL implements DBWay, Serializable {
+public class WayOfPostgreSQL implements DBWay, SequenceListDBWay, Serializable {
 
     // ===================================================================================
     //                                                                          Definition
@@ -40,6 +40,10 @@ public class WayOfPostgreSQL implements DBWay, Serializable {
         return "select nextval ('" + sequenceName + "')";
     }
 
+    public String buildSequenceNextValListSql(String sequenceName, String countExp) {
+        return "select nextval ('" + sequenceName + "') from generate_series(1, " + countExp + ")";
+    }
+
     // ===================================================================================
     //                                                                       Identity Info
     //                                                                       =============
@@ -49,7 +49,8 @@ public class DfBeanDescFactory {
         return beanDesc;
     }
 
-    public static void clear() {
+    public static void clear() { // e.g. HotDeploy dispose
         beanDescCache.clear();
+        DfFastAccessorFactory.clear(); // also generated constructors that refer to bean classes
     }
 }
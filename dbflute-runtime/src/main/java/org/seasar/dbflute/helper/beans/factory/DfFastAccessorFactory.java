@@ -0,0 +1,301 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.beans.factory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.seasar.dbflute.util.DfReflectionUtil;
+
+/**
+ * The factory of fast accessors (getter, setter and constructor) without reflection invoking. <br />
+ * The accessors are generated by LambdaMetafactory (Java8 or later) called by reflection,
+ * so they are called as plain interface methods after creation. <br />
+ * It returns null when the accessor cannot be created, e.g. older JVM, non-public class,
+ * method throwing checked exceptions, then callers should use reflection as before.
+ * @author jflute
+ * @since 1.0.5K (2014/08/17 Sunday)
+ */
+public class DfFastAccessorFactory {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The lookup of this class, having private access. (NullAllowed: older JVM) */
+    protected static final Object _ownLookup;
+
+    /** The method of MethodHandles.privateLookupIn() (Java9 or later). (NullAllowed: Java8 or older) */
+    protected static final Method _privateLookupInMethod;
+
+    /** The method of Lookup.unreflect(). (NullAllowed: older JVM) */
+    protected static final Method _unreflectMethod;
+
+    /** The method of Lookup.unreflectConstructor(). (NullAllowed: older JVM) */
+    protected static final Method _unreflectConstructorMethod;
+
+    /** The method of MethodType.methodType(Class, Class[]). (NullAllowed: older JVM) */
+    protected static final Method _methodTypeMethod;
+
+    /** The method of LambdaMetafactory.metafactory(). (NullAllowed: older JVM) */
+    protected static final Method _metafactoryMethod;
+
+    /** The method of CallSite.getTarget(). (NullAllowed: older JVM) */
+    protected static final Method _getTargetMethod;
+
+    /** The method of MethodHandle.invokeWithArguments(Object[]). (NullAllowed: older JVM) */
+    protected static final Method _invokeWithArgumentsMethod;
+
+    static {
+        Object ownLookup = null;
+        Method privateLookupInMethod = null;
+        Method unreflectMethod = null;
+        Method unreflectConstructorMethod = null;
+        Method methodTypeMethod = null;
+        Method metafactoryMethod = null;
+        Method getTargetMethod = null;
+        Method invokeWithArgumentsMethod = null;
+        try {
+            final Class<?> handlesType = Class.forName("java.lang.invoke.MethodHandles");
+            final Class<?> lookupType = Class.forName("java.lang.invoke.MethodHandles$Lookup");
+            final Class<?> methodTypeType = Class.forName("java.lang.invoke.MethodType");
+            final Class<?> handleType = Class.forName("java.lang.invoke.MethodHandle");
+            final Class<?> factoryType = Class.forName("java.lang.invoke.LambdaMetafactory");
+            unreflectMethod = lookupType.getMethod("unreflect", Method.class);
+            unreflectConstructorMethod = lookupType.getMethod("unreflectConstructor", Constructor.class);
+            methodTypeMethod = methodTypeType.getMethod("methodType", Class.class, Class[].class);
+            metafactoryMethod = factoryType.getMethod("metafactory", lookupType, String.class, methodTypeType,
+                    methodTypeType, handleType, methodTypeType);
+            getTargetMethod = Class.forName("java.lang.invoke.CallSite").getMethod("getTarget");
+            invokeWithArgumentsMethod = handleType.getMethod("invokeWithArguments", Object[].class);
+            try {
+                privateLookupInMethod = handlesType.getMethod("privateLookupIn", Class.class, lookupType);
+            } catch (NoSuchMethodException ignored) { // Java8, only public and visible classes
+            }
+            ownLookup = handlesType.getMethod("lookup").invoke(null); // lookup for this class
+        } catch (Exception ignored) { // e.g. older JVM, so reflection is used by callers
+            ownLookup = null;
+        }
+        _ownLookup = ownLookup;
+        _privateLookupInMethod = privateLookupInMethod;
+        _unreflectMethod = unreflectMethod;
+        _unreflectConstructorMethod = unreflectConstructorMethod;
+        _methodTypeMethod = methodTypeMethod;
+        _metafactoryMethod = metafactoryMethod;
+        _getTargetMethod = getTargetMethod;
+        _invokeWithArgumentsMethod = invokeWithArgumentsMethod;
+    }
+
+    /** The mark of unavailable constructor in the cache. */
+    protected static final Object UNAVAILABLE_MARK = new Object();
+
+    /** The cache of constructor keyed by bean class. (NotNull, the value is constructor or unavailable mark) */
+    protected static final Map<Class<?>, Object> constructorCache = new ConcurrentHashMap<Class<?>, Object>(256);
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    protected DfFastAccessorFactory() {
+    }
+
+    // ===================================================================================
+    //                                                                           Accessors
+    //                                                                           =========
+    /**
+     * The getter of property, called as plain method.
+     */
+    public static interface FastGetter {
+
+        /**
+         * @param bean The bean having the property. (NotNull)
+         * @return The value of the property, primitive is boxed. (NullAllowed)
+         */
+        Object get(Object bean);
+    }
+
+    /**
+     * The setter of property, called as plain method.
+     */
+    public static interface FastSetter {
+
+        /**
+         * @param bean The bean having the property. (NotNull)
+         * @param value The value of the property, primitive is boxed. (NullAllowed: but not for primitive)
+         */
+        void set(Object bean, Object value);
+    }
+
+    /**
+     * The no-argument constructor of bean, called as plain method.
+     */
+    public static interface FastConstructor {
+
+        /**
+         * @return The new-created instance of the bean. (NotNull)
+         */
+        Object newInstance();
+    }
+
+    // ===================================================================================
+    //                                                                              Create
+    //                                                                              ======
+    /**
+     * @param readMethod The read method of property, which has no argument. (NotNull)
+     * @return The fast getter for the method. (NullAllowed: when unavailable)
+     */
+    public static FastGetter createGetter(Method readMethod) {
+        if (!isMethodTarget(readMethod) || readMethod.getParameterTypes().length != 0
+                || readMethod.getReturnType() == void.class) {
+            return null;
+        }
+        final Class<?> declaringType = readMethod.getDeclaringClass();
+        final Class<?> returnType = toWrapperIfPrimitive(readMethod.getReturnType());
+        return (FastGetter) generate(declaringType, readMethod, FastGetter.class, "get", Object.class,
+                new Class<?>[] { Object.class }, returnType, new Class<?>[] { declaringType });
+    }
+
+    /**
+     * @param writeMethod The write method of property, which has one argument. (NotNull)
+     * @return The fast setter for the method. (NullAllowed: when unavailable)
+     */
+    public static FastSetter createSetter(Method writeMethod) {
+        if (!isMethodTarget(writeMethod) || writeMethod.getParameterTypes().length != 1) {
+            return null;
+        }
+        final Class<?> declaringType = writeMethod.getDeclaringClass();
+        final Class<?> argType = toWrapperIfPrimitive(writeMethod.getParameterTypes()[0]);
+        return (FastSetter) generate(declaringType, writeMethod, FastSetter.class, "set", void.class,
+                new Class<?>[] { Object.class, Object.class }, void.class, new Class<?>[] { declaringType, argType });
+    }
+
+    /**
+     * @param beanType The type of bean that has public no-argument constructor. (NotNull)
+     * @return The fast constructor for the type. (NullAllowed: when unavailable)
+     */
+    public static FastConstructor createConstructor(Class<?> beanType) {
+        if (_ownLookup == null || Modifier.isAbstract(beanType.getModifiers()) || beanType.isInterface()) {
+            return null;
+        }
+        final Constructor<?> constructor;
+        try {
+            constructor = beanType.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (SecurityException e) {
+            return null;
+        }
+        if (constructor.getExceptionTypes().length > 0 || !isAccessibleHost(beanType)) {
+            return null;
+        }
+        return (FastConstructor) generate(beanType, constructor, FastConstructor.class, "newInstance",
+                Object.class, new Class<?>[] {}, beanType, new Class<?>[] {});
+    }
+
+    /**
+     * Find the fast constructor for the type from the cache, creating it at first time.
+     * @param beanType The type of bean. (NotNull)
+     * @return The cached fast constructor. (NullAllowed: when unavailable, also cached)
+     */
+    public static FastConstructor findConstructor(Class<?> beanType) {
+        final Object cached = constructorCache.get(beanType);
+        if (cached != null) {
+            return cached != UNAVAILABLE_MARK ? (FastConstructor) cached : null;
+        }
+        final FastConstructor constructor = createConstructor(beanType);
+        constructorCache.put(beanType, constructor != null ? constructor : UNAVAILABLE_MARK);
+        return constructor;
+    }
+
+    public static void clear() {
+        constructorCache.clear();
+    }
+
+    // ===================================================================================
+    //                                                                          Generation
+    //                                                                          ==========
+    protected static boolean isMethodTarget(Method method) {
+        if (_ownLookup == null || method.getExceptionTypes().length > 0) { // checked exceptions cannot be thrown
+            return false;
+        }
+        final int modifiers = method.getModifiers();
+        if (Modifier.isStatic(modifiers) || !Modifier.isPublic(modifiers)) {
+            return false;
+        }
+        return isAccessibleHost(method.getDeclaringClass());
+    }
+
+    protected static boolean isAccessibleHost(Class<?> hostType) {
+        // only public types as reflection without accessible flag (non-public types fail there)
+        for (Class<?> type = hostType; type != null; type = type.getEnclosingClass()) {
+            if (!Modifier.isPublic(type.getModifiers())) {
+                return false;
+            }
+        }
+        if (_privateLookupInMethod != null) { // Java9 or later, generated in the host
+            return true;
+        }
+        // Java8: generated in this class so the host should be visible from here
+        try {
+            return Class.forName(hostType.getName(), false, DfFastAccessorFactory.class.getClassLoader()) == hostType;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    protected static Object generate(Class<?> hostType, Object member, Class<?> accessorType, String accessorName,
+            Class<?> erasedReturn, Class<?>[] erasedParams, Class<?> actualReturn, Class<?>[] actualParams) {
+        try {
+            Object lookup = _ownLookup;
+            if (_privateLookupInMethod != null) {
+                lookup = _privateLookupInMethod.invoke(null, hostType, lookup);
+            }
+            final Object implHandle;
+            if (member instanceof Method) {
+                implHandle = _unreflectMethod.invoke(lookup, member);
+            } else {
+                implHandle = _unreflectConstructorMethod.invoke(lookup, member);
+            }
+            final Object factoryType = _methodTypeMethod.invoke(null, accessorType, new Class<?>[] {});
+            final Object erasedType = _methodTypeMethod.invoke(null, erasedReturn, erasedParams);
+            final Object actualType = _methodTypeMethod.invoke(null, actualReturn, actualParams);
+            final Object callSite = _metafactoryMethod.invoke(null, lookup, accessorName, factoryType, erasedType,
+                    implHandle, actualType);
+            final Object factoryHandle = _getTargetMethod.invoke(callSite);
+            return _invokeWithArgumentsMethod.invoke(factoryHandle, new Object[] { new Object[] {} });
+        } catch (Exception ignored) { // e.g. module restriction, so reflection is used by callers
+            return null;
+        } catch (LinkageError ignored) { // e.g. class loader problem
+            return null;
+        }
+    }
+
+    protected static Class<?> toWrapperIfPrimitive(Class<?> type) {
+        return type.isPrimitive() ? DfReflectionUtil.getWrapperClass(type) : type;
+    }
+
+    // ===================================================================================
+    //                                                                        Cache Status
+    //                                                                        ============
+    public static boolean isAvailable() {
+        return _ownLookup != null;
+    }
+
+    public static int getCachedConstructorSize() {
+        return constructorCache.size();
+    }
+}
@@ -25,6 +25,9 @@ import org.seasar.dbflute.exception.factory.ExceptionMessageBuilder;
 import org.seasar.dbflute.helper.beans.DfBeanDesc;
 import org.seasar.dbflute.helper.beans.DfPropertyDesc;
 import org.seasar.dbflute.helper.beans.exception.DfBeanIllegalPropertyException;
+import org.seasar.dbflute.helper.beans.factory.DfFastAccessorFactory;
+import org.seasar.dbflute.helper.beans.factory.DfFastAccessorFactory.FastGetter;
+import org.seasar.dbflute.helper.beans.factory.DfFastAccessorFactory.FastSetter;
 import org.seasar.dbflute.util.DfReflectionUtil;
 import org.seasar.dbflute.util.DfTypeUtil;
 
@@ -52,6 +55,12 @@ public class DfPropertyDescImpl implements DfPropertyDesc {
     protected boolean _readable;
     protected boolean _writable;
 
+    // fast accessors are prepared at first access (benign race, same accessor even if conflicted)
+    protected volatile FastGetter _fastGetter; // null if not prepared or unavailable
+    protected volatile boolean _fastGetterPrepared;
+    protected volatile FastSetter _fastSetter; // null if not prepared or unavailable
+    protected volatile boolean _fastSetterPrepared;
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -135,6 +144,7 @@ public class DfPropertyDescImpl implements DfPropertyDesc {
 
     public final void setReadMethod(Method readMethod) {
         _readMethod = readMethod;
+        _fastGetterPrepared = false; // prepared again if changed
         if (readMethod != null) {
             _readable = true;
         }
@@ -150,6 +160,7 @@ public class DfPropertyDescImpl implements DfPropertyDesc {
 
     public final void setWriteMethod(Method writeMethod) {
         _writeMethod = writeMethod;
+        _fastSetterPrepared = false;
         if (writeMethod != null) {
             _writable = true;
         }
@@ -186,6 +197,10 @@ public class DfPropertyDescImpl implements DfPropertyDesc {
         }
         try {
             if (hasReadMethod()) {
+                final FastGetter fastGetter = prepareFastGetter();
+                if (fastGetter != null) { // mainly here
+                    return fastGetter.get(target);
+                }
                 return DfReflectionUtil.invoke(_readMethod, target, EMPTY_ARGS);
             } else {
                 return DfReflectionUtil.getValue(_field, target);
@@ -228,6 +243,11 @@ public class DfPropertyDescImpl implements DfPropertyDesc {
         try {
             value = convertIfNeed(value);
             if (hasWriteMethod()) {
+                final FastSetter fastSetter = prepareFastSetter();
+                if (fastSetter != null) { // mainly here
+                    fastSetter.set(target, value);
+                    return;
+                }
                 DfReflectionUtil.invoke(_writeMethod, target, new Object[] { value });
             } else {
                 DfReflectionUtil.setValue(_field, target, value);
@@ -284,6 +304,25 @@ public class DfPropertyDescImpl implements DfPropertyDesc {
         br.addElement(_field);
     }
 
+    // ===================================================================================
+    //                                                                       Fast Accessor
+    //                                                                       =============
+    protected FastGetter prepareFastGetter() {
+        if (!_fastGetterPrepared) {
+            _fastGetter = DfFastAccessorFactory.createGetter(_readMethod);
+            _fastGetterPrepared = true;
+        }
+        return _fastGetter;
+    }
+
+    protected FastSetter prepareFastSetter() {
+        if (!_fastSetterPrepared) {
+            _fastSetter = DfFastAccessorFactory.createSetter(_writeMethod);
+            _fastSetterPrepared = true;
+        }
+        return _fastSetter;
+    }
+
     // ===================================================================================
     //                                                                       Determination
     //                                                                       =============
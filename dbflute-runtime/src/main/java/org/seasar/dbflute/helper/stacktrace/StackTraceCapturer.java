@@ -0,0 +1,201 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.stacktrace;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The capturer of stack trace limited to the head frames. <br />
+ * It walks only the needed frames by StackWalker (Java9 or later) called by reflection,
+ * and uses the stack trace of exception (materializing all frames) on older JVMs. <br />
+ * The frames of this capturer are not contained in the captured stack trace,
+ * so the first element is the caller of {@link #capture()}.
+ * @author jflute
+ * @since 1.0.5K (2014/08/12 Tuesday)
+ */
+public class StackTraceCapturer {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The instance of StackWalker showing reflection frames. (NullAllowed: older JVM) */
+    protected static final Object _stackWalker;
+
+    /** The method of StackWalker.walk(Function). (NullAllowed: older JVM) */
+    protected static final Method _walkMethod;
+
+    /** The type of java.util.function.Function for the walking function. (NullAllowed: older JVM) */
+    protected static final Class<?> _functionType;
+
+    /** The method of BaseStream.iterator() to pull frames lazily. (NullAllowed: older JVM) */
+    protected static final Method _iteratorMethod;
+
+    /** The method of StackFrame.toStackTraceElement(). (NullAllowed: older JVM) */
+    protected static final Method _toElementMethod;
+
+    static {
+        Object stackWalker = null;
+        Method walkMethod = null;
+        Class<?> functionType = null;
+        Method iteratorMethod = null;
+        Method toElementMethod = null;
+        try {
+            final Class<?> walkerType = Class.forName("java.lang.StackWalker");
+            final Class<?> optionType = Class.forName("java.lang.StackWalker$Option");
+            final Object showReflectFrames = optionType.getField("SHOW_REFLECT_FRAMES").get(null);
+            stackWalker = walkerType.getMethod("getInstance", optionType).invoke(null, showReflectFrames);
+            functionType = Class.forName("java.util.function.Function");
+            walkMethod = walkerType.getMethod("walk", functionType);
+            iteratorMethod = Class.forName("java.util.stream.BaseStream").getMethod("iterator");
+            toElementMethod = Class.forName("java.lang.StackWalker$StackFrame").getMethod("toStackTraceElement");
+        } catch (Exception ignored) { // e.g. older JVM, so uses stack trace of exception
+            stackWalker = null;
+        }
+        _stackWalker = stackWalker;
+        _walkMethod = walkMethod;
+        _functionType = functionType;
+        _iteratorMethod = iteratorMethod;
+        _toElementMethod = toElementMethod;
+    }
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The max size of captured frames. (NotMinus) */
+    protected final int _frameLimit;
+
+    /** The function given to StackWalker, stateless so shared by threads. (NullAllowed: older JVM) */
+    protected final Object _walkingFunction;
+
+    /** Is the walking by StackWalker disabled? e.g. when it has failed unexpectedly */
+    protected volatile boolean _walkerDisabled;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param frameLimit The max size of captured frames. (NotMinus)
+     */
+    public StackTraceCapturer(int frameLimit) {
+        if (frameLimit < 0) {
+            String msg = "The argument 'frameLimit' should not be minus: " + frameLimit;
+            throw new IllegalArgumentException(msg);
+        }
+        _frameLimit = frameLimit;
+        _walkingFunction = _stackWalker != null ? createWalkingFunction() : null;
+    }
+
+    protected Object createWalkingFunction() {
+        final ClassLoader loader = StackTraceCapturer.class.getClassLoader();
+        final Class<?>[] interfaces = new Class<?>[] { _functionType };
+        return Proxy.newProxyInstance(loader, interfaces, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getDeclaringClass() == Object.class) { // e.g. toString()
+                    return handleObjectMethod(proxy, method, args);
+                }
+                return collectFrames(args[0]); // apply(stream)
+            }
+        });
+    }
+
+    // ===================================================================================
+    //                                                                             Capture
+    //                                                                             =======
+    /**
+     * Capture the stack trace of the current thread limited to the frame limit.
+     * @return The array of head stack trace elements, the first is the caller. (NotNull)
+     */
+    public StackTraceElement[] capture() {
+        if (_walkingFunction != null && !_walkerDisabled) {
+            try {
+                return (StackTraceElement[]) _walkMethod.invoke(_stackWalker, _walkingFunction);
+            } catch (Exception e) { // basically no way
+                _walkerDisabled = true; // uses stack trace of exception after this
+            }
+        }
+        return trimStackTrace(new Exception().getStackTrace());
+    }
+
+    protected StackTraceElement[] collectFrames(Object stream) throws Exception {
+        final Iterator<?> frameIte = (Iterator<?>) _iteratorMethod.invoke(stream); // pulls frames lazily
+        final List<StackTraceElement> elementList = new ArrayList<StackTraceElement>(_frameLimit);
+        boolean capturerFound = false;
+        while (elementList.size() < _frameLimit && frameIte.hasNext()) {
+            final StackTraceElement element = (StackTraceElement) _toElementMethod.invoke(frameIte.next());
+            if (elementList.isEmpty()) { // head frames of walking
+                if (isCapturerElement(element)) {
+                    capturerFound = true;
+                    continue;
+                }
+                if (!capturerFound) { // reflection frames calling walk()
+                    continue;
+                }
+            }
+            elementList.add(element);
+        }
+        return elementList.toArray(new StackTraceElement[elementList.size()]);
+    }
+
+    protected StackTraceElement[] trimStackTrace(StackTraceElement[] stackTrace) {
+        int startIndex = 0;
+        while (startIndex < stackTrace.length && isCapturerElement(stackTrace[startIndex])) {
+            ++startIndex;
+        }
+        final int size = Math.min(stackTrace.length - startIndex, _frameLimit);
+        final StackTraceElement[] trimmed = new StackTraceElement[size];
+        System.arraycopy(stackTrace, startIndex, trimmed, 0, size);
+        return trimmed;
+    }
+
+    protected boolean isCapturerElement(StackTraceElement element) {
+        final String className = element.getClassName();
+        return StackTraceCapturer.class.getName().equals(className) || getClass().getName().equals(className);
+    }
+
+    protected Object handleObjectMethod(Object proxy, Method method, Object[] args) {
+        final String methodName = method.getName();
+        if ("equals".equals(methodName)) {
+            return proxy == args[0];
+        } else if ("hashCode".equals(methodName)) {
+            return System.identityHashCode(proxy);
+        } else {
+            return "walkingFunction:{frameLimit=" + _frameLimit + "}";
+        }
+    }
+
+    // ===================================================================================
+    //                                                                       Determination
+    //                                                                       =============
+    /**
+     * Does it walk only needed frames by StackWalker?
+     * @return The determination, true or false. (false if older JVM)
+     */
+    public boolean isWalkingLazily() {
+        return _walkingFunction != null && !_walkerDisabled;
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public int getFrameLimit() {
+        return _frameLimit;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.jdbc;
+
+import java.io.InputStream;
+import java.sql.SQLException;
+
+/**
+ * The handle of BLOB value to read or write it as binary stream. <br />
+ * The selected handle (e.g. by BlobHandleType) reads the value via the locator of the result set,
+ * so open it while the connection is alive, e.g. in cursor handler or in the same transaction. <br />
+ * You can also implement this to bind a large value without buffering whole bytes in memory.
+ * The stream opened for binding is read by the JDBC driver when executing, so DBFlute closes it with the statement.
+ * @author jflute
+ * @since 1.0.5K (2014/08/16 Saturday)
+ */
+public interface BlobHandle {
+
+    /**
+     * Open the stream of the BLOB value.
+     * @return The new-opened input stream. (NotNull)
+     * @throws SQLException When it fails to open the stream, e.g. the connection is already closed.
+     */
+    InputStream openStream() throws SQLException;
+
+    /**
+     * Get the length of the BLOB value.
+     * @return The count of bytes. (minus: unknown, then the stream is bound without length)
+     * @throws SQLException When it fails to get the length.
+     */
+    long length() throws SQLException;
+}
@@ -24,6 +24,7 @@ import org.seasar.dbflute.cbean.PagingBean;
 import org.seasar.dbflute.cbean.PagingHandler;
 import org.seasar.dbflute.cbean.PagingInvoker;
 import org.seasar.dbflute.cbean.PagingResultBean;
+import org.seasar.dbflute.cbean.ParallelPagingHandler;
 import org.seasar.dbflute.exception.EntityDuplicatedException;
 import org.seasar.dbflute.exception.FetchingOverSafetySizeException;
 import org.seasar.dbflute.exception.PagingOverSafetySizeException;
@@ -170,17 +171,25 @@ public abstract class AbstractOutsideSqlPagingExecutor<BEHAVIOR> {
     protected <ENTITY> PagingHandler<ENTITY> createPagingHandler(final String path, final PagingBean pmb,
             final Class<ENTITY> entityType) {
         final OutsideSqlEntityExecutor<BEHAVIOR> countExecutor = createCountExecutor();
-        return new PagingHandler<ENTITY>() {
+        return new ParallelPagingHandler<ENTITY>() {
             public PagingBean getPagingBean() {
                 return pmb;
             }
 
             public int count() {
-                pmb.xsetPaging(false);
+                return doCount(pmb);
+            }
+
+            public int countByCopy(PagingBean copiedBean) { // in other thread when parallel paging
+                return doCount(copiedBean);
+            }
+
+            protected int doCount(PagingBean countPmb) {
+                countPmb.xsetPaging(false);
                 try {
-                    return countExecutor.selectEntityWithDeletedCheck(path, pmb, Integer.class);
+                    return countExecutor.selectEntityWithDeletedCheck(path, countPmb, Integer.class);
                 } catch (EntityDuplicatedException e) { // means switching the select clause failed
-                    throwPagingCountSelectNotCountException(path, pmb, entityType, e);
+                    throwPagingCountSelectNotCountException(path, countPmb, entityType, e);
                     return -1; // unreachable
                 }
             }
@@ -18,11 +18,16 @@ package org.seasar.dbflute.resource;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.seasar.dbflute.dbmeta.DBMeta;
 import org.seasar.dbflute.jdbc.SqlLogInfo;
 import org.seasar.dbflute.jdbc.StatementConfig;
 
 /**
- * The context of internal map.
+ * The context of internal map. <br />
+ * Regular items are held as typed fields of the context instance,
+ * and the map is used only for extension keys. <br />
+ * The instance is reused while the invocation is on thread (also restored into it after recursive invoking),
+ * and removed from the thread when the context is cleared.
  * @author jflute
  */
 public class InternalMapContext {
@@ -31,13 +36,19 @@ public class InternalMapContext {
     //                                                                        Thread Local
     //                                                                        ============
     /** The thread-local for this. */
-    private static final ThreadLocal<Map<String, Object>> threadLocal = new ThreadLocal<Map<String, Object>>();
+    private static final ThreadLocal<InternalMapContext> threadLocal = new ThreadLocal<InternalMapContext>();
 
-    protected static void initializeIfNeeds() {
-        if (threadLocal.get() != null) {
-            return;
+    protected static InternalMapContext findContextOnThread() {
+        return threadLocal.get();
+    }
+
+    protected static InternalMapContext prepareContextOnThread() {
+        InternalMapContext context = threadLocal.get();
+        if (context == null) {
+            context = new InternalMapContext();
+            threadLocal.set(context);
         }
-        threadLocal.set(new HashMap<String, Object>());
+        return context;
     }
 
     /**
@@ -47,9 +58,8 @@ public class InternalMapContext {
      */
     public static Object getObject(String key) {
         // no use lazy-load to suppress waste instance
-        //initializeIfNeeds();
-        final Map<String, Object> map = threadLocal.get();
-        return map != null ? map.get(key) : null;
+        final InternalMapContext context = findContextOnThread();
+        return context != null && context._extensionMap != null ? context._extensionMap.get(key) : null;
     }
 
     /**
@@ -58,13 +68,15 @@ public class InternalMapContext {
      * @param value The value of the object. (NullAllowed)
      */
     public static void setObject(String key, Object value) {
-        initializeIfNeeds();
-        threadLocal.get().put(key, value);
+        prepareContextOnThread().prepareExtensionMap().put(key, value);
     }
 
+    /**
+     * Get the map for extension keys. (regular items are not contained)
+     * @return The map of extension objects. (NotNull)
+     */
     public static Map<String, Object> internalMap() {
-        initializeIfNeeds();
-        return threadLocal.get();
+        return prepareContextOnThread().prepareExtensionMap();
     }
 
     /**
@@ -72,66 +84,134 @@ public class InternalMapContext {
      * @return The determination, true or false.
      */
     public static boolean isExistInternalMapContextOnThread() {
-        return (threadLocal.get() != null);
+        return findContextOnThread() != null;
     }
 
     /**
-     * Clear internal-map-context on thread.
+     * Clear internal-map-context on thread. <br />
+     * The instance is removed from the thread, so nothing remains on pooled threads.
      */
     public static void clearInternalMapContextOnThread() {
-        threadLocal.set(null);
+        threadLocal.remove();
+    }
+
+    // -----------------------------------------------------
+    //                                          Save/Restore
+    //                                          ------------
+    /**
+     * Copy the internal-map-context on thread, e.g. to save it before recursive invoking.
+     * @return The detached copy of the context. (NullAllowed: when no context on thread)
+     */
+    public static InternalMapContext copyInternalMapContextOnThread() {
+        final InternalMapContext context = findContextOnThread();
+        if (context == null) {
+            return null;
+        }
+        final InternalMapContext copy = new InternalMapContext();
+        copy.acceptContext(context);
+        return copy;
+    }
+
+    /**
+     * Restore the internal-map-context on thread by the copy. (current values are overridden)
+     * @param savedContext The copy of the context returned by copy method. (NotNull)
+     */
+    public static void restoreInternalMapContextOnThread(InternalMapContext savedContext) {
+        if (savedContext == null) {
+            String msg = "The argument 'savedContext' should not be null.";
+            throw new IllegalArgumentException(msg);
+        }
+        prepareContextOnThread().acceptContext(savedContext);
+    }
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected String _behaviorInvokeName;
+    protected String _clientInvokeName;
+    protected String _byPassInvokeName;
+    protected InvokePathProvider _invokePathProvider;
+    protected String _savedInvokePath;
+    protected SqlLogInfo _hookSqlLogInfo;
+    protected SqlLogInfo _resultSqlLogInfo;
+    protected Long _sqlBeforeTimeMillis;
+    protected Long _sqlAfterTimeMillis;
+    protected StatementConfig _updateStatementConfig;
+    protected Map<Class<?>, DBMeta> _dbmetaCacheMap;
+    protected Map<String, Object> _extensionMap; // lazy-loaded
+
+    // ===================================================================================
+    //                                                                    Instance Handling
+    //                                                                    =================
+    protected Map<String, Object> prepareExtensionMap() {
+        if (_extensionMap == null) {
+            _extensionMap = new HashMap<String, Object>();
+        }
+        return _extensionMap;
+    }
+
+    protected void acceptContext(InternalMapContext context) {
+        _behaviorInvokeName = context._behaviorInvokeName;
+        _clientInvokeName = context._clientInvokeName;
+        _byPassInvokeName = context._byPassInvokeName;
+        _invokePathProvider = context._invokePathProvider;
+        _savedInvokePath = context._savedInvokePath;
+        _hookSqlLogInfo = context._hookSqlLogInfo;
+        _resultSqlLogInfo = context._resultSqlLogInfo;
+        _sqlBeforeTimeMillis = context._sqlBeforeTimeMillis;
+        _sqlAfterTimeMillis = context._sqlAfterTimeMillis;
+        _updateStatementConfig = context._updateStatementConfig;
+        _dbmetaCacheMap = context._dbmetaCacheMap;
+        if (context._extensionMap != null) {
+            _extensionMap = new HashMap<String, Object>(context._extensionMap);
+        } else {
+            _extensionMap = null;
+        }
     }
 
     // ===================================================================================
     //                                                                        Regular Item
     //                                                                        ============
-    protected static final String KEY_BEHAVIOR_INVOKE_NAME = "df:BehaviorInvokeName";
-    protected static final String KEY_CLIENT_INVOKE_NAME = "df:ClientInvokeName";
-    protected static final String KEY_BYPASS_INVOKE_NAME = "df:ByPassInvokeName";
-    protected static final String KEY_SAVED_INVOKE_PATH = "df:SavedInvokePath";
-    protected static final String KEY_INVOKE_PATH_PROVIDER = "df:InvokePathProvider";
-    protected static final String KEY_HOOK_SQL_LOG_INFO = "df:HookSqlLogInfo";
-    protected static final String KEY_RESULT_SQL_LOG_INFO = "df:ResultSqlLogInfo";
-    protected static final String KEY_SQL_BEFORE_TIME_MILLIS = "df:SqlBeforeTimeMillis";
-    protected static final String KEY_SQL_AFTER_TIME_MILLIS = "df:SqlAfterTimeMillis";
-    protected static final String KEY_UPDATE_STATEMENT_CONFIG = "df:UpdateStatementConfig";
-
     // -----------------------------------------------------
     //                                           Invoke Name
     //                                           -----------
     public static String getBehaviorInvokeName() {
-        return (String) getObject(KEY_BEHAVIOR_INVOKE_NAME);
+        final InternalMapContext context = findContextOnThread();
+        return context != null ? context._behaviorInvokeName : null;
     }
 
     public static void setBehaviorInvokeName(String behaviorInvokeName) {
-        setObject(KEY_BEHAVIOR_INVOKE_NAME, behaviorInvokeName);
+        prepareContextOnThread()._behaviorInvokeName = behaviorInvokeName;
     }
 
     public static String getClientInvokeName() {
-        return (String) getObject(KEY_CLIENT_INVOKE_NAME);
+        final InternalMapContext context = findContextOnThread();
+        return context != null ? context._clientInvokeName : null;
     }
 
     public static void setClientInvokeName(String clientInvokeName) {
-        setObject(KEY_CLIENT_INVOKE_NAME, clientInvokeName);
+        prepareContextOnThread()._clientInvokeName = clientInvokeName;
     }
 
     public static String getByPassInvokeName() {
-        return (String) getObject(KEY_BYPASS_INVOKE_NAME);
+        final InternalMapContext context = findContextOnThread();
+        return context != null ? context._byPassInvokeName : null;
     }
 
     public static void setByPassInvokeName(String byPassInvokeName) {
-        setObject(KEY_BYPASS_INVOKE_NAME, byPassInvokeName);
+        prepareContextOnThread()._byPassInvokeName = byPassInvokeName;
     }
 
     // -----------------------------------------------------
     //                                           Invoke Path
     //                                           -----------
     public static InvokePathProvider getInvokePathProvider() { // you can get it lazily
-        return (InvokePathProvider) getObject(KEY_INVOKE_PATH_PROVIDER);
+        final InternalMapContext context = findContextOnThread();
+        return context != null ? context._invokePathProvider : null;
     }
 
     public static void setInvokePathProvider(InvokePathProvider invokePathProvider) {
-        setObject(KEY_INVOKE_PATH_PROVIDER, invokePathProvider);
+        prepareContextOnThread()._invokePathProvider = invokePathProvider;
     }
 
     public static interface InvokePathProvider {
@@ -139,56 +219,78 @@ public class InternalMapContext {
     }
 
     public static String getSavedInvokePath() { // basically only called by provider
-        return (String) getObject(KEY_SAVED_INVOKE_PATH);
+        final InternalMapContext context = findContextOnThread();
+        return context != null ? context._savedInvokePath : null;
     }
 
     public static void setSavedInvokePath(String invokePath) {
-        setObject(KEY_SAVED_INVOKE_PATH, invokePath);
+        prepareContextOnThread()._savedInvokePath = invokePath;
     }
 
     // -----------------------------------------------------
     //                                            SqlLogInfo
     //                                            ----------
     public static SqlLogInfo getHookSqlLogInfo() {
-        return (SqlLogInfo) getObject(KEY_HOOK_SQL_LOG_INFO);
+        final InternalMapContext context = findContextOnThread();
+        return context != null ? context._hookSqlLogInfo : null;
     }
 
     public static void setHookSqlLogInfo(SqlLogInfo sqlLogInfo) {
-        setObject(KEY_HOOK_SQL_LOG_INFO, sqlLogInfo);
+        prepareContextOnThread()._hookSqlLogInfo = sqlLogInfo;
     }
 
     public static SqlLogInfo getResultSqlLogInfo() {
-        return (SqlLogInfo) getObject(KEY_RESULT_SQL_LOG_INFO);
+        final InternalMapContext context = findContextOnThread();
+        return context != null ? context._resultSqlLogInfo : null;
     }
 
     public static void setResultSqlLogInfo(SqlLogInfo sqlLogInfo) {
-        setObject(KEY_RESULT_SQL_LOG_INFO, sqlLogInfo);
+        prepareContextOnThread()._resultSqlLogInfo = sqlLogInfo;
     }
 
     public static Long getSqlBeforeTimeMillis() {
-        return (Long) getObject(KEY_SQL_BEFORE_TIME_MILLIS);
+        final InternalMapContext context = findContextOnThread();
+        return context != null ? context._sqlBeforeTimeMillis : null;
     }
 
     public static void setSqlBeforeTimeMillis(Long sqlBeforeTimeMillis) {
-        setObject(KEY_SQL_BEFORE_TIME_MILLIS, sqlBeforeTimeMillis);
+        prepareContextOnThread()._sqlBeforeTimeMillis = sqlBeforeTimeMillis;
     }
 
     public static Long getSqlAfterTimeMillis() {
-        return (Long) getObject(KEY_SQL_AFTER_TIME_MILLIS);
+        final InternalMapContext context = findContextOnThread();
+        return context != null ? context._sqlAfterTimeMillis : null;
     }
 
     public static void setSqlAfterTimeMillis(Long sqlAfterTimeMillis) {
-        setObject(KEY_SQL_AFTER_TIME_MILLIS, sqlAfterTimeMillis);
+        prepareContextOnThread()._sqlAfterTimeMillis = sqlAfterTimeMillis;
     }
 
     // -----------------------------------------------------
     //                            StatementConfig for Update
     //                            --------------------------
     public static StatementConfig getUpdateStatementConfig() {
-        return (StatementConfig) getObject(KEY_UPDATE_STATEMENT_CONFIG);
+        final InternalMapContext context = findContextOnThread();
+        return context != null ? context._updateStatementConfig : null;
     }
 
     public static void setUpdateStatementConfig(StatementConfig updateStatementConfig) {
-        setObject(KEY_UPDATE_STATEMENT_CONFIG, updateStatementConfig);
+        prepareContextOnThread()._updateStatementConfig = updateStatementConfig;
+    }
+
+    // -----------------------------------------------------
+    //                                          DBMeta Cache
+    //                                          ------------
+    /**
+     * Get the cache of DBMeta for row mapping.
+     * @return The map of DBMeta keyed by row type. (NullAllowed: when not cached yet)
+     */
+    public static Map<Class<?>, DBMeta> getDBMetaCacheMap() {
+        final InternalMapContext context = findContextOnThread();
+        return context != null ? context._dbmetaCacheMap : null;
+    }
+
+    public static void setDBMetaCacheMap(Map<Class<?>, DBMeta> dbmetaCacheMap) {
+        prepareContextOnThread()._dbmetaCacheMap = dbmetaCacheMap;
     }
 }
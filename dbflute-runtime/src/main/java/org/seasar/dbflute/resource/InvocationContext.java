@@ -0,0 +1,288 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.resource;
+
+import java.util.concurrent.Callable;
+
+import org.seasar.dbflute.AccessContext;
+import org.seasar.dbflute.CallbackContext;
+import org.seasar.dbflute.Entity;
+import org.seasar.dbflute.cbean.ConditionBean;
+import org.seasar.dbflute.cbean.ConditionBeanContext;
+import org.seasar.dbflute.cbean.EntityRowHandler;
+import org.seasar.dbflute.cbean.FetchAssistContext;
+import org.seasar.dbflute.jdbc.FetchBean;
+import org.seasar.dbflute.outsidesql.OutsideSqlContext;
+
+/**
+ * The context of invocation, which is a snapshot of thread-bound contexts of DBFlute. <br />
+ * It can be carried to another thread, e.g. executor, fork-join pool.
+ * <pre>
+ * final InvocationContext context = InvocationContext.capture(); // on caller thread
+ * executor.execute(context.wrap(new Runnable() {
+ *     public void run() {
+ *         ... = memberBhv.selectList(cb); // with contexts of the caller
+ *     }
+ * }));
+ * </pre>
+ * The contained contexts are:
+ * <pre>
+ * o ResourceContext
+ * o InternalMapContext (copied when captured)
+ * o ConditionBeanContext (condition-bean and entity row handler)
+ * o FetchAssistContext
+ * o OutsideSqlContext
+ * o AccessContext
+ * o CallbackContext
+ * </pre>
+ * The manual thread data source (connection) is not contained
+ * because connection cannot be shared between threads. <br />
+ * The contexts on the thread that runs the wrapped task are restored after the task. <br />
+ * The behavior command invoker also uses it to save the contexts of recursive invoking.
+ * @author jflute
+ * @since 1.0.5K (2014/08/12 Tuesday)
+ */
+public class InvocationContext {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected ResourceContext _resourceContext;
+    protected InternalMapContext _internalMapContext;
+    protected ConditionBean _conditionBean;
+    protected EntityRowHandler<? extends Entity> _entityRowHandler;
+    protected FetchBean _fetchBean;
+    protected OutsideSqlContext _outsideSqlContext;
+    protected AccessContext _accessContext;
+    protected CallbackContext _callbackContext;
+
+    // ===================================================================================
+    //                                                                             Capture
+    //                                                                             =======
+    /**
+     * Capture the contexts on the current thread.
+     * @return The new-created context of invocation that has the current contexts. (NotNull)
+     */
+    public static InvocationContext capture() {
+        final InvocationContext context = new InvocationContext();
+        context.doCapture();
+        return context;
+    }
+
+    /**
+     * Capture the contexts on the current thread, and wrap the task by them.
+     * @param task The task that is executed with the contexts, e.g. in other thread. (NotNull)
+     * @return The wrapped task. (NotNull)
+     */
+    public static Runnable propagate(Runnable task) {
+        return capture().wrap(task);
+    }
+
+    /**
+     * Capture the contexts on the current thread, and wrap the task by them.
+     * @param <RESULT> The type of result.
+     * @param task The task that is executed with the contexts, e.g. in other thread. (NotNull)
+     * @return The wrapped task. (NotNull)
+     */
+    public static <RESULT> Callable<RESULT> propagate(Callable<RESULT> task) {
+        return capture().wrap(task);
+    }
+
+    protected void doCapture() {
+        doCaptureInvoking();
+        _accessContext = AccessContext.getAccessContextOnThread();
+        _callbackContext = CallbackContext.getCallbackContextOnThread();
+    }
+
+    protected void doCaptureInvoking() {
+        _resourceContext = ResourceContext.getResourceContextOnThread();
+        // copied because the context is changed by executions on each thread
+        _internalMapContext = InternalMapContext.copyInternalMapContextOnThread();
+        _conditionBean = ConditionBeanContext.getConditionBeanOnThread();
+        _entityRowHandler = ConditionBeanContext.getEntityRowHandlerOnThread();
+        _fetchBean = FetchAssistContext.getFetchBeanOnThread();
+        _outsideSqlContext = OutsideSqlContext.getOutsideSqlContextOnThread();
+    }
+
+    // ===================================================================================
+    //                                                                              Attach
+    //                                                                              ======
+    /**
+     * Attach the contexts to the current thread. <br />
+     * The contexts that do not exist in this object are cleared on the thread.
+     * @return The context of invocation that has the contexts before attaching, to restore them. (NotNull)
+     */
+    public InvocationContext attach() {
+        final InvocationContext previous = new InvocationContext();
+        previous.doCapture();
+        doAttach();
+        return previous;
+    }
+
+    /**
+     * Restore the contexts to the current thread, the instance should be returned by attach().
+     */
+    public void restore() {
+        doAttach();
+    }
+
+    protected void doAttach() {
+        doAttachInvoking();
+        if (_accessContext != null) {
+            AccessContext.setAccessContextOnThread(_accessContext);
+        } else {
+            AccessContext.clearAccessContextOnThread();
+        }
+        if (_callbackContext != null) {
+            CallbackContext.setCallbackContextOnThread(_callbackContext);
+        } else {
+            CallbackContext.clearCallbackContextOnThread();
+        }
+    }
+
+    protected void doAttachInvoking() {
+        if (_resourceContext != null) {
+            ResourceContext.setResourceContextOnThread(_resourceContext);
+        } else {
+            ResourceContext.clearResourceContextOnThread();
+        }
+        if (_internalMapContext != null) { // values are copied to the context on thread
+            InternalMapContext.restoreInternalMapContextOnThread(_internalMapContext);
+        } else {
+            InternalMapContext.clearInternalMapContextOnThread();
+        }
+        if (_conditionBean != null) {
+            ConditionBeanContext.setConditionBeanOnThread(_conditionBean);
+        } else {
+            ConditionBeanContext.clearConditionBeanOnThread();
+        }
+        if (_entityRowHandler != null) {
+            ConditionBeanContext.setEntityRowHandlerOnThread(_entityRowHandler);
+        } else {
+            ConditionBeanContext.clearEntityRowHandlerOnThread();
+        }
+        if (_fetchBean != null) {
+            FetchAssistContext.setFetchBeanOnThread(_fetchBean);
+        } else {
+            FetchAssistContext.clearFetchBeanOnThread();
+        }
+        if (_outsideSqlContext != null) {
+            OutsideSqlContext.setOutsideSqlContextOnThread(_outsideSqlContext);
+        } else {
+            OutsideSqlContext.clearOutsideSqlContextOnThread();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                   Behavior Invoking
+    //                                                                   =================
+    /**
+     * Save the contexts of behavior invoking on the current thread, e.g. before recursive invoking. <br />
+     * The access and callback contexts are not contained because invoking does not change them.
+     * @return The new-created context of invocation to restore the contexts later. (NotNull)
+     */
+    public static InvocationContext saveInvoking() {
+        final InvocationContext context = new InvocationContext();
+        context.doCaptureInvoking();
+        return context;
+    }
+
+    /**
+     * Restore the contexts of behavior invoking to the current thread. <br />
+     * The instance should be returned by saveInvoking().
+     * The current contexts are overridden, or cleared if they do not exist in this object.
+     */
+    public void restoreInvoking() {
+        doAttachInvoking();
+    }
+
+    /**
+     * Clear the contexts of behavior invoking on the current thread. (access and callback contexts are not cleared)
+     */
+    public static void clearInvoking() {
+        ResourceContext.clearResourceContextOnThread();
+        InternalMapContext.clearInternalMapContextOnThread();
+        ConditionBeanContext.clearConditionBeanOnThread();
+        ConditionBeanContext.clearEntityRowHandlerOnThread();
+        FetchAssistContext.clearFetchBeanOnThread();
+        OutsideSqlContext.clearOutsideSqlContextOnThread();
+    }
+
+    // ===================================================================================
+    //                                                                                Wrap
+    //                                                                                ====
+    /**
+     * Wrap the task by the contexts of this object.
+     * @param task The task that is executed with the contexts. (NotNull)
+     * @return The wrapped task, which can be executed several times. (NotNull)
+     */
+    public Runnable wrap(final Runnable task) {
+        assertTaskNotNull(task);
+        return new Runnable() {
+            public void run() {
+                final InvocationContext previous = attach();
+                try {
+                    task.run();
+                } finally {
+                    previous.restore();
+                }
+            }
+        };
+    }
+
+    /**
+     * Wrap the task by the contexts of this object.
+     * @param <RESULT> The type of result.
+     * @param task The task that is executed with the contexts. (NotNull)
+     * @return The wrapped task, which can be executed several times. (NotNull)
+     */
+    public <RESULT> Callable<RESULT> wrap(final Callable<RESULT> task) {
+        assertTaskNotNull(task);
+        return new Callable<RESULT>() {
+            public RESULT call() throws Exception {
+                final InvocationContext previous = attach();
+                try {
+                    return task.call();
+                } finally {
+                    previous.restore();
+                }
+            }
+        };
+    }
+
+    protected void assertTaskNotNull(Object task) {
+        if (task == null) {
+            String msg = "The argument 'task' should not be null.";
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{resource=").append(_resourceContext != null);
+        sb.append(", internalMap=").append(_internalMapContext != null);
+        sb.append(", cb=").append(_conditionBean != null ? _conditionBean.getTableDbName() : null);
+        sb.append(", outsideSql=").append(_outsideSqlContext != null);
+        sb.append(", access=").append(_accessContext != null);
+        sb.append(", callback=").append(_callbackContext != null);
+        sb.append("}");
+        return sb.toString();
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Map;
 import org.seasar.dbflute.AccessContext;
 import org.seasar.dbflute.DBDef;
 import org.seasar.dbflute.bhv.core.BehaviorCommand;
+import org.seasar.dbflute.bhv.core.supplement.TwoWaySqlNodeCache;
 import org.seasar.dbflute.cbean.ConditionBean;
 import org.seasar.dbflute.cbean.ConditionBeanContext;
 import org.seasar.dbflute.cbean.cipher.ColumnFunctionCipher;
@@ -206,6 +207,17 @@ public class ResourceContext {
         throw new IllegalStateException(msg);
     }
 
+    /**
+     * Get the cache of analyzed nodes for dynamic two-way SQL.
+     * @return The cache instance. (NullAllowed: when no context or the cache is disabled)
+     */
+    public static TwoWaySqlNodeCache twoWaySqlNodeCache() {
+        if (!isExistResourceContextOnThread()) {
+            return null;
+        }
+        return getResourceContextOnThread().getTwoWaySqlNodeCache();
+    }
+
     public static SQLExceptionHandler createSQLExceptionHandler() {
         assertResourceContextExists();
         final ResourceContext context = getResourceContextOnThread();
@@ -266,6 +278,16 @@ public class ResourceContext {
         return resourceParameter != null ? resourceParameter.isInternalDebug() : false;
     }
 
+    public static boolean isLazyInvokePathCapture() {
+        final ResourceParameter resourceParameter = resourceParameter();
+        return resourceParameter != null ? resourceParameter.isLazyInvokePathCapture() : false;
+    }
+
+    public static int getInvocationLogSamplingInterval() {
+        final ResourceParameter resourceParameter = resourceParameter();
+        return resourceParameter != null ? resourceParameter.getInvocationLogSamplingInterval() : 0;
+    }
+
     protected static ResourceParameter resourceParameter() {
         if (!isExistResourceContextOnThread()) {
             return null;
@@ -370,6 +392,45 @@ public class ResourceContext {
         }
     }
 
+    /**
+     * Find the JDBC column index of the local column. <br />
+     * It uses the select index if it exists, otherwise it finds the index by the column label.
+     * @param rs The result set. (NotNull)
+     * @param columnName The name of column, which is key of select index. (NotNull)
+     * @param selectIndexMap The map of select index. (NullAllowed: null means select index is disabled)
+     * @return The column index for the result set. (NotMinus)
+     * @throws SQLException When the column is not found in the result set.
+     */
+    public static int findLocalSelectIndex(ResultSet rs, String columnName,
+            Map<String, Map<String, Integer>> selectIndexMap) throws SQLException {
+        return doFindSelectIndex(rs, SqlClause.BASE_POINT_HANDLING_ENTITY_NO, columnName, selectIndexMap);
+    }
+
+    /**
+     * Find the JDBC column index of the relation column.
+     * @param rs The result set. (NotNull)
+     * @param relationNoSuffix The relation No suffix that indicates the location of the relation. (NotNull)
+     * @param columnName The name of column, which is key of select index. (NotNull)
+     * @param selectIndexMap The map of select index. (NullAllowed: null means select index is disabled)
+     * @return The column index for the result set. (NotMinus)
+     * @throws SQLException When the column is not found in the result set.
+     */
+    public static int findRelationSelectIndex(ResultSet rs, String relationNoSuffix, String columnName,
+            Map<String, Map<String, Integer>> selectIndexMap) throws SQLException {
+        return doFindSelectIndex(rs, relationNoSuffix, columnName, selectIndexMap);
+    }
+
+    protected static int doFindSelectIndex(ResultSet rs, String entityNo, String columnName,
+            Map<String, Map<String, Integer>> selectIndexMap) throws SQLException {
+        final Map<String, Integer> innerMap = selectIndexMap != null ? selectIndexMap.get(entityNo) : null;
+        final Integer selectIndex = innerMap != null ? innerMap.get(columnName) : null;
+        if (selectIndex != null) {
+            return selectIndex;
+        } else { // same resolution as getting value by column name
+            return rs.findColumn(columnName);
+        }
+    }
+
     public static boolean isOutOfLocalSelectIndex(String columnDbName, Map<String, Map<String, Integer>> selectIndexMap)
             throws SQLException {
         // if use select index (basically ConditionBean) but no select index for the column,
@@ -413,6 +474,7 @@ public class ResourceContext {
     protected DBMetaProvider _dbmetaProvider;
     protected SqlClauseCreator _sqlClauseCreator;
     protected SqlAnalyzerFactory _sqlAnalyzerFactory;
+    protected TwoWaySqlNodeCache _twoWaySqlNodeCache;
     protected SQLExceptionHandlerFactory _sqlExceptionHandlerFactory;
     protected GearedCipherManager _gearedCipherManager;
     protected ResourceParameter _resourceParameter;
@@ -479,6 +541,14 @@ public class ResourceContext {
         _sqlAnalyzerFactory = sqlAnalyzerFactory;
     }
 
+    public TwoWaySqlNodeCache getTwoWaySqlNodeCache() {
+        return _twoWaySqlNodeCache;
+    }
+
+    public void setTwoWaySqlNodeCache(TwoWaySqlNodeCache twoWaySqlNodeCache) {
+        _twoWaySqlNodeCache = twoWaySqlNodeCache;
+    }
+
     public SQLExceptionHandlerFactory getSQLExceptionHandlerFactory() {
         return _sqlExceptionHandlerFactory;
     }
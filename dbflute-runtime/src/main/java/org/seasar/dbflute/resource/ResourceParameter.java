@@ -28,6 +28,8 @@ public class ResourceParameter {
     protected String _logDateFormat;
     protected String _logTimestampFormat;
     protected boolean _internalDebug;
+    protected boolean _lazyInvokePathCapture;
+    protected int _invocationLogSamplingInterval;
 
     // ===================================================================================
     //                                                                            Accessor
@@ -63,4 +65,20 @@ public class ResourceParameter {
     public void setInternalDebug(boolean internalDebug) {
         _internalDebug = internalDebug;
     }
+
+    public boolean isLazyInvokePathCapture() {
+        return _lazyInvokePathCapture;
+    }
+
+    public void setLazyInvokePathCapture(boolean lazyInvokePathCapture) {
+        _lazyInvokePathCapture = lazyInvokePathCapture;
+    }
+
+    public int getInvocationLogSamplingInterval() {
+        return _invocationLogSamplingInterval;
+    }
+
+    public void setInvocationLogSamplingInterval(int invocationLogSamplingInterval) {
+        _invocationLogSamplingInterval = invocationLogSamplingInterval;
+    }
 }
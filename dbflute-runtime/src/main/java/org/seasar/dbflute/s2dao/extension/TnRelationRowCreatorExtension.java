@@ -15,17 +15,12 @@
  */
 package org.seasar.dbflute.s2dao.extension;
 
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import org.seasar.dbflute.Entity;
 import org.seasar.dbflute.dbmeta.DBMeta;
 import org.seasar.dbflute.dbmeta.info.ColumnInfo;
-import org.seasar.dbflute.jdbc.ValueType;
-import org.seasar.dbflute.resource.ResourceContext;
 import org.seasar.dbflute.s2dao.metadata.TnBeanMetaData;
 import org.seasar.dbflute.s2dao.metadata.TnPropertyMapping;
 import org.seasar.dbflute.s2dao.metadata.TnPropertyType;
@@ -33,6 +28,7 @@ import org.seasar.dbflute.s2dao.metadata.TnRelationPropertyType;
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationKey;
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationRowCache;
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationRowCreationResource;
+import org.seasar.dbflute.s2dao.rowcreator.TnRowMappingPlan;
 import org.seasar.dbflute.s2dao.rowcreator.impl.TnRelationRowCreatorImpl;
 import org.seasar.dbflute.s2dao.rshandler.TnBeanListResultSetHandler;
 import org.seasar.dbflute.util.DfReflectionUtil;
@@ -91,15 +87,16 @@ public class TnRelationRowCreatorExtension extends TnRelationRowCreatorImpl {
     //                                                             =======================
     @Override
     protected void setupRelationAllValue(TnRelationRowCreationResource res) throws SQLException {
-        final Map<String, TnPropertyMapping> propertyCacheElement = res.extractPropertyCacheElement();
-        for (Entry<String, TnPropertyMapping> entry : propertyCacheElement.entrySet()) {
-            final TnPropertyMapping pt = entry.getValue();
+        final TnRowMappingPlan mappingPlan = res.prepareRowMappingPlan();
+        final int size = mappingPlan.size();
+        for (int i = 0; i < size; i++) {
+            final TnPropertyMapping pt = mappingPlan.getPropertyMapping(i);
             res.setCurrentPropertyType(pt);
             if (!isValidRelationPerPropertyLoop(res)) { // no way unless the method is overridden
                 res.clearRowInstance();
                 return;
             }
-            setupRelationProperty(res);
+            setupRelationProperty(res, mappingPlan, i);
         }
         if (!isValidRelationAfterPropertyLoop(res)) { // e.g. when all values are null
             res.clearRowInstance();
@@ -112,16 +109,20 @@ public class TnRelationRowCreatorExtension extends TnRelationRowCreatorImpl {
         setupNextRelationRow(res);
     }
 
-    protected void setupRelationProperty(TnRelationRowCreationResource res) throws SQLException {
-        final String columnName = res.buildRelationColumnName();
+    protected void setupRelationProperty(TnRelationRowCreationResource res, TnRowMappingPlan mappingPlan, int index)
+            throws SQLException {
+        // the key of property cache is same as relation column name
+        // so it does not need to build the name per row
+        final String columnName = mappingPlan.getColumnName(index);
         // already created here, this is old S2Dao logic 
         //if (!res.hasRowInstance()) {
         //    res.setRow(newRelationRow(res));
         //}
-        registerRelationValue(res, columnName);
+        registerRelationValue(res, mappingPlan, index, columnName);
     }
 
-    protected void registerRelationValue(TnRelationRowCreationResource res, String columnName) throws SQLException {
+    protected void registerRelationValue(TnRelationRowCreationResource res, TnRowMappingPlan mappingPlan, int index,
+            String columnName) throws SQLException {
         final TnPropertyMapping mapping = res.getCurrentPropertyMapping();
         Object value = null;
         if (res.containsRelationKeyColumn(columnName)) { // #RELKEY
@@ -129,15 +130,8 @@ public class TnRelationRowCreatorExtension extends TnRelationRowCreatorImpl {
             // for performance and avoiding twice getting same column value
             value = res.extractRelationKeyValue(columnName);
         } else {
-            final ValueType valueType = mapping.getValueType();
-            final Map<String, Map<String, Integer>> selectIndexMap = res.getSelectIndexMap();
-            final ResultSet rs = res.getResultSet();
-            if (selectIndexMap != null) {
-                final String relationNoSuffix = res.getRelationNoSuffix();
-                value = ResourceContext.getRelationValue(rs, relationNoSuffix, columnName, valueType, selectIndexMap);
-            } else {
-                value = valueType.getValue(rs, columnName);
-            }
+            // the column index is fixed by the plan (also select index is resolved)
+            value = mappingPlan.getValue(res.getResultSet(), index);
         }
         if (value != null) {
             res.incrementValidValueCount();
@@ -17,10 +17,10 @@ package org.seasar.dbflute.s2dao.extension;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -41,6 +41,7 @@ import org.seasar.dbflute.resource.InternalMapContext;
 import org.seasar.dbflute.resource.ResourceContext;
 import org.seasar.dbflute.s2dao.metadata.TnBeanMetaData;
 import org.seasar.dbflute.s2dao.metadata.TnPropertyMapping;
+import org.seasar.dbflute.s2dao.rowcreator.TnRowMappingPlan;
 import org.seasar.dbflute.s2dao.rowcreator.impl.TnRowCreatorImpl;
 import org.seasar.dbflute.s2dao.valuetype.TnValueTypes;
 import org.seasar.dbflute.util.DfTypeUtil;
@@ -56,9 +57,6 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
     /** Log instance. */
     private static final Log _log = LogFactory.getLog(TnRowCreatorExtension.class);
 
-    /** The key of DBMeta cache. */
-    protected static final String DBMETA_CACHE_KEY = "df:DBMetaCache";
-
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
@@ -119,17 +117,31 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
      */
     public Object createRow(ResultSet rs, Map<String, Map<String, Integer>> selectIndexMap,
             Map<String, TnPropertyMapping> propertyCache, Class<?> beanClass) throws SQLException {
+        assertPropertyCacheNotEmpty(propertyCache, beanClass);
+        // the plan for only this row, column indexes are resolved by the names here
+        final TnRowMappingPlan mappingPlan = TnRowMappingPlan.createLocalPlan(rs, selectIndexMap, propertyCache);
+        return doCreateRow(rs, mappingPlan, beanClass);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object createRow(ResultSet rs, TnRowMappingPlan mappingPlan, Class<?> beanClass) throws SQLException {
+        assertPropertyCacheNotEmpty(mappingPlan.getPropertyCache(), beanClass);
+        return doCreateRow(rs, mappingPlan, beanClass);
+    }
+
+    protected void assertPropertyCacheNotEmpty(Map<String, TnPropertyMapping> propertyCache, Class<?> beanClass) {
         if (propertyCache.isEmpty()) {
             String msg = "The propertyCache should not be empty: bean=" + beanClass.getName();
             throw new IllegalStateException(msg);
         }
+    }
 
+    protected Object doCreateRow(ResultSet rs, TnRowMappingPlan mappingPlan, Class<?> beanClass) throws SQLException {
         // temporary variable, for exception message, debug message
-        String columnName = null;
         TnPropertyMapping mapping = null;
-        String propertyName = null;
         Object selectedValue = null;
-        ColumnInfo columnInfo = null;
 
         final Object row;
         final DBMeta dbmeta;
@@ -144,16 +156,15 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
             row = newBean(beanClass);
             dbmeta = findCachedDBMeta(row); // find just in case
         }
+        final int size = mappingPlan.size();
         try {
             if (dbmeta != null) { // mainly here
                 final boolean isEntity = row instanceof Entity; // almost always true
                 final Entity entityRow = isEntity ? (Entity) row : null;
-                for (Entry<String, TnPropertyMapping> entry : propertyCache.entrySet()) {
-                    columnName = entry.getKey();
-                    mapping = entry.getValue();
-                    propertyName = mapping.getPropertyName();
-                    selectedValue = getValue(rs, columnName, mapping.getValueType(), selectIndexMap);
-                    columnInfo = mapping.getEntityColumnInfo();
+                for (int i = 0; i < size; i++) {
+                    mapping = mappingPlan.getPropertyMapping(i);
+                    selectedValue = mappingPlan.getValue(rs, i);
+                    final ColumnInfo columnInfo = mappingPlan.getColumnInfo(i);
                     if (columnInfo != null && isEntity) {
                         columnInfo.write(entityRow, selectedValue);
                     } else {
@@ -161,14 +172,12 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
                     }
                 }
                 if (canHandleDerivedMap(row)) {
-                    processDerivedMap(rs, selectIndexMap, propertyCache, row);
+                    processDerivedMap(rs, mappingPlan, row);
                 }
             } else { // not DBFlute entity
-                for (Entry<String, TnPropertyMapping> entry : propertyCache.entrySet()) {
-                    columnName = entry.getKey();
-                    mapping = entry.getValue();
-                    propertyName = mapping.getPropertyName();
-                    selectedValue = getValue(rs, columnName, mapping.getValueType(), selectIndexMap);
+                for (int i = 0; i < size; i++) {
+                    mapping = mappingPlan.getPropertyMapping(i);
+                    selectedValue = mappingPlan.getValue(rs, i);
                     mapping.getPropertyAccessor().setValue(row, selectedValue);
                 }
             }
@@ -179,6 +188,7 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
         } catch (SQLException e) {
             if (_log.isDebugEnabled()) {
                 String msg = "Failed to get selected values while resultSet handling:";
+                final String propertyName = mapping != null ? mapping.getPropertyName() : null;
                 msg = msg + " target=" + DfTypeUtil.toClassTitle(beanClass) + "." + propertyName;
                 _log.debug(msg);
             }
@@ -190,15 +200,43 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
         return row instanceof DerivedMappable && ConditionBeanContext.isExistConditionBeanOnThread();
     }
 
-    protected void processDerivedMap(ResultSet rs, Map<String, Map<String, Integer>> selectIndexMap,
-            Map<String, TnPropertyMapping> propertyCache, Object row) throws SQLException {
+    /**
+     * Process derived map by the plan, deriving aliases are resolved to column indexes at the first row.
+     * @param rs The result set positioned at the current row. (NotNull)
+     * @param mappingPlan The plan of row mapping, which has deriving elements after preparation. (NotNull)
+     * @param row The created row that is derived-mappable. (NotNull)
+     * @throws SQLException When it fails to get the value.
+     */
+    protected void processDerivedMap(ResultSet rs, TnRowMappingPlan mappingPlan, Object row) throws SQLException {
         final ConditionBean cb = ConditionBeanContext.getConditionBeanOnThread();
         final SqlClause sqlClause = cb.getSqlClause();
         if (!sqlClause.hasSpecifiedDerivingSubQuery()) {
             return;
         }
+        if (!mappingPlan.isDerivingPrepared()) {
+            prepareDerivingPlan(rs, mappingPlan, cb, sqlClause);
+        }
+        final int size = mappingPlan.derivingSize();
+        if (size == 0) {
+            return;
+        }
         final DerivedMappable mappable = (DerivedMappable) row;
+        final DerivedTypeHandler typeHandler = cb.xgetDerivedTypeHandler(); // already checked in preparation
+        for (int i = 0; i < size; i++) {
+            final HpDerivingSubQueryInfo derivingInfo = mappingPlan.getDerivingInfo(i);
+            Object selectedValue = mappingPlan.getDerivingValue(rs, i);
+            selectedValue = typeHandler.convertToMapValue(derivingInfo, selectedValue);
+            mappable.registerDerivedValue(mappingPlan.getDerivingAlias(i), selectedValue);
+        }
+    }
+
+    protected void prepareDerivingPlan(ResultSet rs, TnRowMappingPlan mappingPlan, ConditionBean cb,
+            SqlClause sqlClause) throws SQLException {
+        final Map<String, TnPropertyMapping> propertyCache = mappingPlan.getPropertyCache();
         final List<String> derivingAliasList = sqlClause.getSpecifiedDerivingAliasList();
+        final List<String> aliasList = new ArrayList<String>(derivingAliasList.size());
+        final List<HpDerivingSubQueryInfo> infoList = new ArrayList<HpDerivingSubQueryInfo>(derivingAliasList.size());
+        final List<ValueType> valueTypeList = new ArrayList<ValueType>(derivingAliasList.size());
         DerivedTypeHandler typeHandler = null;
         for (String derivingAlias : derivingAliasList) {
             // propertyCache has alias name when derived-referrer as case-insensitive
@@ -213,22 +251,11 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
                 }
             }
             final HpDerivingSubQueryInfo derivingInfo = sqlClause.getSpecifiedDerivingInfo(derivingAlias);
-            final ValueType valueType = TnValueTypes.getValueType(typeHandler.findMappingType(derivingInfo));
-            Object selectedValue = getValue(rs, derivingAlias, valueType, selectIndexMap);
-            selectedValue = typeHandler.convertToMapValue(derivingInfo, selectedValue);
-            mappable.registerDerivedValue(derivingAlias, selectedValue);
+            aliasList.add(derivingAlias);
+            infoList.add(derivingInfo);
+            valueTypeList.add(TnValueTypes.getValueType(typeHandler.findMappingType(derivingInfo)));
         }
-    }
-
-    protected Object getValue(ResultSet rs, String columnName, ValueType valueType,
-            Map<String, Map<String, Integer>> selectIndexMap) throws SQLException {
-        final Object value;
-        if (selectIndexMap != null) {
-            value = ResourceContext.getLocalValue(rs, columnName, valueType, selectIndexMap);
-        } else {
-            value = valueType.getValue(rs, columnName);
-        }
-        return value;
+        mappingPlan.prepareDeriving(rs, aliasList, infoList, valueTypeList);
     }
 
     protected void throwMappingClassCastException(Object entity, DBMeta dbmeta, TnPropertyMapping mapping,
@@ -286,9 +313,6 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
 
     protected static class DBMetaCacheHandler {
 
-        /** The key of DBMeta cache. */
-        protected static final String DBMETA_CACHE_KEY = "df:DBMetaCache";
-
         public static DBMeta findDBMeta(Object row) {
             if (!(row instanceof Entity)) {
                 return null;
@@ -318,7 +342,7 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
             Map<Class<?>, DBMeta> contextCacheMap = getDBMetaContextCacheMap();
             if (contextCacheMap == null) {
                 contextCacheMap = new HashMap<Class<?>, DBMeta>();
-                InternalMapContext.setObject(DBMETA_CACHE_KEY, contextCacheMap);
+                InternalMapContext.setDBMetaCacheMap(contextCacheMap);
             }
             return contextCacheMap.get(rowType);
         }
@@ -332,9 +356,8 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
             dbmetaCache.put(type, dbmeta);
         }
 
-        @SuppressWarnings("unchecked")
         protected static Map<Class<?>, DBMeta> getDBMetaContextCacheMap() {
-            return (Map<Class<?>, DBMeta>) InternalMapContext.getObject(DBMETA_CACHE_KEY);
+            return InternalMapContext.getDBMetaCacheMap();
         }
     }
 
@@ -17,6 +17,7 @@ package org.seasar.dbflute.s2dao.rowcreator;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +51,12 @@ public class TnRelationRowCache {
     /** Can the relation row cache? */
     protected final boolean _canCache;
 
+    /** The map of row mapping plan. map:{relationPath = plan} (NotNull, LazyLoad) */
+    protected Map<String, TnRowMappingPlan> _mappingPlanMap;
+
+    /** The map of relation key plan. map:{relationPath = key plan} (NotNull, LazyLoad) */
+    protected Map<String, TnRelationKeyPlan> _keyPlanMap;
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -100,11 +107,38 @@ public class TnRelationRowCache {
         elementMap.put(relKey, relationRow);
     }
 
+    // ===================================================================================
+    //                                                                        Mapping Plan
+    //                                                                        ============
+    /**
+     * Get the plan of row mapping for the relation. <br />
+     * The plan is always cached regardless of row cache because column indexes are fixed in one select.
+     * @param relationNoSuffix The relation No suffix that indicates the location of the relation.
+     * @return The plan of row mapping. (NullAllowed: when not created yet)
+     */
+    public TnRowMappingPlan getMappingPlan(String relationNoSuffix) {
+        return _mappingPlanMap != null ? _mappingPlanMap.get(relationNoSuffix) : null;
+    }
+
+    /**
+     * Add the plan of row mapping for the relation.
+     * @param relationNoSuffix The relation No suffix that indicates the location of the relation.
+     * @param mappingPlan The plan of row mapping. (NotNull)
+     */
+    public void addMappingPlan(String relationNoSuffix, TnRowMappingPlan mappingPlan) {
+        if (_mappingPlanMap == null) {
+            _mappingPlanMap = new HashMap<String, TnRowMappingPlan>();
+        }
+        _mappingPlanMap.put(relationNoSuffix, mappingPlan);
+    }
+
     // ===================================================================================
     //                                                                        Key Creation
     //                                                                        ============
     /**
-     * Create the key of relation.
+     * Create the key of relation. <br />
+     * Key columns are resolved to column indexes at the first row of the relation,
+     * so rows after that are keyed by index loop.
      * @param rs The result set. (NotNull)
      * @param rpt The property type of relation. (NotNull)
      * @param selectColumnMap The name map of select column. {flexible-name = column-DB-name} (NotNull)
@@ -119,77 +153,72 @@ public class TnRelationRowCache {
         if (!_canCache) {
             return EMPTY_KEY;
         }
-        final TnRelationKey relKey;
-        if (rpt.hasSimpleUniqueKey()) {
-            relKey = doCreateRelationKeySimple(rs, rpt, selectColumnMap, selectIndexMap, relationNoSuffix);
-        } else if (rpt.hasCompoundUniqueKey()) {
-            relKey = doCreateRelationKeyCompound(rs, rpt, selectColumnMap, selectIndexMap, relationNoSuffix);
-        } else { // empty
-            relKey = null; // treated as no data of the relation
+        TnRelationKeyPlan keyPlan = _keyPlanMap != null ? _keyPlanMap.get(relationNoSuffix) : null;
+        if (keyPlan == null) {
+            keyPlan = createRelationKeyPlan(rs, rpt, selectColumnMap, selectIndexMap, relationNoSuffix);
+            if (_keyPlanMap == null) {
+                _keyPlanMap = new HashMap<String, TnRelationKeyPlan>();
+            }
+            _keyPlanMap.put(relationNoSuffix, keyPlan);
         }
-        return relKey;
+        return keyPlan.createKey(rs);
     }
 
-    protected TnRelationKey doCreateRelationKeySimple(ResultSet rs, TnRelationPropertyType rpt,
+    protected TnRelationKeyPlan createRelationKeyPlan(ResultSet rs, TnRelationPropertyType rpt,
             Map<String, String> selectColumnMap, Map<String, Map<String, Integer>> selectIndexMap,
             String relationNoSuffix) throws SQLException {
-        final TnPropertyType pt = rpt.getSimpleUniquePropertyType();
-        final String columnKeyName = buildColumnKeyName(pt, relationNoSuffix);
-        final Object keyValue = setupKeyElement(rs, rpt, selectColumnMap, selectIndexMap, columnKeyName, pt,
-                relationNoSuffix);
-        return keyValue != null ? new TnRelationKeySimple(columnKeyName, keyValue) : null;
-    }
-
-    protected TnRelationKey doCreateRelationKeyCompound(ResultSet rs, TnRelationPropertyType rpt,
-            Map<String, String> selectColumnMap, Map<String, Map<String, Integer>> selectIndexMap,
-            String relationNoSuffix) throws SQLException {
-        final List<TnPropertyType> uniquePropertyTypeList = rpt.getUniquePropertyTypeList();
-        Map<String, Object> relKeyValues = null;
-        for (TnPropertyType pt : uniquePropertyTypeList) {
+        final List<TnPropertyType> uniquePropertyTypeList;
+        if (rpt.hasSimpleUniqueKey()) {
+            uniquePropertyTypeList = Collections.singletonList(rpt.getSimpleUniquePropertyType());
+        } else if (rpt.hasCompoundUniqueKey()) {
+            uniquePropertyTypeList = rpt.getUniquePropertyTypeList();
+        } else { // empty
+            return TnRelationKeyPlan.NO_DATA_PLAN; // treated as no data of the relation
+        }
+        final int size = uniquePropertyTypeList.size();
+        final String[] columnKeyNames = new String[size];
+        final ValueType[] valueTypes = new ValueType[size];
+        final int[] columnIndexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            final TnPropertyType pt = uniquePropertyTypeList.get(i);
             final String columnKeyName = buildColumnKeyName(pt, relationNoSuffix);
-            final Object keyValue = setupKeyElement(rs, rpt, selectColumnMap, selectIndexMap, columnKeyName, pt,
-                    relationNoSuffix);
-            if (keyValue == null) {
-                if (relKeyValues != null) {
-                    relKeyValues.clear();
-                }
-                break; // if either one is null, treated as no data
+            if (!isKeyColumnSelected(rpt, selectColumnMap, selectIndexMap, columnKeyName, relationNoSuffix)) {
+                return TnRelationKeyPlan.NO_DATA_PLAN; // the key element is always null so no data
             }
-            if (relKeyValues == null) { // lazy-load for performance
-                relKeyValues = new HashMap<String, Object>(uniquePropertyTypeList.size());
-            }
-            relKeyValues.put(columnKeyName, keyValue);
+            columnKeyNames[i] = columnKeyName;
+            valueTypes[i] = pt.getValueType();
+            columnIndexes[i] = findKeyColumnIndex(rs, columnKeyName, selectIndexMap, relationNoSuffix);
         }
-        return (relKeyValues != null && !relKeyValues.isEmpty()) ? new TnRelationKeyCompound(relKeyValues) : null;
+        return new TnRelationKeyPlan(columnKeyNames, valueTypes, columnIndexes, rpt.hasSimpleUniqueKey());
     }
 
     protected String buildColumnKeyName(TnPropertyType pt, String relationNoSuffix) {
         return pt.getColumnDbName() + relationNoSuffix;
     }
 
-    protected Object setupKeyElement(ResultSet rs, TnRelationPropertyType rpt, Map<String, String> selectColumnMap,
-            Map<String, Map<String, Integer>> selectIndexMap, String columnKeyName, TnPropertyType pt,
-            String relationNoSuffix) throws SQLException {
+    protected boolean isKeyColumnSelected(TnRelationPropertyType rpt, Map<String, String> selectColumnMap,
+            Map<String, Map<String, Integer>> selectIndexMap, String columnKeyName, String relationNoSuffix)
+            throws SQLException {
         if (isOutOfRelationSelectIndex(relationNoSuffix, columnKeyName, selectIndexMap)) {
             // basically unreachable, same reason with next if statement, check just in case
-            return null;
+            return false;
         }
         if (!selectColumnMap.containsKey(columnKeyName)) {
             // basically unreachable
             // because the referred column (basically PK or FK) must exist
             // if the relation's select clause is specified
-            return null;
+            return false;
         }
-        final ValueType valueType = pt.getValueType();
-        final Object value;
+        return true;
+    }
+
+    protected int findKeyColumnIndex(ResultSet rs, String columnKeyName,
+            Map<String, Map<String, Integer>> selectIndexMap, String relationNoSuffix) throws SQLException {
         if (selectIndexMap != null) {
-            value = ResourceContext.getRelationValue(rs, relationNoSuffix, columnKeyName, valueType, selectIndexMap);
+            return ResourceContext.findRelationSelectIndex(rs, relationNoSuffix, columnKeyName, selectIndexMap);
         } else {
-            value = valueType.getValue(rs, columnKeyName);
+            return rs.findColumn(columnKeyName);
         }
-        // null-able when the referred column data is null
-        // (treated as no relation data)
-        return value;
     }
 
     protected boolean isOutOfRelationSelectIndex(String relationNoSuffix, String columnDbName,
@@ -197,6 +226,53 @@ public class TnRelationRowCache {
         return ResourceContext.isOutOfRelationSelectIndex(relationNoSuffix, columnDbName, selectIndexMap);
     }
 
+    /**
+     * The plan of relation key, which has key column indexes fixed at the first row.
+     */
+    protected static class TnRelationKeyPlan {
+
+        /** The plan that always returns null key, e.g. no unique key or the key column is not selected. */
+        protected static final TnRelationKeyPlan NO_DATA_PLAN = new TnRelationKeyPlan(null, null, null, false);
+
+        protected final String[] _columnKeyNames; // null if no data plan
+        protected final ValueType[] _valueTypes; // same order as column key name
+        protected final int[] _columnIndexes; // same order as column key name
+        protected final boolean _simple;
+
+        public TnRelationKeyPlan(String[] columnKeyNames, ValueType[] valueTypes, int[] columnIndexes,
+                boolean simple) {
+            _columnKeyNames = columnKeyNames;
+            _valueTypes = valueTypes;
+            _columnIndexes = columnIndexes;
+            _simple = simple;
+        }
+
+        public TnRelationKey createKey(ResultSet rs) throws SQLException {
+            if (_columnKeyNames == null) {
+                return null;
+            }
+            if (_simple) {
+                final Object keyValue = _valueTypes[0].getValue(rs, _columnIndexes[0]);
+                // null-able when the referred column data is null
+                // (treated as no relation data)
+                return keyValue != null ? new TnRelationKeySimple(_columnKeyNames[0], keyValue) : null;
+            }
+            final int size = _columnKeyNames.length;
+            Map<String, Object> relKeyValues = null;
+            for (int i = 0; i < size; i++) {
+                final Object keyValue = _valueTypes[i].getValue(rs, _columnIndexes[i]);
+                if (keyValue == null) {
+                    return null; // if either one is null, treated as no data
+                }
+                if (relKeyValues == null) { // lazy-load for performance
+                    relKeyValues = new HashMap<String, Object>(size);
+                }
+                relKeyValues.put(_columnKeyNames[i], keyValue);
+            }
+            return relKeyValues != null ? new TnRelationKeyCompound(relKeyValues) : null;
+        }
+    }
+
     // ===================================================================================
     //                                                                            Accessor
     //                                                                            ========
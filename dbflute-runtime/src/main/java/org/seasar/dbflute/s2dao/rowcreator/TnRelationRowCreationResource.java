@@ -206,6 +206,23 @@ public class TnRelationRowCreationResource {
         propertyCacheElement.put(columnName, _currentPropertyMapping);
     }
 
+    /**
+     * Prepare the plan of row mapping for the current relation. <br />
+     * Column indexes are resolved at the first row and the plan is cached in relation row cache.
+     * @return The plan of row mapping. (NotNull)
+     * @throws SQLException
+     */
+    public TnRowMappingPlan prepareRowMappingPlan() throws SQLException {
+        TnRowMappingPlan mappingPlan = _relRowCache.getMappingPlan(_relationNoSuffix);
+        if (mappingPlan == null) {
+            final Map<String, TnPropertyMapping> propertyCacheElement = extractPropertyCacheElement();
+            mappingPlan = TnRowMappingPlan.createRelationPlan(_resultSet, _relationNoSuffix, _selectIndexMap,
+                    propertyCacheElement);
+            _relRowCache.addMappingPlan(_relationNoSuffix, mappingPlan);
+        }
+        return mappingPlan;
+    }
+
     // ===================================================================================
     //                                                                  Relation Row Cache
     //                                                                  ==================
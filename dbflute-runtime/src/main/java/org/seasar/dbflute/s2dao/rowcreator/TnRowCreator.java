@@ -39,6 +39,28 @@ public interface TnRowCreator {
     Object createRow(ResultSet rs, Map<String, Map<String, Integer>> selectIndexMap,
             Map<String, TnPropertyMapping> columnPropertyTypeMap, Class<?> beanClass) throws SQLException;
 
+    /**
+     * Create row instance of base point table by the plan that has fixed column indexes.
+     * @param rs Result set. (NotNull)
+     * @param mappingPlan The plan of row mapping created at the first row. (NotNull)
+     * @param beanClass Bean class. (NotNull)
+     * @return The created row. (NotNull)
+     * @throws SQLException
+     */
+    Object createRow(ResultSet rs, TnRowMappingPlan mappingPlan, Class<?> beanClass) throws SQLException;
+
+    /**
+     * Create the plan of row mapping that resolves column indexes of the property cache. <br />
+     * The plan can be reused for the rest of the result set.
+     * @param rs Result set positioned at the first row. (NotNull)
+     * @param selectIndexMap The map of select index. map:{entityNo(e.g. loc00 or _0_3) = map:{selectColumnKeyName = selectIndex}} (NullAllowed)
+     * @param columnPropertyTypeMap The map of row property cache. The key is String(columnName) and the value is a PropertyMapping. (NotNull)
+     * @return The created plan of row mapping. (NotNull)
+     * @throws SQLException
+     */
+    TnRowMappingPlan createRowMappingPlan(ResultSet rs, Map<String, Map<String, Integer>> selectIndexMap,
+            Map<String, TnPropertyMapping> columnPropertyTypeMap) throws SQLException;
+
     /**
      * Create property cache as map. <br />
      * The map key is column DB-name or alias name when derived-referrer.
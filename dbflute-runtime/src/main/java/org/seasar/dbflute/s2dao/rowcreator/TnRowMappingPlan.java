@@ -0,0 +1,257 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.rowcreator;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.seasar.dbflute.cbean.chelper.HpDerivingSubQueryInfo;
+import org.seasar.dbflute.dbmeta.info.ColumnInfo;
+import org.seasar.dbflute.jdbc.ValueType;
+import org.seasar.dbflute.resource.ResourceContext;
+import org.seasar.dbflute.s2dao.metadata.TnPropertyMapping;
+
+/**
+ * The plan of row mapping, which has column indexes fixed at the first row. <br />
+ * Column labels are resolved only once so rows after the first are mapped by index loop. <br />
+ * This is not thread safe so you should create per one select.
+ * @author jflute
+ * @since 1.0.5K (2014/08/02 Saturday)
+ */
+public class TnRowMappingPlan {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The array of column name, which is the key of property cache. (NotNull) */
+    protected final String[] _columnNames;
+
+    /** The array of property mapping. (NotNull) */
+    protected final TnPropertyMapping[] _propertyMappings;
+
+    /** The array of value type, same order as column name. (NotNull) */
+    protected final ValueType[] _valueTypes;
+
+    /** The array of column info for entity, same order as column name. (NotNull, ElementNullAllowed) */
+    protected final ColumnInfo[] _columnInfos;
+
+    /** The array of JDBC column index, same order as column name. (NotNull) */
+    protected final int[] _columnIndexes;
+
+    /** The map of property cache that the plan is based on. (NotNull) */
+    protected final Map<String, TnPropertyMapping> _propertyCache;
+
+    /** The map of select index. (NullAllowed: null means select index is disabled) */
+    protected final Map<String, Map<String, Integer>> _selectIndexMap;
+
+    /** The array of deriving alias for derived-referrer. (NullAllowed: not prepared yet) */
+    protected String[] _derivingAliases;
+
+    /** The array of deriving info, same order as deriving alias. (NullAllowed: not prepared yet) */
+    protected HpDerivingSubQueryInfo[] _derivingInfos;
+
+    /** The array of value type for deriving value, same order as deriving alias. (NullAllowed: not prepared yet) */
+    protected ValueType[] _derivingValueTypes;
+
+    /** The array of JDBC column index for deriving value, same order as deriving alias. (NullAllowed: not prepared yet) */
+    protected int[] _derivingColumnIndexes;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    protected TnRowMappingPlan(Map<String, TnPropertyMapping> propertyCache,
+            Map<String, Map<String, Integer>> selectIndexMap) {
+        final int size = propertyCache.size();
+        _columnNames = new String[size];
+        _propertyMappings = new TnPropertyMapping[size];
+        _valueTypes = new ValueType[size];
+        _columnInfos = new ColumnInfo[size];
+        _columnIndexes = new int[size];
+        _propertyCache = propertyCache;
+        _selectIndexMap = selectIndexMap;
+    }
+
+    /**
+     * Create the plan for base point row.
+     * @param rs The result set positioned at the first row. (NotNull)
+     * @param selectIndexMap The map of select index. map:{entityNo(e.g. loc00 or _0_3) = map:{selectColumnKeyName = selectIndex}} (NullAllowed)
+     * @param propertyCache The map of property cache. map:{columnName, PropertyMapping} (NotNull)
+     * @return The created plan. (NotNull)
+     * @throws SQLException When it fails to find the index of column.
+     */
+    public static TnRowMappingPlan createLocalPlan(ResultSet rs, Map<String, Map<String, Integer>> selectIndexMap,
+            Map<String, TnPropertyMapping> propertyCache) throws SQLException {
+        final TnRowMappingPlan plan = new TnRowMappingPlan(propertyCache, selectIndexMap);
+        int index = 0;
+        for (Entry<String, TnPropertyMapping> entry : propertyCache.entrySet()) {
+            final String columnName = entry.getKey();
+            final int columnIndex = ResourceContext.findLocalSelectIndex(rs, columnName, selectIndexMap);
+            plan.register(index, columnName, entry.getValue(), columnIndex);
+            ++index;
+        }
+        return plan;
+    }
+
+    /**
+     * Create the plan for relation row.
+     * @param rs The result set positioned at the first row. (NotNull)
+     * @param relationNoSuffix The relation No suffix that indicates the location of the relation. (NotNull)
+     * @param selectIndexMap The map of select index. map:{entityNo(e.g. loc00 or _0_3) = map:{selectColumnKeyName = selectIndex}} (NullAllowed)
+     * @param propertyCacheElement The map of property cache for the relation. map:{columnName, PropertyMapping} (NotNull)
+     * @return The created plan. (NotNull)
+     * @throws SQLException When it fails to find the index of column.
+     */
+    public static TnRowMappingPlan createRelationPlan(ResultSet rs, String relationNoSuffix,
+            Map<String, Map<String, Integer>> selectIndexMap, Map<String, TnPropertyMapping> propertyCacheElement)
+            throws SQLException {
+        final TnRowMappingPlan plan = new TnRowMappingPlan(propertyCacheElement, selectIndexMap);
+        int index = 0;
+        for (Entry<String, TnPropertyMapping> entry : propertyCacheElement.entrySet()) {
+            final String columnName = entry.getKey();
+            final int columnIndex = ResourceContext.findRelationSelectIndex(rs, relationNoSuffix, columnName,
+                    selectIndexMap);
+            plan.register(index, columnName, entry.getValue(), columnIndex);
+            ++index;
+        }
+        return plan;
+    }
+
+    protected void register(int index, String columnName, TnPropertyMapping mapping, int columnIndex) {
+        _columnNames[index] = columnName;
+        _propertyMappings[index] = mapping;
+        _valueTypes[index] = mapping.getValueType();
+        _columnInfos[index] = mapping.getEntityColumnInfo();
+        _columnIndexes[index] = columnIndex;
+    }
+
+    /**
+     * Prepare the plan of derived-referrer values that are not mapped to properties. <br />
+     * Deriving aliases are resolved only once so derived values are also mapped by index loop.
+     * @param rs The result set positioned at the first row. (NotNull)
+     * @param aliasList The list of deriving alias that are not contained in property cache. (NotNull)
+     * @param infoList The list of deriving info, same order as alias. (NotNull)
+     * @param valueTypeList The list of value type, same order as alias. (NotNull)
+     * @throws SQLException When it fails to find the index of column.
+     */
+    public void prepareDeriving(ResultSet rs, List<String> aliasList, List<HpDerivingSubQueryInfo> infoList,
+            List<ValueType> valueTypeList) throws SQLException {
+        final int size = aliasList.size();
+        final String[] aliases = new String[size];
+        final HpDerivingSubQueryInfo[] infos = new HpDerivingSubQueryInfo[size];
+        final ValueType[] valueTypes = new ValueType[size];
+        final int[] columnIndexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            final String alias = aliasList.get(i);
+            aliases[i] = alias;
+            infos[i] = infoList.get(i);
+            valueTypes[i] = valueTypeList.get(i);
+            columnIndexes[i] = ResourceContext.findLocalSelectIndex(rs, alias, _selectIndexMap);
+        }
+        _derivingInfos = infos;
+        _derivingValueTypes = valueTypes;
+        _derivingColumnIndexes = columnIndexes;
+        _derivingAliases = aliases; // last for determination of prepared
+    }
+
+    // ===================================================================================
+    //                                                                       Value Mapping
+    //                                                                       =============
+    /**
+     * Get the selected value of the mapping element by fixed column index.
+     * @param rs The result set positioned at the current row. (NotNull)
+     * @param index The index of mapping element, not JDBC column index. (NotMinus)
+     * @return The selected value. (NullAllowed)
+     * @throws SQLException When it fails to get the value.
+     */
+    public Object getValue(ResultSet rs, int index) throws SQLException {
+        return _valueTypes[index].getValue(rs, _columnIndexes[index]);
+    }
+
+    /**
+     * Get the selected value of the deriving element by fixed column index.
+     * @param rs The result set positioned at the current row. (NotNull)
+     * @param index The index of deriving element, not JDBC column index. (NotMinus)
+     * @return The selected value. (NullAllowed)
+     * @throws SQLException When it fails to get the value.
+     */
+    public Object getDerivingValue(ResultSet rs, int index) throws SQLException {
+        return _derivingValueTypes[index].getValue(rs, _derivingColumnIndexes[index]);
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    /**
+     * @return The size of mapping elements. (NotMinus)
+     */
+    public int size() {
+        return _columnNames.length;
+    }
+
+    public String getColumnName(int index) {
+        return _columnNames[index];
+    }
+
+    public TnPropertyMapping getPropertyMapping(int index) {
+        return _propertyMappings[index];
+    }
+
+    public ValueType getValueType(int index) {
+        return _valueTypes[index];
+    }
+
+    public ColumnInfo getColumnInfo(int index) {
+        return _columnInfos[index];
+    }
+
+    public int getColumnIndex(int index) {
+        return _columnIndexes[index];
+    }
+
+    public Map<String, TnPropertyMapping> getPropertyCache() {
+        return _propertyCache;
+    }
+
+    public Map<String, Map<String, Integer>> getSelectIndexMap() {
+        return _selectIndexMap;
+    }
+
+    public boolean isDerivingPrepared() {
+        return _derivingAliases != null;
+    }
+
+    /**
+     * @return The size of deriving elements. (NotMinus: zero if not prepared)
+     */
+    public int derivingSize() {
+        return _derivingAliases != null ? _derivingAliases.length : 0;
+    }
+
+    public String getDerivingAlias(int index) {
+        return _derivingAliases[index];
+    }
+
+    public HpDerivingSubQueryInfo getDerivingInfo(int index) {
+        return _derivingInfos[index];
+    }
+
+    public int getDerivingColumnIndex(int index) {
+        return _derivingColumnIndexes[index];
+    }
+}
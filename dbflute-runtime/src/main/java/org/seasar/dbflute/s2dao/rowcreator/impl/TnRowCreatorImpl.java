@@ -15,16 +15,20 @@
  */
 package org.seasar.dbflute.s2dao.rowcreator.impl;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 
 import org.seasar.dbflute.helper.StringKeyMap;
+import org.seasar.dbflute.helper.beans.factory.DfFastAccessorFactory;
+import org.seasar.dbflute.helper.beans.factory.DfFastAccessorFactory.FastConstructor;
 import org.seasar.dbflute.resource.ResourceContext;
 import org.seasar.dbflute.s2dao.metadata.TnBeanMetaData;
 import org.seasar.dbflute.s2dao.metadata.TnPropertyMapping;
 import org.seasar.dbflute.s2dao.metadata.TnPropertyType;
 import org.seasar.dbflute.s2dao.rowcreator.TnRowCreator;
+import org.seasar.dbflute.s2dao.rowcreator.TnRowMappingPlan;
 import org.seasar.dbflute.util.DfReflectionUtil;
 
 /**
@@ -36,6 +40,10 @@ public abstract class TnRowCreatorImpl implements TnRowCreator {
     //                                                                        Row Creation
     //                                                                        ============
     protected Object newBean(Class<?> beanClass) {
+        final FastConstructor constructor = DfFastAccessorFactory.findConstructor(beanClass);
+        if (constructor != null) { // mainly here, e.g. customize entity of outsideSql
+            return constructor.newInstance();
+        }
         return DfReflectionUtil.newInstance(beanClass);
     }
 
@@ -100,4 +108,15 @@ public abstract class TnRowCreatorImpl implements TnRowCreator {
     protected Map<String, TnPropertyMapping> newPropertyCache() {
         return StringKeyMap.createAsCaseInsensitive();
     }
+
+    // ===================================================================================
+    //                                                               Mapping Plan Creation
+    //                                                               =====================
+    /**
+     * {@inheritDoc}
+     */
+    public TnRowMappingPlan createRowMappingPlan(ResultSet rs, Map<String, Map<String, Integer>> selectIndexMap,
+            Map<String, TnPropertyMapping> propertyCache) throws SQLException {
+        return TnRowMappingPlan.createLocalPlan(rs, selectIndexMap, propertyCache);
+    }
 }
@@ -30,6 +30,7 @@ import org.seasar.dbflute.s2dao.rowcreator.TnRelationRowCache;
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationRowCreator;
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationSelector;
 import org.seasar.dbflute.s2dao.rowcreator.TnRowCreator;
+import org.seasar.dbflute.s2dao.rowcreator.TnRowMappingPlan;
 
 /**
  * @author modified by jflute (originated in S2Dao)
@@ -76,6 +77,19 @@ public abstract class TnAbstractBeanResultSetHandler implements TnResultSetHandl
         return _rowCreator.createPropertyCache(selectColumnMap, selectIndexMap, _beanMetaData);
     }
 
+    /**
+     * Create the plan of row mapping for base point row, which has fixed column indexes.
+     * @param rs Result set positioned at the first row. (NotNull)
+     * @param selectIndexMap The map of select index. map:{entityNo(e.g. loc00 or _0_3) = map:{selectColumnKeyName = selectIndex}} (NullAllowed)
+     * @param propertyCache The map of property cache. map:{columnName, PropertyMapping} (NotNull)
+     * @return The plan of row mapping reused for the rest of the result set. (NotNull)
+     * @throws SQLException
+     */
+    protected TnRowMappingPlan createRowMappingPlan(ResultSet rs, Map<String, Map<String, Integer>> selectIndexMap,
+            Map<String, TnPropertyMapping> propertyCache) throws SQLException {
+        return _rowCreator.createRowMappingPlan(rs, selectIndexMap, propertyCache);
+    }
+
     /**
      * Create relation property cache.
      * @param selectColumnMap The map of select column name. map:{flexibleName = columnAliasName} (NotNull)
@@ -110,6 +124,18 @@ public abstract class TnAbstractBeanResultSetHandler implements TnResultSetHandl
         return _rowCreator.createRow(rs, selectIndexMap, propertyCache, beanClass);
     }
 
+    /**
+     * Create base point row by the plan of row mapping.
+     * @param rs Result set. (NotNull)
+     * @param mappingPlan The plan of row mapping created at the first row. (NotNull)
+     * @return The created row. (NotNull)
+     * @throws SQLException
+     */
+    protected Object createRow(ResultSet rs, TnRowMappingPlan mappingPlan) throws SQLException {
+        final Class<?> beanClass = _beanMetaData.getBeanClass();
+        return _rowCreator.createRow(rs, mappingPlan, beanClass);
+    }
+
     /**
      * Create relation row.
      * @param rs Result set. (NotNull)
@@ -34,6 +34,7 @@ import org.seasar.dbflute.s2dao.rowcreator.TnRelationRowCache;
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationRowCreator;
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationSelector;
 import org.seasar.dbflute.s2dao.rowcreator.TnRowCreator;
+import org.seasar.dbflute.s2dao.rowcreator.TnRowMappingPlan;
 
 /**
  * @author modified by jflute (originated in S2Dao)
@@ -77,6 +78,7 @@ public class TnBeanListResultSetHandler extends TnAbstractBeanResultSetHandler {
         // lazy initialization because if the result is zero, the resources are unused
         Map<String, String> selectColumnMap = null;
         Map<String, TnPropertyMapping> propertyCache = null;
+        TnRowMappingPlan mappingPlan = null; // column indexes are fixed at the first row
         Map<String, Map<String, TnPropertyMapping>> relPropCache = null; // key is relationNoSuffix, columnName
         TnRelationRowCache relRowCache = null;
         TnRelationSelector relSelector = null;
@@ -102,9 +104,12 @@ public class TnBeanListResultSetHandler extends TnAbstractBeanResultSetHandler {
             if (propertyCache == null) {
                 propertyCache = createPropertyCache(selectColumnMap, selectIndexMap);
             }
+            if (mappingPlan == null) {
+                mappingPlan = createRowMappingPlan(rs, selectIndexMap, propertyCache);
+            }
 
-            // create row instance of base table by row property cache
-            final Object row = createRow(rs, selectIndexMap, propertyCache);
+            // create row instance of base table by the plan of row property cache
+            final Object row = createRow(rs, mappingPlan);
 
             if (skipRelationLoop) {
                 adjustCreatedRow(row, basePointBmd);
@@ -15,6 +15,7 @@
  */
 package org.seasar.dbflute.s2dao.sqlcommand;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -61,6 +62,11 @@ public class TnBatchUpdateDynamicCommand extends TnUpdateEntityDynamicCommand {
     // ===================================================================================
     //                                                                       Update Column
     //                                                                       =============
+    @Override
+    protected BitSet createUpdateColumnMask(Object bean, UpdateOption<ConditionBean> option) {
+        return null; // batch builds SQL once per list so no need to cache
+    }
+
     // Batch Update does not use modified properties here
     // (modified properties are converted to specified columns before here)
     @Override
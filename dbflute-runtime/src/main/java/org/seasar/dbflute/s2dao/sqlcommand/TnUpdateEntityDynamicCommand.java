@@ -16,9 +16,13 @@
 package org.seasar.dbflute.s2dao.sqlcommand;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.sql.DataSource;
 
@@ -46,12 +50,21 @@ public class TnUpdateEntityDynamicCommand extends TnAbstractEntityDynamicCommand
     /** The result for no update as normal execution. */
     private static final Integer NON_UPDATE = Integer.valueOf(1);
 
+    /** The max size of update SQL cache, to avoid memory leak by too many patterns of columns. */
+    protected static final int UPDATE_SQL_CACHE_LIMIT = 1000;
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
     protected boolean _optimisticLockHandling;
     protected boolean _versionNoAutoIncrementOnMemory;
 
+    /** The resource of update column mask, which is prepared at first update. (NullAllowed: lazy-loaded) */
+    protected volatile UpdateColumnMaskResource _maskResource;
+
+    /** The cache of update SQL and bound property types keyed by the mask of update columns. (NotNull) */
+    protected final ConcurrentMap<BitSet, UpdateSqlResource> _updateSqlCache = newUpdateSqlCache();
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -67,17 +80,30 @@ public class TnUpdateEntityDynamicCommand extends TnAbstractEntityDynamicCommand
         final UpdateOption<ConditionBean> option = extractUpdateOptionChecked(args);
         prepareStatementConfigOnThreadIfExists(option);
 
+        final BitSet columnMask = createUpdateColumnMask(bean, option);
+        if (columnMask != null) { // mainly here, e.g. modified-column update without option
+            if (columnMask.isEmpty()) {
+                return handleNonUpdate(bean);
+            }
+            final UpdateSqlResource resource = findUpdateSqlResource(bean, columnMask);
+            final String sql = filterExecutedSql(resource.getUpdateSql());
+            return doExecute(bean, resource.getBoundPropertyTypes(), sql, option);
+        }
         final TnPropertyType[] propertyTypes = createUpdatePropertyTypes(bean, option);
         if (propertyTypes.length == 0) {
-            if (isLogEnabled()) {
-                log(createNonUpdateLogMessage(bean));
-            }
-            return getNonUpdateReturn();
+            return handleNonUpdate(bean);
         }
         final String sql = filterExecutedSql(createUpdateSql(bean, propertyTypes, option));
         return doExecute(bean, propertyTypes, sql, option);
     }
 
+    protected Object handleNonUpdate(Object bean) {
+        if (isLogEnabled()) {
+            log(createNonUpdateLogMessage(bean));
+        }
+        return getNonUpdateReturn();
+    }
+
     protected UpdateOption<ConditionBean> extractUpdateOptionChecked(Object[] args) {
         if (args.length < 2 || args[1] == null) {
             return null;
@@ -152,6 +178,129 @@ public class TnUpdateEntityDynamicCommand extends TnAbstractEntityDynamicCommand
         return option != null && option.hasStatement(pt.getColumnDbName());
     }
 
+    // ===================================================================================
+    //                                                                         Column Mask
+    //                                                                         ===========
+    /**
+     * Create the mask of update columns as bitset of property ordinals. <br />
+     * The ordinal is the index of persistent property names, which is same order as columns of DBMeta.
+     * @param bean The bean of the entity to update. (NotNull)
+     * @param option An option of update. (NullAllowed)
+     * @return The bitset of update columns. (NullAllowed: null means the SQL cannot be cached, e.g. option exists)
+     */
+    protected BitSet createUpdateColumnMask(Object bean, UpdateOption<ConditionBean> option) {
+        if (option != null || !(bean instanceof Entity) || extractUniqueDrivenPropSet(bean) != null) {
+            return null; // statement, specified columns and unique-driven are not cached
+        }
+        final UpdateColumnMaskResource maskResource = prepareUpdateColumnMaskResource();
+        final BitSet columnMask = (BitSet) maskResource.getOptimisticLockMask().clone();
+        final Map<String, Integer> ordinalMap = maskResource.getOrdinalMap();
+        for (String propertyName : getModifiedPropertyNames(bean)) {
+            final Integer ordinal = ordinalMap.get(propertyName);
+            if (ordinal != null) { // null if e.g. primary key
+                columnMask.set(ordinal);
+            }
+        }
+        return columnMask;
+    }
+
+    protected UpdateColumnMaskResource prepareUpdateColumnMaskResource() {
+        UpdateColumnMaskResource maskResource = _maskResource;
+        if (maskResource != null) {
+            return maskResource;
+        }
+        // no lock because the same resource is created even if conflicted
+        final String timestampProp = _beanMetaData.getTimestampPropertyName();
+        final String versionNoProp = _beanMetaData.getVersionNoPropertyName();
+        final String[] propertyNames = _propertyNames;
+        final TnPropertyType[] propertyTypes = new TnPropertyType[propertyNames.length];
+        final Map<String, Integer> ordinalMap = new HashMap<String, Integer>(propertyNames.length);
+        final BitSet optimisticLockMask = new BitSet(propertyNames.length);
+        for (int i = 0; i < propertyNames.length; ++i) {
+            final TnPropertyType pt = _beanMetaData.getPropertyType(propertyNames[i]);
+            propertyTypes[i] = pt;
+            if (pt.isPrimaryKey()) {
+                continue;
+            }
+            ordinalMap.put(pt.getPropertyName(), i);
+            if (isOptimisticLockProperty(timestampProp, versionNoProp, pt)) {
+                optimisticLockMask.set(i);
+            }
+        }
+        maskResource = new UpdateColumnMaskResource(propertyTypes, ordinalMap, optimisticLockMask);
+        _maskResource = maskResource;
+        return maskResource;
+    }
+
+    protected UpdateSqlResource findUpdateSqlResource(Object bean, BitSet columnMask) {
+        final UpdateSqlResource cached = _updateSqlCache.get(columnMask);
+        if (cached != null) {
+            return cached;
+        }
+        final TnPropertyType[] allTypes = prepareUpdateColumnMaskResource().getPropertyTypes();
+        final TnPropertyType[] boundPropTypes = new TnPropertyType[columnMask.cardinality()];
+        int index = 0;
+        for (int i = columnMask.nextSetBit(0); i >= 0; i = columnMask.nextSetBit(i + 1)) {
+            boundPropTypes[index] = allTypes[i];
+            ++index;
+        }
+        final String sql = createUpdateSql(bean, boundPropTypes, null);
+        final UpdateSqlResource resource = new UpdateSqlResource(sql, boundPropTypes);
+        if (_updateSqlCache.size() < UPDATE_SQL_CACHE_LIMIT) {
+            _updateSqlCache.putIfAbsent(columnMask, resource); // same SQL even if conflicted
+        }
+        return resource;
+    }
+
+    protected ConcurrentMap<BitSet, UpdateSqlResource> newUpdateSqlCache() {
+        return new ConcurrentHashMap<BitSet, UpdateSqlResource>();
+    }
+
+    protected static class UpdateColumnMaskResource {
+
+        protected final TnPropertyType[] _propertyTypes; // same order as property names
+        protected final Map<String, Integer> _ordinalMap; // map:{propertyName = ordinal} without primary keys
+        protected final BitSet _optimisticLockMask; // always updated columns, read-only
+
+        public UpdateColumnMaskResource(TnPropertyType[] propertyTypes, Map<String, Integer> ordinalMap,
+                BitSet optimisticLockMask) {
+            _propertyTypes = propertyTypes;
+            _ordinalMap = ordinalMap;
+            _optimisticLockMask = optimisticLockMask;
+        }
+
+        public TnPropertyType[] getPropertyTypes() {
+            return _propertyTypes;
+        }
+
+        public Map<String, Integer> getOrdinalMap() {
+            return _ordinalMap;
+        }
+
+        public BitSet getOptimisticLockMask() {
+            return _optimisticLockMask;
+        }
+    }
+
+    protected static class UpdateSqlResource {
+
+        protected final String _updateSql; // not filtered yet
+        protected final TnPropertyType[] _boundPropertyTypes;
+
+        public UpdateSqlResource(String updateSql, TnPropertyType[] boundPropertyTypes) {
+            _updateSql = updateSql;
+            _boundPropertyTypes = boundPropertyTypes;
+        }
+
+        public String getUpdateSql() {
+            return _updateSql;
+        }
+
+        public TnPropertyType[] getBoundPropertyTypes() {
+            return _boundPropertyTypes;
+        }
+    }
+
     // ===================================================================================
     //                                                                          Update SQL
     //                                                                          ==========
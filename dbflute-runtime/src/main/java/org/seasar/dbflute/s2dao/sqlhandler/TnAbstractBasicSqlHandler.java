@@ -15,12 +15,17 @@
  */
 package org.seasar.dbflute.s2dao.sqlhandler;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -34,6 +39,8 @@ import org.seasar.dbflute.bhv.core.SqlFireReadyInfo;
 import org.seasar.dbflute.bhv.core.SqlFireResultInfo;
 import org.seasar.dbflute.exception.handler.SQLExceptionHandler;
 import org.seasar.dbflute.exception.handler.SQLExceptionResource;
+import org.seasar.dbflute.jdbc.BlobHandle;
+import org.seasar.dbflute.jdbc.ClobHandle;
 import org.seasar.dbflute.jdbc.DataSourceHandler;
 import org.seasar.dbflute.jdbc.ExecutionTimeInfo;
 import org.seasar.dbflute.jdbc.HandlingDataSourceWrapper;
@@ -73,6 +80,7 @@ public abstract class TnAbstractBasicSqlHandler {
     protected final StatementFactory _statementFactory;
     protected final String _sql;
     protected Object[] _exceptionMessageSqlArgs; // not required
+    protected List<Closeable> _bindStreamList; // lazy-loaded, streams opened from LOB handles
 
     // ===================================================================================
     //                                                                         Constructor
@@ -113,7 +121,7 @@ public abstract class TnAbstractBasicSqlHandler {
             for (int i = 0; i < args.length; ++i) {
                 final ValueType valueType = valueTypes[i];
                 current = args[i];
-                valueType.bindValue(conn, ps, i + 1, current);
+                valueType.bindValue(conn, ps, i + 1, filterBindValue(current));
             }
         } catch (SQLException e) {
             final SQLExceptionResource resource = createSQLExceptionResource();
@@ -151,7 +159,7 @@ public abstract class TnAbstractBasicSqlHandler {
             for (int i = beginIndex; i < args.length; ++i) {
                 current = args[i];
                 final ValueType valueType = findValueType(argTypes[i], current);
-                valueType.bindValue(conn, ps, i + 1, current);
+                valueType.bindValue(conn, ps, i + 1, filterBindValue(current));
             }
         } catch (SQLException e) {
             final SQLExceptionResource resource = createSQLExceptionResource();
@@ -163,6 +171,91 @@ public abstract class TnAbstractBasicSqlHandler {
         }
     }
 
+    /**
+     * Filter the value for binding. <br />
+     * The LOB handle is wrapped so that the stream opened by the value type is closed with the statement
+     * (the JDBC driver reads it when executing so it cannot be closed when binding).
+     * @param value The value for binding. (NullAllowed)
+     * @return The filtered value. (NullAllowed: when the value is null)
+     */
+    protected Object filterBindValue(Object value) {
+        if (value instanceof ClobHandle) {
+            return new BindingClobHandle((ClobHandle) value);
+        } else if (value instanceof BlobHandle) {
+            return new BindingBlobHandle((BlobHandle) value);
+        }
+        return value;
+    }
+
+    protected void registerBindStream(Closeable stream) {
+        if (_bindStreamList == null) {
+            _bindStreamList = new ArrayList<Closeable>(2);
+        }
+        _bindStreamList.add(stream);
+    }
+
+    protected void closeBindStream() {
+        if (_bindStreamList == null) {
+            return;
+        }
+        for (Closeable stream : _bindStreamList) {
+            try {
+                stream.close();
+            } catch (IOException continued) { // the statement is already executed
+                _log.info("Failed to close the stream for binding: " + stream, continued);
+            }
+        }
+        _bindStreamList = null;
+    }
+
+    protected class BindingClobHandle implements ClobHandle {
+
+        protected final ClobHandle _handle;
+
+        public BindingClobHandle(ClobHandle handle) {
+            _handle = handle;
+        }
+
+        public Reader openReader() throws SQLException {
+            final Reader reader = _handle.openReader();
+            registerBindStream(reader);
+            return reader;
+        }
+
+        public long length() throws SQLException {
+            return _handle.length();
+        }
+
+        @Override
+        public String toString() {
+            return _handle.toString();
+        }
+    }
+
+    protected class BindingBlobHandle implements BlobHandle {
+
+        protected final BlobHandle _handle;
+
+        public BindingBlobHandle(BlobHandle handle) {
+            _handle = handle;
+        }
+
+        public InputStream openStream() throws SQLException {
+            final InputStream stream = _handle.openStream();
+            registerBindStream(stream);
+            return stream;
+        }
+
+        public long length() throws SQLException {
+            return _handle.length();
+        }
+
+        @Override
+        public String toString() {
+            return _handle.toString();
+        }
+    }
+
     protected ValueType findValueType(Class<?> type, Object instance) {
         return TnValueTypes.findByTypeOrValue(type, instance);
     }
@@ -677,6 +770,8 @@ public abstract class TnAbstractBasicSqlHandler {
             final SQLExceptionResource resource = createSQLExceptionResource();
             resource.setNotice("Failed to close the statement.");
             handleSQLException(e, resource);
+        } finally {
+            closeBindStream(); // read by the statement until here
         }
     }
 
@@ -18,6 +18,7 @@ package org.seasar.dbflute.s2dao.sqlhandler;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -75,6 +76,13 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
         throw new IllegalStateException(msg);
     }
 
+    /**
+     * Execute batch statement for the list of bean. <br />
+     * If the chunk size is specified by the option, the batch is executed per the size
+     * in the same statement, and the success process of elements is called once after all chunks.
+     * @param beanList The list of bean for the batch. (NotNull)
+     * @return The array of update count. (NotNull)
+     */
     public int[] executeBatch(List<?> beanList) {
         if (beanList == null) {
             String msg = "The argument 'beanList' should not be null";
@@ -91,15 +99,23 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
             processBefore(conn, beanList);
             RuntimeException sqlEx = null;
             final PreparedStatement ps = prepareStatement(conn);
-            int[] result = null;
+            final int chunkSize = getActualBatchChunkSize();
+            final List<int[]> resultList = new ArrayList<int[]>();
             try {
+                int chunkStart = 0;
+                int index = 0;
                 for (Object bean : beanList) {
                     processBatchBefore(bean);
                     prepareBatchElement(conn, ps, bean);
+                    ++index;
+                    if (chunkSize > 0 && index - chunkStart >= chunkSize) {
+                        resultList.add(executeBatchChunk(ps, beanList.subList(chunkStart, index)));
+                        chunkStart = index;
+                    }
+                }
+                if (chunkStart < index) { // rest of chunk or all elements if no chunk
+                    resultList.add(executeBatchChunk(ps, beanList.subList(chunkStart, index)));
                 }
-                handleBatchLogging(); // last scope handling
-                result = executeBatch(ps, beanList);
-                handleBatchUpdateResultWithOptimisticLock(ps, beanList, result);
             } catch (RuntimeException e) {
                 // not SQLFailureException because
                 // a wrapper of JDBC may throw an other exception
@@ -110,12 +126,13 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
                 processFinally(conn, beanList, sqlEx);
             }
             // a value of exclusive control column should be synchronized
-            // after handling optimistic lock
+            // after handling optimistic lock of all chunks
             int index = 0;
             for (Object bean : beanList) {
                 processBatchSuccess(bean, index);
                 ++index;
             }
+            final int[] result = mergeBatchChunkResult(resultList);
             processSuccess(conn, beanList, result.length);
             return result;
         } finally {
@@ -123,6 +140,47 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
         }
     }
 
+    /**
+     * Execute the batch for the current chunk. <br />
+     * The optimistic lock is checked per chunk so the failure is detected at the chunk.
+     * @param ps The prepared statement that has added batch elements of the chunk. (NotNull)
+     * @param chunkList The list of bean in the current chunk. (NotNull, NotEmpty)
+     * @return The array of update count for the chunk. (NotNull)
+     */
+    protected int[] executeBatchChunk(PreparedStatement ps, List<?> chunkList) {
+        handleBatchLogging(); // last scope handling (per chunk)
+        final int[] result = executeBatch(ps, chunkList);
+        handleBatchUpdateResultWithOptimisticLock(ps, chunkList, result);
+        return result;
+    }
+
+    protected int[] mergeBatchChunkResult(List<int[]> resultList) {
+        if (resultList.size() == 1) { // mainly here when no chunk
+            return resultList.get(0);
+        }
+        int length = 0;
+        for (int[] chunkResult : resultList) {
+            length = length + chunkResult.length;
+        }
+        final int[] result = new int[length];
+        int pos = 0;
+        for (int[] chunkResult : resultList) {
+            System.arraycopy(chunkResult, 0, result, pos, chunkResult.length);
+            pos = pos + chunkResult.length;
+        }
+        return result;
+    }
+
+    protected int getActualBatchChunkSize() {
+        final Integer chunkSize = getBatchChunkSize();
+        return chunkSize != null && chunkSize > 0 ? chunkSize : -1;
+    }
+
+    /**
+     * @return The size of chunk for executing batch. (NullAllowed: if null and minus, means no chunk)
+     */
+    protected abstract Integer getBatchChunkSize();
+
     protected void prepareBatchElement(Connection conn, PreparedStatement ps, Object bean) {
         setupBindVariables(bean);
         final Object[] bindVariables = _bindVariables;
@@ -52,6 +52,11 @@ public class TnBatchDeleteHandler extends TnAbstractBatchHandler {
         return _deleteOption != null ? _deleteOption.getBatchLoggingDeleteLimit() : null;
     }
 
+    @Override
+    protected Integer getBatchChunkSize() {
+        return _deleteOption != null ? _deleteOption.getBatchDeleteChunkSize() : null;
+    }
+
     @Override
     protected String getBatchUpdateSQLFailureProcessTitle() {
         return "batch delete";
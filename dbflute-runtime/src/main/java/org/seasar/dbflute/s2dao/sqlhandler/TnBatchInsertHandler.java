@@ -50,6 +50,11 @@ public class TnBatchInsertHandler extends TnAbstractBatchHandler {
         return _insertOption != null ? _insertOption.getBatchInsertLoggingLimit() : null;
     }
 
+    @Override
+    protected Integer getBatchChunkSize() {
+        return _insertOption != null ? _insertOption.getBatchInsertChunkSize() : null;
+    }
+
     @Override
     protected void processBefore(Connection conn, Object beanList) {
         super.processBefore(conn, beanList);
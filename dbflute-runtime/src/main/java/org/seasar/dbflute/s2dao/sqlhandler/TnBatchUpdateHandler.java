@@ -47,6 +47,11 @@ public class TnBatchUpdateHandler extends TnAbstractBatchHandler {
         return _updateOption != null ? _updateOption.getBatchUpdateLoggingLimit() : null;
     }
 
+    @Override
+    protected Integer getBatchChunkSize() {
+        return _updateOption != null ? _updateOption.getBatchUpdateChunkSize() : null;
+    }
+
     @Override
     protected String getBatchUpdateSQLFailureProcessTitle() {
         return "batch update";
@@ -122,7 +122,7 @@ public class TnProcedureHandler extends TnAbstractBasicSqlHandler {
                 // because CallableStatement's setter might be unsupported
                 // (for example, PostgreSQL JDBC Driver for JDBC 3.0)
                 final Object value = ppt.getValue(dto);
-                valueType.bindValue(conn, cs, bindIndex, value);
+                valueType.bindValue(conn, cs, bindIndex, filterBindValue(value));
             }
             // either must be true
             ++i;
@@ -19,12 +19,14 @@ import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.BIGDECIMAL;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.BIGINTEGER;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.BINARY;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.BINARY_STREAM;
+import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.BLOB_HANDLE;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.BOOLEAN;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.BYTE;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.BYTES_OID;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.BYTE_ARRAY_CLASS;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.CHARACTER;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.CLASSIFICATION;
+import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.CLOB_HANDLE;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.DEFAULT_OBJECT;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.DOUBLE;
 import static org.seasar.dbflute.s2dao.valuetype.TnValueTypes.FIXED_LENGTH_STRING;
@@ -55,7 +57,9 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.seasar.dbflute.jdbc.BlobHandle;
 import org.seasar.dbflute.jdbc.Classification;
+import org.seasar.dbflute.jdbc.ClobHandle;
 import org.seasar.dbflute.jdbc.ValueType;
 import org.seasar.dbflute.s2dao.valuetype.basic.ObjectType;
 
@@ -122,12 +126,16 @@ public class TnPlainValueTypes {
 
         // basic (interface)
         registerBasicValueType(Classification.class, CLASSIFICATION); // DBFlute original class
+        registerBasicValueType(ClobHandle.class, CLOB_HANDLE); // lazy LOB handles
+        registerBasicValueType(BlobHandle.class, BLOB_HANDLE);
 
         // Because object type is to be handle as special type.
         //registerBasicValueType(Object.class, OBJECT);
 
         // plug-in (default)
         registerPluginValueType("stringClobType", STRING_CLOB);
+        registerPluginValueType("clobHandleType", CLOB_HANDLE);
+        registerPluginValueType("blobHandleType", BLOB_HANDLE);
         registerPluginValueType("bytesOidType", BYTES_OID);
         registerPluginValueType("fixedLengthStringType", FIXED_LENGTH_STRING);
         registerPluginValueType("objectBindingBigDecimalType", OBJECT_BINDING_BIGDECIMAL);
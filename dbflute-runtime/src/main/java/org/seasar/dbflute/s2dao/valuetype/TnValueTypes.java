@@ -45,7 +45,9 @@ import org.seasar.dbflute.s2dao.valuetype.basic.UUIDAsStringType;
 import org.seasar.dbflute.s2dao.valuetype.basic.UtilDateAsSqlDateType;
 import org.seasar.dbflute.s2dao.valuetype.basic.UtilDateAsTimestampType;
 import org.seasar.dbflute.s2dao.valuetype.plugin.BytesOidType;
+import org.seasar.dbflute.s2dao.valuetype.plugin.BlobHandleType;
 import org.seasar.dbflute.s2dao.valuetype.plugin.BytesType;
+import org.seasar.dbflute.s2dao.valuetype.plugin.ClobHandleType;
 import org.seasar.dbflute.s2dao.valuetype.plugin.FixedLengthStringType;
 import org.seasar.dbflute.s2dao.valuetype.plugin.ObjectBindingBigDecimalType;
 import org.seasar.dbflute.s2dao.valuetype.plugin.OracleResultSetType;
@@ -91,6 +93,8 @@ public class TnValueTypes {
 
     // plug-in
     public static final ValueType STRING_CLOB = new StringClobType();
+    public static final ValueType CLOB_HANDLE = new ClobHandleType();
+    public static final ValueType BLOB_HANDLE = new BlobHandleType();
     public static final ValueType BYTES_OID = new BytesOidType();
     public static final ValueType FIXED_LENGTH_STRING = new FixedLengthStringType();
     public static final ValueType OBJECT_BINDING_BIGDECIMAL = new ObjectBindingBigDecimalType();
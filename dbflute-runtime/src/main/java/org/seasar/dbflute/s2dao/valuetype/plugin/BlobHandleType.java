@@ -0,0 +1,111 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.valuetype.plugin;
+
+import java.io.InputStream;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.seasar.dbflute.jdbc.BlobHandle;
+
+/**
+ * The value type for BLOB type as lazy handle. <br />
+ * The selected value is a handle on the locator of BLOB, not a byte array,
+ * so the bytes are not loaded until the handle is opened. <br />
+ * It is for large values, e.g. files selected by cursor,
+ * and the handle should be opened while the connection is alive.
+ * @author jflute
+ * @since 1.0.5K (2014/08/16 Saturday)
+ */
+public class BlobHandleType extends BytesType {
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public BlobHandleType() {
+        super(BLOB_TRAIT);
+    }
+
+    // ===================================================================================
+    //                                                                           Get Value
+    //                                                                           =========
+    @Override
+    public Object getValue(ResultSet rs, int index) throws SQLException {
+        return toHandle(rs.getBlob(index));
+    }
+
+    @Override
+    public Object getValue(ResultSet rs, String columnName) throws SQLException {
+        return toHandle(rs.getBlob(columnName));
+    }
+
+    @Override
+    public Object getValue(CallableStatement cs, int index) throws SQLException {
+        return toHandle(cs.getBlob(index));
+    }
+
+    @Override
+    public Object getValue(CallableStatement cs, String parameterName) throws SQLException {
+        return toHandle(cs.getBlob(parameterName));
+    }
+
+    protected BlobHandle toHandle(Blob blob) {
+        return blob != null ? new LocatorBlobHandle(blob) : null;
+    }
+
+    // ===================================================================================
+    //                                                                         Blob Handle
+    //                                                                         ===========
+    public static class LocatorBlobHandle implements BlobHandle {
+
+        protected final Blob _blob;
+
+        public LocatorBlobHandle(Blob blob) {
+            _blob = blob;
+        }
+
+        public InputStream openStream() throws SQLException {
+            return _blob.getBinaryStream();
+        }
+
+        public long length() throws SQLException {
+            return _blob.length();
+        }
+
+        /**
+         * Read the whole bytes of the BLOB value. (materialized here)
+         * @return The read bytes. (NotNull)
+         * @throws SQLException When it fails to read the bytes.
+         */
+        public byte[] readBytes() throws SQLException {
+            return toBytes(_blob);
+        }
+
+        /**
+         * Free the resources of the locator. (the handle cannot be opened after this)
+         * @throws SQLException When it fails to free.
+         */
+        public void free() throws SQLException {
+            _blob.free();
+        }
+
+        public Blob getBlob() {
+            return _blob;
+        }
+    }
+}
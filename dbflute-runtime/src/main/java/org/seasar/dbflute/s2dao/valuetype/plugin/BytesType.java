@@ -26,6 +26,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 
+import org.seasar.dbflute.jdbc.BlobHandle;
 import org.seasar.dbflute.s2dao.valuetype.TnAbstractValueType;
 import org.seasar.dbflute.util.DfResourceUtil;
 
@@ -52,6 +53,16 @@ public class BytesType extends TnAbstractValueType {
             setNull(ps, index);
         } else if (value instanceof byte[]) {
             trait.set(ps, index, (byte[]) value);
+        } else if (value instanceof BlobHandle) { // streaming without buffering (closed by SQL handler)
+            final BlobHandle handle = (BlobHandle) value;
+            final long length = handle.length();
+            if (length >= 0) {
+                ps.setBinaryStream(index, handle.openStream(), length);
+            } else {
+                ps.setBinaryStream(index, handle.openStream());
+            }
+        } else if (value instanceof InputStream) {
+            ps.setBinaryStream(index, (InputStream) value);
         } else {
             ps.setObject(index, value);
         }
@@ -63,6 +74,16 @@ public class BytesType extends TnAbstractValueType {
             setNull(cs, parameterName);
         } else if (value instanceof byte[]) {
             trait.set(cs, parameterName, (byte[]) value);
+        } else if (value instanceof BlobHandle) {
+            final BlobHandle handle = (BlobHandle) value;
+            final long length = handle.length();
+            if (length >= 0) {
+                cs.setBinaryStream(parameterName, handle.openStream(), length);
+            } else {
+                cs.setBinaryStream(parameterName, handle.openStream());
+            }
+        } else if (value instanceof InputStream) {
+            cs.setBinaryStream(parameterName, (InputStream) value);
         } else {
             cs.setObject(parameterName, value);
         }
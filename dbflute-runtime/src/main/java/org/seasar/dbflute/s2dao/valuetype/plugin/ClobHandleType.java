@@ -0,0 +1,105 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.valuetype.plugin;
+
+import java.io.Reader;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.seasar.dbflute.jdbc.ClobHandle;
+import org.seasar.dbflute.util.DfResourceUtil;
+
+/**
+ * The value type for CLOB type as lazy handle. <br />
+ * The selected value is a handle on the locator of CLOB, not a string,
+ * so the text is not materialized until the handle is opened. <br />
+ * It is for large values, e.g. documents selected by cursor,
+ * and the handle should be opened while the connection is alive.
+ * @author jflute
+ * @since 1.0.5K (2014/08/16 Saturday)
+ */
+public class ClobHandleType extends StringClobType {
+
+    // ===================================================================================
+    //                                                                           Get Value
+    //                                                                           =========
+    @Override
+    public Object getValue(ResultSet rs, int index) throws SQLException {
+        return toHandle(rs.getClob(index));
+    }
+
+    @Override
+    public Object getValue(ResultSet rs, String columnName) throws SQLException {
+        return toHandle(rs.getClob(columnName));
+    }
+
+    @Override
+    public Object getValue(CallableStatement cs, int index) throws SQLException {
+        return toHandle(cs.getClob(index));
+    }
+
+    @Override
+    public Object getValue(CallableStatement cs, String parameterName) throws SQLException {
+        return toHandle(cs.getClob(parameterName));
+    }
+
+    protected ClobHandle toHandle(Clob clob) {
+        return clob != null ? new LocatorClobHandle(clob) : null;
+    }
+
+    // ===================================================================================
+    //                                                                         Clob Handle
+    //                                                                         ===========
+    public static class LocatorClobHandle implements ClobHandle {
+
+        protected final Clob _clob;
+
+        public LocatorClobHandle(Clob clob) {
+            _clob = clob;
+        }
+
+        public Reader openReader() throws SQLException {
+            return _clob.getCharacterStream();
+        }
+
+        public long length() throws SQLException {
+            return _clob.length();
+        }
+
+        /**
+         * Read the whole text of the CLOB value. (materialized here)
+         * @return The read text. (NotNull)
+         * @throws SQLException When it fails to open the stream.
+         */
+        public String readText() throws SQLException {
+            return DfResourceUtil.readText(openReader());
+        }
+
+        /**
+         * Free the resources of the locator. (the handle cannot be opened after this)
+         * @throws SQLException When it fails to free.
+         */
+        public void free() throws SQLException {
+            _clob.free();
+        }
+
+        public Clob getClob() {
+            return _clob;
+        }
+    }
+}
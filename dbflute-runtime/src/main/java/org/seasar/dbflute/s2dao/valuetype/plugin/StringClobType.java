@@ -25,13 +25,15 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 
+import org.seasar.dbflute.jdbc.ClobHandle;
 import org.seasar.dbflute.s2dao.valuetype.TnAbstractValueType;
 import org.seasar.dbflute.util.DfResourceUtil;
 import org.seasar.dbflute.util.DfTypeUtil;
 
 /**
  * The value type for CLOB type. <br />
- * This class's main target is Oracle.
+ * This class's main target is Oracle. <br />
+ * The value is read as string, and a reader or a CLOB handle can be bound as stream.
  * @author modified by jflute (originated in Seasar2)
  */
 public class StringClobType extends TnAbstractValueType {
@@ -73,6 +75,16 @@ public class StringClobType extends TnAbstractValueType {
     public void bindValue(Connection conn, PreparedStatement ps, int index, Object value) throws SQLException {
         if (value == null) {
             setNull(ps, index);
+        } else if (value instanceof ClobHandle) { // streaming without buffering (closed by SQL handler)
+            final ClobHandle handle = (ClobHandle) value;
+            final long length = handle.length();
+            if (length >= 0) {
+                ps.setCharacterStream(index, handle.openReader(), length);
+            } else {
+                ps.setCharacterStream(index, handle.openReader());
+            }
+        } else if (value instanceof Reader) {
+            ps.setCharacterStream(index, (Reader) value);
         } else {
             final String str = DfTypeUtil.toString(value);
             ps.setCharacterStream(index, new StringReader(str), str.length());
@@ -83,6 +95,16 @@ public class StringClobType extends TnAbstractValueType {
             throws SQLException {
         if (value == null) {
             setNull(cs, parameterName);
+        } else if (value instanceof ClobHandle) {
+            final ClobHandle handle = (ClobHandle) value;
+            final long length = handle.length();
+            if (length >= 0) {
+                cs.setCharacterStream(parameterName, handle.openReader(), length);
+            } else {
+                cs.setCharacterStream(parameterName, handle.openReader());
+            }
+        } else if (value instanceof Reader) {
+            cs.setCharacterStream(parameterName, (Reader) value);
         } else {
             final String str = DfTypeUtil.toString(value);
             cs.setCharacterStream(parameterName, new StringReader(str), str.length());
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.twowaysql.node;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.seasar.dbflute.helper.beans.DfPropertyDesc;
+
+/**
+ * The compiled expression of IF comment, e.g. pmb.memberId != null &amp;&amp; pmb.memberName != null. <br />
+ * The expression is split into clauses and pieces only once,
+ * and getters on the property chain of each piece are cached by the receiver type when evaluated. <br />
+ * Clauses and pieces are immutable except the accessor cache of piece,
+ * whose race between threads is benign (the accessor is immutable and resolved again if lost).
+ * @author jflute
+ * @since 1.0.5K (2014/08/14 Thursday)
+ */
+public class CompiledIfComment {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** Is the clauses connected by 'or'? (false if 'and' or single clause) */
+    protected final boolean _orConnected;
+
+    /** The list of boolean clause in the expression. (NotNull, NotEmpty) */
+    protected final List<CompiledClause> _clauseList;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param orConnected Is the clauses connected by 'or'?
+     * @param clauseList The list of boolean clause in the expression. (NotNull, NotEmpty)
+     */
+    public CompiledIfComment(boolean orConnected, List<CompiledClause> clauseList) {
+        _orConnected = orConnected;
+        _clauseList = clauseList;
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public boolean isOrConnected() {
+        return _orConnected;
+    }
+
+    public List<CompiledClause> getClauseList() {
+        return _clauseList;
+    }
+
+    // ===================================================================================
+    //                                                                      Boolean Clause
+    //                                                                      ==============
+    public static class CompiledClause {
+
+        protected final String _booleanClause;
+        protected final String _operand; // null if stand-alone
+        protected final CompiledPiece _leftPiece; // also stand-alone piece
+        protected final CompiledPiece _rightPiece; // null if stand-alone
+        protected final boolean _booleanNot; // only for stand-alone
+
+        protected CompiledClause(String booleanClause, String operand, CompiledPiece leftPiece,
+                CompiledPiece rightPiece, boolean booleanNot) {
+            _booleanClause = booleanClause;
+            _operand = operand;
+            _leftPiece = leftPiece;
+            _rightPiece = rightPiece;
+            _booleanNot = booleanNot;
+        }
+
+        /**
+         * @param booleanClause The plain string of the clause for messages. (NotNull)
+         * @param operand The operand of comparison, e.g. " == ". (NotNull)
+         * @param leftPiece The piece at left side of the operand. (NotNull)
+         * @param rightPiece The piece at right side of the operand. (NotNull)
+         * @return The new-created clause for comparison. (NotNull)
+         */
+        public static CompiledClause createCompare(String booleanClause, String operand, CompiledPiece leftPiece,
+                CompiledPiece rightPiece) {
+            return new CompiledClause(booleanClause, operand, leftPiece, rightPiece, false);
+        }
+
+        /**
+         * @param booleanClause The plain string of the clause for messages. (NotNull)
+         * @param piece The stand-alone piece, which the boolean-not mark is removed from. (NotNull)
+         * @param booleanNot Does the clause have the boolean-not mark?
+         * @return The new-created clause for stand-alone value. (NotNull)
+         */
+        public static CompiledClause createStandAlone(String booleanClause, CompiledPiece piece, boolean booleanNot) {
+            return new CompiledClause(booleanClause, null, piece, null, booleanNot);
+        }
+
+        public boolean isStandAlone() {
+            return _operand == null;
+        }
+
+        public String getBooleanClause() {
+            return _booleanClause;
+        }
+
+        public String getOperand() {
+            return _operand;
+        }
+
+        public CompiledPiece getLeftPiece() {
+            return _leftPiece;
+        }
+
+        public CompiledPiece getRightPiece() {
+            return _rightPiece;
+        }
+
+        public CompiledPiece getStandAlonePiece() {
+            return _leftPiece;
+        }
+
+        public boolean isBooleanNot() {
+            return _booleanNot;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Compiled Piece
+    //                                                                      ==============
+    public static class CompiledPiece {
+
+        protected final boolean _literal;
+        protected final Object _literalValue; // null if property piece (or null literal)
+        protected final String _firstName; // null if literal
+        protected final List<String> _propertyList; // null if literal, except first name
+        protected final PropertyAccessor[] _accessors; // null if literal, element NullAllowed: not resolved yet
+
+        protected CompiledPiece(boolean literal, Object literalValue, String firstName, List<String> propertyList) {
+            _literal = literal;
+            _literalValue = literalValue;
+            _firstName = firstName;
+            _propertyList = propertyList;
+            _accessors = propertyList != null ? new PropertyAccessor[propertyList.size()] : null;
+        }
+
+        /**
+         * @param literalValue The value of literal, e.g. 'foo', 3, null. (NullAllowed: means null literal)
+         * @return The new-created piece for literal. (NotNull)
+         */
+        public static CompiledPiece createLiteral(Object literalValue) {
+            return new CompiledPiece(true, literalValue, null, null);
+        }
+
+        /**
+         * @param firstName The first name of the piece, e.g. pmb, #current. (NotNull)
+         * @param propertyList The list of property except first name. (NotNull, EmptyAllowed)
+         * @return The new-created piece for property chain. (NotNull)
+         */
+        public static CompiledPiece createProperty(String firstName, List<String> propertyList) {
+            return new CompiledPiece(false, null, firstName, propertyList);
+        }
+
+        /**
+         * @param index The index of property list. (NotMinus)
+         * @param receiverType The type of the object having the property. (NotNull)
+         * @return The cached accessor for the receiver type. (NullAllowed: when not resolved or the type is different)
+         */
+        public PropertyAccessor findAccessor(int index, Class<?> receiverType) {
+            final PropertyAccessor accessor = _accessors[index];
+            return accessor != null && accessor.getReceiverType() == receiverType ? accessor : null;
+        }
+
+        /**
+         * Register the resolved accessor, overriding the existing one (the latest type wins).
+         * @param index The index of property list. (NotMinus)
+         * @param accessor The resolved accessor. (NotNull)
+         * @return The registered accessor. (NotNull)
+         */
+        public PropertyAccessor registerAccessor(int index, PropertyAccessor accessor) {
+            _accessors[index] = accessor;
+            return accessor;
+        }
+
+        public boolean isLiteral() {
+            return _literal;
+        }
+
+        public Object getLiteralValue() {
+            return _literalValue;
+        }
+
+        public String getFirstName() {
+            return _firstName;
+        }
+
+        public List<String> getPropertyList() {
+            return _propertyList;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                   Property Accessor
+    //                                                                   =================
+    public static class PropertyAccessor {
+
+        protected final Class<?> _receiverType;
+        protected final DfPropertyDesc _propertyDesc; // null if method
+        protected final Method _method; // null if property
+
+        /**
+         * @param receiverType The type of receiver, which is the guard of this accessor. (NotNull)
+         * @param propertyDesc The description of the property to get value. (NullAllowed: if method)
+         * @param method The no-argument method to get value, e.g. isFoo(). (NullAllowed: if property)
+         */
+        public PropertyAccessor(Class<?> receiverType, DfPropertyDesc propertyDesc, Method method) {
+            _receiverType = receiverType;
+            _propertyDesc = propertyDesc;
+            _method = method;
+        }
+
+        public Class<?> getReceiverType() {
+            return _receiverType;
+        }
+
+        public DfPropertyDesc getPropertyDesc() {
+            return _propertyDesc;
+        }
+
+        public Method getMethod() {
+            return _method;
+        }
+    }
+}
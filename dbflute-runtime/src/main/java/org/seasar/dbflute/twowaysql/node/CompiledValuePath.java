@@ -0,0 +1,112 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.twowaysql.node;
+
+import org.seasar.dbflute.helper.beans.DfPropertyDesc;
+
+/**
+ * The compiled path of property getters for the expression of variable comment, e.g. pmb.memberName. <br />
+ * Each step is guarded by the receiver type observed when compiled,
+ * so a different type at the position is resolved by the generic way. <br />
+ * This is immutable, so shared by threads as node's cache.
+ * @author jflute
+ * @since 1.0.5K (2014/08/13 Wednesday)
+ */
+public class CompiledValuePath {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The array of step indexed by position of name list. (NotNull, element NullAllowed: not compiled) */
+    protected final PathStep[] _steps;
+
+    /** The count of compiled steps. */
+    protected final int _compiledCount;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param steps The array of step indexed by position of name list. (NotNull, element NullAllowed)
+     */
+    public CompiledValuePath(PathStep[] steps) {
+        _steps = steps;
+        int compiledCount = 0;
+        for (PathStep step : steps) {
+            if (step != null) {
+                ++compiledCount;
+            }
+        }
+        _compiledCount = compiledCount;
+    }
+
+    // ===================================================================================
+    //                                                                           Find Step
+    //                                                                           =========
+    /**
+     * @param pos The position of name list. (NotMinus)
+     * @param receiverType The type of current value as receiver. (NullAllowed: then not found)
+     * @return The compiled step for the receiver type. (NullAllowed: when not compiled or the type is different)
+     */
+    public PathStep findStep(int pos, Class<?> receiverType) {
+        if (pos >= _steps.length) {
+            return null;
+        }
+        final PathStep step = _steps[pos];
+        return step != null && step.getReceiverType() == receiverType ? step : null;
+    }
+
+    public PathStep getStep(int pos) {
+        return pos < _steps.length ? _steps[pos] : null;
+    }
+
+    public int getCompiledCount() {
+        return _compiledCount;
+    }
+
+    // ===================================================================================
+    //                                                                           Path Step
+    //                                                                           =========
+    public static class PathStep {
+
+        protected final Class<?> _receiverType;
+        protected final DfPropertyDesc _propertyDesc;
+        protected final DfPropertyDesc _likeSearchDesc;
+
+        /**
+         * @param receiverType The type of receiver, which is the guard of this step. (NotNull)
+         * @param propertyDesc The description of the property to get value. (NotNull)
+         * @param likeSearchDesc The description of like-search option property. (NullAllowed: when no option)
+         */
+        public PathStep(Class<?> receiverType, DfPropertyDesc propertyDesc, DfPropertyDesc likeSearchDesc) {
+            _receiverType = receiverType;
+            _propertyDesc = propertyDesc;
+            _likeSearchDesc = likeSearchDesc;
+        }
+
+        public Class<?> getReceiverType() {
+            return _receiverType;
+        }
+
+        public DfPropertyDesc getPropertyDesc() {
+            return _propertyDesc;
+        }
+
+        public DfPropertyDesc getLikeSearchDesc() {
+            return _likeSearchDesc;
+        }
+    }
+}
@@ -48,6 +48,9 @@ public class ForNode extends ScopeNode implements SqlConnectorAdjustable, LoopAc
     protected final List<String> _nameList;
     protected final String _specifiedSql;
 
+    /** The cache of resolved getters for the list expression. (NullAllowed: not accepted yet) */
+    protected volatile CompiledValuePath _compiledPath;
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -158,8 +161,14 @@ public class ForNode extends ScopeNode implements SqlConnectorAdjustable, LoopAc
 
     protected void setupValueAndType(ValueAndType valueAndType) {
         final CommentType type = CommentType.FORCOMMENT;
-        final ValueAndTypeSetupper setuper = new ValueAndTypeSetupper(_nameList, _expression, _specifiedSql, type);
+        final CompiledValuePath compiledPath = _compiledPath;
+        final ValueAndTypeSetupper setuper = new ValueAndTypeSetupper(_nameList, _expression, _specifiedSql, type,
+                compiledPath);
         setuper.setupValueAndType(valueAndType);
+        final CompiledValuePath recompiledPath = setuper.getRecompiledPath();
+        if (recompiledPath != null) {
+            _compiledPath = recompiledPath;
+        }
     }
 
     protected void assertParameterList(Object targetValue) {
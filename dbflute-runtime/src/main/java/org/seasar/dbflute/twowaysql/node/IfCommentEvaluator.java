@@ -42,7 +42,11 @@ import org.seasar.dbflute.twowaysql.exception.IfCommentNullPointerException;
 import org.seasar.dbflute.twowaysql.exception.IfCommentPropertyReadFailureException;
 import org.seasar.dbflute.twowaysql.exception.IfCommentUnsupportedExpressionException;
 import org.seasar.dbflute.twowaysql.exception.IfCommentUnsupportedTypeComparisonException;
+import org.seasar.dbflute.twowaysql.node.CompiledIfComment.CompiledClause;
+import org.seasar.dbflute.twowaysql.node.CompiledIfComment.CompiledPiece;
+import org.seasar.dbflute.twowaysql.node.CompiledIfComment.PropertyAccessor;
 import org.seasar.dbflute.twowaysql.pmbean.MapParameterBean;
+import org.seasar.dbflute.util.DfCollectionUtil;
 import org.seasar.dbflute.util.DfReflectionUtil;
 import org.seasar.dbflute.util.DfReflectionUtil.ReflectionFailureException;
 import org.seasar.dbflute.util.DfTypeUtil;
@@ -72,6 +76,31 @@ public class IfCommentEvaluator {
     protected static final String[] OPERANDS = new String[] { EQUAL.trim(), NOT_EQUAL.trim(), GREATER_THAN.trim(),
             LESS_THAN.trim(), GREATER_EQUAL.trim(), LESS_EQUAL.trim() };
 
+    /** The operands for compiling, searched in this order. (so e.g. ' > ' is prior to ' >= ') */
+    protected static final String[] COMPARE_OPERANDS = new String[] { EQUAL, NOT_EQUAL, GREATER_THAN, LESS_THAN,
+            GREATER_EQUAL, LESS_EQUAL };
+
+    protected static final ComparaDeterminer GREATER_THAN_DETERMINER = new ComparaDeterminer() {
+        public boolean compare(int compareResult) {
+            return compareResult > 0;
+        }
+    };
+    protected static final ComparaDeterminer LESS_THAN_DETERMINER = new ComparaDeterminer() {
+        public boolean compare(int compareResult) {
+            return compareResult < 0;
+        }
+    };
+    protected static final ComparaDeterminer GREATER_EQUAL_DETERMINER = new ComparaDeterminer() {
+        public boolean compare(int compareResult) {
+            return compareResult >= 0;
+        }
+    };
+    protected static final ComparaDeterminer LESS_EQUAL_DETERMINER = new ComparaDeterminer() {
+        public boolean compare(int compareResult) {
+            return compareResult <= 0;
+        }
+    };
+
     public static String[] getConnectors() {
         return CONNECTORS;
     }
@@ -108,42 +137,67 @@ public class IfCommentEvaluator {
     protected final String _specifiedSql;
     protected final LoopInfo _loopInfo;
 
+    /** The compiled expression, which may be cached by the node. (NullAllowed: compiled when evaluating) */
+    protected CompiledIfComment _compiledIfComment;
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
     public IfCommentEvaluator(ParameterFinder finder, String expression, String specifiedSql, LoopInfo loopInfo) {
+        this(finder, expression, specifiedSql, loopInfo, null);
+    }
+
+    /**
+     * @param finder The finder of parameter. (NotNull)
+     * @param expression The expression of IF comment. (NullAllowed: but exception when evaluating)
+     * @param specifiedSql The specified SQL for exception message. (NullAllowed)
+     * @param loopInfo The information of loop. (NullAllowed: if not in loop)
+     * @param compiledIfComment The compiled expression of the same expression. (NullAllowed: compiled when evaluating)
+     */
+    public IfCommentEvaluator(ParameterFinder finder, String expression, String specifiedSql, LoopInfo loopInfo,
+            CompiledIfComment compiledIfComment) {
         this._finder = finder;
         this._expression = expression != null ? expression.trim() : null;
         this._specifiedSql = specifiedSql;
         this._loopInfo = loopInfo;
+        this._compiledIfComment = compiledIfComment;
     }
 
     // ===================================================================================
     //                                                                              Accept
     //                                                                              ======
     public boolean evaluate() {
-        assertExpression();
-        if (_expression.contains(AND)) {
-            final List<String> splitList = splitList(_expression, AND);
-            for (String booleanClause : splitList) {
-                final boolean result = evaluateBooleanClause(booleanClause);
-                if (!result) {
-                    return false;
-                }
-            }
-            return true;
-        } else if (_expression.contains(OR)) {
-            final List<String> splitList = splitList(_expression, OR);
-            for (String booleanClause : splitList) {
-                final boolean result = evaluateBooleanClause(booleanClause);
+        final CompiledIfComment compiled = prepareCompiledIfComment();
+        final List<CompiledClause> clauseList = compiled.getClauseList();
+        if (compiled.isOrConnected()) {
+            for (CompiledClause clause : clauseList) {
+                final boolean result = evaluateBooleanClause(clause);
                 if (result) {
                     return true;
                 }
             }
             return false;
-        } else {
-            return evaluateBooleanClause(_expression);
+        } else { // 'and' or single clause
+            for (CompiledClause clause : clauseList) {
+                final boolean result = evaluateBooleanClause(clause);
+                if (!result) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Prepare the compiled expression, which is asserted and compiled only when not compiled yet.
+     * @return The compiled IF comment. (NotNull)
+     */
+    public CompiledIfComment prepareCompiledIfComment() {
+        if (_compiledIfComment == null) {
+            assertExpression();
+            _compiledIfComment = compileExpression();
         }
+        return _compiledIfComment;
     }
 
     public void assertExpression() {
@@ -168,161 +222,59 @@ public class IfCommentEvaluator {
         }
     }
 
-    protected boolean evaluateBooleanClause(final String booleanClause) {
-        if (booleanClause.contains(EQUAL)) {
-            return evaluateCompareClause(booleanClause, EQUAL, new OperandEvaluator() {
-                public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult instanceof Number && rightResult instanceof Number) {
-                        leftResult = new BigDecimal(leftResult.toString());
-                        rightResult = new BigDecimal(rightResult.toString());
-                    }
-                    assertCompareType(leftResult, rightResult, booleanClause);
-                    return leftResult != null ? leftResult.equals(rightResult) : rightResult == null;
-                }
-            });
-        } else if (booleanClause.contains(NOT_EQUAL)) {
-            return evaluateCompareClause(booleanClause, NOT_EQUAL, new OperandEvaluator() {
-                public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult instanceof Number && rightResult instanceof Number) {
-                        leftResult = new BigDecimal(leftResult.toString());
-                        rightResult = new BigDecimal(rightResult.toString());
-                    }
-                    assertCompareType(leftResult, rightResult, booleanClause);
-                    return leftResult != null ? !leftResult.equals(rightResult) : rightResult != null;
-                }
-            });
-        } else if (booleanClause.contains(GREATER_THAN)) {
-            return evaluateCompareClause(booleanClause, GREATER_THAN, new OperandEvaluator() {
-                public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult == null) {
-                        return false;
-                    }
-                    if (rightResult == null) {
-                        return true;
-                    }
-                    return compareLeftRight(leftResult, rightResult, new ComparaDeterminer() {
-                        public boolean compare(int compareResult) {
-                            return compareResult > 0;
-                        }
-                    }, booleanClause);
-                }
-            });
-        } else if (booleanClause.contains(LESS_THAN)) {
-            return evaluateCompareClause(booleanClause, LESS_THAN, new OperandEvaluator() {
-                public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult == null) {
-                        return true;
-                    }
-                    if (rightResult == null) {
-                        return false;
-                    }
-                    return compareLeftRight(leftResult, rightResult, new ComparaDeterminer() {
-                        public boolean compare(int compareResult) {
-                            return compareResult < 0;
-                        }
-                    }, booleanClause);
-                }
-            });
-        } else if (booleanClause.contains(GREATER_EQUAL)) {
-            return evaluateCompareClause(booleanClause, GREATER_EQUAL, new OperandEvaluator() {
-                public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult == null) {
-                        return rightResult == null;
-                    }
-                    if (rightResult == null) {
-                        return true;
-                    }
-                    return compareLeftRight(leftResult, rightResult, new ComparaDeterminer() {
-                        public boolean compare(int compareResult) {
-                            return compareResult >= 0;
-                        }
-                    }, booleanClause);
-                }
-            });
-        } else if (booleanClause.contains(LESS_EQUAL)) {
-            return evaluateCompareClause(booleanClause, LESS_EQUAL, new OperandEvaluator() {
-                public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult == null) {
-                        return true;
-                    }
-                    if (rightResult == null) {
-                        return false;
-                    }
-                    return compareLeftRight(leftResult, rightResult, new ComparaDeterminer() {
-                        public boolean compare(int compareResult) {
-                            return compareResult <= 0;
-                        }
-                    }, booleanClause);
-                }
-            });
+    // ===================================================================================
+    //                                                                             Compile
+    //                                                                             =======
+    protected CompiledIfComment compileExpression() {
+        final boolean orConnected;
+        final List<String> clauseStrList;
+        if (_expression.contains(AND)) {
+            orConnected = false;
+            clauseStrList = splitList(_expression, AND);
+        } else if (_expression.contains(OR)) {
+            orConnected = true;
+            clauseStrList = splitList(_expression, OR);
         } else {
-            return evaluateStandAloneValue(booleanClause);
+            orConnected = false;
+            clauseStrList = DfCollectionUtil.newArrayList(_expression);
         }
-    }
-
-    protected boolean compareLeftRight(Object leftResult, Object rightResult, ComparaDeterminer determiner,
-            String booleanClause) {
-        assertCompareType(leftResult, rightResult, booleanClause);
-        if (leftResult instanceof Date) {
-            final Date leftDate = (Date) leftResult;
-            final Date rightDate = (Date) rightResult;
-            return determiner.compare(leftDate.compareTo(rightDate));
-        } else if (leftResult instanceof Number) {
-            final Number leftNumber = (Number) leftResult;
-            final BigDecimal leftDecimal = new BigDecimal(leftNumber.toString());
-            final Number rightNumber = (Number) rightResult;
-            final BigDecimal rightDecimal = new BigDecimal(rightNumber.toString());
-            return determiner.compare(leftDecimal.compareTo(rightDecimal));
-        } else {
-            throwIfCommentUnsupportedTypeComparisonException(leftResult, rightResult, booleanClause);
-            return false; // unreachable
+        final List<CompiledClause> clauseList = new ArrayList<CompiledClause>(clauseStrList.size());
+        for (String booleanClause : clauseStrList) {
+            clauseList.add(compileBooleanClause(booleanClause));
         }
-    }
-
-    protected void assertCompareType(Object leftResult, Object rightResult, String booleanClause) {
-        if (leftResult != null && rightResult != null && leftResult instanceof Date) {
-            if (!(rightResult instanceof Date)) {
-                throwIfCommentDifferentTypeComparisonException(leftResult, rightResult, booleanClause);
-            }
-        } else if (leftResult != null && rightResult != null && leftResult instanceof Number) {
-            if (!(rightResult instanceof Number)) {
-                throwIfCommentDifferentTypeComparisonException(leftResult, rightResult, booleanClause);
+        return new CompiledIfComment(orConnected, clauseList);
+    }
+
+    protected CompiledClause compileBooleanClause(String booleanClause) {
+        for (String operand : COMPARE_OPERANDS) { // first found operand is used
+            if (booleanClause.contains(operand)) {
+                final int operandIndex = booleanClause.indexOf(operand);
+                final String left = booleanClause.substring(0, operandIndex).trim();
+                final String right = booleanClause.substring(operandIndex + operand.length()).trim();
+                final CompiledPiece leftPiece = compileComparePiece(left);
+                final CompiledPiece rightPiece = compileComparePiece(right);
+                return CompiledClause.createCompare(booleanClause, operand, leftPiece, rightPiece);
             }
         }
+        return compileStandAloneClause(booleanClause);
     }
 
-    protected static interface ComparaDeterminer {
-        boolean compare(int compareResult);
-    }
-
-    protected boolean evaluateCompareClause(String booleanClause, String operand, OperandEvaluator evaluator) {
-        final String left = booleanClause.substring(0, booleanClause.indexOf(operand)).trim();
-        final String right = booleanClause.substring(booleanClause.indexOf(operand) + operand.length()).trim();
-        final Object leftResult = evaluateComparePiece(left, null);
-        final Object rightResult = evaluateComparePiece(right, null);
-        return evaluator.evaluate(leftResult, rightResult);
-    }
-
-    protected static interface OperandEvaluator {
-        boolean evaluate(Object leftResult, Object rightRight);
-    }
-
-    protected Object evaluateComparePiece(String piece, Object leftResult) {
+    protected CompiledPiece compileComparePiece(String piece) {
         piece = piece.trim();
         if (!startsWithParameterBean(piece)) {
             if ("null".equalsIgnoreCase(piece)) {
-                return null;
+                return CompiledPiece.createLiteral(null);
             }
             if ("true".equalsIgnoreCase(piece)) {
-                return true;
+                return CompiledPiece.createLiteral(true);
             }
             if ("false".equalsIgnoreCase(piece)) {
-                return false;
+                return CompiledPiece.createLiteral(false);
             }
             final String quote = "'";
             final int qlen = "'".length();
             if (piece.startsWith(quote) && piece.endsWith(quote)) {
-                return piece.substring(qlen, piece.length() - qlen);
+                return CompiledPiece.createLiteral(piece.substring(qlen, piece.length() - qlen));
             }
             final String dateMark = "date ";
             if (piece.toLowerCase().startsWith(dateMark)) {
@@ -330,28 +282,21 @@ public class IfCommentEvaluator {
                 if (rearValue.startsWith(quote) && rearValue.endsWith(quote)) {
                     final String literal = rearValue.substring(qlen, rearValue.length() - qlen).trim();
                     try {
-                        return DfTypeUtil.toTimestamp(literal);
+                        return CompiledPiece.createLiteral(DfTypeUtil.toTimestamp(literal));
                     } catch (ParseTimestampException ignored) {
                     }
                 }
             }
             try {
-                return DfTypeUtil.toBigDecimal(piece);
+                return CompiledPiece.createLiteral(DfTypeUtil.toBigDecimal(piece));
             } catch (NumberFormatException ignored) {
             }
         }
-        final List<String> propertyList = new ArrayList<String>();
-        String preProperty = setupPropertyList(piece, propertyList);
-        Object baseObject = findBaseObject(preProperty);
-        for (String property : propertyList) {
-            baseObject = processOneProperty(baseObject, preProperty, property);
-            preProperty = property;
-        }
-        return baseObject;
+        return compilePropertyPiece(piece);
     }
 
-    protected boolean evaluateStandAloneValue(String piece) {
-        piece = piece.trim();
+    protected CompiledClause compileStandAloneClause(String booleanClause) {
+        String piece = booleanClause.trim();
         boolean not = false;
         if (piece.startsWith(BOOLEAN_NOT)) {
             not = true;
@@ -359,19 +304,145 @@ public class IfCommentEvaluator {
         }
         if (!startsWithParameterBean(piece)) {
             if ("true".equalsIgnoreCase(piece)) {
-                return not ? false : true;
+                return CompiledClause.createStandAlone(booleanClause, CompiledPiece.createLiteral(true), not);
             }
             if ("false".equalsIgnoreCase(piece)) {
-                return not ? true : false;
+                return CompiledClause.createStandAlone(booleanClause, CompiledPiece.createLiteral(false), not);
             }
         }
-        final List<String> propertyList = new ArrayList<String>();
-        String preProperty = setupPropertyList(piece, propertyList);
-        Object baseObject = findBaseObject(preProperty);
-        for (String property : propertyList) {
-            baseObject = processOneProperty(baseObject, preProperty, property);
-            preProperty = property;
+        return CompiledClause.createStandAlone(booleanClause, compilePropertyPiece(piece), not);
+    }
+
+    /**
+     * @param piece The piece of condition, e.g. pmb.memberName. (NotNull)
+     * @return The compiled piece for property chain, whose first name is not asserted yet. (NotNull)
+     */
+    protected CompiledPiece compilePropertyPiece(String piece) {
+        final List<String> splitList = splitList(piece, ".");
+        final String firstName = splitList.get(0);
+        final List<String> propertyList = new ArrayList<String>(splitList.subList(1, splitList.size()));
+        return CompiledPiece.createProperty(firstName, propertyList);
+    }
+
+    protected boolean startsWithParameterBean(String piece) {
+        return piece.startsWith("pmb");
+    }
+
+    // ===================================================================================
+    //                                                                      Boolean Clause
+    //                                                                      ==============
+    protected boolean evaluateBooleanClause(CompiledClause clause) {
+        if (clause.isStandAlone()) {
+            return evaluateStandAloneValue(clause);
+        }
+        final Object leftResult = evaluateComparePiece(clause.getLeftPiece());
+        final Object rightResult = evaluateComparePiece(clause.getRightPiece());
+        return evaluateOperand(clause.getOperand(), leftResult, rightResult, clause.getBooleanClause());
+    }
+
+    protected boolean evaluateOperand(String operand, Object leftResult, Object rightResult, String booleanClause) {
+        if (EQUAL.equals(operand)) {
+            if (leftResult instanceof Number && rightResult instanceof Number) {
+                leftResult = new BigDecimal(leftResult.toString());
+                rightResult = new BigDecimal(rightResult.toString());
+            }
+            assertCompareType(leftResult, rightResult, booleanClause);
+            return leftResult != null ? leftResult.equals(rightResult) : rightResult == null;
+        } else if (NOT_EQUAL.equals(operand)) {
+            if (leftResult instanceof Number && rightResult instanceof Number) {
+                leftResult = new BigDecimal(leftResult.toString());
+                rightResult = new BigDecimal(rightResult.toString());
+            }
+            assertCompareType(leftResult, rightResult, booleanClause);
+            return leftResult != null ? !leftResult.equals(rightResult) : rightResult != null;
+        } else if (GREATER_THAN.equals(operand)) {
+            if (leftResult == null) {
+                return false;
+            }
+            if (rightResult == null) {
+                return true;
+            }
+            return compareLeftRight(leftResult, rightResult, GREATER_THAN_DETERMINER, booleanClause);
+        } else if (LESS_THAN.equals(operand)) {
+            if (leftResult == null) {
+                return true;
+            }
+            if (rightResult == null) {
+                return false;
+            }
+            return compareLeftRight(leftResult, rightResult, LESS_THAN_DETERMINER, booleanClause);
+        } else if (GREATER_EQUAL.equals(operand)) {
+            if (leftResult == null) {
+                return rightResult == null;
+            }
+            if (rightResult == null) {
+                return true;
+            }
+            return compareLeftRight(leftResult, rightResult, GREATER_EQUAL_DETERMINER, booleanClause);
+        } else if (LESS_EQUAL.equals(operand)) {
+            if (leftResult == null) {
+                return true;
+            }
+            if (rightResult == null) {
+                return false;
+            }
+            return compareLeftRight(leftResult, rightResult, LESS_EQUAL_DETERMINER, booleanClause);
+        } else {
+            String msg = "Unknown operand: " + operand + " in " + booleanClause;
+            throw new IllegalStateException(msg); // basically no way, compiled from operands
         }
+    }
+
+    protected boolean compareLeftRight(Object leftResult, Object rightResult, ComparaDeterminer determiner,
+            String booleanClause) {
+        assertCompareType(leftResult, rightResult, booleanClause);
+        if (leftResult instanceof Date) {
+            final Date leftDate = (Date) leftResult;
+            final Date rightDate = (Date) rightResult;
+            return determiner.compare(leftDate.compareTo(rightDate));
+        } else if (leftResult instanceof Number) {
+            final Number leftNumber = (Number) leftResult;
+            final BigDecimal leftDecimal = new BigDecimal(leftNumber.toString());
+            final Number rightNumber = (Number) rightResult;
+            final BigDecimal rightDecimal = new BigDecimal(rightNumber.toString());
+            return determiner.compare(leftDecimal.compareTo(rightDecimal));
+        } else {
+            throwIfCommentUnsupportedTypeComparisonException(leftResult, rightResult, booleanClause);
+            return false; // unreachable
+        }
+    }
+
+    protected void assertCompareType(Object leftResult, Object rightResult, String booleanClause) {
+        if (leftResult != null && rightResult != null && leftResult instanceof Date) {
+            if (!(rightResult instanceof Date)) {
+                throwIfCommentDifferentTypeComparisonException(leftResult, rightResult, booleanClause);
+            }
+        } else if (leftResult != null && rightResult != null && leftResult instanceof Number) {
+            if (!(rightResult instanceof Number)) {
+                throwIfCommentDifferentTypeComparisonException(leftResult, rightResult, booleanClause);
+            }
+        }
+    }
+
+    protected static interface ComparaDeterminer {
+        boolean compare(int compareResult);
+    }
+
+    protected Object evaluateComparePiece(CompiledPiece piece) {
+        if (piece.isLiteral()) {
+            return piece.getLiteralValue();
+        }
+        return evaluatePropertyPiece(piece);
+    }
+
+    protected boolean evaluateStandAloneValue(CompiledClause clause) {
+        final CompiledPiece piece = clause.getStandAlonePiece();
+        final boolean not = clause.isBooleanNot();
+        if (piece.isLiteral()) { // true or false
+            final boolean literal = (Boolean) piece.getLiteralValue();
+            return not ? !literal : literal;
+        }
+        final Object baseObject = evaluatePropertyPiece(piece);
         if (baseObject == null) {
             throwIfCommentNotBooleanResultException();
         }
@@ -379,28 +450,20 @@ public class IfCommentEvaluator {
         return not ? !result : result;
     }
 
-    protected boolean startsWithParameterBean(String piece) {
-        return piece.startsWith("pmb");
-    }
-
-    /**
-     * @param piece The piece of condition. (NotNull)
-     * @param propertyList The list of property except first property. (NotNull, FirstEmpty)
-     * @return The first property. (NotNull)
-     */
-    protected String setupPropertyList(String piece, List<String> propertyList) {
-        final List<String> splitList = splitList(piece, ".");
-        String firstName = null;
-        for (int i = 0; i < splitList.size(); i++) {
-            final String token = splitList.get(i);
-            if (i == 0) {
-                assertFirstName(token);
-                firstName = token;
-                continue;
-            }
-            propertyList.add(token);
+    // ===================================================================================
+    //                                                                      Property Piece
+    //                                                                      ==============
+    protected Object evaluatePropertyPiece(CompiledPiece piece) {
+        String preProperty = piece.getFirstName();
+        assertFirstName(preProperty);
+        Object baseObject = findBaseObject(preProperty);
+        final List<String> propertyList = piece.getPropertyList();
+        for (int i = 0; i < propertyList.size(); i++) {
+            final String property = propertyList.get(i);
+            baseObject = processOneProperty(baseObject, preProperty, property, piece, i);
+            preProperty = property;
         }
-        return firstName;
+        return baseObject;
     }
 
     protected void assertFirstName(String firstName) {
@@ -420,33 +483,35 @@ public class IfCommentEvaluator {
         NodeUtil.throwLoopCurrentVariableOutOfForCommentException(_expression, _specifiedSql);
     }
 
-    protected Object processOneProperty(Object baseObject, String firstProperty, String property) {
+    protected Object processOneProperty(Object baseObject, String firstProperty, String property, CompiledPiece piece,
+            int propertyIndex) {
         if (baseObject == null) {
             throwIfCommentNullPointerException(firstProperty);
         }
-        final DfBeanDesc beanDesc = DfBeanDescFactory.getBeanDesc(baseObject.getClass());
+        final Class<?> receiverType = baseObject.getClass();
+        final PropertyAccessor cached = piece.findAccessor(propertyIndex, receiverType);
+        if (cached != null) { // fast way: same type as previous evaluation
+            return invokeAccessor(baseObject, cached);
+        }
+        final DfBeanDesc beanDesc = DfBeanDescFactory.getBeanDesc(receiverType);
         if (beanDesc.hasPropertyDesc(property)) { // main case
             final DfPropertyDesc propertyDesc = beanDesc.getPropertyDesc(property);
-            try {
-                return propertyDesc.getValue(baseObject);
-            } catch (DfBeanIllegalPropertyException e) {
-                throwIfCommentPropertyReadFailureException(baseObject, propertyDesc.getPropertyName(), e);
-                return null; // unreachable
-            }
+            final PropertyAccessor accessor = new PropertyAccessor(receiverType, propertyDesc, null);
+            return invokeAccessor(baseObject, piece.registerAccessor(propertyIndex, accessor));
         }
         if (property.endsWith(METHOD_SUFFIX)) { // sub-main case
             final String methodName = property.substring(0, property.length() - METHOD_SUFFIX.length());
+            final Method method;
             try {
-                final Method method = beanDesc.getMethod(methodName);
-                return DfReflectionUtil.invoke(method, baseObject, (Object[]) null);
+                method = beanDesc.getMethod(methodName);
             } catch (DfBeanMethodNotFoundException e) {
                 throwIfCommentNotFoundMethodException(baseObject, methodName);
                 return null; // unreachable
-            } catch (ReflectionFailureException e) {
-                throwIfCommentMethodInvocationFailureException(baseObject, methodName, e);
-                return null; // unreachable
             }
+            final PropertyAccessor accessor = new PropertyAccessor(receiverType, null, method);
+            return invokeAccessor(baseObject, piece.registerAccessor(propertyIndex, accessor));
         }
+        // map and list are not cached because their elements are dynamic
         if (MapParameterBean.class.isInstance(baseObject)) { // used by union-query internally
             // if the key does not exist, it does not process
             // (different specification with Map)
@@ -480,6 +545,25 @@ public class IfCommentEvaluator {
         return null; // unreachable
     }
 
+    protected Object invokeAccessor(Object baseObject, PropertyAccessor accessor) {
+        final DfPropertyDesc propertyDesc = accessor.getPropertyDesc();
+        if (propertyDesc != null) {
+            try {
+                return propertyDesc.getValue(baseObject);
+            } catch (DfBeanIllegalPropertyException e) {
+                throwIfCommentPropertyReadFailureException(baseObject, propertyDesc.getPropertyName(), e);
+                return null; // unreachable
+            }
+        }
+        final Method method = accessor.getMethod();
+        try {
+            return DfReflectionUtil.invoke(method, baseObject, (Object[]) null);
+        } catch (ReflectionFailureException e) {
+            throwIfCommentMethodInvocationFailureException(baseObject, method.getName(), e);
+            return null; // unreachable
+        }
+    }
+
     // ===================================================================================
     //                                                                         Base Object
     //                                                                         ===========
@@ -36,6 +36,9 @@ public class IfNode extends ScopeNode implements LoopAcceptable, SqlConnectorAdj
     protected final String _specifiedSql;
     protected ElseNode _elseNode; // lazy setting
 
+    /** The compiled expression shared by evaluators of this node. (NullAllowed: until first evaluation) */
+    protected volatile CompiledIfComment _compiledIfComment;
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -58,6 +61,9 @@ public class IfNode extends ScopeNode implements LoopAcceptable, SqlConnectorAdj
     protected void doAcceptByEvaluator(CommandContext ctx, LoopInfo loopInfo) {
         final IfCommentEvaluator evaluator = createIfCommentEvaluator(ctx, loopInfo);
         final boolean result = evaluator.evaluate();
+        if (_compiledIfComment == null) { // first time (or conflicted but same expression)
+            _compiledIfComment = evaluator.prepareCompiledIfComment();
+        }
         if (result) {
             processAcceptingChildren(ctx, loopInfo);
             ctx.setEnabled(true);
@@ -75,7 +81,7 @@ public class IfNode extends ScopeNode implements LoopAcceptable, SqlConnectorAdj
             public Object find(String name) {
                 return ctx.getArg(name);
             }
-        }, _expression, _specifiedSql, loopInfo);
+        }, _expression, _specifiedSql, loopInfo, _compiledIfComment);
     }
 
     protected String replace(String text, String fromText, String toText) {
@@ -40,6 +40,7 @@ import org.seasar.dbflute.twowaysql.exception.ForCommentListIndexNotNumberExcept
 import org.seasar.dbflute.twowaysql.exception.ForCommentListIndexOutOfBoundsException;
 import org.seasar.dbflute.twowaysql.exception.ForCommentNotFoundPropertyException;
 import org.seasar.dbflute.twowaysql.exception.ForCommentPropertyReadFailureException;
+import org.seasar.dbflute.twowaysql.node.CompiledValuePath.PathStep;
 import org.seasar.dbflute.twowaysql.pmbean.MapParameterBean;
 import org.seasar.dbflute.util.DfReflectionUtil;
 import org.seasar.dbflute.util.DfTypeUtil;
@@ -62,6 +63,8 @@ public class ValueAndTypeSetupper {
     protected final String _expression; // for logging only
     protected final String _specifiedSql; // for logging only
     protected final CommentType _commentType; // for logging only
+    protected final CompiledValuePath _compiledPath; // null allowed, resolved getters by previous setup
+    protected PathStep[] _compilingSteps; // null allowed, created when a step is resolved in generic way
 
     public enum CommentType {
         BIND("bind variable comment", "Bind Variable Comment") // bind
@@ -96,10 +99,24 @@ public class ValueAndTypeSetupper {
      * @param commentType The type of comment for logging only. (NotNull)
      */
     public ValueAndTypeSetupper(List<String> nameList, String expression, String specifiedSql, CommentType commentType) {
+        this(nameList, expression, specifiedSql, commentType, null);
+    }
+
+    /**
+     * Constructor with compiled path, which is node's cache of resolved getters.
+     * @param nameList The list of property names. (NotNull)
+     * @param expression The expression of the comment for logging only. (NotNull)
+     * @param specifiedSql The specified SQL for logging only. (NotNull)
+     * @param commentType The type of comment for logging only. (NotNull)
+     * @param compiledPath The path compiled by previous setup. (NullAllowed: if null, all steps are resolved)
+     */
+    public ValueAndTypeSetupper(List<String> nameList, String expression, String specifiedSql,
+            CommentType commentType, CompiledValuePath compiledPath) {
         _nameList = nameList;
         _expression = expression;
         _specifiedSql = specifiedSql;
         _commentType = commentType;
+        _compiledPath = compiledPath;
     }
 
     // ===================================================================================
@@ -120,6 +137,20 @@ public class ValueAndTypeSetupper {
                 break;
             }
             final String currentName = _nameList.get(pos);
+            final PathStep compiledStep = _compiledPath != null ? _compiledPath.findStep(pos, clazz) : null;
+            if (compiledStep != null) { // fast way, same receiver type as compiled
+                final DfPropertyDesc likeSearchDesc = compiledStep.getLikeSearchDesc();
+                if (likeSearchDesc != null) {
+                    final LikeSearchOption currentOption = (LikeSearchOption) likeSearchDesc.getValue(value);
+                    if (currentOption != null) { // if exists, override option
+                        likeSearchOption = currentOption;
+                    }
+                }
+                final DfPropertyDesc pd = compiledStep.getPropertyDesc();
+                value = getPropertyValue(clazz, value, currentName, pd);
+                clazz = (value != null ? value.getClass() : pd.getPropertyType());
+                continue;
+            }
             final DfBeanDesc beanDesc = getBeanDesc(clazz);
             if (hasLikeSearchProperty(beanDesc, currentName, value)) {
                 final LikeSearchOption currentOption = getLikeSearchOption(beanDesc, currentName, value);
@@ -129,6 +160,7 @@ public class ValueAndTypeSetupper {
             }
             if (beanDesc.hasPropertyDesc(currentName)) { // main case
                 final DfPropertyDesc pd = beanDesc.getPropertyDesc(currentName);
+                compileStepIfPossible(pos, clazz, value, beanDesc, currentName, pd);
                 value = getPropertyValue(clazz, value, currentName, pd);
                 clazz = (value != null ? value.getClass() : pd.getPropertyType());
                 continue;
@@ -178,6 +210,47 @@ public class ValueAndTypeSetupper {
         return DfBeanDescFactory.getBeanDesc(clazz);
     }
 
+    // -----------------------------------------------------
+    //                                         Compiled Path
+    //                                         -------------
+    protected void compileStepIfPossible(int pos, Class<?> clazz, Object value, DfBeanDesc beanDesc,
+            String currentName, DfPropertyDesc pd) {
+        if (MapParameterBean.class.isInstance(value) || Map.class.isInstance(value)) {
+            return; // like-search option may be in the map so not compiled
+        }
+        if (_compilingSteps == null) {
+            _compilingSteps = new PathStep[_nameList.size()];
+            if (_compiledPath != null) { // inherits steps of other positions
+                for (int i = 0; i < _compilingSteps.length; i++) {
+                    _compilingSteps[i] = _compiledPath.getStep(i);
+                }
+            }
+        }
+        final String likeSearchName = buildLikeSearchPropertyName(currentName);
+        final DfPropertyDesc likeSearchDesc;
+        if (beanDesc.hasPropertyDesc(likeSearchName)) {
+            likeSearchDesc = beanDesc.getPropertyDesc(likeSearchName);
+        } else {
+            likeSearchDesc = null;
+        }
+        _compilingSteps[pos] = new PathStep(clazz, pd, likeSearchDesc);
+    }
+
+    /**
+     * Get the path compiled by this setup if it has more steps than the previous one.
+     * @return The new compiled path. (NullAllowed: when no new step, e.g. all steps are compiled already)
+     */
+    public CompiledValuePath getRecompiledPath() {
+        if (_compilingSteps == null) {
+            return null;
+        }
+        final CompiledValuePath recompiled = new CompiledValuePath(_compilingSteps);
+        if (_compiledPath != null && recompiled.getCompiledCount() <= _compiledPath.getCompiledCount()) {
+            return null; // e.g. polymorphic receiver, keeps the first path not to thrash
+        }
+        return recompiled;
+    }
+
     // -----------------------------------------------------
     //                             LikeSearch for OutsideSql
     //                             -------------------------
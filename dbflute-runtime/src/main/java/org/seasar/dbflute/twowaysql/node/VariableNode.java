@@ -45,6 +45,9 @@ public abstract class VariableNode extends AbstractNode implements LoopAcceptabl
     protected final String _specifiedSql;
     protected final boolean _blockNullParameter;
 
+    /** The compiled path of getters for the expression, shared by threads. (NullAllowed: before first setup) */
+    protected volatile CompiledValuePath _compiledPath;
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -119,8 +122,14 @@ public abstract class VariableNode extends AbstractNode implements LoopAcceptabl
 
     protected void setupValueAndType(ValueAndType valueAndType) {
         final CommentType type = getCommentType();
-        final ValueAndTypeSetupper setuper = new ValueAndTypeSetupper(_nameList, _expression, _specifiedSql, type);
+        final CompiledValuePath compiledPath = _compiledPath;
+        final ValueAndTypeSetupper setuper = new ValueAndTypeSetupper(_nameList, _expression, _specifiedSql, type,
+                compiledPath);
         setuper.setupValueAndType(valueAndType);
+        final CompiledValuePath recompiledPath = setuper.getRecompiledPath();
+        if (recompiledPath != null) {
+            _compiledPath = recompiledPath;
+        }
     }
 
     protected abstract CommentType getCommentType();
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.seasar.dbflute.AccessContext;
+import org.seasar.dbflute.BehaviorSelector;
+import org.seasar.dbflute.Entity;
+import org.seasar.dbflute.cbean.ConditionBean;
+import org.seasar.dbflute.dbmeta.DBMeta;
+import org.seasar.dbflute.mock.MockConditionBean;
+import org.seasar.dbflute.mock.MockEntity;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/05 Tuesday)
+ */
+public class AbstractBehaviorReadableTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                      Chunk Referrer
+    //                                                                      ==============
+    public void test_loadReferrer_chunk_exactMultiple() {
+        // ## Arrange ##
+        MockBehavior bhv = new MockBehavior();
+        List<MockEntity> localList = newLocalList(1, 2, 3, 4);
+
+        // ## Act ##
+        List<MockEntity> referrerList = bhv.loadMockReferrer(localList, 2, null);
+
+        // ## Assert ##
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4)), bhv._selectedKeyList);
+        assertEquals(8, referrerList.size());
+        assertLoadedReferrer(bhv, localList);
+    }
+
+    public void test_loadReferrer_chunk_remainder() {
+        // ## Arrange ##
+        MockBehavior bhv = new MockBehavior();
+        List<MockEntity> localList = newLocalList(1, 2, 3, 4, 5);
+
+        // ## Act ##
+        List<MockEntity> referrerList = bhv.loadMockReferrer(localList, 2, null);
+
+        // ## Assert ##
+        // the last chunk is not padded by duplicate keys
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4), Arrays.asList(5)), bhv._selectedKeyList);
+        assertEquals(10, referrerList.size());
+        assertLoadedReferrer(bhv, localList);
+    }
+
+    public void test_loadReferrer_chunk_oneKey() {
+        // ## Arrange ##
+        MockBehavior bhv = new MockBehavior();
+        List<MockEntity> localList = newLocalList(1);
+
+        // ## Act ##
+        List<MockEntity> referrerList = bhv.loadMockReferrer(localList, 2, null);
+
+        // ## Assert ##
+        assertEquals(Arrays.asList(Arrays.asList(1)), bhv._selectedKeyList); // no chunk
+        assertEquals(2, referrerList.size());
+        assertLoadedReferrer(bhv, localList);
+    }
+
+    public void test_loadReferrer_chunk_duplicateLocalKey() {
+        // ## Arrange ##
+        MockBehavior bhv = new MockBehavior();
+        List<MockEntity> localList = newLocalList(1, 2, 1, 3);
+
+        // ## Act ##
+        List<MockEntity> referrerList = bhv.loadMockReferrer(localList, 2, null);
+
+        // ## Assert ##
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3)), bhv._selectedKeyList);
+        assertEquals(6, referrerList.size()); // no duplicate referrer
+        assertLoadedReferrer(bhv, localList);
+    }
+
+    public void test_loadReferrer_chunk_parallel() {
+        // ## Arrange ##
+        MockBehavior bhv = new MockBehavior();
+        List<MockEntity> localList = newLocalList(1, 2, 3, 4, 5);
+        ExecutorService service = Executors.newFixedThreadPool(3);
+
+        // ## Act ##
+        List<MockEntity> referrerList;
+        try {
+            referrerList = bhv.loadMockReferrer(localList, 2, service);
+        } finally {
+            service.shutdown();
+        }
+
+        // ## Assert ##
+        assertEquals(3, bhv._selectedKeyList.size());
+        List<String> nameList = new ArrayList<String>();
+        for (MockEntity referrer : referrerList) {
+            nameList.add(referrer.getMemberName());
+        }
+        // merged in chunk order
+        assertEquals(Arrays.asList("1-a", "1-b", "2-a", "2-b", "3-a", "3-b", "4-a", "4-b", "5-a", "5-b"), nameList);
+        assertLoadedReferrer(bhv, localList);
+    }
+
+    public void test_loadReferrer_chunk_parallel_invocationContext() {
+        // ## Arrange ##
+        MockBehavior bhv = new MockBehavior();
+        List<MockEntity> localList = newLocalList(1, 2, 3, 4, 5);
+        ExecutorService service = Executors.newFixedThreadPool(3);
+        AccessContext accessContext = new AccessContext();
+        accessContext.setAccessUser("chunkUser");
+        AccessContext.setAccessContextOnThread(accessContext);
+
+        // ## Act ##
+        try {
+            bhv.loadMockReferrer(localList, 2, service);
+        } finally {
+            AccessContext.clearAccessContextOnThread();
+            service.shutdown();
+        }
+
+        // ## Assert ##
+        assertEquals(Arrays.asList("chunkUser", "chunkUser", "chunkUser"), bhv._accessUserList);
+    }
+
+    public void test_loadReferrer_chunk_withReferrerConditionBean() {
+        // ## Arrange ##
+        MockBehavior bhv = new MockBehavior();
+        bhv._referrerCB = new KeyConditionBean();
+        List<MockEntity> localList = newLocalList(1, 2, 3);
+
+        // ## Act ##
+        try {
+            bhv.loadMockReferrer(localList, 2, null);
+            // ## Assert ##
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+            assertTrue(bhv._selectedKeyList.isEmpty());
+        }
+    }
+
+    // ===================================================================================
+    //                                                                       Assert Helper
+    //                                                                       =============
+    protected List<MockEntity> newLocalList(Integer... ids) {
+        List<MockEntity> localList = new ArrayList<MockEntity>();
+        for (Integer id : ids) {
+            MockEntity local = new MockEntity();
+            local.setMemberId(id);
+            localList.add(local);
+        }
+        return localList;
+    }
+
+    protected void assertLoadedReferrer(MockBehavior bhv, List<MockEntity> localList) {
+        for (MockEntity local : localList) {
+            List<MockEntity> loadedList = bhv._loadedMap.get(local);
+            assertNotNull(loadedList);
+            Integer id = local.getMemberId();
+            assertEquals(Arrays.asList(id + "-a", id + "-b"), Arrays.asList(loadedList.get(0).getMemberName(),
+                    loadedList.get(1).getMemberName()));
+            assertEquals(2, loadedList.size());
+        }
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    protected static class KeyConditionBean extends MockConditionBean {
+
+        protected List<Integer> _keyList;
+    }
+
+    protected static class MockBehavior extends AbstractBehaviorReadable<MockEntity, KeyConditionBean> {
+
+        protected final List<List<Integer>> _selectedKeyList = Collections
+                .synchronizedList(new ArrayList<List<Integer>>());
+        protected final Map<MockEntity, List<MockEntity>> _loadedMap = newLinkedHashMap();
+        protected final List<String> _accessUserList = Collections.synchronizedList(new ArrayList<String>());
+        protected KeyConditionBean _referrerCB;
+
+        protected static <KEY, VALUE> Map<KEY, VALUE> newLinkedHashMap() {
+            return new LinkedHashMap<KEY, VALUE>();
+        }
+
+        public MockBehavior() {
+            setBehaviorSelector((BehaviorSelector) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { BehaviorSelector.class }, new InvocationHandler() {
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            return null;
+                        }
+                    }));
+        }
+
+        public List<MockEntity> loadMockReferrer(List<MockEntity> localList, int chunkSize,
+                ExecutorService executor) {
+            final LoadReferrerOption<KeyConditionBean, MockEntity> option;
+            option = new LoadReferrerOption<KeyConditionBean, MockEntity>();
+            option.setChunkSize(chunkSize);
+            option.setChunkExecutor(executor);
+            option.setReferrerConditionBean(_referrerCB);
+            final List<MockEntity> referrerList = new ArrayList<MockEntity>();
+            doHelpLoadReferrerInternally(localList, option,
+                    new InternalLoadReferrerCallback<MockEntity, Integer, KeyConditionBean, MockEntity>() {
+                        public Integer getPKVal(MockEntity entity) {
+                            return entity.getMemberId();
+                        }
+
+                        public void setRfLs(MockEntity entity, List<MockEntity> referrerList) {
+                            _loadedMap.put(entity, referrerList);
+                        }
+
+                        public KeyConditionBean newMyCB() {
+                            return new KeyConditionBean();
+                        }
+
+                        public void qyFKIn(KeyConditionBean cb, List<Integer> pkList) {
+                            cb._keyList = pkList;
+                        }
+
+                        public void qyOdFKAsc(KeyConditionBean cb) {
+                        }
+
+                        public void spFKCol(KeyConditionBean cb) {
+                        }
+
+                        public List<MockEntity> selRfLs(KeyConditionBean cb) {
+                            _selectedKeyList.add(cb._keyList);
+                            final AccessContext accessContext = AccessContext.getAccessContextOnThread();
+                            _accessUserList.add(accessContext != null ? accessContext.getAccessUser() : null);
+                            final List<MockEntity> selectedList = new ArrayList<MockEntity>();
+                            for (Integer key : cb._keyList) {
+                                selectedList.add(newReferrer(key, "a"));
+                                selectedList.add(newReferrer(key, "b"));
+                            }
+                            return selectedList;
+                        }
+
+                        public Integer getFKVal(MockEntity entity) {
+                            return entity.getMemberId();
+                        }
+
+                        public void setlcEt(MockEntity referrerEntity, MockEntity localEntity) {
+                            referrerList.add(referrerEntity);
+                        }
+
+                        public String getRfPrNm() {
+                            return null;
+                        }
+                    });
+            return referrerList;
+        }
+
+        protected MockEntity newReferrer(Integer key, String suffix) {
+            final MockEntity referrer = new MockEntity();
+            referrer.setMemberId(key);
+            referrer.setMemberName(key + "-" + suffix);
+            return referrer;
+        }
+
+        @Override
+        protected <LOCAL_ENTITY extends Entity, KEY, REFERRER_CB extends ConditionBean, REFERRER_ENTITY extends Entity> // generic
+        void xsetupReferrerConditionBean(REFERRER_CB cb, List<KEY> pkList,
+                LoadReferrerOption<REFERRER_CB, REFERRER_ENTITY> loadReferrerOption,
+                InternalLoadReferrerCallback<LOCAL_ENTITY, KEY, REFERRER_CB, REFERRER_ENTITY> callback) {
+            callback.qyFKIn(cb, pkList); // SQL clause is unused here
+        }
+
+        public DBMeta getDBMeta() {
+            return null;
+        }
+
+        @Override
+        public KeyConditionBean newConditionBean() {
+            return new KeyConditionBean();
+        }
+
+        @Override
+        protected Entity doReadEntity(ConditionBean cb) {
+            return null;
+        }
+
+        @Override
+        protected Number doReadNextVal() {
+            return null;
+        }
+
+        @Override
+        protected Class<? extends MockEntity> typeOfSelectedEntity() {
+            return MockEntity.class;
+        }
+
+        @Override
+        protected Class<MockEntity> typeOfHandlingEntity() {
+            return MockEntity.class;
+        }
+
+        @Override
+        protected Class<KeyConditionBean> typeOfHandlingConditionBean() {
+            return KeyConditionBean.class;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.seasar.dbflute.BehaviorSelector;
+import org.seasar.dbflute.Entity;
+import org.seasar.dbflute.cbean.ConditionBean;
+import org.seasar.dbflute.cbean.SpecifyQuery;
+import org.seasar.dbflute.dbmeta.DBMeta;
+import org.seasar.dbflute.mock.MockConditionBean;
+import org.seasar.dbflute.mock.MockEntity;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/20 Wednesday)
+ */
+public class AbstractBehaviorWritableTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                     Batch Streaming
+    //                                                                     ===============
+    public void test_batchInsertStreaming_chunkWhileIterating() {
+        // ## Arrange ##
+        List<String> markList = new ArrayList<String>();
+        MockBehavior bhv = new MockBehavior(markList);
+        InsertOption<MockConditionBean> option = new InsertOption<MockConditionBean>();
+        option.chunkBatchInsert(2);
+        option.specify(createEmptySpecification());
+
+        // ## Act ##
+        int[] result = bhv.doBatchInsertStreaming(newEntities(markList, 1, 2, 3, 4, 5), option);
+
+        // ## Assert ##
+        assertEquals(5, result.length);
+        assertEquals(Arrays.asList("next:1", "next:2", "insert:[1, 2]" // 1st
+                , "next:3", "next:4", "insert:[3, 4]" // 2nd
+                , "next:5", "insert:[5]"), markList); // rest
+    }
+
+    public void test_batchUpdateStreaming_chunkWhileIterating() {
+        // ## Arrange ##
+        List<String> markList = new ArrayList<String>();
+        MockBehavior bhv = new MockBehavior(markList);
+        UpdateOption<MockConditionBean> option = new UpdateOption<MockConditionBean>();
+        option.chunkBatchUpdate(2);
+        option.specify(createEmptySpecification());
+
+        // ## Act ##
+        int[] result = bhv.doBatchUpdateStreaming(newEntities(markList, 1, 2, 3, 4), option);
+
+        // ## Assert ##
+        assertEquals(4, result.length);
+        assertEquals(Arrays.asList("next:1", "next:2", "update:[1, 2]" // 1st
+                , "next:3", "next:4", "update:[3, 4]"), markList); // no empty chunk
+        assertEquals(0, bhv.doBatchUpdateStreaming(new ArrayList<MockEntity>(), option).length);
+    }
+
+    public void test_batchInsertStreaming_illegalOption() {
+        // ## Arrange ##
+        List<String> markList = new ArrayList<String>();
+        MockBehavior bhv = new MockBehavior(markList);
+        InsertOption<MockConditionBean> option = new InsertOption<MockConditionBean>();
+        option.specify(createEmptySpecification());
+
+        // ## Act ##
+        try {
+            bhv.doBatchInsertStreaming(newEntities(markList, 1), option); // no chunk size
+            // ## Assert ##
+            fail();
+        } catch (IllegalArgumentException e) {
+            log(e.getMessage());
+        }
+        option = new InsertOption<MockConditionBean>();
+        option.chunkBatchInsert(2);
+        try {
+            bhv.doBatchInsertStreaming(newEntities(markList, 1), option); // no insert columns
+            fail();
+        } catch (IllegalArgumentException e) {
+            log(e.getMessage());
+        }
+        assertEquals(0, markList.size()); // not iterated
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected Iterable<MockEntity> newEntities(final List<String> markList, Integer... ids) {
+        final List<MockEntity> entityList = new ArrayList<MockEntity>();
+        for (Integer id : ids) {
+            final MockEntity entity = new MockEntity();
+            entity.setMemberId(id);
+            entityList.add(entity);
+        }
+        return new Iterable<MockEntity>() {
+            public Iterator<MockEntity> iterator() {
+                final Iterator<MockEntity> ite = entityList.iterator();
+                return new Iterator<MockEntity>() {
+                    public boolean hasNext() {
+                        return ite.hasNext();
+                    }
+
+                    public MockEntity next() {
+                        final MockEntity entity = ite.next();
+                        markList.add("next:" + entity.getMemberId());
+                        return entity;
+                    }
+
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    protected SpecifyQuery<MockConditionBean> createEmptySpecification() {
+        return new SpecifyQuery<MockConditionBean>() {
+            public void specify(MockConditionBean cb) {
+            }
+        };
+    }
+
+    protected static class MockBehavior extends AbstractBehaviorWritable<MockEntity, MockConditionBean> {
+
+        protected final List<String> _markList;
+
+        public MockBehavior(List<String> markList) {
+            _markList = markList;
+            setBehaviorSelector((BehaviorSelector) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { BehaviorSelector.class }, new InvocationHandler() {
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            return null;
+                        }
+                    }));
+        }
+
+        @Override
+        protected int[] doBatchInsert(List<MockEntity> entityList, InsertOption<MockConditionBean> option) {
+            _markList.add("insert:" + extractIdList(entityList));
+            return new int[entityList.size()];
+        }
+
+        @Override
+        protected int[] doBatchUpdate(List<MockEntity> entityList, UpdateOption<MockConditionBean> option) {
+            _markList.add("update:" + extractIdList(entityList));
+            return new int[entityList.size()];
+        }
+
+        protected List<Integer> extractIdList(List<MockEntity> entityList) {
+            final List<Integer> idList = new ArrayList<Integer>();
+            for (MockEntity entity : entityList) {
+                idList.add(entity.getMemberId());
+            }
+            return idList;
+        }
+
+        public DBMeta getDBMeta() {
+            return null;
+        }
+
+        @Override
+        public MockConditionBean newConditionBean() {
+            return new MockConditionBean();
+        }
+
+        @Override
+        protected Entity doReadEntity(ConditionBean cb) {
+            return null;
+        }
+
+        @Override
+        protected Number doReadNextVal() {
+            return null;
+        }
+
+        @Override
+        protected Class<? extends MockEntity> typeOfSelectedEntity() {
+            return MockEntity.class;
+        }
+
+        @Override
+        protected Class<MockEntity> typeOfHandlingEntity() {
+            return MockEntity.class;
+        }
+
+        @Override
+        protected Class<MockConditionBean> typeOfHandlingConditionBean() {
+            return MockConditionBean.class;
+        }
+    }
+}
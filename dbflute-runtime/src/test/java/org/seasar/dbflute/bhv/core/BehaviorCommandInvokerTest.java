@@ -15,21 +15,32 @@
  */
 package org.seasar.dbflute.bhv.core;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.seasar.dbflute.CallbackContext;
 import org.seasar.dbflute.Entity;
+import org.seasar.dbflute.bhv.BehaviorReadable;
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeNameResult;
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokePathResult;
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeSiteCache.CapturedInvoke;
 import org.seasar.dbflute.cbean.ConditionBeanContext;
 import org.seasar.dbflute.cbean.EntityRowHandler;
 import org.seasar.dbflute.cbean.FetchAssistContext;
+import org.seasar.dbflute.cbean.chelper.HpInvokingMethodCache;
 import org.seasar.dbflute.jdbc.SqlLogInfo;
 import org.seasar.dbflute.jdbc.SqlLogInfo.SqlLogDisplaySqlBuilder;
 import org.seasar.dbflute.jdbc.SqlResultHandler;
@@ -39,7 +50,9 @@ import org.seasar.dbflute.mock.MockConditionBean;
 import org.seasar.dbflute.mock.MockOutsideSqlContext;
 import org.seasar.dbflute.outsidesql.OutsideSqlContext;
 import org.seasar.dbflute.resource.InternalMapContext;
+import org.seasar.dbflute.resource.InvocationContext;
 import org.seasar.dbflute.resource.ResourceContext;
+import org.seasar.dbflute.resource.ResourceParameter;
 import org.seasar.dbflute.unit.core.PlainTestCase;
 
 /**
@@ -352,7 +365,7 @@ public class BehaviorCommandInvokerTest extends PlainTestCase {
     protected void getSqlExecution_on_multiple_thread() {
         // ## Arrange ##
         final ExecutorService service = Executors.newCachedThreadPool();
-        final Set<String> markSet = new HashSet<String>();
+        final Set<String> markSet = Collections.synchronizedSet(new HashSet<String>());
         final BehaviorCommandInvoker invoker = new BehaviorCommandInvoker() {
             @Override
             protected void toBeDisposable() {
@@ -421,15 +434,213 @@ public class BehaviorCommandInvokerTest extends PlainTestCase {
     protected static class ExecutionCreationCount {
         protected int _count;
 
-        public void increment() {
+        public synchronized void increment() { // creations of different keys are concurrent
             ++_count;
         }
 
-        public int count() {
+        public synchronized int count() {
             return _count;
         }
     }
 
+    public void test_getOrCreateSqlExecution_differentKeyConcurrently() throws Exception {
+        // ## Arrange ##
+        final BehaviorCommandInvoker invoker = new BehaviorCommandInvoker() {
+            @Override
+            protected void toBeDisposable() {
+            }
+        };
+        final CountDownLatch otherKeyCreated = new CountDownLatch(1);
+        final SqlExecution execution = new SqlExecution() {
+            public Object execute(Object[] args) {
+                return null;
+            }
+        };
+        ExecutorService service = Executors.newCachedThreadPool();
+        try {
+            // ## Act ##
+            Future<Boolean> future = service.submit(new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    final List<Boolean> awaitedList = new ArrayList<Boolean>();
+                    invoker.getOrCreateSqlExecution("slowKey", new SqlExecutionCreator() {
+                        public SqlExecution createSqlExecution() {
+                            try {
+                                awaitedList.add(otherKeyCreated.await(10, TimeUnit.SECONDS));
+                            } catch (InterruptedException e) {
+                                throw new IllegalStateException(e);
+                            }
+                            return execution;
+                        }
+                    });
+                    return awaitedList.get(0);
+                }
+            });
+            Thread.sleep(100); // wait for the slow key to start creation
+            invoker.getOrCreateSqlExecution("fastKey", new SqlExecutionCreator() {
+                public SqlExecution createSqlExecution() {
+                    otherKeyCreated.countDown();
+                    return execution;
+                }
+            });
+
+            // ## Assert ##
+            assertTrue(future.get()); // not blocked by the slow key
+            assertEquals(2, invoker.getExecutionCacheSize());
+            assertTrue(invoker._executionCreationMap.isEmpty());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    public void test_getOrCreateSqlExecution_retryAfterFailure() {
+        // ## Arrange ##
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker() {
+            @Override
+            protected void toBeDisposable() {
+            }
+        };
+        final SqlExecution execution = new SqlExecution() {
+            public Object execute(Object[] args) {
+                return null;
+            }
+        };
+
+        // ## Act ##
+        try {
+            invoker.getOrCreateSqlExecution("key", new SqlExecutionCreator() {
+                public SqlExecution createSqlExecution() {
+                    throw new IllegalStateException("first failure");
+                }
+            });
+            // ## Assert ##
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("first failure", e.getMessage());
+        }
+        assertTrue(invoker._executionCreationMap.isEmpty());
+        assertSame(execution, invoker.getOrCreateSqlExecution("key", new SqlExecutionCreator() {
+            public SqlExecution createSqlExecution() {
+                return execution;
+            }
+        }));
+    }
+
+    public void test_getOrCreateSqlExecution_clearDuringCreation() {
+        // ## Arrange ##
+        final BehaviorCommandInvoker invoker = new BehaviorCommandInvoker() {
+            @Override
+            protected void toBeDisposable() {
+            }
+        };
+        final SqlExecution execution = new SqlExecution() {
+            public Object execute(Object[] args) {
+                return null;
+            }
+        };
+
+        // ## Act ##
+        SqlExecution created = invoker.getOrCreateSqlExecution("key", new SqlExecutionCreator() {
+            public SqlExecution createSqlExecution() {
+                invoker.clearExecutionCache(); // e.g. HotDeploy by other thread
+                return execution;
+            }
+        });
+
+        // ## Assert ##
+        assertSame(execution, created); // can be used by the invocation
+        assertTrue(invoker.isExecutionCacheEmpty()); // but not registered
+        assertTrue(invoker._executionCreationMap.isEmpty());
+        final SqlExecution next = new SqlExecution() {
+            public Object execute(Object[] args) {
+                return null;
+            }
+        };
+        assertSame(next, invoker.getOrCreateSqlExecution("key", new SqlExecutionCreator() {
+            public SqlExecution createSqlExecution() {
+                return next;
+            }
+        }));
+        assertEquals(1, invoker.getExecutionCacheSize()); // registered after the clear
+    }
+
+    public void test_clearExecutionCache_invokingMethodCache() {
+        // ## Arrange ##
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker();
+        HpInvokingMethodCache methodCache = HpInvokingMethodCache.getSharedCache();
+        assertNotNull(methodCache.findMethod(getClass(), "test_clearExecutionCache_invokingMethodCache", null));
+        assertTrue(methodCache.getCachedSize() > 0);
+
+        // ## Act ##
+        invoker.clearExecutionCache(); // e.g. HotDeploy
+
+        // ## Assert ##
+        assertEquals(0, methodCache.getCachedSize());
+    }
+
+    public void test_warmUpCommandParallel() {
+        // ## Arrange ##
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker();
+        final Set<String> markSet = Collections.synchronizedSet(new HashSet<String>());
+        List<BehaviorReadable> bhvList = new ArrayList<BehaviorReadable>();
+        for (int i = 0; i < 5; i++) {
+            bhvList.add(createWarmUpBehavior("bhv" + i, markSet));
+        }
+        ExecutorService service = Executors.newFixedThreadPool(3);
+
+        // ## Act ##
+        try {
+            invoker.warmUpCommandParallel(bhvList, service);
+        } finally {
+            service.shutdown();
+        }
+
+        // ## Assert ##
+        assertEquals(5, markSet.size());
+        assertTrue(markSet.contains("bhv0"));
+        assertTrue(markSet.contains("bhv4"));
+    }
+
+    public void test_warmUpCommandParallel_failure() {
+        // ## Arrange ##
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker();
+        final Set<String> markSet = Collections.synchronizedSet(new HashSet<String>());
+        List<BehaviorReadable> bhvList = new ArrayList<BehaviorReadable>();
+        bhvList.add(createWarmUpBehavior("bhv0", markSet));
+        bhvList.add(createWarmUpBehavior("fail", markSet));
+        bhvList.add(createWarmUpBehavior("bhv2", markSet));
+        ExecutorService service = Executors.newFixedThreadPool(2);
+
+        // ## Act ##
+        try {
+            invoker.warmUpCommandParallel(bhvList, service);
+
+            // ## Assert ##
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+            assertEquals("fail", e.getMessage());
+        } finally {
+            service.shutdown();
+        }
+        assertEquals(2, markSet.size()); // others are finished
+    }
+
+    protected BehaviorReadable createWarmUpBehavior(final String name, final Set<String> markSet) {
+        return (BehaviorReadable) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { BehaviorReadable.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getName().equals("warmUpCommand")) {
+                            if (name.equals("fail")) {
+                                throw new IllegalStateException(name);
+                            }
+                            markSet.add(name);
+                            return null;
+                        }
+                        throw new IllegalStateException("Unexpected method: " + method);
+                    }
+                });
+    }
+
     public void test_clearContext() {
         // ## Arrange ##
         BehaviorCommandInvoker invoker = new BehaviorCommandInvoker();
@@ -462,6 +673,208 @@ public class BehaviorCommandInvokerTest extends PlainTestCase {
         assertFalse(ResourceContext.isExistResourceContextOnThread());
     }
 
+    public void test_initializeContext_recursive() {
+        // ## Arrange ##
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker();
+        MockConditionBean cb = new MockConditionBean();
+        ConditionBeanContext.setConditionBeanOnThread(cb);
+        InternalMapContext.setObject("dummy", "parent");
+        ResourceContext parentContext = new ResourceContext();
+        ResourceContext.setResourceContextOnThread(parentContext);
+
+        // ## Act ##
+        InvocationContext savedContext = invoker.initializeContext(invoker.getParentContext());
+
+        // ## Assert ##
+        assertNotNull(savedContext);
+        assertFalse(ConditionBeanContext.isExistConditionBeanOnThread());
+        assertFalse(InternalMapContext.isExistInternalMapContextOnThread());
+        assertFalse(ResourceContext.isExistResourceContextOnThread());
+        OutsideSqlContext.setOutsideSqlContextOnThread(new MockOutsideSqlContext()); // by nested command
+        InternalMapContext.setObject("dummy", "nested");
+        ResourceContext.setResourceContextOnThread(new ResourceContext());
+        invoker.closeContext(savedContext);
+        assertSame(cb, ConditionBeanContext.getConditionBeanOnThread());
+        assertEquals("parent", InternalMapContext.getObject("dummy"));
+        assertSame(parentContext, ResourceContext.getResourceContextOnThread());
+        assertFalse(OutsideSqlContext.isExistOutsideSqlContextOnThread());
+        invoker.closeContext(null);
+        assertFalse(ConditionBeanContext.isExistConditionBeanOnThread());
+        assertFalse(InternalMapContext.isExistInternalMapContextOnThread());
+        assertFalse(ResourceContext.isExistResourceContextOnThread());
+    }
+
+    public void test_initializeContext_notRecursive() {
+        // ## Arrange ##
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker();
+        assertNull(invoker.getParentContext());
+
+        // ## Act ##
+        InvocationContext savedContext = invoker.initializeContext(null);
+
+        // ## Assert ##
+        assertNull(savedContext);
+        ConditionBeanContext.setConditionBeanOnThread(new MockConditionBean()); // by command
+        ResourceContext.setResourceContextOnThread(new ResourceContext());
+        invoker.closeContext(savedContext);
+        assertFalse(ConditionBeanContext.isExistConditionBeanOnThread());
+        assertFalse(ResourceContext.isExistResourceContextOnThread());
+    }
+
+    public void test_captureInvokeLazily_siteCache() {
+        // ## Arrange ##
+        final List<String> markList = new ArrayList<String>();
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker() {
+            @Override
+            protected <RESULT> BehaviorInvokeNameResult extractBehaviorInvoke(BehaviorCommand<RESULT> behaviorCommand,
+                    StackTraceElement[] stackTrace) {
+                markList.add("extractBehaviorInvoke");
+                return new BehaviorInvokeNameResult("FooBhv.selectList()", "FooBhv.selectList", null, null);
+            }
+
+            @Override
+            protected <RESULT> BehaviorInvokePathResult buildInvokePath(BehaviorCommand<RESULT> behaviorCommand,
+                    StackTraceElement[] stackTrace, BehaviorInvokeNameResult behaviorInvokeNameResult) {
+                markList.add("buildInvokePath");
+                return null;
+            }
+        };
+        MockBehaviorCommand fooCommand = new MockBehaviorCommand();
+        MockBehaviorCommand barCommand = new MockBehaviorCommand() {
+            @Override
+            public String getTableDbName() {
+                return "BarTable";
+            }
+        };
+        MockBehaviorCommand outsideCommand = new MockBehaviorCommand() {
+            @Override
+            public boolean isOutsideSql() {
+                return true;
+            }
+        };
+        MockBehaviorCommand[] commands = new MockBehaviorCommand[] { fooCommand, fooCommand, barCommand,
+                outsideCommand, outsideCommand, outsideCommand };
+        Class<?>[] resultTypes = new Class<?>[] { null, null, null, String.class, Integer.class, String.class };
+        List<CapturedInvoke> capturedList = new ArrayList<CapturedInvoke>();
+
+        // ## Act ##
+        try {
+            for (int i = 0; i < commands.length; i++) { // same call site (frames) for all
+                if (resultTypes[i] != null) {
+                    MockOutsideSqlContext outsideSqlContext = new MockOutsideSqlContext();
+                    outsideSqlContext.setResultType(resultTypes[i]);
+                    OutsideSqlContext.setOutsideSqlContextOnThread(outsideSqlContext);
+                }
+                capturedList.add(invoker.captureInvokeLazily(commands[i]));
+            }
+        } finally {
+            OutsideSqlContext.clearOutsideSqlContextOnThread();
+        }
+
+        // ## Assert ##
+        assertSame(capturedList.get(0), capturedList.get(1)); // hit
+        assertNotSame(capturedList.get(0), capturedList.get(2)); // different table
+        assertNotSame(capturedList.get(0), capturedList.get(3)); // outside-SQL
+        assertNotSame(capturedList.get(3), capturedList.get(4)); // different result type
+        assertSame(capturedList.get(3), capturedList.get(5)); // hit
+        assertEquals(4, invoker.getInvokeSiteCache().getCachedSize());
+        assertEquals(4, Collections.frequency(markList, "extractBehaviorInvoke"));
+        assertEquals(4, Collections.frequency(markList, "buildInvokePath"));
+    }
+
+    public void test_isInvocationLogSampled_basic() {
+        // ## Arrange ##
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker();
+        ResourceContext context = new ResourceContext();
+        ResourceParameter parameter = new ResourceParameter();
+        parameter.setInvocationLogSamplingInterval(3);
+        context.setResourceParameter(parameter);
+        ResourceContext.setResourceContextOnThread(context);
+        List<Boolean> sampledList = new ArrayList<Boolean>();
+
+        // ## Act ##
+        try {
+            for (int i = 0; i < 7; i++) {
+                sampledList.add(invoker.isInvocationLogSampled());
+            }
+        } finally {
+            ResourceContext.clearResourceContextOnThread();
+        }
+
+        // ## Assert ##
+        log(sampledList);
+        assertEquals(3, Collections.frequency(sampledList, true)); // first, fourth, seventh
+        assertTrue(sampledList.get(0));
+        assertTrue(sampledList.get(3));
+        assertTrue(sampledList.get(6));
+    }
+
+    public void test_isInvocationLogSampled_noSampling() {
+        // ## Arrange ##
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker();
+
+        // ## Act & Assert ##
+        for (int i = 0; i < 3; i++) {
+            assertTrue(invoker.isInvocationLogSampled()); // no resource context
+        }
+    }
+
+    public void test_findSqlExecution_sampled_readyInvokePath() {
+        // ## Arrange ##
+        final List<String> markList = new ArrayList<String>();
+        final SqlExecution execution = new SqlExecution() {
+            public Object execute(Object[] args) {
+                return null;
+            }
+        };
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker() {
+            @Override
+            protected boolean isLogEnabled() {
+                return true;
+            }
+
+            @Override
+            protected SqlExecution getSqlExecution(String key) {
+                return execution;
+            }
+
+            @Override
+            protected <RESULT> void logInvocation(BehaviorCommand<RESULT> behaviorCommand, boolean saveOnly) {
+                markList.add("logInvocation");
+            }
+        };
+        ResourceContext context = new ResourceContext();
+        ResourceParameter parameter = new ResourceParameter();
+        parameter.setInvocationLogSamplingInterval(2);
+        context.setResourceParameter(parameter);
+        ResourceContext.setResourceContextOnThread(context);
+        MockBehaviorCommand command = new MockBehaviorCommand() {
+            @Override
+            public String buildSqlExecutionKey() {
+                return "FooTable:selectList";
+            }
+        };
+        int providerCount = 0;
+
+        // ## Act ##
+        try {
+            for (int i = 0; i < 4; i++) {
+                InternalMapContext.clearInternalMapContextOnThread();
+                assertSame(execution, invoker.findSqlExecution(command));
+                if (InternalMapContext.getInvokePathProvider() != null) {
+                    ++providerCount;
+                }
+            }
+        } finally {
+            InternalMapContext.clearInternalMapContextOnThread();
+            ResourceContext.clearResourceContextOnThread();
+        }
+
+        // ## Assert ##
+        assertEquals(2, markList.size()); // logged 1 in 2 calls
+        assertEquals(4, providerCount); // invoke path is ready even if not logged
+    }
+
     public void test_deriveCommandBeforeAfterTimeIfNeeds() {
         // ## Arrange ##
         BehaviorCommandInvoker invoker = new BehaviorCommandInvoker();
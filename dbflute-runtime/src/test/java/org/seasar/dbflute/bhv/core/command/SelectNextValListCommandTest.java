@@ -0,0 +1,185 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.command;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.seasar.dbflute.DBDef;
+import org.seasar.dbflute.bhv.core.execution.SelectNextValListExecution;
+import org.seasar.dbflute.bhv.core.supplement.SequenceCache;
+import org.seasar.dbflute.bhv.core.supplement.SequenceCacheHandler;
+import org.seasar.dbflute.exception.SequenceCacheIncrementSizeInvalidException;
+import org.seasar.dbflute.mock.MockDBMeta;
+import org.seasar.dbflute.s2dao.jdbc.TnResultSetHandler;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/08 Friday)
+ */
+public class SelectNextValListCommandTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                            List SQL
+    //                                                                            ========
+    public void test_createSelectNextValListExecution_multiRow_Oracle() {
+        // ## Arrange ##
+        MockListCommand cmd = createMockCommand(DBDef.Oracle, null, null);
+
+        // ## Act ##
+        cmd.createSelectNextValListExecution();
+
+        // ## Assert ##
+        assertEquals("select SEQ_MEMBER.nextval from dual connect by level <= /*count*/1", cmd._sql);
+        assertTrue(cmd._multiRow);
+        assertNull(cmd._sequenceCache);
+    }
+
+    public void test_createSelectNextValListExecution_multiRow_PostgreSQL() {
+        // ## Arrange ##
+        MockListCommand cmd = createMockCommand(DBDef.PostgreSQL, null, null);
+
+        // ## Act ##
+        cmd.createSelectNextValListExecution();
+
+        // ## Assert ##
+        assertEquals("select nextval ('SEQ_MEMBER') from generate_series(1, /*count*/1)", cmd._sql);
+        assertTrue(cmd._multiRow);
+    }
+
+    public void test_createSelectNextValListExecution_singleRow_unsupported() {
+        // ## Arrange ##
+        MockListCommand cmd = createMockCommand(DBDef.Firebird, null, null);
+
+        // ## Act ##
+        cmd.createSelectNextValListExecution();
+
+        // ## Assert ##
+        assertEquals("select gen_id(SEQ_MEMBER, 1) from RDB$DATABASE", cmd._sql);
+        assertFalse(cmd._multiRow); // selected one by one
+        assertNull(cmd._sequenceCache);
+    }
+
+    // ===================================================================================
+    //                                                                      Sequence Cache
+    //                                                                      ==============
+    public void test_createSelectNextValListExecution_cache() {
+        // ## Arrange ##
+        SequenceCache sequenceCache = new SequenceCache(Long.class, new BigDecimal(50), 50);
+        MockListCommand cmd = createMockCommand(DBDef.Oracle, 50, sequenceCache);
+
+        // ## Act ##
+        cmd.createSelectNextValListExecution();
+
+        // ## Assert ##
+        assertEquals("select SEQ_MEMBER.nextval from dual", cmd._sql); // not multi-row SQL (increment way)
+        assertFalse(cmd._multiRow);
+        assertSame(sequenceCache, cmd._sequenceCache);
+    }
+
+    public void test_createSelectNextValListExecution_cache_incrementSizeZero() {
+        // ## Arrange ##
+        SequenceCache sequenceCache = new SequenceCache(Long.class, new BigDecimal(50), 0);
+        MockListCommand cmd = createMockCommand(DBDef.Oracle, 0, sequenceCache);
+
+        // ## Act ##
+        try {
+            cmd.createSelectNextValListExecution();
+
+            // ## Assert ##
+            fail();
+        } catch (SequenceCacheIncrementSizeInvalidException e) {
+            log(e.getMessage());
+        }
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    protected MockListCommand createMockCommand(final DBDef dbdef, final Integer incrementSize,
+            SequenceCache sequenceCache) {
+        MockListCommand cmd = new MockListCommand(sequenceCache);
+        cmd.setTableDbName("MEMBER");
+        cmd.setElementType(Long.class);
+        cmd.setCount(3);
+        cmd.setSequenceCacheHandler(new SequenceCacheHandler());
+        cmd.setDBMeta(new MockDBMeta() {
+            @Override
+            public DBDef getCurrentDBDef() {
+                return dbdef;
+            }
+
+            @Override
+            public String getTableDbName() {
+                return "MEMBER";
+            }
+
+            @Override
+            public boolean hasSequence() {
+                return true;
+            }
+
+            @Override
+            public String getSequenceName() {
+                return "SEQ_MEMBER";
+            }
+
+            @Override
+            public Integer getSequenceIncrementSize() {
+                return incrementSize;
+            }
+
+            @Override
+            public Integer getSequenceCacheSize() {
+                return incrementSize != null ? 50 : null;
+            }
+        });
+        return cmd;
+    }
+
+    protected static class MockListCommand extends SelectNextValListCommand<Long> {
+
+        protected final SequenceCache _foundCache;
+        protected String _sql;
+        protected SequenceCache _sequenceCache;
+        protected boolean _multiRow;
+
+        public MockListCommand(SequenceCache foundCache) {
+            _foundCache = foundCache;
+        }
+
+        @Override
+        protected void assertStatus(String methodName) {
+            // no components for the test
+        }
+
+        @Override
+        protected SequenceCache doFindSequenceCache(String tableName, String sequenceName, Integer cacheSize,
+                Integer incrementSize) {
+            return _foundCache;
+        }
+
+        @Override
+        protected SelectNextValListExecution newSelectNextValListExecution(Map<String, Class<?>> argNameTypeMap,
+                String sql, TnResultSetHandler handler, SequenceCache sequenceCache, boolean multiRow) {
+            _sql = sql;
+            _sequenceCache = sequenceCache;
+            _multiRow = multiRow;
+            return null;
+        }
+    }
+}
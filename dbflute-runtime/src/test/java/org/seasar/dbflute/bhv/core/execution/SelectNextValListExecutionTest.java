@@ -0,0 +1,163 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.execution;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.seasar.dbflute.bhv.core.supplement.SequenceCache;
+import org.seasar.dbflute.exception.SequenceSelectIllegalStateException;
+import org.seasar.dbflute.jdbc.StatementFactory;
+import org.seasar.dbflute.s2dao.jdbc.TnResultSetHandler;
+import org.seasar.dbflute.twowaysql.node.Node;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/08 Friday)
+ */
+public class SelectNextValListExecutionTest extends PlainTestCase {
+
+    public void test_execute_sequenceCache() {
+        // ## Arrange ##
+        SequenceCache sequenceCache = new SequenceCache(Long.class, new BigDecimal(3), 1);
+        MockListExecution execution = new MockListExecution(sequenceCache, false) {
+            @Override
+            protected Object executeSuperExecute(Object[] args) {
+                _argsList.add(Arrays.asList(args));
+                return Long.valueOf((_argsList.size() - 1) * 3 + 1); // 1, 4, 7
+            }
+        };
+
+        // ## Act ##
+        Object result = execution.execute(new Object[] { 7 });
+
+        // ## Assert ##
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L), result);
+        assertEquals(3, execution._argsList.size()); // selected per cache size
+    }
+
+    public void test_execute_multiRow() {
+        // ## Arrange ##
+        MockListExecution execution = new MockListExecution(null, true) {
+            @Override
+            protected Object executeSuperExecute(Object[] args) {
+                _argsList.add(Arrays.asList(args));
+                final int count = (Integer) args[0];
+                final List<Long> selectedList = new ArrayList<Long>();
+                for (int i = 0; i < count; i++) {
+                    selectedList.add(Long.valueOf(i));
+                }
+                return selectedList;
+            }
+        };
+        int count = SelectNextValListExecution.MAX_COUNT_PER_SELECT + 2;
+
+        // ## Act ##
+        List<?> result = (List<?>) execution.execute(new Object[] { count });
+
+        // ## Assert ##
+        assertEquals(count, result.size());
+        assertEquals(2, execution._argsList.size());
+        assertEquals(Arrays.asList(SelectNextValListExecution.MAX_COUNT_PER_SELECT), execution._argsList.get(0));
+        assertEquals(Arrays.asList(2), execution._argsList.get(1));
+    }
+
+    public void test_execute_multiRow_lessRows() {
+        // ## Arrange ##
+        MockListExecution execution = new MockListExecution(null, true) {
+            @Override
+            protected Object executeSuperExecute(Object[] args) {
+                return Arrays.asList(1L);
+            }
+        };
+
+        // ## Act ##
+        try {
+            execution.execute(new Object[] { 3 });
+
+            // ## Assert ##
+            fail();
+        } catch (SequenceSelectIllegalStateException e) {
+            log(e.getMessage());
+        }
+    }
+
+    public void test_execute_singleRow() {
+        // ## Arrange ##
+        MockListExecution execution = new MockListExecution(null, false) {
+            @Override
+            protected Object executeSuperExecute(Object[] args) {
+                _argsList.add(Arrays.asList(args));
+                return Long.valueOf(_argsList.size());
+            }
+        };
+
+        // ## Act ##
+        Object result = execution.execute(new Object[] { 3 });
+
+        // ## Assert ##
+        assertEquals(Arrays.asList(1L, 2L, 3L), result);
+        assertEquals(3, execution._argsList.size());
+    }
+
+    protected static class MockListExecution extends SelectNextValListExecution {
+
+        protected final List<List<Object>> _argsList = new ArrayList<List<Object>>();
+
+        public MockListExecution(SequenceCache sequenceCache, boolean multiRow) {
+            super(newMock(DataSource.class), newMock(StatementFactory.class), newArgNameTypeMap(), "select 1",
+                    new MockResultSetHandler(), sequenceCache, multiRow);
+        }
+
+        @Override
+        protected Node analyzeTwoWaySql(String twoWaySql) {
+            return null; // not executed in the tests
+        }
+
+        @SuppressWarnings("unchecked")
+        protected static <MOCK> MOCK newMock(Class<MOCK> mockType) { // not used in the tests
+            return (MOCK) Proxy.newProxyInstance(mockType.getClassLoader(), new Class<?>[] { mockType },
+                    new InvocationHandler() {
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        protected static Map<String, Class<?>> newArgNameTypeMap() {
+            final Map<String, Class<?>> argNameTypeMap = new LinkedHashMap<String, Class<?>>();
+            argNameTypeMap.put("count", Integer.class);
+            return argNameTypeMap;
+        }
+    }
+
+    protected static class MockResultSetHandler implements TnResultSetHandler {
+        public Object handle(ResultSet rs) {
+            return null;
+        }
+    }
+}
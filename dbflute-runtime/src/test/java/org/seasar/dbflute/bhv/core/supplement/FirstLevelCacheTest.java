@@ -0,0 +1,112 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.seasar.dbflute.dbmeta.info.ColumnInfo;
+import org.seasar.dbflute.dbmeta.info.UniqueInfo;
+import org.seasar.dbflute.mock.MockColumnInfo;
+import org.seasar.dbflute.mock.MockDBMeta;
+import org.seasar.dbflute.mock.MockEntity;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/11 Monday)
+ */
+public class FirstLevelCacheTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                         Find Entity
+    //                                                                         ===========
+    public void test_findEntity_basic() throws Exception {
+        // ## Arrange ##
+        FirstLevelCache cache = new FirstLevelCache();
+        UniqueInfo uniqueInfo = createUniqueInfo("MEMBER");
+        MockEntity entity = new MockEntity();
+
+        // ## Act ##
+        MockEntity first = cache.findEntity(uniqueInfo, new Object[] { 3 }, MockEntity.class);
+        cache.registerEntity(uniqueInfo, new Object[] { 3 }, entity);
+        MockEntity second = cache.findEntity(uniqueInfo, new Object[] { 3 }, MockEntity.class);
+        MockEntity other = cache.findEntity(uniqueInfo, new Object[] { 4 }, MockEntity.class);
+
+        // ## Assert ##
+        assertNull(first);
+        assertSame(entity, second);
+        assertNull(other);
+        assertEquals(1, cache.getCachedSize());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    public void test_findEntity_typeMismatch() throws Exception {
+        // ## Arrange ##
+        FirstLevelCache cache = new FirstLevelCache();
+        UniqueInfo uniqueInfo = createUniqueInfo("MEMBER");
+        cache.registerEntity(uniqueInfo, new Object[] { 3 }, new MockEntity());
+
+        // ## Act ##
+        OtherMockEntity found = cache.findEntity(uniqueInfo, new Object[] { 3 }, OtherMockEntity.class);
+
+        // ## Assert ##
+        assertNull(found);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    // ===================================================================================
+    //                                                                        Invalidation
+    //                                                                        ============
+    public void test_invalidateTable_basic() throws Exception {
+        // ## Arrange ##
+        FirstLevelCache cache = new FirstLevelCache();
+        UniqueInfo memberInfo = createUniqueInfo("MEMBER");
+        UniqueInfo purchaseInfo = createUniqueInfo("PURCHASE");
+        cache.registerEntity(memberInfo, new Object[] { 3 }, new MockEntity());
+        cache.registerEntity(purchaseInfo, new Object[] { 3 }, new MockEntity());
+
+        // ## Act ##
+        cache.invalidateTable("MEMBER");
+
+        // ## Assert ##
+        assertEquals(1, cache.getCachedSize());
+        assertNull(cache.findEntity(memberInfo, new Object[] { 3 }, MockEntity.class));
+        assertNotNull(cache.findEntity(purchaseInfo, new Object[] { 3 }, MockEntity.class));
+        cache.invalidateAll();
+        assertEquals(0, cache.getCachedSize());
+        log(cache);
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    protected UniqueInfo createUniqueInfo(final String tableDbName) {
+        List<ColumnInfo> columnList = new ArrayList<ColumnInfo>();
+        columnList.add(new MockColumnInfo());
+        return new UniqueInfo(new MockDBMeta() {
+            @Override
+            public String getTableDbName() {
+                return tableDbName;
+            }
+        }, columnList, true);
+    }
+
+    protected static class OtherMockEntity extends MockEntity {
+    }
+}
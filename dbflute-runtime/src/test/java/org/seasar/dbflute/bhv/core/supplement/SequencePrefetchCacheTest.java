@@ -0,0 +1,317 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.seasar.dbflute.bhv.core.supplement.SequenceCache.SequenceRealExecutor;
+import org.seasar.dbflute.resource.ResourceContext;
+
+/**
+ * The existing cases of sequence cache are executed for the prefetch cache, too.
+ * @author jflute
+ * @since 1.0.5K (2014/08/07 Thursday)
+ */
+public class SequencePrefetchCacheTest extends SequenceCacheTest {
+
+    // ===================================================================================
+    //                                                                            Prefetch
+    //                                                                            ========
+    public void test_nextval_prefetch_background() {
+        // ## Arrange ##
+        int cacheSize = 10;
+        MockPrefetchExecutor prefetchExecutor = new MockPrefetchExecutor();
+        SequencePrefetchCache cache = createPrefetchCache(cacheSize, Long.class, prefetchExecutor);
+        LongResultExecutor executor = new LongResultExecutor(cacheSize);
+
+        // ## Act & Assert ##
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(Long.valueOf(i), cache.nextval(executor));
+        }
+        assertEquals(0, prefetchExecutor.getTaskList().size());
+        assertEquals(Long.valueOf(6), cache.nextval(executor)); // half point
+        assertEquals(1, prefetchExecutor.getTaskList().size());
+        assertEquals(1, executor.getCount());
+        prefetchExecutor.runAll(); // as background
+        assertEquals(2, executor.getCount());
+        for (int i = 7; i <= 20; i++) {
+            assertEquals(Long.valueOf(i), cache.nextval(executor));
+        }
+        assertEquals(2, executor.getCount()); // switched to prefetched block
+        assertEquals(2, prefetchExecutor.getTaskList().size()); // prefetch for third block
+    }
+
+    public void test_nextval_prefetch_failure() {
+        // ## Arrange ##
+        int cacheSize = 4;
+        MockPrefetchExecutor prefetchExecutor = new MockPrefetchExecutor();
+        SequencePrefetchCache cache = createPrefetchCache(cacheSize, Integer.class, prefetchExecutor);
+        final IntegerResultExecutor delegate = new IntegerResultExecutor(cacheSize);
+        SequenceRealExecutor executor = new SequenceRealExecutor() {
+            public Object execute() {
+                if (Thread.currentThread().getName().equals("prefetch")) {
+                    throw new IllegalStateException("prefetch failure");
+                }
+                return delegate.execute();
+            }
+        };
+
+        // ## Act ##
+        assertEquals(1, cache.nextval(executor));
+        assertEquals(2, cache.nextval(executor));
+        assertEquals(3, cache.nextval(executor)); // half point
+        prefetchExecutor.runAllAs("prefetch"); // fails
+        assertEquals(4, cache.nextval(executor));
+        assertEquals(5, cache.nextval(executor)); // selected by current thread
+
+        // ## Assert ##
+        assertEquals(2, delegate.getCount());
+        assertEquals(3, cache.getRemainingCount());
+    }
+
+    public void test_nextval_prefetch_addSize() {
+        // ## Arrange ##
+        int cacheSize = 10;
+        MockPrefetchExecutor prefetchExecutor = new MockPrefetchExecutor();
+        SequencePrefetchCache cache = new SequencePrefetchCache(Long.class, new BigDecimal(cacheSize), 1,
+                prefetchExecutor) {
+            @Override
+            protected BigDecimal getAddSize() {
+                return new BigDecimal(3);
+            }
+        };
+        LongResultExecutor executor = new LongResultExecutor(cacheSize);
+
+        // ## Act & Assert ##
+        assertEquals(Long.valueOf(1), cache.nextval(executor));
+        assertEquals(Long.valueOf(4), cache.nextval(executor));
+        assertEquals(Long.valueOf(7), cache.nextval(executor)); // half point
+        prefetchExecutor.runAllAs("prefetch");
+        assertEquals(Long.valueOf(10), cache.nextval(executor));
+        assertEquals(Long.valueOf(11), cache.nextval(executor)); // prefetched block
+        assertEquals(Long.valueOf(14), cache.nextval(executor));
+        assertEquals(2, executor.getCount());
+    }
+
+    public void test_nextval_prefetch_invocationContext() {
+        // ## Arrange ##
+        int cacheSize = 4;
+        MockPrefetchExecutor prefetchExecutor = new MockPrefetchExecutor();
+        SequencePrefetchCache cache = createPrefetchCache(cacheSize, Long.class, prefetchExecutor);
+        final LongResultExecutor delegate = new LongResultExecutor(cacheSize);
+        final List<ResourceContext> contextList = new ArrayList<ResourceContext>();
+        SequenceRealExecutor executor = new SequenceRealExecutor() {
+            public Object execute() {
+                contextList.add(ResourceContext.getResourceContextOnThread());
+                return delegate.execute();
+            }
+        };
+        ResourceContext callerContext = new ResourceContext();
+        ResourceContext otherContext = new ResourceContext();
+        ResourceContext.setResourceContextOnThread(callerContext);
+        try {
+            // ## Act ##
+            cache.nextval(executor);
+            cache.nextval(executor);
+            cache.nextval(executor); // half point
+            ResourceContext.setResourceContextOnThread(otherContext);
+            prefetchExecutor.runAll(); // caller-runs
+
+            // ## Assert ##
+            assertEquals(2, contextList.size());
+            assertSame(callerContext, contextList.get(1)); // captured when prefetch
+            assertSame(otherContext, ResourceContext.getResourceContextOnThread()); // restored
+        } finally {
+            ResourceContext.clearResourceContextOnThread();
+        }
+    }
+
+    public void test_nextval_prefetch_invocationContext_otherThread() {
+        // ## Arrange ##
+        int cacheSize = 4;
+        MockPrefetchExecutor prefetchExecutor = new MockPrefetchExecutor();
+        SequencePrefetchCache cache = createPrefetchCache(cacheSize, Long.class, prefetchExecutor);
+        final LongResultExecutor delegate = new LongResultExecutor(cacheSize);
+        final List<ResourceContext> contextList = new ArrayList<ResourceContext>();
+        SequenceRealExecutor executor = new SequenceRealExecutor() {
+            public Object execute() {
+                contextList.add(ResourceContext.getResourceContextOnThread());
+                return delegate.execute();
+            }
+        };
+        ResourceContext callerContext = new ResourceContext();
+        ResourceContext.setResourceContextOnThread(callerContext);
+        try {
+            // ## Act ##
+            cache.nextval(executor);
+            cache.nextval(executor);
+            cache.nextval(executor); // half point
+            prefetchExecutor.runAllAs("prefetch");
+
+            // ## Assert ##
+            assertEquals(2, contextList.size());
+            assertSame(callerContext, contextList.get(1));
+        } finally {
+            ResourceContext.clearResourceContextOnThread();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                          Contention
+    //                                                                          ==========
+    public void test_nextval_contention_incrementWay() throws Exception {
+        // ## Arrange ##
+        int cacheSize = 100;
+        int threadCount = 8;
+        int loopCount = 2000;
+        ExecutorService prefetchService = Executors.newSingleThreadExecutor();
+        try {
+            SequenceCache freeCache = createPrefetchCache(cacheSize, Long.class, null);
+            SequenceCache prefetchCache = createPrefetchCache(cacheSize, Long.class, prefetchService);
+
+            // ## Act ##
+            AtomicResultExecutor freeExecutor = executeContention(freeCache, cacheSize, threadCount, loopCount);
+            AtomicResultExecutor prefetchExecutor = executeContention(prefetchCache, cacheSize, threadCount,
+                    loopCount);
+
+            // ## Assert ##
+            int blockCount = threadCount * loopCount / cacheSize;
+            assertEquals(blockCount, freeExecutor.getCount()); // no waste without prefetch
+            // the last prefetched block may be unused
+            assertTrue(prefetchExecutor.getCount() >= blockCount);
+            assertTrue(prefetchExecutor.getCount() <= blockCount + 1);
+        } finally {
+            prefetchService.shutdown();
+            prefetchService.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    protected AtomicResultExecutor executeContention(final SequenceCache cache, int cacheSize, int threadCount,
+            final int loopCount) throws Exception {
+        final AtomicResultExecutor executor = new AtomicResultExecutor(cacheSize);
+        final Set<Long> allSet = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService service = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futureList = new ArrayList<Future<?>>();
+            for (int i = 0; i < threadCount; i++) {
+                futureList.add(service.submit(new Runnable() {
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        for (int j = 0; j < loopCount; j++) {
+                            if (!allSet.add((Long) cache.nextval(executor))) {
+                                throw new IllegalStateException("duplicate value");
+                            }
+                        }
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futureList) {
+                future.get();
+            }
+        } finally {
+            service.shutdown();
+        }
+        // no duplicate and no gap because blocks are handed out in selected order
+        final int total = threadCount * loopCount;
+        assertEquals(total, allSet.size());
+        for (long value = 1; value <= total; value++) {
+            assertTrue(allSet.contains(value));
+        }
+        return executor;
+    }
+
+    // ===================================================================================
+    //                                                                       Assist Helper
+    //                                                                       =============
+    @Override
+    protected SequenceCache createSequenceCache(int cacheSize, Class<?> resultType) {
+        return new SequencePrefetchCache(resultType, new BigDecimal(cacheSize), 1, null);
+    }
+
+    @Override
+    protected SequenceCache createSequenceCache(int cacheSize, Class<?> resultType, Integer incrementSize) {
+        return new SequencePrefetchCache(resultType, new BigDecimal(cacheSize), incrementSize, null);
+    }
+
+    protected SequencePrefetchCache createPrefetchCache(int cacheSize, Class<?> resultType, Executor prefetchExecutor) {
+        return new SequencePrefetchCache(resultType, new BigDecimal(cacheSize), 1, prefetchExecutor);
+    }
+
+    protected static class MockPrefetchExecutor implements Executor {
+        protected final List<Runnable> _taskList = new ArrayList<Runnable>();
+
+        public void execute(Runnable command) {
+            _taskList.add(command);
+        }
+
+        public void runAll() {
+            for (Runnable task : _taskList) {
+                task.run();
+            }
+        }
+
+        public void runAllAs(String threadName) {
+            for (Runnable task : _taskList) {
+                Thread thread = new Thread(task, threadName);
+                thread.start();
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        public List<Runnable> getTaskList() {
+            return _taskList;
+        }
+    }
+
+    protected static class AtomicResultExecutor implements SequenceRealExecutor {
+        protected final AtomicLong _sequence = new AtomicLong();
+        protected final int _incrementSize;
+
+        public AtomicResultExecutor(int incrementSize) {
+            _incrementSize = incrementSize;
+        }
+
+        public Object execute() {
+            return _sequence.getAndAdd(_incrementSize) + 1;
+        }
+
+        public int getCount() {
+            return (int) (_sequence.get() / _incrementSize);
+        }
+    }
+}
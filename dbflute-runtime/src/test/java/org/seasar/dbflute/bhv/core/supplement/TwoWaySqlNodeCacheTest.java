@@ -0,0 +1,128 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import org.seasar.dbflute.twowaysql.node.Node;
+import org.seasar.dbflute.twowaysql.node.SqlPartsNode;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/03 Sunday)
+ */
+public class TwoWaySqlNodeCacheTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                               Basic
+    //                                                                               =====
+    public void test_findNode_hitAndMiss() {
+        // ## Arrange ##
+        TwoWaySqlNodeCache cache = new TwoWaySqlNodeCache();
+        String sql = "select * from MEMBER dfloc where dfloc.MEMBER_ID = /*pmb.memberId*/null";
+        Node node = SqlPartsNode.createSqlPartsNode(sql);
+
+        // ## Act & Assert ##
+        assertNull(cache.findNode(sql));
+        cache.registerNode(sql, node);
+        assertSame(node, cache.findNode(sql));
+        assertSame(node, cache.findNode(new String(sql))); // same shape
+        assertEquals(1, cache.getCachedSize());
+        assertEquals(sql.length(), cache.getCurrentWeight());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        log(cache);
+    }
+
+    public void test_registerNode_duplicate() {
+        // ## Arrange ##
+        TwoWaySqlNodeCache cache = new TwoWaySqlNodeCache();
+        String sql = "select * from MEMBER";
+
+        // ## Act ##
+        cache.registerNode(sql, SqlPartsNode.createSqlPartsNode(sql));
+        cache.registerNode(sql, SqlPartsNode.createSqlPartsNode(sql)); // e.g. other thread
+
+        // ## Assert ##
+        assertEquals(1, cache.getCachedSize());
+        assertEquals(sql.length(), cache.getCurrentWeight());
+    }
+
+    // ===================================================================================
+    //                                                                               Limit
+    //                                                                               =====
+    public void test_registerNode_overMaxSize() {
+        // ## Arrange ##
+        TwoWaySqlNodeCache cache = new TwoWaySqlNodeCache();
+        cache.setMaxSize(3);
+
+        // ## Act ##
+        for (int i = 0; i < 10; i++) {
+            String sql = "select * from MEMBER where MEMBER_ID = " + i;
+            cache.registerNode(sql, SqlPartsNode.createSqlPartsNode(sql));
+        }
+
+        // ## Assert ##
+        assertEquals(3, cache.getCachedSize());
+        assertEquals(7, cache.getEvictionCount());
+    }
+
+    public void test_registerNode_overMaxWeight() {
+        // ## Arrange ##
+        TwoWaySqlNodeCache cache = new TwoWaySqlNodeCache();
+        cache.setMaxWeight(20);
+
+        // ## Act ##
+        String heavySql = "select * from MEMBER where MEMBER_ID = 1";
+        cache.registerNode(heavySql, SqlPartsNode.createSqlPartsNode(heavySql)); // heavier than max
+        cache.registerNode("select 1", SqlPartsNode.createSqlPartsNode("select 1"));
+        cache.registerNode("select 22", SqlPartsNode.createSqlPartsNode("select 22"));
+        cache.registerNode("select 333", SqlPartsNode.createSqlPartsNode("select 333"));
+
+        // ## Assert ##
+        assertTrue(cache.getCurrentWeight() <= 20);
+        assertEquals(2, cache.getCachedSize());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    public void test_registerNode_disabled() {
+        // ## Arrange ##
+        TwoWaySqlNodeCache cache = new TwoWaySqlNodeCache();
+        cache.setMaxSize(0);
+
+        // ## Act ##
+        cache.registerNode("select 1", SqlPartsNode.createSqlPartsNode("select 1"));
+
+        // ## Assert ##
+        assertEquals(0, cache.getCachedSize());
+        assertNull(cache.findNode("select 1"));
+    }
+
+    public void test_clear() {
+        // ## Arrange ##
+        TwoWaySqlNodeCache cache = new TwoWaySqlNodeCache();
+        cache.registerNode("select 1", SqlPartsNode.createSqlPartsNode("select 1"));
+        cache.findNode("select 1");
+
+        // ## Act ##
+        cache.clear();
+
+        // ## Assert ##
+        assertEquals(0, cache.getCachedSize());
+        assertEquals(0, cache.getCurrentWeight());
+        assertEquals(0, cache.getHitCount());
+        assertNull(cache.findNode("select 1"));
+    }
+}
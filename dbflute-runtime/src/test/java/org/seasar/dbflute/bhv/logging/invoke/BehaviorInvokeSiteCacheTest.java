@@ -0,0 +1,140 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.logging.invoke;
+
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeSiteCache.CapturedInvoke;
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeSiteCache.InvokeSiteKey;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/12 Tuesday)
+ */
+public class BehaviorInvokeSiteCacheTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                        Cache Access
+    //                                                                        ============
+    public void test_findCapturedInvoke_sameSite() {
+        // ## Arrange ##
+        BehaviorInvokeSiteCache cache = new BehaviorInvokeSiteCache();
+        CapturedInvoke capturedInvoke = createCapturedInvoke();
+        cache.registerCapturedInvoke(createKey("MEMBER", null), capturedInvoke);
+
+        // ## Act ##
+        CapturedInvoke actual = cache.findCapturedInvoke(createKey("MEMBER", null)); // same site, other instance
+
+        // ## Assert ##
+        assertSame(capturedInvoke, actual);
+        assertEquals(1, cache.getCachedSize());
+    }
+
+    public void test_findCapturedInvoke_differentTable() {
+        // ## Arrange ##
+        BehaviorInvokeSiteCache cache = new BehaviorInvokeSiteCache();
+        cache.registerCapturedInvoke(createKey("MEMBER", null), createCapturedInvoke());
+
+        // ## Act ##
+        CapturedInvoke actual = cache.findCapturedInvoke(createKey("PURCHASE", null));
+
+        // ## Assert ##
+        assertNull(actual);
+    }
+
+    public void test_findCapturedInvoke_differentOutsideSqlResultType() {
+        // ## Arrange ##
+        BehaviorInvokeSiteCache cache = new BehaviorInvokeSiteCache();
+        cache.registerCapturedInvoke(createKey("MEMBER", String.class), createCapturedInvoke());
+
+        // ## Act & Assert ##
+        assertNotNull(cache.findCapturedInvoke(createKey("MEMBER", String.class)));
+        assertNull(cache.findCapturedInvoke(createKey("MEMBER", Integer.class)));
+        assertNull(cache.findCapturedInvoke(createKey("MEMBER", null)));
+    }
+
+    public void test_findCapturedInvoke_differentFrames() {
+        // ## Arrange ##
+        BehaviorInvokeSiteCache cache = new BehaviorInvokeSiteCache();
+        cache.registerCapturedInvoke(createKey("MEMBER", null), createCapturedInvoke());
+        StackTraceElement[] frames = new StackTraceElement[] { new StackTraceElement("FooLogic", "bar",
+                "FooLogic.java", 4) }; // other line
+
+        // ## Act ##
+        CapturedInvoke actual = cache.findCapturedInvoke(new InvokeSiteKey("MEMBER", null, false, frames));
+
+        // ## Assert ##
+        assertNull(actual);
+    }
+
+    public void test_registerCapturedInvoke_limit() {
+        // ## Arrange ##
+        BehaviorInvokeSiteCache cache = new BehaviorInvokeSiteCache(2);
+        cache.registerCapturedInvoke(createKey("MEMBER", null), createCapturedInvoke());
+        cache.registerCapturedInvoke(createKey("PURCHASE", null), createCapturedInvoke());
+
+        // ## Act ##
+        cache.registerCapturedInvoke(createKey("PRODUCT", null), createCapturedInvoke());
+
+        // ## Assert ##
+        assertEquals(2, cache.getCachedSize());
+        assertNotNull(cache.findCapturedInvoke(createKey("MEMBER", null)));
+        assertNotNull(cache.findCapturedInvoke(createKey("PURCHASE", null)));
+        assertNull(cache.findCapturedInvoke(createKey("PRODUCT", null)));
+    }
+
+    public void test_registerCapturedInvoke_alreadyRegistered() {
+        // ## Arrange ##
+        BehaviorInvokeSiteCache cache = new BehaviorInvokeSiteCache();
+        CapturedInvoke first = createCapturedInvoke();
+        cache.registerCapturedInvoke(createKey("MEMBER", null), first);
+
+        // ## Act ##
+        cache.registerCapturedInvoke(createKey("MEMBER", null), createCapturedInvoke());
+
+        // ## Assert ##
+        assertSame(first, cache.findCapturedInvoke(createKey("MEMBER", null)));
+        assertEquals(1, cache.getCachedSize());
+    }
+
+    public void test_clear() {
+        // ## Arrange ##
+        BehaviorInvokeSiteCache cache = new BehaviorInvokeSiteCache();
+        cache.registerCapturedInvoke(createKey("MEMBER", null), createCapturedInvoke());
+
+        // ## Act ##
+        cache.clear();
+
+        // ## Assert ##
+        assertEquals(0, cache.getCachedSize());
+        assertNull(cache.findCapturedInvoke(createKey("MEMBER", null)));
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected InvokeSiteKey createKey(String tableDbName, Class<?> outsideSqlResultType) {
+        StackTraceElement[] frames = new StackTraceElement[] {
+                new StackTraceElement("FooBhv", "selectList", "FooBhv.java", 12),
+                new StackTraceElement("FooLogic", "bar", "FooLogic.java", 3) };
+        return new InvokeSiteKey(tableDbName, outsideSqlResultType, false, frames);
+    }
+
+    protected CapturedInvoke createCapturedInvoke() {
+        BehaviorInvokeNameResult nameResult = new BehaviorInvokeNameResult("FooBhv.selectList()", "FooBhv.selectList",
+                null, null);
+        return new CapturedInvoke(nameResult, null);
+    }
+}
@@ -17,8 +17,13 @@ package org.seasar.dbflute.cbean;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.seasar.dbflute.exception.PagingOverSafetySizeException;
 import org.seasar.dbflute.mock.MockColumnInfo;
+import org.seasar.dbflute.resource.InternalMapContext;
 import org.seasar.dbflute.unit.core.PlainTestCase;
 
 /**
@@ -421,6 +426,136 @@ public class PagingInvokerTest extends PlainTestCase {
         assertEquals("count", markList.get(1));
     }
 
+    // ===================================================================================
+    //                                                                     Parallel Paging
+    //                                                                     ===============
+    public void test_invokePaging_parallel_sameAsSequential() throws Exception {
+        // ## Arrange ##
+        final List<String> dataList = new ArrayList<String>();
+        fillList(dataList, 45);
+        ExecutorService service = Executors.newFixedThreadPool(2);
+        try {
+            for (int pageNumber = 1; pageNumber <= 5; pageNumber++) { // 4 and 5 are over so re-selected
+                for (boolean countLater : new boolean[] { false, true }) {
+                    // ## Act ##
+                    PagingResultBean<String> sequentialRb = doInvokeMockPaging(dataList, pageNumber, countLater, null);
+                    PagingResultBean<String> parallelRb = doInvokeMockPaging(dataList, pageNumber, countLater, service);
+
+                    // ## Assert ##
+                    log(pageNumber + ", " + countLater + ": " + parallelRb);
+                    assertEquals(sequentialRb.getAllRecordCount(), parallelRb.getAllRecordCount());
+                    assertEquals(sequentialRb.getCurrentPageNumber(), parallelRb.getCurrentPageNumber());
+                    assertEquals(sequentialRb.getAllPageCount(), parallelRb.getAllPageCount());
+                    assertEquals(sequentialRb.getSelectedList(), parallelRb.getSelectedList());
+                    assertEquals(45, parallelRb.getAllRecordCount());
+                    assertFalse(parallelRb.isEmpty());
+                }
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    public void test_invokePaging_parallel_countByCopy() throws Exception {
+        // ## Arrange ##
+        final List<String> dataList = new ArrayList<String>();
+        fillList(dataList, 30);
+        final SimplePagingBean pagingBean = new SimplePagingBean();
+        pagingBean.paging(20, 1);
+        final List<Object> countMarkList = new ArrayList<Object>();
+        final Thread callerThread = Thread.currentThread();
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        pagingBean.enableParallelPaging(service, new PagingBeanCopier() {
+            public PagingBean copy(PagingBean original) {
+                return new SimplePagingBean();
+            }
+        });
+        PagingInvoker<String> tgt = pagingBean.createPagingInvoker("dummy");
+        InternalMapContext.setObject("parallel.mark", "caller");
+        try {
+            // ## Act ##
+            PagingResultBean<String> rb = tgt.invokePaging(new ParallelPagingHandler<String>() {
+                public PagingBean getPagingBean() {
+                    return pagingBean;
+                }
+
+                public int count() {
+                    throw new IllegalStateException("count() should not be called when parallel");
+                }
+
+                public int countByCopy(PagingBean copiedBean) {
+                    countMarkList.add(copiedBean != pagingBean);
+                    countMarkList.add(Thread.currentThread() != callerThread);
+                    countMarkList.add(InternalMapContext.getObject("parallel.mark")); // propagated
+                    InternalMapContext.setObject("parallel.mark", "count"); // no effect to caller
+                    return dataList.size();
+                }
+
+                public List<String> paging() {
+                    return dataList.subList(0, 20);
+                }
+            });
+
+            // ## Assert ##
+            assertEquals(30, rb.getAllRecordCount());
+            assertEquals(20, rb.size());
+            assertEquals(true, countMarkList.get(0));
+            assertEquals(true, countMarkList.get(1));
+            assertEquals("caller", countMarkList.get(2));
+            assertEquals("caller", InternalMapContext.getObject("parallel.mark"));
+        } finally {
+            InternalMapContext.clearInternalMapContextOnThread();
+            service.shutdown();
+        }
+    }
+
+    public void test_invokePaging_parallel_safetyMaxResult() throws Exception {
+        // ## Arrange ##
+        final List<String> dataList = new ArrayList<String>();
+        fillList(dataList, 45);
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            // ## Act ##
+            doInvokeMockPaging(dataList, 1, false, service, 30);
+
+            // ## Assert ##
+            fail();
+        } catch (PagingOverSafetySizeException e) {
+            // OK
+            log(e.getMessage());
+            assertEquals(45, e.getAllRecordCount());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    public void test_invokePaging_parallel_copierReturnsSame() {
+        // ## Arrange ##
+        final SimplePagingBean pagingBean = new SimplePagingBean();
+        pagingBean.paging(20, 1);
+        PagingInvoker<String> tgt = createTarget();
+        tgt.enableParallelPaging(new Executor() {
+            public void execute(Runnable command) {
+                command.run();
+            }
+        }, new PagingBeanCopier() {
+            public PagingBean copy(PagingBean original) {
+                return original;
+            }
+        });
+
+        // ## Act ##
+        try {
+            tgt.invokePaging(createMockHandler(pagingBean, new ArrayList<String>()));
+
+            // ## Assert ##
+            fail();
+        } catch (IllegalStateException e) {
+            // OK
+            log(e.getMessage());
+        }
+    }
+
     // ===================================================================================
     //                                                       isNecessaryToReadCountLater()
     //                                                       =============================
@@ -500,6 +635,56 @@ public class PagingInvokerTest extends PlainTestCase {
         }
     }
 
+    protected PagingResultBean<String> doInvokeMockPaging(List<String> dataList, int pageNumber,
+            boolean countLater, Executor executor) {
+        return doInvokeMockPaging(dataList, pageNumber, countLater, executor, 0);
+    }
+
+    protected PagingResultBean<String> doInvokeMockPaging(List<String> dataList, int pageNumber,
+            boolean countLater, Executor executor, int safetyMaxResultSize) {
+        final SimplePagingBean pagingBean = new SimplePagingBean();
+        pagingBean.paging(20, pageNumber);
+        pagingBean.checkSafetyResult(safetyMaxResultSize);
+        if (countLater) {
+            pagingBean.enablePagingCountLater();
+        }
+        if (executor != null) {
+            pagingBean.enableParallelPaging(executor, new PagingBeanCopier() {
+                public PagingBean copy(PagingBean original) {
+                    return new SimplePagingBean(); // no condition in the mock
+                }
+            });
+        }
+        final PagingInvoker<String> invoker = pagingBean.createPagingInvoker("dummy");
+        return invoker.invokePaging(createMockHandler(pagingBean, dataList));
+    }
+
+    protected ParallelPagingHandler<String> createMockHandler(final PagingBean pagingBean,
+            final List<String> dataList) {
+        return new ParallelPagingHandler<String>() {
+            public PagingBean getPagingBean() {
+                return pagingBean;
+            }
+
+            public int count() {
+                return dataList.size();
+            }
+
+            public int countByCopy(PagingBean copiedBean) {
+                return dataList.size();
+            }
+
+            public List<String> paging() {
+                final int startIndex = pagingBean.getPageStartIndex();
+                final int endIndex = Math.min(startIndex + pagingBean.getFetchSize(), dataList.size());
+                if (startIndex >= endIndex) {
+                    return new ArrayList<String>();
+                }
+                return new ArrayList<String>(dataList.subList(startIndex, endIndex));
+            }
+        };
+    }
+
     protected PagingInvoker<String> createTarget() {
         return new PagingInvoker<String>("dummy");
     }
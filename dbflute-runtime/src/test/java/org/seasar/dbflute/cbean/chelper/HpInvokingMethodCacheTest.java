@@ -0,0 +1,126 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.cbean.chelper;
+
+import java.lang.reflect.Method;
+
+import org.seasar.dbflute.helper.beans.DfBeanDesc;
+import org.seasar.dbflute.helper.beans.factory.DfBeanDescFactory;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+import org.seasar.dbflute.util.DfReflectionUtil;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/09 Saturday)
+ */
+public class HpInvokingMethodCacheTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                         Find Method
+    //                                                                         ===========
+    public void test_findMethod_basic() throws Exception {
+        // ## Arrange ##
+        HpInvokingMethodCache cache = new HpInvokingMethodCache();
+        Class<?>[] argTypes = new Class<?>[] { Integer.class };
+
+        // ## Act ##
+        Method first = cache.findMethod(MockQuery.class, "setMemberId_Equal", argTypes);
+        Method second = cache.findMethod(MockQuery.class, "setMemberId_Equal", new Class<?>[] { Integer.class });
+
+        // ## Assert ##
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals(1, cache.getCachedSize());
+        MockQuery query = new MockQuery();
+        DfReflectionUtil.invokeForcedly(first, query, new Object[] { 3 });
+        assertEquals(Integer.valueOf(3), query.getMemberId());
+    }
+
+    public void test_findMethod_argTypes() throws Exception {
+        // ## Arrange ##
+        HpInvokingMethodCache cache = new HpInvokingMethodCache();
+
+        // ## Act & Assert ##
+        assertNotNull(cache.findMethod(MockQuery.class, "addOrderBy_MemberId_Asc", null));
+        assertNotNull(cache.findMethod(MockQuery.class, "addOrderBy_MemberId_Asc", new Class<?>[] {}));
+        assertEquals(1, cache.getCachedSize()); // null and empty are same
+        assertNull(cache.findMethod(MockQuery.class, "setMemberId_Equal", new Class<?>[] { String.class }));
+        assertEquals(2, cache.getCachedSize());
+    }
+
+    public void test_findMethod_notFound() throws Exception {
+        // ## Arrange ##
+        HpInvokingMethodCache cache = new HpInvokingMethodCache();
+
+        // ## Act & Assert ##
+        assertNull(cache.findMethod(MockQuery.class, "noExists", null));
+        assertNull(cache.findMethod(MockQuery.class, "noExists", null)); // from cache
+        assertEquals(1, cache.getCachedSize());
+        cache.clear();
+        assertEquals(0, cache.getCachedSize());
+    }
+
+    // ===================================================================================
+    //                                                                          Throughput
+    //                                                                          ==========
+    public void test_findMethod_throughput() throws Exception {
+        // ## Arrange ##
+        HpInvokingMethodCache cache = new HpInvokingMethodCache();
+        MockQuery query = new MockQuery();
+        Object[] args = new Object[] { 3 };
+        int loopCount = 100000;
+
+        // ## Act ##
+        long beforeDesc = System.currentTimeMillis();
+        for (int i = 0; i < loopCount; i++) {
+            DfBeanDesc beanDesc = DfBeanDescFactory.getBeanDesc(query.getClass());
+            Method method = beanDesc.getMethodNoException("setMemberId_Equal", new Class<?>[] { Integer.class });
+            DfReflectionUtil.invokeForcedly(method, query, args);
+        }
+        long descCost = System.currentTimeMillis() - beforeDesc;
+        long beforeCache = System.currentTimeMillis();
+        for (int i = 0; i < loopCount; i++) {
+            Method method = cache.findMethod(query.getClass(), "setMemberId_Equal", new Class<?>[] { Integer.class });
+            DfReflectionUtil.invokeForcedly(method, query, args);
+        }
+        long cacheCost = System.currentTimeMillis() - beforeCache;
+
+        // ## Assert ##
+        log("bean-desc: " + descCost + "ms, cache: " + cacheCost + "ms (" + loopCount + " times)");
+        assertEquals(1, cache.getCachedSize());
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    public static class MockQuery {
+
+        protected Integer _memberId;
+        protected boolean _orderByAsc;
+
+        public void setMemberId_Equal(Integer memberId) {
+            _memberId = memberId;
+        }
+
+        public void addOrderBy_MemberId_Asc() {
+            _orderByAsc = true;
+        }
+
+        public Integer getMemberId() {
+            return _memberId;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.cbean.sqlclause.query;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.seasar.dbflute.cbean.sqlclause.SqlClause;
+import org.seasar.dbflute.cbean.sqlclause.SqlClauseH2;
+import org.seasar.dbflute.dbmeta.name.ColumnRealName;
+import org.seasar.dbflute.dbmeta.name.ColumnSqlName;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/05 Tuesday)
+ */
+public class KeysetQueryClauseTest extends PlainTestCase {
+
+    public void test_acceptLastKey_single() {
+        // ## Arrange ##
+        SqlClause sqlClause = new SqlClauseH2("MEMBER");
+        List<ColumnRealName> keyList = Arrays.asList(realName("MEMBER_ID"));
+        KeysetQueryClause clause = new KeysetQueryClause(sqlClause, keyList, Arrays.asList(true));
+
+        // ## Act ##
+        clause.acceptLastKey(Arrays.<Object> asList(3));
+
+        // ## Assert ##
+        String exp = clause.toString();
+        log(exp);
+        assertEquals("(dfloc.MEMBER_ID > " + bindExp(0) + ")", exp);
+        assertEquals(Arrays.asList(3), themeList(sqlClause));
+    }
+
+    public void test_acceptLastKey_compound() {
+        // ## Arrange ##
+        SqlClause sqlClause = new SqlClauseH2("PURCHASE");
+        List<ColumnRealName> keyList = Arrays.asList(realName("MEMBER_ID"), realName("PRODUCT_ID"));
+        KeysetQueryClause clause = new KeysetQueryClause(sqlClause, keyList, Arrays.asList(true, false));
+
+        // ## Act ##
+        clause.acceptLastKey(Arrays.<Object> asList(3, 7));
+        String first = clause.toString();
+        clause.acceptLastKey(Arrays.<Object> asList(4, 2));
+        String second = clause.toString();
+
+        // ## Assert ##
+        log(second);
+        assertEquals("(dfloc.MEMBER_ID > " + bindExp(0) + " or (dfloc.MEMBER_ID = " + bindExp(1)
+                + " and dfloc.PRODUCT_ID < " + bindExp(2) + "))", second);
+        assertEquals(first, second); // same SQL for every page
+        assertEquals(Arrays.asList(4, 4, 2), themeList(sqlClause));
+    }
+
+    public void test_clearLastKey() {
+        // ## Arrange ##
+        SqlClause sqlClause = new SqlClauseH2("MEMBER");
+        List<ColumnRealName> keyList = Arrays.asList(realName("MEMBER_ID"));
+        KeysetQueryClause clause = new KeysetQueryClause(sqlClause, keyList, Arrays.asList(true));
+        clause.acceptLastKey(Arrays.<Object> asList(3));
+
+        // ## Act ##
+        clause.clearLastKey();
+
+        // ## Assert ##
+        assertFalse(sqlClause.getFreeParameterMap().containsKey(KeysetQueryClause.FREE_PARAMETER_THEME_KEY));
+    }
+
+    public void test_toString_notAccepted() {
+        // ## Arrange ##
+        SqlClause sqlClause = new SqlClauseH2("MEMBER");
+        List<ColumnRealName> keyList = Arrays.asList(realName("MEMBER_ID"));
+        KeysetQueryClause clause = new KeysetQueryClause(sqlClause, keyList, Arrays.asList(true));
+
+        // ## Act ##
+        try {
+            clause.toString();
+
+            // ## Assert ##
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+        }
+    }
+
+    protected ColumnRealName realName(String columnName) {
+        return ColumnRealName.create("dfloc", new ColumnSqlName(columnName));
+    }
+
+    protected String bindExp(int index) {
+        return "/*pmb.conditionQuery.freePrmMap." + KeysetQueryClause.FREE_PARAMETER_THEME_KEY + ".get(" + index
+                + ")*/null";
+    }
+
+    protected List<?> themeList(SqlClause sqlClause) {
+        return (List<?>) sqlClause.getFreeParameterMap().get(KeysetQueryClause.FREE_PARAMETER_THEME_KEY);
+    }
+}
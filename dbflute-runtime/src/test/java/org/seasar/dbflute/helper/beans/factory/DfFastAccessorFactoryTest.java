@@ -0,0 +1,216 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.beans.factory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Date;
+
+import org.seasar.dbflute.helper.beans.DfBeanDesc;
+import org.seasar.dbflute.helper.beans.DfPropertyDesc;
+import org.seasar.dbflute.helper.beans.factory.DfFastAccessorFactory.FastConstructor;
+import org.seasar.dbflute.helper.beans.factory.DfFastAccessorFactory.FastGetter;
+import org.seasar.dbflute.helper.beans.factory.DfFastAccessorFactory.FastSetter;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+import org.seasar.dbflute.util.DfReflectionUtil;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/17 Sunday)
+ */
+public class DfFastAccessorFactoryTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                              Create
+    //                                                                              ======
+    public void test_createGetterSetter_basic() throws Exception {
+        if (!DfFastAccessorFactory.isAvailable()) {
+            log("...Skipping the test because of older JVM");
+            return;
+        }
+        // ## Arrange ##
+        FastGetter nameGetter = DfFastAccessorFactory.createGetter(MockBean.class.getMethod("getMemberName"));
+        FastSetter nameSetter = DfFastAccessorFactory.createSetter(MockBean.class.getMethod("setMemberName",
+                String.class));
+        FastGetter idGetter = DfFastAccessorFactory.createGetter(MockBean.class.getMethod("getMemberId"));
+        FastSetter idSetter = DfFastAccessorFactory.createSetter(MockBean.class.getMethod("setMemberId", int.class));
+        MockBean bean = new MockBean();
+
+        // ## Act ##
+        nameSetter.set(bean, "Pixy");
+        idSetter.set(bean, 3);
+
+        // ## Assert ##
+        assertEquals("Pixy", bean.getMemberName());
+        assertEquals("Pixy", nameGetter.get(bean));
+        assertEquals(3, bean.getMemberId());
+        assertEquals(Integer.valueOf(3), idGetter.get(bean)); // boxed
+        try {
+            idSetter.set(bean, null);
+            fail();
+        } catch (NullPointerException e) { // property description wraps it
+            // OK
+            log(e.getMessage());
+        }
+    }
+
+    public void test_createGetterSetter_unavailable() throws Exception {
+        assertNull(DfFastAccessorFactory.createGetter(MockBean.class.getMethod("getCheckedName")));
+        assertNull(DfFastAccessorFactory.createGetter(MockBean.class.getMethod("getStaticName")));
+        assertNull(DfFastAccessorFactory.createSetter(MockBean.class.getMethod("getMemberName")));
+        MockBean anonymous = new MockBean() {
+            @Override
+            public String getMemberName() { // not accessible by reflection
+                return null;
+            }
+        };
+        assertNull(DfFastAccessorFactory.createGetter(anonymous.getClass().getMethod("getMemberName")));
+        assertNull(DfFastAccessorFactory.createConstructor(anonymous.getClass()));
+    }
+
+    public void test_findConstructor_basic() throws Exception {
+        if (!DfFastAccessorFactory.isAvailable()) {
+            log("...Skipping the test because of older JVM");
+            return;
+        }
+        // ## Arrange ##
+        DfFastAccessorFactory.clear();
+
+        // ## Act ##
+        FastConstructor constructor = DfFastAccessorFactory.findConstructor(MockBean.class);
+
+        // ## Assert ##
+        assertNotNull(constructor);
+        assertSame(constructor, DfFastAccessorFactory.findConstructor(MockBean.class));
+        assertTrue(constructor.newInstance() instanceof MockBean);
+        assertNotSame(constructor.newInstance(), constructor.newInstance());
+        assertNull(DfFastAccessorFactory.findConstructor(Number.class)); // abstract
+        assertNull(DfFastAccessorFactory.findConstructor(Integer.class)); // no default constructor
+        assertEquals(3, DfFastAccessorFactory.getCachedConstructorSize()); // also unavailable
+        DfFastAccessorFactory.clear();
+        assertEquals(0, DfFastAccessorFactory.getCachedConstructorSize());
+    }
+
+    public void test_clear_byBeanDescFactory() throws Exception {
+        if (!DfFastAccessorFactory.isAvailable()) {
+            log("...Skipping the test because of older JVM");
+            return;
+        }
+        // ## Arrange ##
+        DfFastAccessorFactory.clear();
+        DfBeanDescFactory.getBeanDesc(MockBean.class);
+        assertNotNull(DfFastAccessorFactory.findConstructor(MockBean.class));
+        assertEquals(1, DfFastAccessorFactory.getCachedConstructorSize());
+
+        // ## Act ##
+        DfBeanDescFactory.clear(); // e.g. HotDeploy dispose
+
+        // ## Assert ##
+        assertEquals(0, DfFastAccessorFactory.getCachedConstructorSize());
+    }
+
+    public void test_propertyDesc_fastAccess() throws Exception {
+        // ## Arrange ##
+        DfBeanDesc beanDesc = DfBeanDescFactory.getBeanDesc(MockBean.class);
+        DfPropertyDesc nameDesc = beanDesc.getPropertyDesc("memberName");
+        DfPropertyDesc birthdateDesc = beanDesc.getPropertyDesc("birthdate");
+        MockBean bean = new MockBean();
+
+        // ## Act ##
+        nameDesc.setValue(bean, "Pixy");
+        birthdateDesc.setValue(bean, "2014/08/17"); // converted
+
+        // ## Assert ##
+        assertEquals("Pixy", nameDesc.getValue(bean));
+        assertNotNull(bean.getBirthdate());
+        assertEquals(bean.getBirthdate(), birthdateDesc.getValue(bean));
+    }
+
+    // ===================================================================================
+    //                                                                          Throughput
+    //                                                                          ==========
+    public void test_setter_throughput() throws Exception {
+        // ## Arrange ##
+        Method writeMethod = MockBean.class.getMethod("setMemberName", String.class);
+        FastSetter fastSetter = DfFastAccessorFactory.createSetter(writeMethod);
+        if (fastSetter == null) {
+            log("...Skipping the test because of older JVM");
+            return;
+        }
+        FastConstructor constructor = DfFastAccessorFactory.createConstructor(MockBean.class);
+        Object[] args = new Object[] { "Pixy" };
+        int loopCount = 100000;
+
+        // ## Act ##
+        long beforeReflection = System.currentTimeMillis();
+        for (int i = 0; i < loopCount; i++) {
+            Object bean = DfReflectionUtil.newInstance(MockBean.class);
+            DfReflectionUtil.invoke(writeMethod, bean, args);
+        }
+        long reflectionCost = System.currentTimeMillis() - beforeReflection;
+        long beforeFast = System.currentTimeMillis();
+        for (int i = 0; i < loopCount; i++) {
+            Object bean = constructor.newInstance();
+            fastSetter.set(bean, "Pixy");
+        }
+        long fastCost = System.currentTimeMillis() - beforeFast;
+
+        // ## Assert ##
+        log("reflection: " + reflectionCost + "ms, fast: " + fastCost + "ms (" + loopCount + " rows)");
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    public static class MockBean {
+
+        protected int _memberId;
+        protected String _memberName;
+        protected Date _birthdate;
+
+        public int getMemberId() {
+            return _memberId;
+        }
+
+        public void setMemberId(int memberId) {
+            _memberId = memberId;
+        }
+
+        public String getMemberName() {
+            return _memberName;
+        }
+
+        public void setMemberName(String memberName) {
+            _memberName = memberName;
+        }
+
+        public Date getBirthdate() {
+            return _birthdate;
+        }
+
+        public void setBirthdate(Date birthdate) {
+            _birthdate = birthdate;
+        }
+
+        public String getCheckedName() throws IOException {
+            return _memberName;
+        }
+
+        public static String getStaticName() {
+            return "static";
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.stacktrace;
+
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/12 Tuesday)
+ */
+public class StackTraceCapturerTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                             Capture
+    //                                                                             =======
+    public void test_capture_basic() throws Exception {
+        // ## Arrange ##
+        StackTraceCapturer capturer = new StackTraceCapturer(5);
+
+        // ## Act ##
+        StackTraceElement[] frames = capturer.capture();
+        StackTraceElement[] expected = new Exception().getStackTrace();
+
+        // ## Assert ##
+        log("walkingLazily=" + capturer.isWalkingLazily() + ", head=" + frames[0]);
+        assertEquals(5, frames.length);
+        for (int i = 0; i < frames.length; i++) {
+            assertEquals(expected[i].getClassName(), frames[i].getClassName());
+            assertEquals(expected[i].getMethodName(), frames[i].getMethodName());
+        }
+        assertEquals("test_capture_basic", frames[0].getMethodName());
+        if (!System.getProperty("java.specification.version").startsWith("1.")) { // Java9 or later
+            assertTrue(capturer.isWalkingLazily());
+        }
+    }
+
+    public void test_capture_overDepth() throws Exception {
+        // ## Arrange ##
+        StackTraceCapturer capturer = new StackTraceCapturer(10000);
+
+        // ## Act ##
+        StackTraceElement[] frames = capturer.capture();
+
+        // ## Assert ##
+        assertEquals(new Exception().getStackTrace().length, frames.length);
+        assertEquals(getClass().getName(), frames[0].getClassName());
+    }
+
+    public void test_capture_fallback() throws Exception {
+        // ## Arrange ##
+        StackTraceCapturer capturer = new StackTraceCapturer(3);
+        capturer._walkerDisabled = true;
+
+        // ## Act ##
+        StackTraceElement[] frames = capturer.capture();
+
+        // ## Assert ##
+        assertFalse(capturer.isWalkingLazily());
+        assertEquals(3, frames.length);
+        assertEquals("test_capture_fallback", frames[0].getMethodName());
+    }
+
+    public void test_constructor_minus() throws Exception {
+        try {
+            new StackTraceCapturer(-1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            log(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.resource;
+
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/12 Tuesday)
+ */
+public class InternalMapContextTest extends PlainTestCase {
+
+    @Override
+    protected void tearDown() throws Exception {
+        InternalMapContext.clearInternalMapContextOnThread();
+        super.tearDown();
+    }
+
+    // ===================================================================================
+    //                                                                        Regular Item
+    //                                                                        ============
+    public void test_regularItem_basic() {
+        // ## Arrange ##
+        assertFalse(InternalMapContext.isExistInternalMapContextOnThread());
+        assertNull(InternalMapContext.getBehaviorInvokeName());
+
+        // ## Act ##
+        InternalMapContext.setBehaviorInvokeName("MemberBhv.selectEntity()");
+        InternalMapContext.setSqlBeforeTimeMillis(3L);
+
+        // ## Assert ##
+        assertTrue(InternalMapContext.isExistInternalMapContextOnThread());
+        assertEquals("MemberBhv.selectEntity()", InternalMapContext.getBehaviorInvokeName());
+        assertEquals(Long.valueOf(3L), InternalMapContext.getSqlBeforeTimeMillis());
+        assertTrue(InternalMapContext.internalMap().isEmpty()); // regular items are not in the map
+        InternalMapContext.clearInternalMapContextOnThread();
+        assertFalse(InternalMapContext.isExistInternalMapContextOnThread());
+        assertNull(InternalMapContext.getBehaviorInvokeName());
+        assertNull(InternalMapContext.getSqlBeforeTimeMillis());
+    }
+
+    public void test_extensionItem_basic() {
+        // ## Arrange ##
+        assertNull(InternalMapContext.getObject("foo"));
+
+        // ## Act ##
+        InternalMapContext.setObject("foo", "bar");
+
+        // ## Assert ##
+        assertEquals("bar", InternalMapContext.getObject("foo"));
+        assertEquals("bar", InternalMapContext.internalMap().get("foo"));
+        InternalMapContext.clearInternalMapContextOnThread();
+        assertNull(InternalMapContext.getObject("foo"));
+    }
+
+    // ===================================================================================
+    //                                                                        Save/Restore
+    //                                                                        ============
+    public void test_copy_restore() {
+        // ## Arrange ##
+        InternalMapContext.setClientInvokeName("MemberLogic.foo()");
+        InternalMapContext.setObject("foo", "bar");
+
+        // ## Act ##
+        InternalMapContext saved = InternalMapContext.copyInternalMapContextOnThread();
+        InternalMapContext.clearInternalMapContextOnThread();
+        InternalMapContext.setClientInvokeName("nested");
+        InternalMapContext.setObject("foo", "nested");
+        InternalMapContext.clearInternalMapContextOnThread();
+        InternalMapContext.restoreInternalMapContextOnThread(saved);
+
+        // ## Assert ##
+        assertEquals("MemberLogic.foo()", InternalMapContext.getClientInvokeName());
+        assertEquals("bar", InternalMapContext.getObject("foo"));
+    }
+
+    public void test_copy_noContext() {
+        assertNull(InternalMapContext.copyInternalMapContextOnThread());
+    }
+
+    // ===================================================================================
+    //                                                                               Clear
+    //                                                                               =====
+    public void test_clear_removeFromThread() {
+        // ## Arrange ##
+        InternalMapContext.setBehaviorInvokeName("MemberBhv.selectEntity()");
+        InternalMapContext first = InternalMapContext.findContextOnThread();
+        InternalMapContext saved = InternalMapContext.copyInternalMapContextOnThread();
+        InternalMapContext.setObject("foo", "bar");
+        InternalMapContext.restoreInternalMapContextOnThread(saved);
+
+        // ## Act ##
+        InternalMapContext.clearInternalMapContextOnThread();
+
+        // ## Assert ##
+        assertNotNull(first);
+        assertNotSame(first, saved);
+        assertNull(InternalMapContext.findContextOnThread()); // removed
+        InternalMapContext.setBehaviorInvokeName("MemberBhv.selectList()");
+        assertNotSame(first, InternalMapContext.findContextOnThread()); // not reused after clear
+    }
+
+    public void test_restore_reuseInstance() {
+        // ## Arrange ##
+        InternalMapContext.setClientInvokeName("MemberLogic.foo()");
+        InternalMapContext saved = InternalMapContext.copyInternalMapContextOnThread();
+        InternalMapContext.setClientInvokeName("nested");
+        InternalMapContext nested = InternalMapContext.findContextOnThread();
+
+        // ## Act ##
+        InternalMapContext.restoreInternalMapContextOnThread(saved);
+
+        // ## Assert ##
+        assertSame(nested, InternalMapContext.findContextOnThread()); // reused in the invocation
+        assertEquals("MemberLogic.foo()", InternalMapContext.getClientInvokeName());
+    }
+}
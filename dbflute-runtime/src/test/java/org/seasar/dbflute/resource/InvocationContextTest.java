@@ -0,0 +1,153 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.resource;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.seasar.dbflute.AccessContext;
+import org.seasar.dbflute.cbean.ConditionBean;
+import org.seasar.dbflute.cbean.ConditionBeanContext;
+import org.seasar.dbflute.mock.MockConditionBean;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/12 Tuesday)
+ */
+public class InvocationContextTest extends PlainTestCase {
+
+    @Override
+    protected void tearDown() throws Exception {
+        ConditionBeanContext.clearConditionBeanOnThread();
+        AccessContext.clearAccessContextOnThread();
+        InternalMapContext.clearInternalMapContextOnThread();
+        super.tearDown();
+    }
+
+    // ===================================================================================
+    //                                                                           Propagate
+    //                                                                           =========
+    public void test_propagate_otherThread() throws Exception {
+        // ## Arrange ##
+        final ConditionBean cb = new MockConditionBean();
+        final AccessContext accessContext = new AccessContext();
+        ConditionBeanContext.setConditionBeanOnThread(cb);
+        AccessContext.setAccessContextOnThread(accessContext);
+        InternalMapContext.setObject("invocation.mark", "caller");
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            // ## Act ##
+            Future<Object[]> future = service.submit(InvocationContext.propagate(new Callable<Object[]>() {
+                public Object[] call() throws Exception {
+                    final Object mark = InternalMapContext.getObject("invocation.mark");
+                    InternalMapContext.setObject("invocation.mark", "other");
+                    return new Object[] { ConditionBeanContext.getConditionBeanOnThread(),
+                            AccessContext.getAccessContextOnThread(), mark };
+                }
+            }));
+            Object[] inherited = future.get();
+
+            // ## Assert ##
+            assertSame(cb, inherited[0]);
+            assertSame(accessContext, inherited[1]);
+            assertEquals("caller", inherited[2]);
+            assertEquals("caller", InternalMapContext.getObject("invocation.mark")); // copied
+            Future<Boolean> cleared = service.submit(new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    return !ConditionBeanContext.isExistConditionBeanOnThread()
+                            && !AccessContext.isExistAccessContextOnThread()
+                            && !InternalMapContext.isExistInternalMapContextOnThread();
+                }
+            });
+            assertTrue(cleared.get());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    public void test_propagate_callerRuns() throws Exception {
+        // ## Arrange ##
+        final ConditionBean cb = new MockConditionBean();
+        ConditionBeanContext.setConditionBeanOnThread(cb);
+        InternalMapContext.setObject("invocation.mark", "caller");
+        Runnable task = InvocationContext.propagate(new Runnable() {
+            public void run() {
+                ConditionBeanContext.clearConditionBeanOnThread();
+                InternalMapContext.setObject("invocation.mark", "task");
+            }
+        });
+
+        // ## Act ##
+        task.run();
+
+        // ## Assert ##
+        assertSame(cb, ConditionBeanContext.getConditionBeanOnThread()); // restored
+        assertEquals("caller", InternalMapContext.getObject("invocation.mark"));
+    }
+
+    // ===================================================================================
+    //                                                                              Attach
+    //                                                                              ======
+    public void test_attach_restore() throws Exception {
+        // ## Arrange ##
+        final ConditionBean cb = new MockConditionBean();
+        ConditionBeanContext.setConditionBeanOnThread(cb);
+        InvocationContext context = InvocationContext.capture();
+        ConditionBeanContext.clearConditionBeanOnThread();
+        InternalMapContext.setObject("invocation.mark", "current");
+
+        // ## Act ##
+        InvocationContext previous = context.attach();
+
+        // ## Assert ##
+        assertSame(cb, ConditionBeanContext.getConditionBeanOnThread());
+        assertFalse(InternalMapContext.isExistInternalMapContextOnThread());
+        previous.restore();
+        assertFalse(ConditionBeanContext.isExistConditionBeanOnThread());
+        assertEquals("current", InternalMapContext.getObject("invocation.mark"));
+    }
+
+    // ===================================================================================
+    //                                                                   Behavior Invoking
+    //                                                                   =================
+    public void test_saveInvoking_restoreInvoking() throws Exception {
+        // ## Arrange ##
+        final ConditionBean cb = new MockConditionBean();
+        ConditionBeanContext.setConditionBeanOnThread(cb);
+        InternalMapContext.setObject("invocation.mark", "parent");
+        AccessContext accessContext = new AccessContext();
+        AccessContext.setAccessContextOnThread(accessContext);
+
+        // ## Act ##
+        InvocationContext saved = InvocationContext.saveInvoking();
+        InvocationContext.clearInvoking();
+
+        // ## Assert ##
+        assertFalse(ConditionBeanContext.isExistConditionBeanOnThread());
+        assertFalse(InternalMapContext.isExistInternalMapContextOnThread());
+        assertSame(accessContext, AccessContext.getAccessContextOnThread()); // not cleared
+        AccessContext nestedAccessContext = new AccessContext();
+        AccessContext.setAccessContextOnThread(nestedAccessContext);
+        InternalMapContext.setObject("invocation.mark", "nested");
+        saved.restoreInvoking();
+        assertSame(cb, ConditionBeanContext.getConditionBeanOnThread());
+        assertEquals("parent", InternalMapContext.getObject("invocation.mark"));
+        assertSame(nestedAccessContext, AccessContext.getAccessContextOnThread()); // not restored
+    }
+}
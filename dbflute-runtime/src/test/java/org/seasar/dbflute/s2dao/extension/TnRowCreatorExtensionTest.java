@@ -15,8 +15,14 @@
  */
 package org.seasar.dbflute.s2dao.extension;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import junit.framework.TestCase;
 
+import org.seasar.dbflute.s2dao.metadata.TnPropertyMapping;
+import org.seasar.dbflute.s2dao.rowcreator.TnRowMappingPlan;
+
 /**
  * @author jflute
  * @since 0.9.5 (2009/05/27 Wednesday)
@@ -31,6 +37,27 @@ public class TnRowCreatorExtensionTest extends TestCase {
         assertFalse(TnRowCreatorExtension.isCreatableByDBMeta(ManualCustomizeEntity.class, entityType));
     }
 
+    public void test_createRow_emptyPropertyCache() throws Exception {
+        // ## Arrange ##
+        TnRowCreatorExtension extension = TnRowCreatorExtension.createRowCreator(null);
+        Map<String, TnPropertyMapping> propertyCache = new HashMap<String, TnPropertyMapping>();
+        TnRowMappingPlan mappingPlan = TnRowMappingPlan.createLocalPlan(null, null, propertyCache);
+
+        // ## Act & Assert ##
+        try {
+            extension.createRow(null, null, propertyCache, ExCustomizeEntity.class);
+            fail();
+        } catch (IllegalStateException e) {
+            // OK
+        }
+        try {
+            extension.createRow(null, mappingPlan, ExCustomizeEntity.class);
+            fail();
+        } catch (IllegalStateException e) {
+            // OK
+        }
+    }
+
     protected static class BsCustomizeEntity {
 
     }
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.rowcreator;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.seasar.dbflute.cbean.chelper.HpDerivingSubQueryInfo;
+import org.seasar.dbflute.cbean.sqlclause.SqlClause;
+import org.seasar.dbflute.dbmeta.info.ColumnInfo;
+import org.seasar.dbflute.dbmeta.name.ColumnSqlName;
+import org.seasar.dbflute.helper.beans.DfPropertyAccessor;
+import org.seasar.dbflute.jdbc.ValueType;
+import org.seasar.dbflute.mock.MockResultSet;
+import org.seasar.dbflute.mock.MockValueType;
+import org.seasar.dbflute.s2dao.metadata.TnPropertyMapping;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/02 Saturday)
+ */
+public class TnRowMappingPlanTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                          Local Plan
+    //                                                                          ==========
+    public void test_createLocalPlan_byLabel() throws Exception {
+        // ## Arrange ##
+        final List<String> foundList = new ArrayList<String>();
+        MockResultSet rs = new MockResultSet() {
+            @Override
+            public int findColumn(String columnLabel) throws SQLException {
+                foundList.add(columnLabel);
+                return "MEMBER_ID".equals(columnLabel) ? 1 : 2;
+            }
+        };
+        Map<String, TnPropertyMapping> propertyCache = new LinkedHashMap<String, TnPropertyMapping>();
+        propertyCache.put("MEMBER_ID", new MockPropertyMapping("memberId"));
+        propertyCache.put("MEMBER_NAME", new MockPropertyMapping("memberName"));
+
+        // ## Act ##
+        TnRowMappingPlan plan = TnRowMappingPlan.createLocalPlan(rs, null, propertyCache);
+
+        // ## Assert ##
+        assertEquals(2, plan.size());
+        assertEquals("MEMBER_ID", plan.getColumnName(0));
+        assertEquals(1, plan.getColumnIndex(0));
+        assertEquals("MEMBER_NAME", plan.getColumnName(1));
+        assertEquals(2, plan.getColumnIndex(1));
+        assertEquals("memberName", plan.getPropertyMapping(1).getPropertyName());
+        assertEquals(2, foundList.size()); // only once per column
+        assertEquals("index:1", plan.getValue(rs, 0));
+        assertEquals("index:2", plan.getValue(rs, 1));
+        assertEquals(2, foundList.size()); // no label search after creation
+    }
+
+    public void test_createLocalPlan_bySelectIndex() throws Exception {
+        // ## Arrange ##
+        MockResultSet rs = new MockResultSet() {
+            @Override
+            public int findColumn(String columnLabel) throws SQLException {
+                return 9; // derived column that has no select index
+            }
+        };
+        Map<String, TnPropertyMapping> propertyCache = new LinkedHashMap<String, TnPropertyMapping>();
+        propertyCache.put("MEMBER_ID", new MockPropertyMapping("memberId"));
+        propertyCache.put("HIGHEST_PURCHASE_PRICE", new MockPropertyMapping("highestPurchasePrice"));
+        Map<String, Map<String, Integer>> selectIndexMap = new LinkedHashMap<String, Map<String, Integer>>();
+        Map<String, Integer> localMap = new LinkedHashMap<String, Integer>();
+        localMap.put("MEMBER_ID", 3);
+        selectIndexMap.put(SqlClause.BASE_POINT_HANDLING_ENTITY_NO, localMap);
+
+        // ## Act ##
+        TnRowMappingPlan plan = TnRowMappingPlan.createLocalPlan(rs, selectIndexMap, propertyCache);
+
+        // ## Assert ##
+        assertEquals(3, plan.getColumnIndex(0));
+        assertEquals(9, plan.getColumnIndex(1));
+        assertEquals(selectIndexMap, plan.getSelectIndexMap());
+        assertEquals(propertyCache, plan.getPropertyCache());
+    }
+
+    // ===================================================================================
+    //                                                                       Relation Plan
+    //                                                                       =============
+    public void test_createRelationPlan_bySelectIndex() throws Exception {
+        // ## Arrange ##
+        MockResultSet rs = new MockResultSet() {
+            @Override
+            public int findColumn(String columnLabel) throws SQLException {
+                fail("should not be called: " + columnLabel);
+                return -1; // unreachable
+            }
+        };
+        Map<String, TnPropertyMapping> propertyCacheElement = new LinkedHashMap<String, TnPropertyMapping>();
+        propertyCacheElement.put("MEMBER_STATUS_CODE_0", new MockPropertyMapping("memberStatusCode"));
+        Map<String, Map<String, Integer>> selectIndexMap = new LinkedHashMap<String, Map<String, Integer>>();
+        Map<String, Integer> relationMap = new LinkedHashMap<String, Integer>();
+        relationMap.put("MEMBER_STATUS_CODE_0", 5);
+        selectIndexMap.put("_0", relationMap);
+
+        // ## Act ##
+        TnRowMappingPlan plan = TnRowMappingPlan.createRelationPlan(rs, "_0", selectIndexMap, propertyCacheElement);
+
+        // ## Assert ##
+        assertEquals(1, plan.size());
+        assertEquals("MEMBER_STATUS_CODE_0", plan.getColumnName(0));
+        assertEquals(5, plan.getColumnIndex(0));
+        assertEquals("index:5", plan.getValue(rs, 0));
+    }
+
+    // ===================================================================================
+    //                                                                       Deriving Plan
+    //                                                                       =============
+    public void test_prepareDeriving_bySelectIndex() throws Exception {
+        // ## Arrange ##
+        final List<String> foundList = new ArrayList<String>();
+        MockResultSet rs = new MockResultSet() {
+            @Override
+            public int findColumn(String columnLabel) throws SQLException {
+                foundList.add(columnLabel);
+                return 7;
+            }
+        };
+        Map<String, TnPropertyMapping> propertyCache = new LinkedHashMap<String, TnPropertyMapping>();
+        propertyCache.put("MEMBER_ID", new MockPropertyMapping("memberId"));
+        Map<String, Map<String, Integer>> selectIndexMap = new LinkedHashMap<String, Map<String, Integer>>();
+        Map<String, Integer> localMap = new LinkedHashMap<String, Integer>();
+        localMap.put("MEMBER_ID", 1);
+        localMap.put("$MAX_PRICE", 4);
+        selectIndexMap.put(SqlClause.BASE_POINT_HANDLING_ENTITY_NO, localMap);
+        TnRowMappingPlan plan = TnRowMappingPlan.createLocalPlan(rs, selectIndexMap, propertyCache);
+        List<String> aliasList = new ArrayList<String>();
+        aliasList.add("$MAX_PRICE");
+        aliasList.add("$UNKNOWN_COUNT");
+        List<HpDerivingSubQueryInfo> infoList = new ArrayList<HpDerivingSubQueryInfo>();
+        infoList.add(null);
+        infoList.add(null);
+        List<ValueType> valueTypeList = new ArrayList<ValueType>();
+        valueTypeList.add(new MockPropertyMapping("maxPrice").getValueType());
+        valueTypeList.add(new MockPropertyMapping("unknownCount").getValueType());
+        assertFalse(plan.isDerivingPrepared());
+        assertEquals(0, plan.derivingSize());
+
+        // ## Act ##
+        plan.prepareDeriving(rs, aliasList, infoList, valueTypeList);
+
+        // ## Assert ##
+        assertTrue(plan.isDerivingPrepared());
+        assertEquals(2, plan.derivingSize());
+        assertEquals("$MAX_PRICE", plan.getDerivingAlias(0));
+        assertEquals(4, plan.getDerivingColumnIndex(0));
+        assertEquals(7, plan.getDerivingColumnIndex(1));
+        assertEquals("index:4", plan.getDerivingValue(rs, 0));
+        assertEquals("index:7", plan.getDerivingValue(rs, 1));
+        assertEquals(1, foundList.size()); // only the alias that has no select index
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    protected static class MockPropertyMapping implements TnPropertyMapping {
+
+        protected final String _propertyName;
+
+        public MockPropertyMapping(String propertyName) {
+            _propertyName = propertyName;
+        }
+
+        public DfPropertyAccessor getPropertyAccessor() {
+            return null;
+        }
+
+        public ValueType getValueType() {
+            return new MockValueType() {
+                @Override
+                public Object getValue(ResultSet resultSet, int index) throws SQLException {
+                    return "index:" + index;
+                }
+            };
+        }
+
+        public String getPropertyName() {
+            return _propertyName;
+        }
+
+        public String getColumnDbName() {
+            return null;
+        }
+
+        public ColumnSqlName getColumnSqlName() {
+            return null;
+        }
+
+        public ColumnInfo getEntityColumnInfo() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.sqlcommand;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.seasar.dbflute.bhv.UpdateOption;
+import org.seasar.dbflute.cbean.ConditionBean;
+import org.seasar.dbflute.dbmeta.name.ColumnSqlName;
+import org.seasar.dbflute.dbmeta.name.TableSqlName;
+import org.seasar.dbflute.mock.MockDBMeta;
+import org.seasar.dbflute.mock.MockEntity;
+import org.seasar.dbflute.s2dao.metadata.TnBeanMetaData;
+import org.seasar.dbflute.s2dao.metadata.TnPropertyType;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/09 Saturday)
+ */
+public class TnUpdateEntityDynamicCommandTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                          SQL Cache
+    //                                                                          =========
+    public void test_execute_sameMask_reuseSql() {
+        // ## Arrange ##
+        MockUpdateCommand command = createCommand();
+
+        // ## Act ##
+        command.executeModified("memberName", "birthdate");
+        command.executeModified("birthdate", "memberName"); // same columns in other order
+
+        // ## Assert ##
+        assertEquals(2, command._executedSqlList.size());
+        String firstSql = command._executedSqlList.get(0);
+        log(firstSql);
+        assertSame(firstSql, command._executedSqlList.get(1));
+        assertTrue(firstSql.startsWith("update MEMBER set MEMBER_NAME = ?, BIRTHDATE = ?"));
+        assertTrue(firstSql.contains("VERSION_NO = VERSION_NO + 1"));
+        assertTrue(firstSql.endsWith(" where MEMBER_ID = ? and VERSION_NO = ?"));
+        assertSame(command._boundTypesList.get(0), command._boundTypesList.get(1));
+        assertEquals(Arrays.asList("memberName", "birthdate", "versionNo"), command.getBoundPropertyNames(0));
+        assertEquals(1, command._updateSqlCache.size());
+    }
+
+    public void test_execute_differentModified_differentSql() {
+        // ## Arrange ##
+        MockUpdateCommand command = createCommand();
+
+        // ## Act ##
+        command.executeModified("memberName");
+        command.executeModified("memberName", "memberPoint");
+        command.executeModified("memberId", "memberName"); // primary key is not update column
+
+        // ## Assert ##
+        List<String> sqlList = command._executedSqlList;
+        assertEquals(3, sqlList.size());
+        assertNotSame(sqlList.get(0), sqlList.get(1));
+        assertFalse(sqlList.get(0).contains("MEMBER_POINT"));
+        assertTrue(sqlList.get(1).contains("MEMBER_POINT = ?"));
+        assertSame(sqlList.get(0), sqlList.get(2));
+        assertEquals(Arrays.asList("memberName", "versionNo"), command.getBoundPropertyNames(0));
+        assertEquals(Arrays.asList("memberName", "memberPoint", "versionNo"), command.getBoundPropertyNames(1));
+        assertEquals(2, command._updateSqlCache.size());
+    }
+
+    public void test_execute_optimisticLockOnly_notEmptyMask() {
+        // ## Arrange ##
+        MockUpdateCommand command = createCommand();
+
+        // ## Act ##
+        command.executeModified();
+
+        // ## Assert ##
+        assertEquals(1, command._executedSqlList.size());
+        String sql = command._executedSqlList.get(0);
+        log(sql);
+        assertTrue(sql.startsWith("update MEMBER set VERSION_NO = VERSION_NO + 1"));
+        assertEquals(Arrays.asList("versionNo"), command.getBoundPropertyNames(0));
+        assertEquals(1, command._updateSqlCache.size());
+    }
+
+    // ===================================================================================
+    //                                                                       Update Option
+    //                                                                       =============
+    public void test_execute_option_specifiedColumn_notCached() {
+        // ## Arrange ##
+        MockUpdateCommand command = createCommand();
+        MockUpdateOption option = new MockUpdateOption();
+        option._specifiedColumnSet.add("MEMBER_POINT");
+
+        // ## Act ##
+        command.executeModified(option, "memberName"); // modified properties are ignored
+        command.executeModified("memberName");
+
+        // ## Assert ##
+        List<String> sqlList = command._executedSqlList;
+        assertEquals(2, sqlList.size());
+        log(sqlList.get(0));
+        assertTrue(sqlList.get(0).startsWith("update MEMBER set MEMBER_POINT = ?"));
+        assertFalse(sqlList.get(0).contains("MEMBER_NAME"));
+        assertEquals(Arrays.asList("memberPoint", "versionNo"), command.getBoundPropertyNames(0));
+        assertTrue(sqlList.get(1).startsWith("update MEMBER set MEMBER_NAME = ?"));
+        assertEquals(1, command._updateSqlCache.size()); // only without option
+    }
+
+    public void test_execute_option_selfCalculation_notCached() {
+        // ## Arrange ##
+        MockUpdateCommand command = createCommand();
+        MockUpdateOption option = new MockUpdateOption();
+        option._statementMap.put("MEMBER_POINT", "MEMBER_POINT + 1");
+
+        // ## Act ##
+        command.executeModified(option, "memberName");
+        command.executeModified("memberName");
+
+        // ## Assert ##
+        List<String> sqlList = command._executedSqlList;
+        assertEquals(2, sqlList.size());
+        log(sqlList.get(0));
+        assertTrue(sqlList.get(0).contains("MEMBER_NAME = ?"));
+        assertTrue(sqlList.get(0).contains("MEMBER_POINT = MEMBER_POINT + 1"));
+        assertFalse(sqlList.get(1).contains("MEMBER_POINT"));
+        assertEquals(1, command._updateSqlCache.size()); // only without option
+    }
+
+    // ===================================================================================
+    //                                                                         Cache Limit
+    //                                                                         ===========
+    public void test_execute_cacheLimit() {
+        // ## Arrange ##
+        MockUpdateCommand command = createCommand();
+        for (int i = 0; i < TnUpdateEntityDynamicCommand.UPDATE_SQL_CACHE_LIMIT; i++) {
+            BitSet dummyMask = new BitSet();
+            dummyMask.set(100 + i); // out of real ordinals
+            command._updateSqlCache.put(dummyMask, new TnUpdateEntityDynamicCommand.UpdateSqlResource("dummy",
+                    new TnPropertyType[] {}));
+        }
+
+        // ## Act ##
+        command.executeModified("memberName");
+        command.executeModified("memberName");
+
+        // ## Assert ##
+        List<String> sqlList = command._executedSqlList;
+        assertEquals(2, sqlList.size());
+        assertTrue(sqlList.get(0).startsWith("update MEMBER set MEMBER_NAME = ?"));
+        assertEquals(sqlList.get(0), sqlList.get(1));
+        assertNotSame(sqlList.get(0), sqlList.get(1)); // created every time
+        assertEquals(TnUpdateEntityDynamicCommand.UPDATE_SQL_CACHE_LIMIT, command._updateSqlCache.size());
+    }
+
+    // ===================================================================================
+    //                                                                        Batch Update
+    //                                                                        ============
+    public void test_createUpdateColumnMask_batch_returnsNull() {
+        // ## Arrange ##
+        TnBatchUpdateDynamicCommand command = new TnBatchUpdateDynamicCommand(null, null) {
+            @Override
+            protected void assertObjectNotNull(String variableName, Object value) {
+                // for no check of constructor
+            }
+        };
+        setupCommand(command);
+        List<MockEntity> entityList = new ArrayList<MockEntity>();
+        entityList.add(new MockEntity());
+
+        // ## Act ##
+        // ## Assert ##
+        assertNull(command.createUpdateColumnMask(entityList, null));
+        assertNull(command.createUpdateColumnMask(new MockEntity(), null));
+        assertTrue(command._updateSqlCache.isEmpty());
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    protected MockUpdateCommand createCommand() {
+        MockUpdateCommand command = new MockUpdateCommand();
+        setupCommand(command);
+        return command;
+    }
+
+    protected void setupCommand(TnUpdateEntityDynamicCommand command) {
+        final Map<String, TnPropertyType> propertyTypeMap = new LinkedHashMap<String, TnPropertyType>();
+        propertyTypeMap.put("memberId", newPropertyType("memberId", "MEMBER_ID", true));
+        propertyTypeMap.put("memberName", newPropertyType("memberName", "MEMBER_NAME", false));
+        propertyTypeMap.put("birthdate", newPropertyType("birthdate", "BIRTHDATE", false));
+        propertyTypeMap.put("memberPoint", newPropertyType("memberPoint", "MEMBER_POINT", false));
+        propertyTypeMap.put("versionNo", newPropertyType("versionNo", "VERSION_NO", false));
+        command.setBeanMetaData(newBeanMetaData(propertyTypeMap));
+        command.setTargetDBMeta(new MockDBMeta() {
+            @Override
+            public String getTableDbName() {
+                return "MEMBER";
+            }
+
+            @Override
+            public TableSqlName getTableSqlName() {
+                return new TableSqlName("MEMBER", "MEMBER");
+            }
+        });
+        command.setPropertyNames(propertyTypeMap.keySet().toArray(new String[propertyTypeMap.size()]));
+        command.setOptimisticLockHandling(true);
+    }
+
+    protected TnPropertyType newPropertyType(final String propertyName, final String columnDbName,
+            final boolean primaryKey) {
+        return newMock(TnPropertyType.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                final String name = method.getName();
+                if (name.equals("getPropertyName")) {
+                    return propertyName;
+                } else if (name.equals("getColumnDbName")) {
+                    return columnDbName;
+                } else if (name.equals("getColumnSqlName")) {
+                    return new ColumnSqlName(columnDbName);
+                } else if (name.equals("isPrimaryKey")) {
+                    return primaryKey;
+                } else if (name.equals("toString")) {
+                    return propertyName;
+                }
+                return handleObjectMethod(proxy, method, args);
+            }
+        });
+    }
+
+    protected TnBeanMetaData newBeanMetaData(final Map<String, TnPropertyType> propertyTypeMap) {
+        return newMock(TnBeanMetaData.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                final String name = method.getName();
+                if (name.equals("getPropertyType")) {
+                    return propertyTypeMap.get(args[0]);
+                } else if (name.equals("getVersionNoPropertyName")) {
+                    return "versionNo";
+                } else if (name.equals("getVersionNoPropertyType")) {
+                    return propertyTypeMap.get("versionNo");
+                } else if (name.equals("hasVersionNoPropertyType")) {
+                    return true;
+                } else if (name.equals("getTimestampPropertyName")) {
+                    return null;
+                } else if (name.equals("hasTimestampPropertyType")) {
+                    return false;
+                } else if (name.equals("getPrimaryKeySize")) {
+                    return 1;
+                } else if (name.equals("getPrimaryKeySqlName")) {
+                    return new ColumnSqlName("MEMBER_ID");
+                }
+                return handleObjectMethod(proxy, method, args);
+            }
+        });
+    }
+
+    protected Object handleObjectMethod(Object proxy, Method method, Object[] args) {
+        final String name = method.getName();
+        if (name.equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        } else if (name.equals("equals")) {
+            return proxy == args[0];
+        } else if (name.equals("toString")) {
+            return "mock@" + Integer.toHexString(System.identityHashCode(proxy));
+        }
+        throw new UnsupportedOperationException(method.getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <MOCK> MOCK newMock(Class<MOCK> mockType, InvocationHandler handler) {
+        return (MOCK) Proxy.newProxyInstance(mockType.getClassLoader(), new Class<?>[] { mockType }, handler);
+    }
+
+    protected static class MockUpdateCommand extends TnUpdateEntityDynamicCommand {
+
+        protected final List<String> _executedSqlList = new ArrayList<String>();
+        protected final List<TnPropertyType[]> _boundTypesList = new ArrayList<TnPropertyType[]>();
+        protected Set<String> _modifiedSet;
+
+        public MockUpdateCommand() {
+            super(null, null);
+        }
+
+        @Override
+        protected void assertObjectNotNull(String variableName, Object value) {
+            // for no check of constructor
+        }
+
+        public Object executeModified(String... modifiedProperties) {
+            return executeModified(null, modifiedProperties);
+        }
+
+        public Object executeModified(UpdateOption<ConditionBean> option, String... modifiedProperties) {
+            _modifiedSet = new LinkedHashSet<String>(Arrays.asList(modifiedProperties));
+            return execute(new Object[] { new MockEntity(), option });
+        }
+
+        @Override
+        protected Set<String> getModifiedPropertyNames(Object bean) {
+            return _modifiedSet;
+        }
+
+        @Override
+        protected Object doExecute(Object bean, TnPropertyType[] propertyTypes, String sql,
+                UpdateOption<ConditionBean> option) {
+            _executedSqlList.add(sql);
+            _boundTypesList.add(propertyTypes);
+            return Integer.valueOf(1);
+        }
+
+        public List<String> getBoundPropertyNames(int index) {
+            final List<String> nameList = new ArrayList<String>();
+            for (TnPropertyType pt : _boundTypesList.get(index)) {
+                nameList.add(pt.getPropertyName());
+            }
+            return nameList;
+        }
+
+        @Override
+        protected String encryptIfNeeds(String tableDbName, String columnDbName, String valueExp) {
+            return valueExp; // no cipher in the tests
+        }
+    }
+
+    protected static class MockUpdateOption extends UpdateOption<ConditionBean> {
+
+        protected final Set<String> _specifiedColumnSet = new LinkedHashSet<String>();
+        protected final Map<String, String> _statementMap = new LinkedHashMap<String, String>();
+
+        @Override
+        public boolean hasSpecifiedUpdateColumn() {
+            return !_specifiedColumnSet.isEmpty();
+        }
+
+        @Override
+        public boolean isSpecifiedUpdateColumn(String columnDbName) {
+            return _specifiedColumnSet.contains(columnDbName);
+        }
+
+        @Override
+        public boolean hasStatement(String columnDbName) {
+            return _statementMap.containsKey(columnDbName);
+        }
+
+        @Override
+        public String buildStatement(String columnDbName) {
+            return _statementMap.get(columnDbName);
+        }
+    }
+}
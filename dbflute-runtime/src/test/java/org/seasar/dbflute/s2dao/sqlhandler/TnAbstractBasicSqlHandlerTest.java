@@ -15,17 +15,26 @@
  */
 package org.seasar.dbflute.s2dao.sqlhandler;
 
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.seasar.dbflute.CallbackContext;
+import org.seasar.dbflute.jdbc.ClobHandle;
 import org.seasar.dbflute.jdbc.SqlLogHandler;
 import org.seasar.dbflute.jdbc.SqlLogInfo;
 import org.seasar.dbflute.jdbc.SqlResultHandler;
 import org.seasar.dbflute.jdbc.SqlResultInfo;
+import org.seasar.dbflute.jdbc.ValueType;
 import org.seasar.dbflute.mock.MockBehaviorCommand;
 import org.seasar.dbflute.resource.InternalMapContext;
 import org.seasar.dbflute.resource.ResourceContext;
+import org.seasar.dbflute.s2dao.valuetype.plugin.StringClobType;
 import org.seasar.dbflute.unit.core.PlainTestCase;
 
 /**
@@ -317,6 +326,49 @@ public class TnAbstractBasicSqlHandlerTest extends PlainTestCase {
         assertEquals("saveResultSqlLogInfo", markList.get(4));
     }
 
+    public void test_bindArgs_clobHandle_closedWithStatement() {
+        // ## Arrange ##
+        final List<String> markList = new ArrayList<String>();
+        TnAbstractBasicSqlHandler handler = new TnAbstractBasicSqlHandler(null, null, "insert ...") {
+            @Override
+            protected void assertObjectNotNull(String variableName, Object value) {
+                // for no check of constructor
+            }
+        };
+        ClobHandle handle = new ClobHandle() {
+            public Reader openReader() {
+                return new StringReader("foo") {
+                    @Override
+                    public void close() {
+                        markList.add("closeReader");
+                        super.close();
+                    }
+                };
+            }
+
+            public long length() {
+                return 3;
+            }
+        };
+        PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        markList.add(method.getName());
+                        return null;
+                    }
+                });
+
+        // ## Act ##
+        handler.bindArgs(null, ps, new Object[] { handle }, new ValueType[] { new StringClobType() });
+
+        // ## Assert ##
+        assertEquals(newArrayList("setCharacterStream"), markList); // not closed until executed
+        handler.close(ps);
+        assertEquals(newArrayList("setCharacterStream", "close", "closeReader"), markList);
+        handler.close(ps);
+        assertEquals(4, markList.size()); // closed only once
+    }
+
     protected void prepareMockBehaviorCommand() {
         MockBehaviorCommand behaviorCommand = new MockBehaviorCommand();
         ResourceContext resourceContext = new ResourceContext();
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.sqlhandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.seasar.dbflute.DBDef;
+import org.seasar.dbflute.bhv.UpdateOption;
+import org.seasar.dbflute.cbean.ConditionBean;
+import org.seasar.dbflute.exception.EntityAlreadyDeletedException;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/04 Monday)
+ */
+public class TnAbstractBatchHandlerTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                         Batch Chunk
+    //                                                                         ===========
+    public void test_executeBatch_noChunk() {
+        // ## Arrange ##
+        List<String> markList = new ArrayList<String>();
+        TnAbstractBatchHandler handler = createMockHandler(markList, null);
+
+        // ## Act ##
+        int[] result = handler.executeBatch(Arrays.asList("a", "b", "c"));
+
+        // ## Assert ##
+        assertEquals(3, result.length);
+        assertEquals(Arrays.asList("add:a", "add:b", "add:c", "execute:3", "success:a:0", "success:b:1",
+                "success:c:2"), markList);
+    }
+
+    public void test_executeBatch_chunk() {
+        // ## Arrange ##
+        List<String> markList = new ArrayList<String>();
+        TnAbstractBatchHandler handler = createMockHandler(markList, 2);
+
+        // ## Act ##
+        int[] result = handler.executeBatch(Arrays.asList("a", "b", "c", "d", "e"));
+
+        // ## Assert ##
+        assertEquals(5, result.length);
+        for (int updateCount : result) {
+            assertEquals(1, updateCount);
+        }
+        assertEquals(Arrays.asList("add:a", "add:b", "execute:2" // 1st
+                , "add:c", "add:d", "execute:2" // 2nd
+                , "add:e", "execute:1" // rest
+                , "success:a:0", "success:b:1", "success:c:2", "success:d:3", "success:e:4" // once
+        ), markList);
+    }
+
+    public void test_executeBatch_chunk_exactMultiple() {
+        // ## Arrange ##
+        List<String> markList = new ArrayList<String>();
+        TnAbstractBatchHandler handler = createMockHandler(markList, 2);
+
+        // ## Act ##
+        int[] result = handler.executeBatch(Arrays.asList("a", "b", "c", "d"));
+
+        // ## Assert ##
+        assertEquals(4, result.length);
+        assertEquals(Arrays.asList("add:a", "add:b", "execute:2", "add:c", "add:d", "execute:2" // no empty chunk
+                , "success:a:0", "success:b:1", "success:c:2", "success:d:3"), markList);
+    }
+
+    public void test_executeBatch_chunk_alreadyDeleted() {
+        // ## Arrange ##
+        final List<String> markList = new ArrayList<String>();
+        TnAbstractBatchHandler handler = new MockBatchHandler(markList, 2) {
+            @Override
+            protected int[] executeBatch(PreparedStatement ps, List<?> list) {
+                markList.add("execute:" + list.size());
+                return list.contains("d") ? new int[] { 1, 0 } : new int[] { 1, 1 };
+            }
+        };
+
+        // ## Act ##
+        try {
+            handler.executeBatch(Arrays.asList("a", "b", "c", "d", "e"));
+
+            // ## Assert ##
+            fail();
+        } catch (EntityAlreadyDeletedException e) {
+            log(e.getMessage());
+            assertContains(e.getMessage(), "entity=d");
+        }
+        assertEquals(Arrays.asList("add:a", "add:b", "execute:2" // 1st
+                , "add:c", "add:d", "execute:2"), markList); // 2nd fails so no success process
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    protected TnAbstractBatchHandler createMockHandler(List<String> markList, Integer chunkSize) {
+        return new MockBatchHandler(markList, chunkSize);
+    }
+
+    protected static class MockBatchHandler extends TnAbstractBatchHandler {
+
+        protected final List<String> _markList;
+
+        public MockBatchHandler(List<String> markList, Integer chunkSize) {
+            super(null, null, null, null, null);
+            _markList = markList;
+            UpdateOption<ConditionBean> option = new UpdateOption<ConditionBean>();
+            option.chunkBatchUpdate(chunkSize);
+            setUpdateOption(option);
+        }
+
+        @Override
+        protected void assertObjectNotNull(String variableName, Object value) {
+            // for no check of constructor
+        }
+
+        @Override
+        protected Connection getConnection() {
+            return null;
+        }
+
+        @Override
+        protected PreparedStatement prepareStatement(Connection conn) {
+            return null;
+        }
+
+        @Override
+        protected void prepareBatchElement(Connection conn, PreparedStatement ps, Object bean) {
+            _markList.add("add:" + bean);
+        }
+
+        @Override
+        protected String handleBatchLogging() {
+            return null;
+        }
+
+        @Override
+        protected int[] executeBatch(PreparedStatement ps, List<?> list) {
+            _markList.add("execute:" + list.size());
+            final int[] result = new int[list.size()];
+            Arrays.fill(result, 1);
+            return result;
+        }
+
+        @Override
+        protected boolean isCurrentDBDef(DBDef currentDBDef) {
+            return false;
+        }
+
+        @Override
+        protected void processBatchSuccess(Object bean, int index) {
+            _markList.add("success:" + bean + ":" + index);
+        }
+
+        @Override
+        protected void setupBindVariables(Object bean) {
+        }
+
+        @Override
+        protected Integer getBatchLoggingLimit() {
+            return null;
+        }
+
+        @Override
+        protected Integer getBatchChunkSize() {
+            return _updateOption.getBatchUpdateChunkSize();
+        }
+    }
+}
@@ -33,8 +33,10 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.seasar.dbflute.DBDef;
+import org.seasar.dbflute.jdbc.BlobHandle;
 import org.seasar.dbflute.jdbc.Classification;
 import org.seasar.dbflute.jdbc.ClassificationMeta;
+import org.seasar.dbflute.jdbc.ClobHandle;
 import org.seasar.dbflute.jdbc.ValueType;
 import org.seasar.dbflute.mock.MockValueType;
 import org.seasar.dbflute.resource.ResourceContext;
@@ -45,6 +47,8 @@ import org.seasar.dbflute.s2dao.valuetype.basic.LongType;
 import org.seasar.dbflute.s2dao.valuetype.basic.ObjectType;
 import org.seasar.dbflute.s2dao.valuetype.basic.SqlDateType;
 import org.seasar.dbflute.s2dao.valuetype.basic.StringType;
+import org.seasar.dbflute.s2dao.valuetype.plugin.BlobHandleType.LocatorBlobHandle;
+import org.seasar.dbflute.s2dao.valuetype.plugin.ClobHandleType.LocatorClobHandle;
 import org.seasar.dbflute.unit.core.PlainTestCase;
 import org.seasar.dbflute.util.DfCollectionUtil;
 
@@ -287,6 +291,15 @@ public class TnValueTypesTest extends PlainTestCase {
         fireSameExecution(creator);
     }
 
+    public void test_getValueType_byClassType_lobHandle() throws Exception {
+        assertEquals(TnValueTypes.CLOB_HANDLE, TnValueTypes.getValueType(ClobHandle.class));
+        assertEquals(TnValueTypes.CLOB_HANDLE, TnValueTypes.getValueType(LocatorClobHandle.class));
+        assertEquals(TnValueTypes.BLOB_HANDLE, TnValueTypes.getValueType(BlobHandle.class));
+        assertEquals(TnValueTypes.BLOB_HANDLE, TnValueTypes.getValueType(LocatorBlobHandle.class));
+        assertEquals(TnValueTypes.CLOB_HANDLE, TnValueTypes.getPluginValueType("clobHandleType"));
+        assertEquals(TnValueTypes.BLOB_HANDLE, TnValueTypes.getPluginValueType("blobHandleType"));
+    }
+
     public void test_getValueType_byClassType_object_basic() throws Exception {
         assertEquals(ObjectType.class, TnValueTypes.getValueType(Object.class).getClass());
         assertEquals(ObjectType.class, TnValueTypes.getValueType(FileFilter.class).getClass());
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.valuetype.plugin;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Clob;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.rowset.serial.SerialClob;
+
+import org.seasar.dbflute.jdbc.ClobHandle;
+import org.seasar.dbflute.mock.MockResultSet;
+import org.seasar.dbflute.s2dao.valuetype.plugin.ClobHandleType.LocatorClobHandle;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+import org.seasar.dbflute.util.DfResourceUtil;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/16 Saturday)
+ */
+public class ClobHandleTypeTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                           Get Value
+    //                                                                           =========
+    public void test_getValue_lazy() throws Exception {
+        // ## Arrange ##
+        ClobHandleType type = new ClobHandleType();
+        final Clob clob = new SerialClob("Pixy Sea".toCharArray());
+        MockResultSet rs = new MockResultSet() {
+            @Override
+            public Clob getClob(int columnIndex) throws SQLException {
+                return columnIndex == 1 ? clob : null;
+            }
+        };
+
+        // ## Act ##
+        Object value = type.getValue(rs, 1);
+
+        // ## Assert ##
+        assertTrue(value instanceof LocatorClobHandle);
+        LocatorClobHandle handle = (LocatorClobHandle) value;
+        assertSame(clob, handle.getClob());
+        assertEquals(8L, handle.length());
+        assertEquals("Pixy Sea", DfResourceUtil.readText(handle.openReader()));
+        assertEquals("Pixy Sea", handle.readText());
+        assertNull(type.getValue(rs, 2));
+    }
+
+    // ===================================================================================
+    //                                                                          Bind Value
+    //                                                                          ==========
+    public void test_bindValue_stream() throws Exception {
+        // ## Arrange ##
+        ClobHandleType type = new ClobHandleType();
+        final List<Object[]> callList = new ArrayList<Object[]>();
+        PreparedStatement ps = createRecordingStatement(callList);
+        final Reader reader = new StringReader("Pixy");
+
+        // ## Act ##
+        type.bindValue(null, ps, 1, new ClobHandle() {
+            public Reader openReader() throws SQLException {
+                return reader;
+            }
+
+            public long length() throws SQLException {
+                return 4L;
+            }
+        });
+        type.bindValue(null, ps, 2, reader);
+        type.bindValue(null, ps, 3, "Sea");
+
+        // ## Assert ##
+        assertEquals(3, callList.size());
+        Object[] first = callList.get(0);
+        assertEquals(1, first[0]);
+        assertSame(reader, first[1]); // not buffered
+        assertEquals(4L, first[2]);
+        Object[] second = callList.get(1);
+        assertEquals(2, second[0]);
+        assertSame(reader, second[1]);
+        assertEquals(2, second.length); // without length
+        Object[] third = callList.get(2);
+        assertEquals(3, third[0]);
+        assertEquals(3, third[2]); // string as before
+    }
+
+    protected PreparedStatement createRecordingStatement(final List<Object[]> callList) {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getName().equals("setCharacterStream")) {
+                            callList.add(args);
+                            return null;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -949,6 +949,93 @@ public class IfCommentEvaluatorTest extends PlainTestCase {
         }
     }
 
+    // ===================================================================================
+    //                                                                            Compiled
+    //                                                                            ========
+    public void test_evaluate_compiled_reuse() {
+        // ## Arrange ##
+        String expression = "pmb.memberId > 2 && pmb.nextPmb.existsLogin";
+        BasePmb firstPmb = new BasePmb();
+        firstPmb.setMemberId(3);
+        firstPmb.setNextPmb(new NextPmb());
+        firstPmb.getNextPmb().setExistsLogin(true);
+        IfCommentEvaluator firstEvaluator = createEvaluator(firstPmb, expression);
+        assertTrue(firstEvaluator.evaluate());
+        CompiledIfComment compiled = firstEvaluator.prepareCompiledIfComment();
+
+        // ## Act ##
+        BasePmb secondPmb = new BasePmb();
+        secondPmb.setMemberId(3);
+        secondPmb.setNextPmb(new NextPmb());
+        IfCommentEvaluator secondEvaluator = createEvaluator(secondPmb, expression, compiled);
+
+        // ## Assert ##
+        assertFalse(secondEvaluator.evaluate());
+        assertSame(compiled, secondEvaluator.prepareCompiledIfComment());
+        assertFalse(compiled.isOrConnected());
+        assertEquals(2, compiled.getClauseList().size());
+        secondPmb.setNextPmb(null);
+        try {
+            secondEvaluator.evaluate();
+            fail();
+        } catch (IfCommentNullPointerException e) {
+            // OK
+            log(e.getMessage());
+        }
+    }
+
+    public void test_evaluate_compiled_differentType() {
+        // ## Arrange ##
+        String expression = "pmb.memberName == 'Pixy' || pmb.code() == 'Pixy'";
+        BasePmb basePmb = new BasePmb();
+        basePmb.setMemberName("Pixy");
+        IfCommentEvaluator baseEvaluator = createEvaluator(basePmb, expression);
+        assertTrue(baseEvaluator.evaluate());
+        CompiledIfComment compiled = baseEvaluator.prepareCompiledIfComment();
+
+        // ## Act & Assert ##
+        BasePmb extendedPmb = new BasePmb() {
+        }; // different type from the cached accessor
+        extendedPmb.setMemberName("Pixy");
+        assertTrue(createEvaluator(extendedPmb, expression, compiled).evaluate());
+        basePmb.setMemberName("Sea");
+        try {
+            createEvaluator(basePmb, expression, compiled).evaluate();
+            fail();
+        } catch (IfCommentNotFoundMethodException e) {
+            // OK
+            log(e.getMessage());
+        }
+        assertTrue(createEvaluator(new MyCDef(), "pmb.code() == 'Pixy'", null).evaluate());
+    }
+
+    public void test_evaluate_compiled_throughput() {
+        // ## Arrange ##
+        String expression = "pmb.memberId != null && pmb.memberName == 'Pixy' && pmb.nextPmb.displayOrder >= 2";
+        BasePmb pmb = new BasePmb();
+        pmb.setMemberId(3);
+        pmb.setMemberName("Pixy");
+        pmb.setNextPmb(new NextPmb());
+        pmb.getNextPmb().setDisplayOrder(2);
+        CompiledIfComment compiled = createEvaluator(pmb, expression).prepareCompiledIfComment();
+        int loopCount = 100000;
+
+        // ## Act ##
+        long beforePlain = System.currentTimeMillis();
+        for (int i = 0; i < loopCount; i++) {
+            assertTrue(createEvaluator(pmb, expression).evaluate());
+        }
+        long plainCost = System.currentTimeMillis() - beforePlain;
+        long beforeCompiled = System.currentTimeMillis();
+        for (int i = 0; i < loopCount; i++) {
+            assertTrue(createEvaluator(pmb, expression, compiled).evaluate());
+        }
+        long compiledCost = System.currentTimeMillis() - beforeCompiled;
+
+        // ## Assert ##
+        log("plain: " + plainCost + "ms, compiled: " + compiledCost + "ms (" + loopCount + " times)");
+    }
+
     // ===================================================================================
     //                                                                         Test Helper
     //                                                                         ===========
@@ -960,6 +1047,14 @@ public class IfCommentEvaluatorTest extends PlainTestCase {
         }, expression, "select foo from bar", null);
     }
 
+    protected IfCommentEvaluator createEvaluator(final Object pmb, String expression, CompiledIfComment compiled) {
+        return new IfCommentEvaluator(new ParameterFinder() {
+            public Object find(String name) {
+                return pmb;
+            }
+        }, expression, "select foo from bar", null, compiled);
+    }
+
     protected static class BasePmb implements ParameterBean {
         private Integer _memberId;
         private String _memberName;
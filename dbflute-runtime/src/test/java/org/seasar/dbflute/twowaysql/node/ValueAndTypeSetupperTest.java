@@ -377,6 +377,123 @@ public class ValueAndTypeSetupperTest extends PlainTestCase {
         assertNull(valueAndType.getLikeSearchOption());
     }
 
+    // ===================================================================================
+    //                                                                       Compiled Path
+    //                                                                       =============
+    public void test_setupValueAndType_compiled_basic() {
+        // ## Arrange ##
+        MockPmb nestPmb = new MockPmb();
+        nestPmb.setMemberName("f|o%o");
+        MockPmb pmb = new MockPmb();
+        pmb.setNestLikePmb(nestPmb);
+        pmb.setNestLikePmbInternalLikeSearchOption(new LikeSearchOption().likePrefix());
+        ValueAndTypeSetupper first = createTargetAsBind("pmb.nestLikePmb.memberName", null);
+        first.setupValueAndType(createTargetAndType(pmb));
+        CompiledValuePath compiledPath = first.getRecompiledPath();
+        ValueAndTypeSetupper second = createTargetAsBind("pmb.nestLikePmb.memberName", compiledPath);
+        ValueAndType valueAndType = createTargetAndType(pmb);
+
+        // ## Act ##
+        second.setupValueAndType(valueAndType);
+        valueAndType.filterValueByOptionIfNeeds();
+
+        // ## Assert ##
+        assertEquals(2, compiledPath.getCompiledCount());
+        assertNull(second.getRecompiledPath()); // all steps are compiled
+        assertEquals("f||o|%o%", valueAndType.getTargetValue());
+        assertEquals(String.class, valueAndType.getTargetType());
+        assertEquals(" escape '|'", valueAndType.getLikeSearchOption().getRearOption());
+    }
+
+    public void test_setupValueAndType_compiled_differentType() {
+        // ## Arrange ##
+        MockPmb pmb = new MockPmb();
+        pmb.setMemberId(3);
+        ValueAndTypeSetupper first = createTargetAsBind("pmb.memberId", null);
+        first.setupValueAndType(createTargetAndType(pmb));
+        CompiledValuePath compiledPath = first.getRecompiledPath();
+        Map<String, Object> mapPmb = DfCollectionUtil.newHashMap();
+        mapPmb.put("memberId", 4);
+        ValueAndTypeSetupper second = createTargetAsBind("pmb.memberId", compiledPath);
+        ValueAndType valueAndType = createTargetAndType(mapPmb);
+
+        // ## Act ##
+        second.setupValueAndType(valueAndType);
+
+        // ## Assert ##
+        assertEquals(4, valueAndType.getTargetValue()); // by generic way
+        assertNull(second.getRecompiledPath()); // map is not compiled
+        assertNotNull(compiledPath.findStep(1, MockPmb.class));
+        assertNull(compiledPath.findStep(1, mapPmb.getClass()));
+    }
+
+    public void test_setupValueAndType_compiled_nullMiddle() {
+        // ## Arrange ##
+        MockPmb pmb = new MockPmb();
+        ValueAndTypeSetupper first = createTargetAsBind("pmb.nestPmb.memberId", null);
+        first.setupValueAndType(createTargetAndType(pmb)); // nestPmb is null
+        CompiledValuePath compiledPath = first.getRecompiledPath();
+        MockPmb nestPmb = new MockPmb();
+        nestPmb.setMemberId(3);
+        pmb.setNestPmb(nestPmb);
+        ValueAndTypeSetupper second = createTargetAsBind("pmb.nestPmb.memberId", compiledPath);
+        ValueAndType valueAndType = createTargetAndType(pmb);
+
+        // ## Act ##
+        second.setupValueAndType(valueAndType);
+
+        // ## Assert ##
+        assertEquals(3, valueAndType.getTargetValue());
+        assertEquals(1, compiledPath.getCompiledCount());
+        assertEquals(2, second.getRecompiledPath().getCompiledCount()); // grown
+    }
+
+    public void test_setupValueAndType_compiled_throughput() {
+        // ## Arrange ##
+        // 20 conditions of condition-bean, e.g. pmb.conditionQuery.memberName.equal
+        MockCB cb = new MockCB();
+        List<String> expList = DfCollectionUtil.newArrayList();
+        for (String column : new String[] { "memberId", "memberName", "birthdate", "statusCode", "updateUser" }) {
+            for (String operand : new String[] { "equal", "greaterThan", "lessThan", "likeSearch" }) {
+                expList.add("pmb.conditionQuery." + column + "." + operand);
+            }
+        }
+        int loopCount = 10000;
+
+        // ## Act ##
+        long beforeGeneric = System.currentTimeMillis();
+        for (int i = 0; i < loopCount; i++) {
+            for (String exp : expList) {
+                createTargetAsBind(exp, null).setupValueAndType(createTargetAndType(cb));
+            }
+        }
+        long genericCost = System.currentTimeMillis() - beforeGeneric;
+        Map<String, CompiledValuePath> pathMap = DfCollectionUtil.newHashMap(); // as nodes
+        long beforeCompiled = System.currentTimeMillis();
+        for (int i = 0; i < loopCount; i++) {
+            for (String exp : expList) {
+                ValueAndTypeSetupper setupper = createTargetAsBind(exp, pathMap.get(exp));
+                setupper.setupValueAndType(createTargetAndType(cb));
+                CompiledValuePath recompiled = setupper.getRecompiledPath();
+                if (recompiled != null) {
+                    pathMap.put(exp, recompiled);
+                }
+            }
+        }
+        long compiledCost = System.currentTimeMillis() - beforeCompiled;
+
+        // ## Assert ##
+        log("generic: " + genericCost + "ms, compiled: " + compiledCost + "ms (" + loopCount + " times)");
+        assertEquals(20, pathMap.size());
+        for (CompiledValuePath compiledPath : pathMap.values()) {
+            assertEquals(3, compiledPath.getCompiledCount());
+        }
+        ValueAndType valueAndType = createTargetAndType(cb);
+        createTargetAsBind("pmb.conditionQuery.memberName.likeSearch", pathMap.get(expList.get(7)))
+                .setupValueAndType(valueAndType);
+        assertEquals("memberName:likeSearch", valueAndType.getTargetValue());
+    }
+
     // ===================================================================================
     //                                                                         Test Helper
     //                                                                         ===========
@@ -385,6 +502,12 @@ public class ValueAndTypeSetupperTest extends PlainTestCase {
         return new ValueAndTypeSetupper(Srl.splitList(expression, "."), expression, "select * from ...", type);
     }
 
+    protected ValueAndTypeSetupper createTargetAsBind(String expression, CompiledValuePath compiledPath) {
+        CommentType type = CommentType.BIND;
+        List<String> nameList = Srl.splitList(expression, ".");
+        return new ValueAndTypeSetupper(nameList, expression, "select * from ...", type, compiledPath);
+    }
+
     protected ValueAndTypeSetupper createTargetAsForComment(String expression) {
         CommentType type = CommentType.FORCOMMENT;
         return new ValueAndTypeSetupper(Srl.splitList(expression, "."), expression, "select * from ...", type);
@@ -471,4 +594,64 @@ public class ValueAndTypeSetupperTest extends PlainTestCase {
             this._nestLikePmbInternalLikeSearchOption = nestLikePmbInternalLikeSearchOption;
         }
     }
+
+    protected static class MockCB {
+        protected final MockConditionQuery _conditionQuery = new MockConditionQuery();
+
+        public MockConditionQuery getConditionQuery() {
+            return _conditionQuery;
+        }
+    }
+
+    protected static class MockConditionQuery {
+        protected final MockConditionValue _memberId = new MockConditionValue("memberId");
+        protected final MockConditionValue _memberName = new MockConditionValue("memberName");
+        protected final MockConditionValue _birthdate = new MockConditionValue("birthdate");
+        protected final MockConditionValue _statusCode = new MockConditionValue("statusCode");
+        protected final MockConditionValue _updateUser = new MockConditionValue("updateUser");
+
+        public MockConditionValue getMemberId() {
+            return _memberId;
+        }
+
+        public MockConditionValue getMemberName() {
+            return _memberName;
+        }
+
+        public MockConditionValue getBirthdate() {
+            return _birthdate;
+        }
+
+        public MockConditionValue getStatusCode() {
+            return _statusCode;
+        }
+
+        public MockConditionValue getUpdateUser() {
+            return _updateUser;
+        }
+    }
+
+    protected static class MockConditionValue {
+        protected final String _columnName;
+
+        public MockConditionValue(String columnName) {
+            _columnName = columnName;
+        }
+
+        public String getEqual() {
+            return _columnName + ":equal";
+        }
+
+        public String getGreaterThan() {
+            return _columnName + ":greaterThan";
+        }
+
+        public String getLessThan() {
+            return _columnName + ":lessThan";
+        }
+
+        public String getLikeSearch() {
+            return _columnName + ":likeSearch";
+        }
+    }
 }
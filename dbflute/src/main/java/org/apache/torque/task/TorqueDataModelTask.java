@@ -76,6 +76,8 @@ package org.apache.torque.task;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.seasar.dbflute.friends.velocity.DfGenerationManifest;
+import org.seasar.dbflute.friends.velocity.DfGenerator;
 import org.seasar.dbflute.logic.generate.language.DfLanguageDependency;
 import org.seasar.dbflute.logic.jdbc.schemaxml.DfSchemaXmlReader;
 import org.seasar.dbflute.logic.sql2entity.analyzer.DfOutsideSqlPack;
@@ -133,6 +135,7 @@ public class TorqueDataModelTask extends DfAbstractDbMetaTexenTask {
     @Override
     protected void doExecute() {
         setupControlTemplate();
+        setupGenerationTuning();
         fireVelocityProcess();
         setupBehaviorQueryPath();
         showSkippedFileInformation();
@@ -162,6 +165,26 @@ public class TorqueDataModelTask extends DfAbstractDbMetaTexenTask {
         setControlTemplate(control);
     }
 
+    protected void setupGenerationTuning() {
+        final DfLittleAdjustmentProperties littleProp = getLittleAdjustmentProperties();
+        final DfGenerator generator = getGeneratorHandler();
+        if (littleProp.isIncrementalGenerate()) {
+            final String manifestFile = buildGenerationManifestFilePath();
+            final String environmentStamp = DfGenerationManifest.buildEnvironmentStamp(getTemplatePath());
+            final DfGenerationManifest manifest = new DfGenerationManifest(manifestFile, environmentStamp);
+            if (manifest.load()) {
+                _log.info("...Enabling incremental generation: " + manifestFile);
+            } else { // all files are generated this time
+                _log.info("...Enabling incremental generation: (first time or environment changed)");
+            }
+            generator.enableIncrementalGeneration(manifest);
+        }
+    }
+
+    protected String buildGenerationManifestFilePath() {
+        return "./schema/project-generation-" + getBasicProperties().getProjectName() + ".manifest";
+    }
+
     // ===================================================================================
     //                                                                 Behavior Query Path
     //                                                                 ===================
@@ -27,12 +27,17 @@ import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
+import org.apache.torque.engine.database.model.Table;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.Velocity;
@@ -71,6 +76,11 @@ public class DfFlutistGenerator extends DfGenerator {
      */
     public static final String TEMPLATE_PATH = "template.path";
 
+    /**
+     * The ID of table object in the context for incremental generation.
+     */
+    protected static final String INCREMENTAL_TABLE_KEY = "table";
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
@@ -114,6 +124,17 @@ public class DfFlutistGenerator extends DfGenerator {
      */
     protected List<String> skipFileNameList = new ArrayList<String>();// [Extension]
 
+    /**
+     * The map of template cost keyed by input template. {DBFlute Original Attribute}
+     */
+    protected final Map<String, TemplateCost> templateCostMap = new HashMap<String, TemplateCost>();// [Extension]
+
+    /**
+     * The manifest of generated files for incremental generation. {DBFlute Original Attribute}
+     * (NullAllowed: when full generation)
+     */
+    protected DfGenerationManifest generationManifest;// [Extension]
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -208,9 +229,25 @@ public class DfFlutistGenerator extends DfGenerator {
         if (specifiedOutputEncoding == null || specifiedOutputEncoding.trim().length() == 0) {
             specifiedOutputEncoding = this.outputEncoding;
         }
+        parseFileNameList.add(outputFile);
+
+        // return the contents as string if no output
+        if (outputFile == null || outputFile.isEmpty()) {
+            return doParse(inputTemplate, specifiedInputEncoding, null, outputFile, specifiedOutputEncoding);
+        }
+        final String outputDirectory = getOutputPath();
+        if (isIncrementalSkipped(inputTemplate, outputDirectory, outputFile, objectID, object)) {
+            skipFileNameList.add(new File(outputFile).getName());
+            return "";
+        }
+        return doParse(inputTemplate, specifiedInputEncoding, outputDirectory, outputFile, specifiedOutputEncoding);
+    }
+
+    protected String doParse(String inputTemplate, String specifiedInputEncoding, String outputDirectory,
+            String outputFile, String specifiedOutputEncoding) {
         try {
+            final long before = System.currentTimeMillis();
             final Template template = getTemplate(inputTemplate, specifiedInputEncoding);
-            parseFileNameList.add(outputFile);
 
             final VelocityContext vc = new VelocityContext(controlContext);
             final StringWriter sw = new StringWriter();
@@ -222,31 +259,36 @@ public class DfFlutistGenerator extends DfGenerator {
                 return newContent;
             }
 
-            final File oldFile = new File(getOutputPath() + "/" + outputFile);
-            if (oldFile.exists()) { // then it might skip to generate if it's completely same
-                final String oldContent = new String(getBytes(oldFile), specifiedOutputEncoding);
-                if (newContent.equals(oldContent)) {
-                    skipFileNameList.add(oldFile.getName());
-                    return "";
+            try {
+                final File oldFile = new File(outputDirectory + "/" + outputFile);
+                if (oldFile.exists()) { // then it might skip to generate if it's completely same
+                    final String oldContent = new String(getBytes(oldFile), specifiedOutputEncoding);
+                    if (newContent.equals(oldContent)) {
+                        skipFileNameList.add(oldFile.getName());
+                        return "";
+                    }
                 }
-            }
 
-            final Writer writer = findOutputWriter(outputFile, specifiedOutputEncoding);
-            writer.write(newContent);
+                final Writer writer = findOutputWriter(outputDirectory, outputFile, specifiedOutputEncoding);
+                writer.write(newContent);
 
-            // this is commented out because it is closed in shutdown();
-            //writer.close();
+                // this is commented out because it is closed in shutdown();
+                //writer.close();
+            } finally {
+                registerTemplateCost(inputTemplate, System.currentTimeMillis() - before);
+            }
         } catch (Throwable e) {
             throwTemplateParsingException(inputTemplate, specifiedInputEncoding, e);
         }
         return "";
     }
 
-    protected Writer findOutputWriter(String outputFile, String specifiedOutputEncoding) throws Exception {
+    protected Writer findOutputWriter(String outputDirectory, String outputFile,
+            String specifiedOutputEncoding) throws Exception {
         Writer writer = null;
         if (writers.get(outputFile) == null) {
             // We have never seen this file before so create a new file writer for it.
-            writer = getWriter(getOutputPath() + File.separator + outputFile, specifiedOutputEncoding);
+            writer = getWriter(outputDirectory + File.separator + outputFile, specifiedOutputEncoding);
 
             // Place the file writer in our collection of file writers.
             writers.put(outputFile, writer);
@@ -256,6 +298,10 @@ public class DfFlutistGenerator extends DfGenerator {
         return writer;
     }
 
+    protected boolean existsOutputFile(String outputDirectory, String outputFile) {
+        return new File(outputDirectory + "/" + outputFile).exists();
+    }
+
     protected String resolveLineSeparatorIfNeeds(String contents) {
         if (isConvertSourceCodeLineSeparator()) {
             if (isSourceLineSeparatorLf()) {
@@ -317,6 +363,7 @@ public class DfFlutistGenerator extends DfGenerator {
         Template template = getTemplate(controlTemplate, inputEncoding);
         StringWriter sw = new StringWriter();
         template.merge(controlContext, sw);
+        showTemplateCost();
 
         return sw.toString();
     }
@@ -403,6 +450,108 @@ public class DfFlutistGenerator extends DfGenerator {
         }
         // clear the file writers cache
         writers.clear();
+
+        saveGenerationManifestIfNeeds(); // after succeeded (not called when failed)
+        templateCostMap.clear();
+    }
+
+    // ===================================================================================
+    //                                                              Incremental Generation
+    //                                                              ======================
+    /**
+     * Enable incremental generation, which skips rendering the templates of tables
+     * whose fingerprints in the manifest are unchanged since the last generation.
+     * @param manifest The manifest of generated files, already loaded. (NotNull)
+     */
+    public void enableIncrementalGeneration(DfGenerationManifest manifest) {
+        generationManifest = manifest;
+    }
+
+    protected boolean isIncrementalSkipped(String inputTemplate, String outputDirectory, String outputFile,
+            String objectID, Object object) {
+        if (generationManifest == null) {
+            return false;
+        }
+        // only explicit table because the table in the context may remain after the loop of tables
+        if (!INCREMENTAL_TABLE_KEY.equals(objectID) || !(object instanceof Table)) {
+            return false;
+        }
+        final Table table = (Table) object;
+        if (table.isSql2EntityCustomize()) { // not from schema
+            return false;
+        }
+        final boolean same = generationManifest.registerFingerprint(outputFile, inputTemplate, table);
+        return same && existsOutputFile(outputDirectory, outputFile);
+    }
+
+    protected void saveGenerationManifestIfNeeds() {
+        if (generationManifest == null) {
+            return;
+        }
+        _log.info("...Saving generation manifest: " + generationManifest.getManifestFile());
+        generationManifest.save();
+        generationManifest = null;
+    }
+
+    // ===================================================================================
+    //                                                                       Template Cost
+    //                                                                       =============
+    protected void registerTemplateCost(String inputTemplate, long cost) {
+        TemplateCost templateCost = templateCostMap.get(inputTemplate);
+        if (templateCost == null) {
+            templateCost = new TemplateCost(inputTemplate);
+            templateCostMap.put(inputTemplate, templateCost);
+        }
+        templateCost.register(cost);
+    }
+
+    protected void showTemplateCost() {
+        if (templateCostMap.isEmpty()) {
+            return;
+        }
+        final List<TemplateCost> costList = new ArrayList<TemplateCost>(templateCostMap.values());
+        Collections.sort(costList, new Comparator<TemplateCost>() {
+            public int compare(TemplateCost o1, TemplateCost o2) { // heavy first
+                final long diff = o2.getTotalCost() - o1.getTotalCost();
+                return diff > 0 ? 1 : (diff < 0 ? -1 : 0);
+            }
+        });
+        final StringBuilder sb = new StringBuilder();
+        sb.append("[Template Cost]");
+        for (TemplateCost templateCost : costList) {
+            sb.append(ln()).append(" ").append(templateCost.getInputTemplate());
+            sb.append(": ").append(templateCost.getTotalCost()).append("ms");
+            sb.append(" (").append(templateCost.getFileCount()).append(" files)");
+        }
+        _log.info(sb.toString());
+    }
+
+    protected static class TemplateCost {
+
+        protected final String _inputTemplate;
+        protected long _totalCost;
+        protected int _fileCount;
+
+        public TemplateCost(String inputTemplate) {
+            _inputTemplate = inputTemplate;
+        }
+
+        public void register(long cost) {
+            _totalCost = _totalCost + cost;
+            ++_fileCount;
+        }
+
+        public String getInputTemplate() {
+            return _inputTemplate;
+        }
+
+        public long getTotalCost() {
+            return _totalCost;
+        }
+
+        public int getFileCount() {
+            return _fileCount;
+        }
     }
 
     // ===================================================================================
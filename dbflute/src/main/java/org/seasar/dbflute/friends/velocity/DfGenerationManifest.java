@@ -0,0 +1,293 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.friends.velocity;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.apache.torque.engine.database.model.Column;
+import org.apache.torque.engine.database.model.ForeignKey;
+import org.apache.torque.engine.database.model.Index;
+import org.apache.torque.engine.database.model.Table;
+import org.apache.torque.engine.database.model.Unique;
+
+/**
+ * The manifest of generated files for incremental generation. <br />
+ * It records the fingerprint of each output file, which is made from the template
+ * and the model of the table, so the generator can skip the files whose fingerprints are unchanged
+ * without rendering them. <br />
+ * The whole manifest is ignored if the environment (DBFlute properties, templates, engine) is changed.
+ * @author jflute
+ * @since 1.0.5K (2014/08/10 Sunday)
+ */
+public class DfGenerationManifest {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final String ENVIRONMENT_KEY = "$$environment$$";
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String _manifestFile;
+    protected final String _environmentStamp;
+    protected final Map<String, String> _previousFingerprintMap = new HashMap<String, String>();
+    protected final Map<String, String> _currentFingerprintMap = new TreeMap<String, String>(); // simple order
+    protected final Map<Table, String> _tableFingerprintCacheMap = new IdentityHashMap<Table, String>();
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param manifestFile The path of manifest file. (NotNull)
+     * @param environmentStamp The stamp of current environment. (NotNull)
+     */
+    public DfGenerationManifest(String manifestFile, String environmentStamp) {
+        _manifestFile = manifestFile;
+        _environmentStamp = environmentStamp;
+    }
+
+    // ===================================================================================
+    //                                                                           Load/Save
+    //                                                                           =========
+    /**
+     * Load the previous manifest from the file.
+     * @return Is the previous manifest available? (false means first time or environment changed)
+     */
+    public boolean load() {
+        final File file = new File(_manifestFile);
+        if (!file.exists()) {
+            return false;
+        }
+        final Properties prop = new Properties();
+        InputStream ins = null;
+        try {
+            ins = new FileInputStream(file);
+            prop.load(ins);
+        } catch (IOException e) {
+            String msg = "Failed to load the generation manifest: " + _manifestFile;
+            throw new IllegalStateException(msg, e);
+        } finally {
+            if (ins != null) {
+                try {
+                    ins.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        if (!_environmentStamp.equals(prop.getProperty(ENVIRONMENT_KEY))) {
+            return false;
+        }
+        _previousFingerprintMap.clear();
+        for (String key : prop.stringPropertyNames()) {
+            if (!ENVIRONMENT_KEY.equals(key)) {
+                _previousFingerprintMap.put(key, prop.getProperty(key));
+            }
+        }
+        return true;
+    }
+
+    public synchronized void save() {
+        final Properties prop = new Properties();
+        prop.setProperty(ENVIRONMENT_KEY, _environmentStamp);
+        for (Entry<String, String> entry : _currentFingerprintMap.entrySet()) {
+            prop.setProperty(entry.getKey(), entry.getValue());
+        }
+        OutputStream ous = null;
+        try {
+            ous = new FileOutputStream(_manifestFile);
+            prop.store(ous, "output fingerprints for incremental generation");
+        } catch (IOException e) {
+            String msg = "Failed to save the generation manifest: " + _manifestFile;
+            throw new IllegalStateException(msg, e);
+        } finally {
+            if (ous != null) {
+                try {
+                    ous.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                         Fingerprint
+    //                                                                         ===========
+    /**
+     * Register the fingerprint of the output file for next generation.
+     * @param outputFile The path of output file, relative to output directory. (NotNull)
+     * @param inputTemplate The path of input template. (NotNull)
+     * @param table The table as model of the output. (NotNull)
+     * @return Is the fingerprint same as the previous generation?
+     */
+    public synchronized boolean registerFingerprint(String outputFile, String inputTemplate, Table table) {
+        final String fingerprint = inputTemplate + ":" + findTableFingerprint(table);
+        _currentFingerprintMap.put(outputFile, fingerprint);
+        return fingerprint.equals(_previousFingerprintMap.get(outputFile));
+    }
+
+    protected String findTableFingerprint(Table table) {
+        String fingerprint = _tableFingerprintCacheMap.get(table);
+        if (fingerprint == null) { // outputs of one table are many
+            fingerprint = buildTableFingerprint(table);
+            _tableFingerprintCacheMap.put(table, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Build the fingerprint of the table model. <br />
+     * It contains the tables of relations because their definitions are also rendered.
+     * @param table The table as model of the output. (NotNull)
+     * @return The string of fingerprint. (NotNull)
+     */
+    protected String buildTableFingerprint(Table table) {
+        final StringBuilder sb = new StringBuilder();
+        setupTableSignature(sb, table);
+        for (ForeignKey fk : table.getForeignKeyList()) {
+            setupRelationSignature(sb, fk, "fk");
+            setupTableSignature(sb, fk.getForeignTable());
+        }
+        for (ForeignKey referrer : table.getReferrerList()) {
+            setupRelationSignature(sb, referrer, "referrer");
+            setupTableSignature(sb, referrer.getTable());
+        }
+        return digest(sb.toString());
+    }
+
+    protected void setupTableSignature(StringBuilder sb, Table table) {
+        sb.append("|table:").append(table.getTableDbName()).append(":").append(table.getType());
+        sb.append(":").append(table.getPlainComment());
+        for (Column column : table.getColumnList()) {
+            sb.append("|").append(column.getName()).append(":").append(column.getDbType());
+            sb.append("(").append(column.getColumnSize()).append("):").append(column.getJdbcType());
+            sb.append(column.isPrimaryKey() ? ":PK" : "").append(column.isNotNull() ? ":NN" : "");
+            sb.append(column.isAutoIncrement() ? ":AI" : "");
+            sb.append(":").append(column.getDefaultValue()).append(":").append(column.getPlainComment());
+        }
+        for (Unique unique : table.getUnices()) {
+            sb.append("|unique:").append(unique.getName()).append(unique.getIndexColumnMap());
+        }
+        for (Index index : table.getIndices()) {
+            sb.append("|index:").append(index.getName()).append(index.getIndexColumnMap());
+        }
+    }
+
+    protected void setupRelationSignature(StringBuilder sb, ForeignKey fk, String title) {
+        sb.append("|").append(title).append(":").append(fk.getName()).append(":");
+        sb.append(fk.getLocalColumnNameList()).append("->").append(fk.getForeignTableDbName());
+        sb.append(fk.getForeignColumnNameList()).append(":").append(fk.getFixedCondition());
+    }
+
+    // ===================================================================================
+    //                                                                   Environment Stamp
+    //                                                                   =================
+    /**
+     * Build the stamp of environment that affects all generated files. <br />
+     * DBFlute properties (dfprop), templates and the engine itself are the environment.
+     * @param templatePath The path of templates, comma-separated if plural. (NullAllowed: e.g. class-path)
+     * @return The string of stamp. (NotNull)
+     */
+    public static String buildEnvironmentStamp(String templatePath) {
+        final StringBuilder sb = new StringBuilder();
+        setupDirectoryStamp(sb, new File("./dfprop"));
+        if (templatePath != null) {
+            for (String path : templatePath.split(",")) {
+                setupDirectoryStamp(sb, new File(path.trim()));
+            }
+        }
+        try {
+            final String engineLocation = DfGenerationManifest.class.getProtectionDomain().getCodeSource()
+                    .getLocation().getPath();
+            sb.append("engine:").append(buildFileStamp(new File(engineLocation)));
+        } catch (RuntimeException ignored) { // e.g. security manager
+        }
+        return digest(sb.toString());
+    }
+
+    protected static void setupDirectoryStamp(StringBuilder sb, File dir) {
+        final File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isDirectory()) {
+                setupDirectoryStamp(sb, file);
+            } else {
+                sb.append(file.getPath()).append(":").append(buildFileStamp(file)).append(";");
+            }
+        }
+    }
+
+    protected static String buildFileStamp(File file) {
+        return file.lastModified() + "/" + file.length();
+    }
+
+    // ===================================================================================
+    //                                                                       Digest Helper
+    //                                                                       =============
+    protected static String digest(String plain) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            String msg = "Not found the algorithm of digest: MD5";
+            throw new IllegalStateException(msg, e);
+        }
+        final byte[] bytes;
+        try {
+            bytes = digest.digest(plain.getBytes("UTF-8"));
+        } catch (IOException e) {
+            String msg = "Failed to get bytes: " + plain;
+            throw new IllegalStateException(msg, e);
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (byte bt : bytes) {
+            final int value = bt & 0xff;
+            if (value < 16) {
+                sb.append("0");
+            }
+            sb.append(Integer.toHexString(value));
+        }
+        return sb.toString();
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public String getManifestFile() {
+        return _manifestFile;
+    }
+
+    public String getEnvironmentStamp() {
+        return _environmentStamp;
+    }
+}
@@ -80,6 +80,11 @@ public abstract class DfGenerator {
 
     public abstract void shutdown();
 
+    // ===================================================================================
+    //                                                                   Generation Tuning
+    //                                                                   =================
+    public abstract void enableIncrementalGeneration(DfGenerationManifest manifest);
+
     // ===================================================================================
     //                                                                    Skip Information
     //                                                                    ================
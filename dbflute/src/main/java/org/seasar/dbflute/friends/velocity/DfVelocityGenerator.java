@@ -77,6 +77,10 @@ public class DfVelocityGenerator extends DfGenerator {
         _generator.shutdown();
     }
 
+    public void enableIncrementalGeneration(DfGenerationManifest manifest) {
+        // unsupported so full generation
+    }
+
     // ===================================================================================
     //                                                                    Skip Information
     //                                                                    ================
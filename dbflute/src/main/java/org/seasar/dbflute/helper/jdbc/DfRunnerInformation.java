@@ -35,6 +35,8 @@ public class DfRunnerInformation {
     protected boolean _ignoreTxError;
     protected boolean _suppressLoggingSql;
     protected String _encoding;
+    protected int _insertBatchSize; // zero or one means no batch
+    protected int _commitCount; // zero means no commit per count
 
     // ===================================================================================
     //                                                                            Accessor
@@ -138,4 +140,20 @@ public class DfRunnerInformation {
     public void setEncoding(String encoding) {
         this._encoding = encoding;
     }
+
+    public int getInsertBatchSize() {
+        return _insertBatchSize;
+    }
+
+    public void setInsertBatchSize(int insertBatchSize) {
+        this._insertBatchSize = insertBatchSize;
+    }
+
+    public int getCommitCount() {
+        return _commitCount;
+    }
+
+    public void setCommitCount(int commitCount) {
+        this._commitCount = commitCount;
+    }
 }
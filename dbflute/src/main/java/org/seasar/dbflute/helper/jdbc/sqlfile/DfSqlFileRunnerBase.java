@@ -99,12 +99,13 @@ public abstract class DfSqlFileRunnerBase implements DfSqlFileRunner {
         BufferedReader br = null;
         try {
             br = new BufferedReader(newInputStreamReader());
-            final List<String> sqlList = extractSqlList(br);
+            final SqlStatementReader sqlReader = newSqlStatementReader(br); // streaming (not read all at once)
 
             setupConnection();
             setupStatement();
             int sqlNumber = 0;
-            for (String sql : sqlList) {
+            String sql;
+            while ((sql = sqlReader.readSql()) != null) {
                 ++sqlNumber;
                 currentSql = sql;
                 if (sqlNumber == 1 && !isTargetFile(sql)) { // first SQL only 
@@ -120,7 +121,9 @@ public abstract class DfSqlFileRunnerBase implements DfSqlFileRunner {
                     traceSql(realSql);
                 }
                 execSQL(realSql);
+                commitPerCountIfNeeds();
             }
+            flushBatchSql();
             rollbackOrCommit();
         } catch (SQLFailureException breakCause) {
             if (_runInfo.isBreakCauseThrow()) {
@@ -270,6 +273,15 @@ public abstract class DfSqlFileRunnerBase implements DfSqlFileRunner {
         }
     }
 
+    protected void commitPerCountIfNeeds() throws SQLException {
+        final int commitCount = _runInfo.getCommitCount();
+        if (commitCount <= 0 || _runInfo.isRollbackOnly() || _totalSqlCount % commitCount != 0) {
+            return;
+        }
+        flushBatchSql(); // pending statements are also committed
+        rollbackOrCommit(); // commit here because of not rollback-only
+    }
+
     protected void rollback() throws SQLException {
         if (_currentConnection == null) {
             return;
@@ -338,137 +350,177 @@ public abstract class DfSqlFileRunnerBase implements DfSqlFileRunner {
     //                                                                         ===========
     protected List<String> extractSqlList(BufferedReader br) {
         final List<String> sqlList = new ArrayList<String>();
-        final DelimiterChanger delimiterChanger = newDelimterChanger();
-        try {
-            String sql = "";
-            String line = "";
-            boolean inGroup = false;
-            boolean alwaysNeedsLineSeparator = false;
-            boolean isAlreadyProcessUTF8Bom = false;
-            while ((line = br.readLine()) != null) {
-                if (!isAlreadyProcessUTF8Bom) {
-                    line = removeUTF8BomIfNeeds(line);
-                    isAlreadyProcessUTF8Bom = true;
-                }
-                if (!inGroup && isSqlTrimAndRemoveLineSeparator()) {
-                    line = line.trim();
-                }
-                if (!alwaysNeedsLineSeparator && isSqlTrimAndRemoveLineSeparator()
-                        && isHandlingCommentOnLineSeparator()) {
-                    if (isDbCommentLine(line)) {
-                        alwaysNeedsLineSeparator = true;
-                    }
-                }
+        final SqlStatementReader sqlReader = newSqlStatementReader(br);
+        String sql;
+        while ((sql = sqlReader.readSql()) != null) {
+            sqlList.add(sql);
+        }
+        return sqlList;
+    }
 
-                // SQL defines "--" as a comment to EOL
-                // and in Oracle it may contain a hint
-                // so we cannot just remove it, instead we must end it
-                if (line.trim().startsWith("--")) { // If this line is comment only, ...
-                    // = = = = = = = = = = =
-                    // Line for Line Comment
-                    // = = = = = = = = = = =
-
-                    // Group Specification
-                    // /- - - - - - - - - - - - - - - -
-                    if (line.trim().contains("#df:begin#")) {
-                        inGroup = true;
-                        if (!sql.contains("#df:checkEnv(")) { // patch for checkEnv
-                            sql = "";
-                        }
-                        continue;
-                    } else if (line.trim().contains("#df:end#")) {
-                        inGroup = false;
-                        sql = removeTerminater4ToolIfNeeds(sql); // [DBFLUTE-309]
-                        addSqlToList(sqlList, sql);
+    protected SqlStatementReader newSqlStatementReader(BufferedReader br) {
+        return new SqlStatementReader(br, newDelimterChanger());
+    }
 
-                        // End Point of SQL!
-                        alwaysNeedsLineSeparator = false;
-                        sql = "";
-                        continue;
+    /**
+     * The reader of SQL statements in the SQL file. <br />
+     * It reads lines until the end of one statement and returns it,
+     * so the whole file is not in memory even if it is huge (e.g. generated INSERT dump).
+     */
+    protected class SqlStatementReader {
+
+        protected final BufferedReader _br;
+        protected final DelimiterChanger _delimiterChanger;
+        protected String _sql = "";
+        protected boolean _inGroup;
+        protected boolean _alwaysNeedsLineSeparator;
+        protected boolean _alreadyProcessUTF8Bom;
+        protected boolean _finished;
+
+        public SqlStatementReader(BufferedReader br, DelimiterChanger delimiterChanger) {
+            _br = br;
+            _delimiterChanger = delimiterChanger;
+        }
+
+        /**
+         * Read the next SQL statement from the reader.
+         * @return The string of SQL statement, which has no delimiter. (NullAllowed: when no more statement)
+         */
+        public String readSql() {
+            if (_finished) {
+                return null;
+            }
+            try {
+                String line = "";
+                while ((line = _br.readLine()) != null) {
+                    if (!_alreadyProcessUTF8Bom) {
+                        line = removeUTF8BomIfNeeds(line);
+                        _alreadyProcessUTF8Bom = true;
                     }
-                    // - - - - - - - - - -/
-
-                    // real line comment
-                    line = replaceCommentQuestionMarkIfNeeds(line);
-
-                    if (inGroup) {
-                        sql = sql + line + ln();
-                        continue;
+                    if (!_inGroup && isSqlTrimAndRemoveLineSeparator()) {
+                        line = line.trim();
                     }
-                    sql = sql + line + ln();
-                } else {
-                    // = = = = = = = = = =
-                    // Line for SQL Clause
-                    // = = = = = = = = = =
-
-                    if (inGroup) {
-                        sql = sql + line + ln();
-                        continue;
+                    if (!_alwaysNeedsLineSeparator && isSqlTrimAndRemoveLineSeparator()
+                            && isHandlingCommentOnLineSeparator()) {
+                        if (isDbCommentLine(line)) {
+                            _alwaysNeedsLineSeparator = true;
+                        }
                     }
 
-                    final String lineConnect;
-                    if (isSqlTrimAndRemoveLineSeparator()) {
-                        if (alwaysNeedsLineSeparator) {
-                            lineConnect = ln();
-                        } else {
-                            lineConnect = " ";
+                    // SQL defines "--" as a comment to EOL
+                    // and in Oracle it may contain a hint
+                    // so we cannot just remove it, instead we must end it
+                    if (line.trim().startsWith("--")) { // If this line is comment only, ...
+                        // = = = = = = = = = = =
+                        // Line for Line Comment
+                        // = = = = = = = = = = =
+
+                        // Group Specification
+                        // /- - - - - - - - - - - - - - - -
+                        if (line.trim().contains("#df:begin#")) {
+                            _inGroup = true;
+                            if (!_sql.contains("#df:checkEnv(")) { // patch for checkEnv
+                                _sql = "";
+                            }
+                            continue;
+                        } else if (line.trim().contains("#df:end#")) {
+                            _inGroup = false;
+                            final String groupSql = removeTerminater4ToolIfNeeds(_sql); // [DBFLUTE-309]
+
+                            // End Point of SQL!
+                            _alwaysNeedsLineSeparator = false;
+                            _sql = "";
+                            final String statement = prepareExtractedSql(groupSql);
+                            if (statement != null) {
+                                return statement;
+                            }
+                            continue;
                         }
-                    } else {
-                        lineConnect = "";
-                    }
-                    if (line.indexOf("--") >= 0) { // If this line contains both SQL and comment, ...
-                        // With Line Comment
+                        // - - - - - - - - - -/
+
+                        // real line comment
                         line = replaceCommentQuestionMarkIfNeeds(line);
-                        sql = sql + lineConnect + line + ln();
+
+                        if (_inGroup) {
+                            _sql = _sql + line + ln();
+                            continue;
+                        }
+                        _sql = _sql + line + ln();
                     } else {
-                        // SQL Clause Only
-                        final String lineTerminator = isSqlTrimAndRemoveLineSeparator() ? "" : ln();
-                        sql = sql + lineConnect + line + lineTerminator;
-                    }
-                }
+                        // = = = = = = = = = =
+                        // Line for SQL Clause
+                        // = = = = = = = = = =
 
-                if (sql.trim().endsWith(_runInfo.getDelimiter())) {
-                    // = = = = = = = =
-                    // End of the SQL
-                    // = = = = = = = =
+                        if (_inGroup) {
+                            _sql = _sql + line + ln();
+                            continue;
+                        }
 
-                    sql = sql.trim();
-                    sql = sql.substring(0, sql.length() - _runInfo.getDelimiter().length());
-                    sql = sql.trim();
-                    if ("".equals(sql)) {
-                        continue;
+                        final String lineConnect;
+                        if (isSqlTrimAndRemoveLineSeparator()) {
+                            if (_alwaysNeedsLineSeparator) {
+                                lineConnect = ln();
+                            } else {
+                                lineConnect = " ";
+                            }
+                        } else {
+                            lineConnect = "";
+                        }
+                        if (line.indexOf("--") >= 0) { // If this line contains both SQL and comment, ...
+                            // With Line Comment
+                            line = replaceCommentQuestionMarkIfNeeds(line);
+                            _sql = _sql + lineConnect + line + ln();
+                        } else {
+                            // SQL Clause Only
+                            final String lineTerminator = isSqlTrimAndRemoveLineSeparator() ? "" : ln();
+                            _sql = _sql + lineConnect + line + lineTerminator;
+                        }
                     }
-                    if (!delimiterChanger.isDelimiterChanger(sql)) {
-                        addSqlToList(sqlList, sql);
 
-                        // End Point of SQL!
-                        alwaysNeedsLineSeparator = false;
-                        sql = "";
-                    } else {
-                        _runInfo.setDelimiter(delimiterChanger.getNewDelimiter(sql, _runInfo.getDelimiter()));
+                    if (_sql.trim().endsWith(_runInfo.getDelimiter())) {
+                        // = = = = = = = =
+                        // End of the SQL
+                        // = = = = = = = =
 
+                        String sql = _sql.trim();
+                        sql = sql.substring(0, sql.length() - _runInfo.getDelimiter().length());
+                        sql = sql.trim();
+                        if ("".equals(sql)) {
+                            continue;
+                        }
                         // End Point of SQL!
-                        alwaysNeedsLineSeparator = false;
-                        sql = "";
+                        _alwaysNeedsLineSeparator = false;
+                        _sql = "";
+                        if (!_delimiterChanger.isDelimiterChanger(sql)) {
+                            final String statement = prepareExtractedSql(sql);
+                            if (statement != null) {
+                                return statement;
+                            }
+                        } else {
+                            _runInfo.setDelimiter(_delimiterChanger.getNewDelimiter(sql, _runInfo.getDelimiter()));
+                        }
                     }
                 }
+                _finished = true;
+                final String lastSql = _sql.trim();
+                _sql = "";
+                return lastSql.length() > 0 ? prepareExtractedSql(lastSql) : null; // for Last SQL
+            } catch (IOException e) {
+                String msg = "The method 'readSql()' threw the IOException: " + _sqlFile;
+                throw new IllegalStateException(msg, e);
             }
-            sql = sql.trim();
-            if (sql.length() > 0) {
-                addSqlToList(sqlList, sql); // for Last SQL
-            }
-        } catch (IOException e) {
-            String msg = "The method 'extractSqlList()' threw the IOException!";
-            throw new IllegalStateException(msg, e);
         }
-        return sqlList;
     }
 
-    protected void addSqlToList(List<String> sqlList, String sql) {
+    /**
+     * @param sql The extracted SQL. (NotNull)
+     * @return The SQL statement to be executed. (NullAllowed: if null, skipped because of line comments only)
+     */
+    protected String prepareExtractedSql(String sql) {
         if (isSqlLineCommentOnly(sql)) {
-            return;
+            return null;
         }
-        sqlList.add(removeCR(sql));
+        return removeCR(sql);
     }
 
     protected boolean isSqlLineCommentOnly(String sql) {
@@ -610,6 +662,15 @@ public abstract class DfSqlFileRunnerBase implements DfSqlFileRunner {
      */
     protected abstract void execSQL(String sql);
 
+    /**
+     * Execute the SQL statements pending in batch if it needs. <br />
+     * It is called before commit and at the end of the file.
+     * @throws SQLException When it fails to execute the batch.
+     */
+    protected void flushBatchSql() throws SQLException {
+        // do nothing as default (no batch)
+    }
+
     /**
      * @return The determination, true or false.
      */
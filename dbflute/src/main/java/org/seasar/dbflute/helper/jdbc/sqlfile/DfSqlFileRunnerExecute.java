@@ -15,7 +15,10 @@
  */
 package org.seasar.dbflute.helper.jdbc.sqlfile;
 
+import java.sql.BatchUpdateException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.sql.DataSource;
 
@@ -39,6 +42,9 @@ public class DfSqlFileRunnerExecute extends DfSqlFileRunnerBase {
     //                                                                           =========
     protected DfSqlFileRunnerDispatcher _dispatcher;
 
+    /** The list of SQL pending in the batch of current statement. (NotNull, empty if no batch) */
+    protected final List<String> _batchSqlList = new ArrayList<String>();
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -55,6 +61,10 @@ public class DfSqlFileRunnerExecute extends DfSqlFileRunnerBase {
     protected void execSQL(String sql) {
         boolean lazyConnectFailed = false;
         try {
+            final boolean batchTarget = isBatchTargetSql(sql);
+            if (!batchTarget) {
+                flushBatchSql(); // to keep the order of statements
+            }
             final DfRunnerDispatchResult dispatchResult = dispatch(sql);
             if (DfRunnerDispatchResult.NONE.equals(dispatchResult)) {
                 try {
@@ -63,8 +73,12 @@ public class DfSqlFileRunnerExecute extends DfSqlFileRunnerBase {
                     lazyConnectFailed = true;
                     throw e;
                 }
-                processNonDispatch(sql);
-                _goodSqlCount++; // success (mainly here)
+                if (batchTarget) {
+                    addBatchSql(sql); // counted as success when the batch is executed
+                } else {
+                    processNonDispatch(sql);
+                    _goodSqlCount++; // success (mainly here)
+                }
             } else if (DfRunnerDispatchResult.SKIPPED.equals(dispatchResult)) {
                 _skippedSqlCount++;
             } else { // means dispatched successfully
@@ -146,6 +160,71 @@ public class DfSqlFileRunnerExecute extends DfSqlFileRunnerBase {
         return sb;
     }
 
+    // ===================================================================================
+    //                                                                        Batch Insert
+    //                                                                        ============
+    protected boolean isBatchTargetSql(String sql) {
+        if (!isBatchAvailable()) {
+            return false;
+        }
+        // plain INSERT only (e.g. generated dump), line comments at the head are allowed
+        String clause = sql.trim();
+        while (clause.startsWith("--")) {
+            final int lineEnd = clause.indexOf(ln());
+            if (lineEnd < 0) {
+                return false;
+            }
+            clause = clause.substring(lineEnd + ln().length()).trim();
+        }
+        return clause.length() > "insert".length() && clause.regionMatches(true, 0, "insert", 0, "insert".length())
+                && Character.isWhitespace(clause.charAt("insert".length()));
+    }
+
+    protected boolean isBatchAvailable() {
+        // error-continue needs to judge statements one by one
+        return _runInfo.getInsertBatchSize() > 1 && !_runInfo.isErrorContinue();
+    }
+
+    protected void addBatchSql(String sql) throws SQLException {
+        checkStatement(sql);
+        _currentStatement.addBatch(sql);
+        _batchSqlList.add(sql);
+        if (_batchSqlList.size() >= _runInfo.getInsertBatchSize()) {
+            flushBatchSql();
+        }
+    }
+
+    @Override
+    protected void flushBatchSql() throws SQLException {
+        if (_batchSqlList.isEmpty()) {
+            return;
+        }
+        try {
+            _currentStatement.executeBatch();
+            _goodSqlCount = _goodSqlCount + _batchSqlList.size();
+        } catch (SQLException e) {
+            handleBatchFailure(e);
+        } finally {
+            _batchSqlList.clear();
+        }
+    }
+
+    protected void handleBatchFailure(SQLException e) {
+        int failureIndex = 0; // first statement as default
+        if (e instanceof BatchUpdateException) {
+            final int[] updateCounts = ((BatchUpdateException) e).getUpdateCounts();
+            if (updateCounts != null && updateCounts.length < _batchSqlList.size()) { // stopped at failure
+                failureIndex = updateCounts.length;
+                _goodSqlCount = _goodSqlCount + updateCounts.length;
+            }
+        }
+        try {
+            _currentStatement.clearBatch();
+        } catch (SQLException ignored) {
+        }
+        throwSQLFailureException(_batchSqlList.get(failureIndex), e);
+    }
+
     // ===================================================================================
     //                                                                            Accessor
     //                                                                            ========
@@ -27,6 +27,8 @@ import java.util.TreeSet;
 
 import org.apache.torque.engine.database.model.ForeignKey;
 import org.apache.torque.engine.database.model.Table;
+import org.seasar.dbflute.helper.StringSet;
+import org.seasar.dbflute.util.DfCollectionUtil;
 import org.seasar.dbflute.util.Srl;
 
 /**
@@ -292,6 +294,54 @@ public class DfTableOrderAnalyzer {
         }
     }
 
+    // ===================================================================================
+    //                                                                    Dependency Level
+    //                                                                    ================
+    /**
+     * Analyze levels of foreign-key dependency by table names, e.g. for parallel loading. <br />
+     * Tables in the same level do not depend on each other, and their parent tables are in previous levels.
+     * Parent tables that are not contained in the map are treated as already registered.
+     * Tables in cyclic dependency are returned as one-table levels at the end (in order of the map).
+     * @param parentTableMap The map of parent table names keyed by table name. (NotNull, should be flexible)
+     * @return The list of levels that have table names. (NotNull)
+     */
+    public List<List<String>> analyzeDependencyLevel(Map<String, Set<String>> parentTableMap) {
+        final Set<String> alreadyRegisteredSet = StringSet.createAsFlexible();
+        final List<List<String>> levelList = new ArrayList<List<String>>();
+        List<String> unregisteredTableList = new ArrayList<String>(parentTableMap.keySet());
+        while (!unregisteredTableList.isEmpty()) {
+            final List<String> elementList = new ArrayList<String>();
+            final List<String> nextTableList = new ArrayList<String>();
+            for (String tableName : unregisteredTableList) {
+                boolean dependsOnAny = false;
+                for (String parentName : parentTableMap.get(tableName)) {
+                    if (Srl.equalsIgnoreCase(parentName, tableName)) { // self reference
+                        continue;
+                    }
+                    if (parentTableMap.containsKey(parentName) && !alreadyRegisteredSet.contains(parentName)) {
+                        dependsOnAny = true;
+                        break;
+                    }
+                }
+                if (dependsOnAny) {
+                    nextTableList.add(tableName);
+                } else {
+                    elementList.add(tableName);
+                }
+            }
+            if (elementList.isEmpty()) { // means cyclic dependency
+                for (String tableName : unregisteredTableList) {
+                    levelList.add(DfCollectionUtil.newArrayList(tableName)); // one by one
+                }
+                break; // sadly end
+            }
+            alreadyRegisteredSet.addAll(elementList); // after the loop, tables in the level are independent
+            levelList.add(elementList);
+            unregisteredTableList = nextTableList;
+        }
+        return levelList;
+    }
+
     // ===================================================================================
     //                                                                           Main Name
     //                                                                           =========
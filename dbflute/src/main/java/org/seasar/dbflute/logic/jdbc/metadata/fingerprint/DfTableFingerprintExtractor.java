@@ -0,0 +1,36 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.metadata.fingerprint;
+
+import java.util.Map;
+
+import org.apache.torque.engine.database.model.UnifiedSchema;
+
+/**
+ * The extractor of table fingerprints, which change when DDL is executed for the table. <br />
+ * It is used to judge whether the meta data of the table needs to be extracted again.
+ * @author jflute
+ * @since 1.0.5K (2014/08/10 Sunday)
+ */
+public interface DfTableFingerprintExtractor {
+
+    /**
+     * Extract the fingerprints of tables in the schema by one query.
+     * @param unifiedSchema The unified schema to extract. (NotNull)
+     * @return The map of fingerprint keyed by table name, case insensitive. (NotNull)
+     */
+    Map<String, String> extractTableFingerprintMap(UnifiedSchema unifiedSchema);
+}
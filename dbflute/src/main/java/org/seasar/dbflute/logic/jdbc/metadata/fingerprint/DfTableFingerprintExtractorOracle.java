@@ -0,0 +1,85 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.metadata.fingerprint;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.torque.engine.database.model.UnifiedSchema;
+import org.seasar.dbflute.helper.StringKeyMap;
+import org.seasar.dbflute.helper.jdbc.facade.DfJdbcFacade;
+import org.seasar.dbflute.util.DfCollectionUtil;
+import org.seasar.dbflute.util.Srl;
+
+/**
+ * The extractor of table fingerprints for Oracle. <br />
+ * The fingerprint is made from LAST_DDL_TIME of the table and its indexes.
+ * (ALTER TABLE, COMMENT, CREATE/DROP INDEX and so on change it)
+ * @author jflute
+ * @since 1.0.5K (2014/08/10 Sunday)
+ */
+public class DfTableFingerprintExtractorOracle implements DfTableFingerprintExtractor {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected DataSource _dataSource;
+
+    // ===================================================================================
+    //                                                                                Main
+    //                                                                                ====
+    public Map<String, String> extractTableFingerprintMap(UnifiedSchema unifiedSchema) {
+        if (!unifiedSchema.existsPureSchema()) {
+            String msg = "Extracting fingerprints from Oracle requires pure schema in unified schema:";
+            msg = msg + " unifiedSchema=" + unifiedSchema;
+            throw new IllegalStateException(msg);
+        }
+        final String owner = unifiedSchema.getPureSchema();
+        final StringBuilder sb = new StringBuilder();
+        sb.append("select tab.OBJECT_NAME as TABLE_NAME");
+        sb.append(", to_char(tab.LAST_DDL_TIME, 'YYYYMMDDHH24MISS') as TABLE_DDL_TIME");
+        sb.append(", (select to_char(max(ido.LAST_DDL_TIME), 'YYYYMMDDHH24MISS') || '/' || count(*)");
+        sb.append(" from ALL_INDEXES idx, ALL_OBJECTS ido");
+        sb.append(" where idx.TABLE_OWNER = tab.OWNER and idx.TABLE_NAME = tab.OBJECT_NAME");
+        sb.append(" and ido.OWNER = idx.OWNER and ido.OBJECT_NAME = idx.INDEX_NAME");
+        sb.append(" and ido.OBJECT_TYPE = 'INDEX') as INDEX_DDL_TIME");
+        sb.append(" from ALL_OBJECTS tab");
+        sb.append(" where tab.OWNER = '").append(escapeLiteral(owner)).append("' and tab.OBJECT_TYPE = 'TABLE'");
+        final String sql = sb.toString();
+        final List<String> columnList = DfCollectionUtil.newArrayList("TABLE_NAME", "TABLE_DDL_TIME", "INDEX_DDL_TIME");
+        final List<Map<String, String>> resultList = new DfJdbcFacade(_dataSource).selectStringList(sql, columnList);
+        final Map<String, String> fingerprintMap = StringKeyMap.createAsCaseInsensitive();
+        for (Map<String, String> recordMap : resultList) {
+            final String tableName = recordMap.get("TABLE_NAME");
+            final String fingerprint = recordMap.get("TABLE_DDL_TIME") + ":" + recordMap.get("INDEX_DDL_TIME");
+            fingerprintMap.put(tableName, fingerprint);
+        }
+        return fingerprintMap;
+    }
+
+    protected String escapeLiteral(String value) { // the owner is embedded as literal (no bind in the facade)
+        return Srl.replace(value, "'", "''");
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public void setDataSource(DataSource dataSource) {
+        _dataSource = dataSource;
+    }
+}
@@ -25,8 +25,11 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +38,9 @@ import java.util.Set;
 import java.util.TreeMap;
 
 import javax.sql.DataSource;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -80,6 +86,8 @@ import org.seasar.dbflute.logic.jdbc.metadata.comment.DfDbCommentExtractor;
 import org.seasar.dbflute.logic.jdbc.metadata.comment.DfDbCommentExtractor.UserColComments;
 import org.seasar.dbflute.logic.jdbc.metadata.comment.DfDbCommentExtractor.UserTabComments;
 import org.seasar.dbflute.logic.jdbc.metadata.comment.factory.DfDbCommentExtractorFactory;
+import org.seasar.dbflute.logic.jdbc.metadata.fingerprint.DfTableFingerprintExtractor;
+import org.seasar.dbflute.logic.jdbc.metadata.fingerprint.factory.DfTableFingerprintExtractorFactory;
 import org.seasar.dbflute.logic.jdbc.metadata.identity.DfIdentityExtractor;
 import org.seasar.dbflute.logic.jdbc.metadata.identity.factory.DfIdentityExtractorFactory;
 import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
@@ -105,8 +113,12 @@ import org.seasar.dbflute.properties.facade.DfSchemaXmlFacadeProp;
 import org.seasar.dbflute.util.DfCollectionUtil;
 import org.seasar.dbflute.util.DfTypeUtil;
 import org.seasar.dbflute.util.Srl;
+import org.w3c.dom.Document;
 import org.w3c.dom.DocumentType;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
 
 /**
  * @author jflute
@@ -198,6 +210,16 @@ public class DfSchemaXmlSerializer {
     protected boolean _craftDiffEnabled; // not null means CraftDiff enabled
     protected DfCraftDiffAssertSqlFire _craftDiffAssertSqlFire; // not null when CraftDiff enabled 
     protected boolean _keepDefinitionOrderAsPrevious; // not to get meta data change by only definition order 
+    protected boolean _incrementalExtraction; // reuses elements of unchanged tables from previous SchemaXML
+
+    // -----------------------------------------------------
+    //                                Incremental Extraction
+    //                                ----------------------
+    /** The map of current table fingerprint keyed by table key. (NullAllowed: when not incremental) */
+    protected Map<String, String> _tableFingerprintMap;
+
+    /** The map of reusable table element keyed by table key, already imported to the document. (NotNull) */
+    protected final Map<String, Element> _reusableTableElementMap = new HashMap<String, Element>();
 
     // -----------------------------------------------------
     //                                           Thread Fire
@@ -237,6 +259,9 @@ public class DfSchemaXmlSerializer {
         final String craftMetaDir = docProp.getCoreCraftMetaDir();
         serializer.enableCraftDiff(dataSource, craftMetaDir, DfCraftDiffAssertDirection.ROLLING_NEXT);
         serializer.keepDefinitionOrderAsPrevious(); // to avoid getting nonsense differences in JDBC task
+        if (buildProp.getDatabaseProperties().isMetaDataIncrementalExtraction()) {
+            serializer.enableIncrementalExtraction();
+        }
         return serializer;
     }
 
@@ -279,6 +304,11 @@ public class DfSchemaXmlSerializer {
         return this;
     }
 
+    protected DfSchemaXmlSerializer enableIncrementalExtraction() {
+        _incrementalExtraction = true;
+        return this;
+    }
+
     // ===================================================================================
     //                                                                             Execute
     //                                                                             =======
@@ -329,6 +359,7 @@ public class DfSchemaXmlSerializer {
                 }
             }
         }
+        saveFingerprintSnapshotIfNeeds(); // after closing to get the stamp of written SchemaXML
 
         loadNextSchema();
     }
@@ -389,6 +420,7 @@ public class DfSchemaXmlSerializer {
             _databaseNode = _doc.createElement("database");
             _databaseNode.setAttribute("name", _dataSource.getSchema().getPureSchema()); // as main schema
 
+            prepareIncrementalExtraction(tableList); // before processing tables
             processTable(conn, metaData, tableList);
             final boolean additionalTableExists = setupAddtionalTableIfNeeds();
             if (tableList.isEmpty() && !additionalTableExists) {
@@ -503,6 +535,14 @@ public class DfSchemaXmlSerializer {
             _log.info("$ " + tableFullQualifiedName + " is out of generation target!");
             return false;
         }
+        final Element reusableElement = findReusableTableElement(tableMeta);
+        if (reusableElement != null) { // means incremental extraction and the table is not changed
+            _log.info("$ " + tableMeta.toString() + " *reused");
+            // column meta is used after processing tables, e.g. table-equals of CraftDiff
+            tableMeta.setLazyColumnMetaList(restoreReusedColumnMetaList(tableMeta, reusableElement));
+            _tableElementStagingMap.put(tableFullQualifiedName, reusableElement);
+            return true;
+        }
         _log.info("$ " + tableMeta.toString());
 
         final Element tableElement = _doc.createElement("table");
@@ -1455,6 +1495,245 @@ public class DfSchemaXmlSerializer {
                 _generatedTableMap);
     }
 
+    // ===================================================================================
+    //                                                              Incremental Extraction
+    //                                                              ======================
+    /**
+     * Prepare reusable table elements from previous SchemaXML if incremental extraction. <br />
+     * Tables whose fingerprints are same as the previous snapshot reuse their previous elements,
+     * so their columns, primary keys, foreign keys, unique keys and indexes are not extracted. <br />
+     * A foreign key element has the information of its foreign table,
+     * so tables that refer to changed tables are extracted again even if their fingerprints are same.
+     * @param tableList The list of table meta to be processed. (NotNull)
+     */
+    protected void prepareIncrementalExtraction(List<DfTableMeta> tableList) {
+        if (!_incrementalExtraction) {
+            return;
+        }
+        final DfTableFingerprintExtractor extractor = createTableFingerprintExtractor();
+        if (extractor == null) {
+            _log.info("*Incremental extraction is unsupported at the database so full extraction");
+            return;
+        }
+        _log.info("...Extracting table fingerprints (incremental extraction)");
+        try {
+            _tableFingerprintMap = extractTableFingerprintMap(extractor, tableList);
+        } catch (RuntimeException continued) { // e.g. no privilege
+            _log.info("*Failed to extract table fingerprints so full extraction: " + continued.getMessage());
+            return;
+        }
+        final DfTableFingerprintSnapshot snapshot = createFingerprintSnapshot();
+        if (!snapshot.load()) {
+            _log.info(" -> no previous fingerprint (first time)");
+            return;
+        }
+        final String environmentStamp = buildEnvironmentStamp();
+        final String schemaXmlStamp = buildSchemaXmlStamp();
+        if (!snapshot.isReusable(environmentStamp, schemaXmlStamp, _tableFingerprintMap.keySet())) {
+            _log.info(" -> environment, SchemaXML or table set was changed so full extraction");
+            return;
+        }
+        final Map<String, Element> previousElementMap = readPreviousTableElementMap();
+        for (Entry<String, String> entry : _tableFingerprintMap.entrySet()) {
+            final String tableKey = entry.getKey();
+            if (!snapshot.isSameFingerprint(tableKey, entry.getValue())) {
+                continue;
+            }
+            final Element previousElement = previousElementMap.get(tableKey);
+            if (previousElement == null || !isForeignTableAllSame(previousElement, snapshot)) {
+                continue;
+            }
+            _reusableTableElementMap.put(tableKey, (Element) _doc.importNode(previousElement, true));
+        }
+        final int extractedCount = _tableFingerprintMap.size() - _reusableTableElementMap.size();
+        _log.info(" -> reused=" + _reusableTableElementMap.size() + " extracted=" + extractedCount);
+    }
+
+    protected Map<String, String> extractTableFingerprintMap(DfTableFingerprintExtractor extractor,
+            List<DfTableMeta> tableList) {
+        final Map<String, Map<String, String>> schemaFingerprintMap = new HashMap<String, Map<String, String>>();
+        final Map<String, String> tableFingerprintMap = new LinkedHashMap<String, String>();
+        for (DfTableMeta tableMeta : tableList) {
+            final UnifiedSchema unifiedSchema = tableMeta.getUnifiedSchema();
+            final String identifiedSchema = unifiedSchema.getIdentifiedSchema();
+            Map<String, String> fingerprintMap = schemaFingerprintMap.get(identifiedSchema);
+            if (fingerprintMap == null) { // one query per schema
+                fingerprintMap = extractor.extractTableFingerprintMap(unifiedSchema);
+                schemaFingerprintMap.put(identifiedSchema, fingerprintMap);
+            }
+            final String tableName = tableMeta.getTableName();
+            final String tableKey = buildTableElementKey(unifiedSchema, tableName);
+            tableFingerprintMap.put(tableKey, fingerprintMap.get(tableName)); // null if no fingerprint e.g. view
+        }
+        return tableFingerprintMap;
+    }
+
+    protected boolean isForeignTableAllSame(Element tableElement, DfTableFingerprintSnapshot snapshot) {
+        final NodeList nodeList = tableElement.getChildNodes();
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            final Node node = nodeList.item(i);
+            if (node.getNodeType() != Node.ELEMENT_NODE || !"foreign-key".equals(node.getNodeName())) {
+                continue;
+            }
+            final Element fkElement = (Element) node;
+            final String foreignSchema = fkElement.getAttribute("foreignSchema"); // empty if no schema
+            final String foreignTable = fkElement.getAttribute("foreignTable");
+            final String foreignKey;
+            if (Srl.is_NotNull_and_NotTrimmedEmpty(foreignSchema)) {
+                foreignKey = foreignSchema + "." + foreignTable;
+            } else {
+                foreignKey = foreignTable;
+            }
+            // unknown foreign table (e.g. other schema) is treated as changed
+            if (!snapshot.isSameFingerprint(foreignKey, _tableFingerprintMap.get(foreignKey))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected Element findReusableTableElement(DfTableMeta tableMeta) {
+        if (_reusableTableElementMap.isEmpty()) {
+            return null;
+        }
+        final String tableKey = buildTableElementKey(tableMeta.getUnifiedSchema(), tableMeta.getTableName());
+        return _reusableTableElementMap.get(tableKey);
+    }
+
+    /**
+     * Restore the list of column meta from the reused table element, instead of extracting by meta data. <br />
+     * The order of columns is same as the previous extraction.
+     * @param tableMeta The meta information of the table. (NotNull)
+     * @param tableElement The reused element of the table. (NotNull)
+     * @return The list of column meta restored from the column elements. (NotNull)
+     */
+    protected List<DfColumnMeta> restoreReusedColumnMetaList(DfTableMeta tableMeta, Element tableElement) {
+        final List<DfColumnMeta> columnList = new ArrayList<DfColumnMeta>();
+        final NodeList nodeList = tableElement.getChildNodes();
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            final Node node = nodeList.item(i);
+            if (node.getNodeType() != Node.ELEMENT_NODE || !"column".equals(node.getNodeName())) {
+                continue;
+            }
+            final Element columnElement = (Element) node;
+            final DfColumnMeta columnMeta = new DfColumnMeta();
+            columnMeta.setTableName(tableMeta.getTableName());
+            columnMeta.setColumnName(columnElement.getAttribute("name"));
+            columnMeta.setJdbcDefValue(TypeMap.getJdbcDefValueByJdbcType(columnElement.getAttribute("type")));
+            columnMeta.setDbTypeName(columnElement.getAttribute("dbType"));
+            final String size = columnElement.getAttribute("size"); // e.g. "10" or "10, 2"
+            if (Srl.is_NotNull_and_NotTrimmedEmpty(size)) {
+                final List<String> sizeList = Srl.splitListTrimmed(size, ",");
+                columnMeta.setColumnSize(Integer.parseInt(sizeList.get(0)));
+                if (sizeList.size() > 1) {
+                    columnMeta.setDecimalDigits(Integer.parseInt(sizeList.get(1)));
+                }
+            }
+            columnMeta.setRequired("true".equals(columnElement.getAttribute("required")));
+            if (columnElement.hasAttribute("default")) {
+                columnMeta.setDefaultValue(columnElement.getAttribute("default"));
+            }
+            if (columnElement.hasAttribute("comment")) {
+                columnMeta.setColumnComment(columnElement.getAttribute("comment"));
+            }
+            columnList.add(columnMeta);
+        }
+        return columnList;
+    }
+
+    protected String buildTableElementKey(UnifiedSchema unifiedSchema, String tableName) {
+        // same as the schema attribute of table element
+        return unifiedSchema.hasSchema() ? unifiedSchema.buildIdentifiedName(tableName) : tableName;
+    }
+
+    protected Map<String, Element> readPreviousTableElementMap() {
+        final Map<String, Element> elementMap = new HashMap<String, Element>();
+        final Document previousDoc;
+        try {
+            final DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            builder.setEntityResolver(new DTDResolver()); // not to access the web site
+            previousDoc = builder.parse(new File(_schemaXml));
+        } catch (ParserConfigurationException e) {
+            _log.info("*Failed to read previous SchemaXML so full extraction: " + e.getMessage());
+            return elementMap;
+        } catch (SAXException e) {
+            _log.info("*Failed to read previous SchemaXML so full extraction: " + e.getMessage());
+            return elementMap;
+        } catch (IOException e) {
+            _log.info("*Failed to read previous SchemaXML so full extraction: " + e.getMessage());
+            return elementMap;
+        }
+        final NodeList nodeList = previousDoc.getDocumentElement().getChildNodes();
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            final Node node = nodeList.item(i);
+            if (node.getNodeType() != Node.ELEMENT_NODE || !"table".equals(node.getNodeName())) {
+                continue;
+            }
+            final Element element = (Element) node;
+            final String schema = element.getAttribute("schema"); // empty if no schema
+            final String tableName = element.getAttribute("name");
+            elementMap.put(Srl.is_NotNull_and_NotTrimmedEmpty(schema) ? schema + "." + tableName : tableName, element);
+        }
+        return elementMap;
+    }
+
+    protected void saveFingerprintSnapshotIfNeeds() {
+        if (_tableFingerprintMap == null) { // not incremental or failed to extract
+            return;
+        }
+        final DfTableFingerprintSnapshot snapshot = createFingerprintSnapshot();
+        snapshot.setEnvironmentStamp(buildEnvironmentStamp());
+        snapshot.setSchemaXmlStamp(buildSchemaXmlStamp());
+        for (Entry<String, String> entry : _tableFingerprintMap.entrySet()) {
+            snapshot.registerTableFingerprint(entry.getKey(), entry.getValue());
+        }
+        _log.info("...Saving table fingerprints: " + snapshot.getSnapshotFile());
+        snapshot.save();
+    }
+
+    protected DfTableFingerprintSnapshot createFingerprintSnapshot() {
+        return new DfTableFingerprintSnapshot(_schemaXml + ".fingerprint");
+    }
+
+    /**
+     * Build the stamp of environment that affects the elements of tables. <br />
+     * DBFlute properties (dfprop) and the engine itself are the environment.
+     * @return The string of stamp. (NotNull)
+     */
+    protected String buildEnvironmentStamp() {
+        final StringBuilder sb = new StringBuilder();
+        final File[] dfpropFiles = new File("./dfprop").listFiles();
+        if (dfpropFiles != null) {
+            Arrays.sort(dfpropFiles);
+            for (File dfpropFile : dfpropFiles) {
+                sb.append(dfpropFile.getName()).append(":").append(buildFileStamp(dfpropFile)).append(";");
+            }
+        }
+        try {
+            final String engineLocation = getClass().getProtectionDomain().getCodeSource().getLocation().getPath();
+            sb.append("engine:").append(buildFileStamp(new File(engineLocation)));
+        } catch (RuntimeException ignored) { // e.g. security manager
+        }
+        return Integer.toHexString(sb.toString().hashCode());
+    }
+
+    protected String buildSchemaXmlStamp() {
+        return buildFileStamp(new File(_schemaXml));
+    }
+
+    protected String buildFileStamp(File file) {
+        return file.lastModified() + "/" + file.length();
+    }
+
+    protected DfTableFingerprintExtractor createTableFingerprintExtractor() {
+        final DfTableFingerprintExtractorFactory factory = createTableFingerprintExtractorFactory();
+        return factory.createTableFingerprintExtractor();
+    }
+
+    protected DfTableFingerprintExtractorFactory createTableFingerprintExtractorFactory() {
+        return new DfTableFingerprintExtractorFactory(_dataSource, getDatabaseTypeFacadeProp());
+    }
+
     // ===================================================================================
     //                                                                         Schema Diff
     //                                                                         ===========
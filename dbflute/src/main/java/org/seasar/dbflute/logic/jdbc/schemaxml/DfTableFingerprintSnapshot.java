@@ -0,0 +1,198 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.schemaxml;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The snapshot of table fingerprints when the SchemaXML was serialized. <br />
+ * It is saved next to the SchemaXML and used by incremental extraction
+ * to judge which tables can reuse their previous elements.
+ * @author jflute
+ * @since 1.0.5K (2014/08/10 Sunday)
+ */
+public class DfTableFingerprintSnapshot {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final String ENVIRONMENT_KEY = "$$environment$$";
+    protected static final String SCHEMA_XML_KEY = "$$schemaXml$$";
+    protected static final String NO_FINGERPRINT = "-";
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String _snapshotFile;
+    protected String _environmentStamp;
+    protected String _schemaXmlStamp;
+    protected final Map<String, String> _tableFingerprintMap = new TreeMap<String, String>(); // simple order
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param snapshotFile The path of snapshot file. (NotNull)
+     */
+    public DfTableFingerprintSnapshot(String snapshotFile) {
+        _snapshotFile = snapshotFile;
+    }
+
+    // ===================================================================================
+    //                                                                           Load/Save
+    //                                                                           =========
+    /**
+     * Load the snapshot from the file.
+     * @return Does the snapshot file exist? (false means first time)
+     */
+    public boolean load() {
+        final File file = new File(_snapshotFile);
+        if (!file.exists()) {
+            return false;
+        }
+        final Properties prop = new Properties();
+        InputStream ins = null;
+        try {
+            ins = new FileInputStream(file);
+            prop.load(ins);
+        } catch (IOException e) {
+            String msg = "Failed to load the fingerprint snapshot: " + _snapshotFile;
+            throw new IllegalStateException(msg, e);
+        } finally {
+            if (ins != null) {
+                try {
+                    ins.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        _tableFingerprintMap.clear();
+        for (String key : prop.stringPropertyNames()) {
+            final String value = prop.getProperty(key);
+            if (ENVIRONMENT_KEY.equals(key)) {
+                _environmentStamp = value;
+            } else if (SCHEMA_XML_KEY.equals(key)) {
+                _schemaXmlStamp = value;
+            } else {
+                _tableFingerprintMap.put(key, value);
+            }
+        }
+        return true;
+    }
+
+    public void save() {
+        final Properties prop = new Properties();
+        if (_environmentStamp != null) {
+            prop.setProperty(ENVIRONMENT_KEY, _environmentStamp);
+        }
+        if (_schemaXmlStamp != null) {
+            prop.setProperty(SCHEMA_XML_KEY, _schemaXmlStamp);
+        }
+        for (Entry<String, String> entry : _tableFingerprintMap.entrySet()) {
+            prop.setProperty(entry.getKey(), entry.getValue());
+        }
+        OutputStream ous = null;
+        try {
+            ous = new FileOutputStream(_snapshotFile);
+            prop.store(ous, "table fingerprints for incremental extraction of SchemaXML");
+        } catch (IOException e) {
+            String msg = "Failed to save the fingerprint snapshot: " + _snapshotFile;
+            throw new IllegalStateException(msg, e);
+        } finally {
+            if (ous != null) {
+                try {
+                    ous.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                           Determine
+    //                                                                           =========
+    /**
+     * Can the previous elements be reused by this snapshot? <br />
+     * Not reusable if the environment (e.g. DBFlute properties) or the SchemaXML was changed,
+     * or if some tables were removed because foreign keys of other tables may refer to them.
+     * @param environmentStamp The stamp of current environment. (NotNull)
+     * @param schemaXmlStamp The stamp of current SchemaXML file. (NotNull)
+     * @param currentTableKeySet The set of current table keys. (NotNull)
+     * @return The determination, true or false.
+     */
+    public boolean isReusable(String environmentStamp, String schemaXmlStamp, Set<String> currentTableKeySet) {
+        if (!environmentStamp.equals(_environmentStamp) || !schemaXmlStamp.equals(_schemaXmlStamp)) {
+            return false;
+        }
+        return currentTableKeySet.containsAll(_tableFingerprintMap.keySet());
+    }
+
+    /**
+     * @param tableKey The key of table. (NotNull)
+     * @param fingerprint The current fingerprint of the table. (NullAllowed: if null, always false)
+     * @return Is the fingerprint same as the snapshot?
+     */
+    public boolean isSameFingerprint(String tableKey, String fingerprint) {
+        if (fingerprint == null) {
+            return false;
+        }
+        return fingerprint.equals(_tableFingerprintMap.get(tableKey));
+    }
+
+    // ===================================================================================
+    //                                                                            Register
+    //                                                                            ========
+    /**
+     * @param tableKey The key of table. (NotNull)
+     * @param fingerprint The fingerprint of the table. (NullAllowed: if null, no fingerprint, e.g. view)
+     */
+    public void registerTableFingerprint(String tableKey, String fingerprint) {
+        _tableFingerprintMap.put(tableKey, fingerprint != null ? fingerprint : NO_FINGERPRINT);
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public String getSnapshotFile() {
+        return _snapshotFile;
+    }
+
+    public String getEnvironmentStamp() {
+        return _environmentStamp;
+    }
+
+    public void setEnvironmentStamp(String environmentStamp) {
+        _environmentStamp = environmentStamp;
+    }
+
+    public String getSchemaXmlStamp() {
+        return _schemaXmlStamp;
+    }
+
+    public void setSchemaXmlStamp(String schemaXmlStamp) {
+        _schemaXmlStamp = schemaXmlStamp;
+    }
+}
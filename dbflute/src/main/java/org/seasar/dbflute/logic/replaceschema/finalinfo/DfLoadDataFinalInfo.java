@@ -15,12 +15,18 @@
  */
 package org.seasar.dbflute.logic.replaceschema.finalinfo;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.seasar.dbflute.logic.replaceschema.loaddata.DfLoadedTableThroughput;
+
 /**
  * @author jflute
  */
 public class DfLoadDataFinalInfo extends DfAbstractSchemaTaskFinalInfo {
 
     protected RuntimeException _loadEx;
+    protected final List<DfLoadedTableThroughput> _loadedTableThroughputList = new ArrayList<DfLoadedTableThroughput>();
 
     public RuntimeException getLoadEx() {
         return _loadEx;
@@ -29,4 +35,12 @@ public class DfLoadDataFinalInfo extends DfAbstractSchemaTaskFinalInfo {
     public void setLoadEx(RuntimeException loadEx) {
         this._loadEx = loadEx;
     }
+
+    public List<DfLoadedTableThroughput> getLoadedTableThroughputList() {
+        return _loadedTableThroughputList;
+    }
+
+    public void addLoadedTableThroughput(DfLoadedTableThroughput throughput) {
+        this._loadedTableThroughputList.add(throughput);
+    }
 }
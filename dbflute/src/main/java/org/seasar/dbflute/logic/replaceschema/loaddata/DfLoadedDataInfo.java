@@ -49,6 +49,7 @@ public class DfLoadedDataInfo {
     protected final Map<String, List<DfLoadedFile>> _fileTypeListMap = new LinkedHashMap<String, List<DfLoadedFile>>();
     protected final Map<String, Map<String, List<DfLoadedFile>>> _hierarchyListMap = new LinkedHashMap<String, Map<String, List<DfLoadedFile>>>();
     protected final List<DfLoadedClassificationLazyChecker> _loadedClassificationLazyChecker = new ArrayList<DfLoadedClassificationLazyChecker>();
+    protected final List<DfLoadedTableThroughput> _loadedTableThroughputList = new ArrayList<DfLoadedTableThroughput>();
 
     // ===================================================================================
     //                                                                           Attribute
@@ -121,4 +122,12 @@ public class DfLoadedDataInfo {
         _loadedClassificationLazyChecker.addAll(checkerList);
     }
 
+    public List<DfLoadedTableThroughput> getLoadedTableThroughputList() {
+        return _loadedTableThroughputList;
+    }
+
+    public void addLoadedTableThroughput(String tableDbName, String fileName, int rowSize, long costMillis) {
+        _loadedTableThroughputList.add(new DfLoadedTableThroughput(tableDbName, fileName, rowSize, costMillis));
+    }
+
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.replaceschema.loaddata;
+
+/**
+ * The throughput of loaded table, which is reported in the final info of LoadData.
+ * @author jflute
+ * @since 1.0.5K (2014/08/10 Sunday)
+ */
+public class DfLoadedTableThroughput {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String _tableDbName;
+    protected final String _fileName;
+    protected final int _rowSize;
+    protected final long _costMillis;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public DfLoadedTableThroughput(String tableDbName, String fileName, int rowSize, long costMillis) {
+        _tableDbName = tableDbName;
+        _fileName = fileName;
+        _rowSize = rowSize;
+        _costMillis = costMillis;
+    }
+
+    // ===================================================================================
+    //                                                                          Throughput
+    //                                                                          ==========
+    /**
+     * Get the count of rows loaded per second.
+     * @return The count of rows. (NotMinus: if the cost is zero, the row size is returned)
+     */
+    public long getRowsPerSecond() {
+        return _costMillis > 0 ? (_rowSize * 1000L / _costMillis) : _rowSize;
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return _tableDbName + ": " + _rowSize + " rows, " + _costMillis + "ms (" + getRowsPerSecond() + " rows/sec)";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public String getTableDbName() {
+        return _tableDbName;
+    }
+
+    public String getFileName() {
+        return _fileName;
+    }
+
+    public int getRowSize() {
+        return _rowSize;
+    }
+
+    public long getCostMillis() {
+        return _costMillis;
+    }
+}
@@ -244,6 +244,11 @@ public abstract class DfAbsractDataWriter {
         return value == null;
     }
 
+    protected Integer findCachedNullType(String tableName, String columnName) {
+        final Map<String, Integer> cacheMap = _nullTypeCacheMap.get(tableName);
+        return cacheMap != null ? cacheMap.get(columnName) : null;
+    }
+
     // -----------------------------------------------------
     //                                     NotNull NotString
     //                                     -----------------
@@ -290,11 +295,8 @@ public abstract class DfAbsractDataWriter {
         }
         final StringProcessor processor = cacheMap.get(columnName);
         if (processor != null) { // cache hit
-            final boolean processed = processor.process(dataDirectory, dataFile, tableName, columnName, value, conn,
-                    ps, bindCount, columnInfoMap, rowNumber);
-            if (!processed) {
-                throwColumnValueProcessingFailureException(processor, tableName, columnName, value);
-            }
+            doProcessStringByProcessor(processor, dataDirectory, dataFile, tableName, columnName, value, conn, ps,
+                    bindCount, columnInfoMap, rowNumber);
             return;
         }
         for (StringProcessor tryProcessor : _stringProcessorList) {
@@ -309,6 +311,44 @@ public abstract class DfAbsractDataWriter {
         // (_stringProcessorList has processor for real string)
     }
 
+    /**
+     * Process the not-null string value by the processor already determined for the column.
+     * @param processor The string processor determined by the previous value of the column. (NotNull)
+     * @param dataDirectory The directory of data file. (NotNull)
+     * @param dataFile The data file. (NotNull)
+     * @param tableName The name of table. (NotNull)
+     * @param columnName The name of column. (NotNull)
+     * @param value The plain string value, which may be quoted. (NotNull)
+     * @param conn The connection for the statement. (NotNull)
+     * @param ps The prepared statement to bind. (NotNull)
+     * @param bindCount The index of bind parameter. (NotMinus)
+     * @param columnInfoMap The map of column meta. (NotNull)
+     * @param rowNumber The number of row. (NotMinus)
+     * @throws SQLException When it fails to bind the value.
+     */
+    protected void processStringByProcessor(StringProcessor processor, String dataDirectory, File dataFile,
+            String tableName, String columnName, String value, Connection conn, PreparedStatement ps, int bindCount,
+            Map<String, DfColumnMeta> columnInfoMap, int rowNumber) throws SQLException {
+        value = Srl.unquoteDouble(value); // same as the first processing
+        doProcessStringByProcessor(processor, dataDirectory, dataFile, tableName, columnName, value, conn, ps,
+                bindCount, columnInfoMap, rowNumber);
+    }
+
+    protected void doProcessStringByProcessor(StringProcessor processor, String dataDirectory, File dataFile,
+            String tableName, String columnName, String value, Connection conn, PreparedStatement ps, int bindCount,
+            Map<String, DfColumnMeta> columnInfoMap, int rowNumber) throws SQLException {
+        final boolean processed = processor.process(dataDirectory, dataFile, tableName, columnName, value, conn, ps,
+                bindCount, columnInfoMap, rowNumber);
+        if (!processed) {
+            throwColumnValueProcessingFailureException(processor, tableName, columnName, value);
+        }
+    }
+
+    protected StringProcessor findCachedStringProcessor(String tableName, String columnName) {
+        final Map<String, StringProcessor> cacheMap = _stringProcessorCacheMap.get(tableName);
+        return cacheMap != null ? cacheMap.get(columnName) : null;
+    }
+
     protected void throwColumnValueProcessingFailureException(StringProcessor processor, String tableName,
             String columnName, String value) throws SQLException {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
@@ -20,7 +20,6 @@ import java.sql.Timestamp;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -43,6 +42,12 @@ public class DfColumnValueConverter {
     protected Map<String, String> _allColumnConvertMap; // derived lazily
     protected boolean _emptyToNullIfNoConvert;
 
+    /** The cache of found convert mapping per column name, so the converter can be reused for rows. */
+    protected final Map<String, Map<String, String>> _convertMappingCacheMap = new HashMap<String, Map<String, String>>();
+
+    /** The recycled set to mark converted value. (NotNull) */
+    protected final Set<String> _convertedSet = new HashSet<String>(1);
+
     public DfColumnValueConverter(Map<String, Map<String, String>> convertValueMap,
             Map<String, String> defaultValueMap, DfColumnBindTypeProvider bindTypeProvider) {
         _convertValueMap = convertValueMap;
@@ -56,8 +61,7 @@ public class DfColumnValueConverter {
     }
 
     public void convert(String tableName, Map<String, Object> columnValueMap, Map<String, DfColumnMeta> columnMetaMap) {
-        final Map<String, Object> resolvedMap = new LinkedHashMap<String, Object>(columnValueMap.size());
-        final Set<String> convertedSet = new HashSet<String>(1);
+        final Set<String> convertedSet = _convertedSet;
         for (Entry<String, Object> entry : columnValueMap.entrySet()) {
             final String columnName = entry.getKey();
             final Object plainValue = entry.getValue();
@@ -70,10 +74,7 @@ public class DfColumnValueConverter {
             } else {
                 convertedSet.clear(); // recycle
             }
-            resolvedMap.put(columnName, resolvedValue);
-        }
-        for (Entry<String, Object> entry : resolvedMap.entrySet()) { // to keep original map instance
-            columnValueMap.put(entry.getKey(), entry.getValue());
+            entry.setValue(resolvedValue); // no structural modification so the map instance is kept
         }
     }
 
@@ -206,6 +207,15 @@ public class DfColumnValueConverter {
     }
 
     protected Map<String, String> findConvertValueMapping(String columnName) {
+        if (_convertMappingCacheMap.containsKey(columnName)) { // null value means no mapping
+            return _convertMappingCacheMap.get(columnName);
+        }
+        final Map<String, String> mapping = doFindConvertValueMapping(columnName);
+        _convertMappingCacheMap.put(columnName, mapping);
+        return mapping;
+    }
+
+    protected Map<String, String> doFindConvertValueMapping(String columnName) {
         if (_allColumnConvertMap == null) { // initialize
             _allColumnConvertMap = _convertValueMap.get("$$ALL$$");
             if (_allColumnConvertMap == null) {
@@ -19,11 +19,22 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.sql.DataSource;
 
@@ -31,6 +42,16 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.torque.engine.database.model.UnifiedSchema;
 import org.seasar.dbflute.exception.DfDelimiterDataRegistrationFailureException;
+import org.seasar.dbflute.helper.StringKeyMap;
+import org.seasar.dbflute.helper.StringSet;
+import org.seasar.dbflute.helper.jdbc.connection.DfCushionDataSource;
+import org.seasar.dbflute.helper.jdbc.connection.DfFittingConnection;
+import org.seasar.dbflute.helper.jdbc.connection.DfFittingDataSource;
+import org.seasar.dbflute.logic.doc.lreverse.DfTableOrderAnalyzer;
+import org.seasar.dbflute.logic.jdbc.metadata.basic.DfForeignKeyExtractor;
+import org.seasar.dbflute.logic.jdbc.metadata.basic.DfTableExtractor;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfForeignKeyMeta;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfTableMeta;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfDelimiterDataHandler;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfDelimiterDataResource;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfDelimiterDataResultInfo;
@@ -67,6 +88,15 @@ public class DfDelimiterDataHandlerImpl implements DfDelimiterDataHandler {
     /** The data-prop of loading control map. (NotNull: after initialization) */
     protected DfLoadingControlProp _loadingControlProp;
 
+    /** The size of batch statements flushed at a time. (NotMinus, NotZero) */
+    protected int _batchSize = DfDelimiterDataWriterImpl.DEFAULT_BATCH_SIZE;
+
+    /** The size of thread pool for parallel loading. (NotMinus, NotZero: 1 means no parallel) */
+    protected int _parallelPoolSize = 1;
+
+    /** The analyzer of table order for foreign-key dependency in parallel loading. (NotNull) */
+    protected final DfTableOrderAnalyzer _tableOrderAnalyzer = new DfTableOrderAnalyzer();
+
     // ===================================================================================
     //                                                                                Main
     //                                                                                ====
@@ -106,28 +136,18 @@ public class DfDelimiterDataHandlerImpl implements DfDelimiterDataHandler {
 
                 final Map<String, Map<String, String>> convertValueMap = getConvertValueMap(resource, encoding);
                 final Map<String, String> defaultValueMap = getDefaultValueMap(resource, encoding);
+                if (isParallelLoading(sortedFileNameSet)) {
+                    writeDataParallel(resource, loadedDataInfo, resultInfo, encoding, sortedFileNameSet,
+                            convertValueMap, defaultValueMap);
+                    continue;
+                }
                 for (String fileName : sortedFileNameSet) {
-                    final String fileNamePath = basePath + "/" + encoding + "/" + fileName;
-                    final DfDelimiterDataWriterImpl writer = new DfDelimiterDataWriterImpl(_dataSource, _unifiedSchema);
-                    writer.setLoggingInsertSql(isLoggingInsertSql());
-                    writer.setFileName(fileNamePath);
-                    writer.setEncoding(encoding);
-                    writer.setDelimiter(resource.getDelimiter());
-                    writer.setConvertValueMap(convertValueMap);
-                    writer.setDefaultValueMap(defaultValueMap);
-                    writer.setSuppressBatchUpdate(isSuppressBatchUpdate());
-                    writer.setSuppressCheckColumnDef(isSuppressCheckColumnDef());
-                    writer.setSuppressCheckImplicitSet(isSuppressCheckImplicitSet());
-                    writer.setDataWritingInterceptor(_dataWritingInterceptor);
-                    writer.setDefaultValueProp(_defaultValueProp);
-                    writer.setLoadingControlProp(_loadingControlProp);
+                    final DfDelimiterDataWriterImpl writer = createDelimiterDataWriter(resource, encoding, fileName,
+                            convertValueMap, defaultValueMap, _dataSource);
+                    final long before = System.currentTimeMillis();
                     writer.writeData(resultInfo);
-                    prepareImplicitClassificationLazyCheck(loadedDataInfo, writer);
-
-                    final String loadType = resource.getLoadType();
-                    final String fileType = resource.getFileType();
-                    final boolean warned = resultInfo.getWarningFileMap().containsKey(fileNamePath);
-                    loadedDataInfo.addLoadedFile(loadType, fileType, encoding, fileName, warned);
+                    final long costMillis = System.currentTimeMillis() - before;
+                    registerLoadedFile(resource, loadedDataInfo, resultInfo, encoding, fileName, writer, costMillis);
                 }
             }
         } catch (IOException e) {
@@ -137,6 +157,41 @@ public class DfDelimiterDataHandlerImpl implements DfDelimiterDataHandler {
         return resultInfo;
     }
 
+    protected DfDelimiterDataWriterImpl createDelimiterDataWriter(DfDelimiterDataResource resource, String encoding,
+            String fileName, Map<String, Map<String, String>> convertValueMap, Map<String, String> defaultValueMap,
+            DataSource dataSource) {
+        final String fileNamePath = resource.getBasePath() + "/" + encoding + "/" + fileName;
+        final DfDelimiterDataWriterImpl writer = new DfDelimiterDataWriterImpl(dataSource, _unifiedSchema);
+        writer.setLoggingInsertSql(isLoggingInsertSql());
+        writer.setFileName(fileNamePath);
+        writer.setEncoding(encoding);
+        writer.setDelimiter(resource.getDelimiter());
+        writer.setConvertValueMap(convertValueMap);
+        writer.setDefaultValueMap(defaultValueMap);
+        writer.setSuppressBatchUpdate(isSuppressBatchUpdate());
+        writer.setSuppressCheckColumnDef(isSuppressCheckColumnDef());
+        writer.setSuppressCheckImplicitSet(isSuppressCheckImplicitSet());
+        writer.setDataWritingInterceptor(_dataWritingInterceptor);
+        writer.setDefaultValueProp(_defaultValueProp);
+        writer.setLoadingControlProp(_loadingControlProp);
+        writer.setBatchSize(_batchSize);
+        return writer;
+    }
+
+    protected void registerLoadedFile(DfDelimiterDataResource resource, DfLoadedDataInfo loadedDataInfo,
+            DfDelimiterDataResultInfo resultInfo, String encoding, String fileName, DfDelimiterDataWriterImpl writer,
+            long costMillis) {
+        prepareImplicitClassificationLazyCheck(loadedDataInfo, writer);
+        final String loadType = resource.getLoadType();
+        final String fileType = resource.getFileType();
+        final boolean warned = resultInfo.getWarningFileMap().containsKey(writer.getFileName());
+        loadedDataInfo.addLoadedFile(loadType, fileType, encoding, fileName, warned);
+        final String tableDbName = writer.getLoadedTableDbName();
+        if (tableDbName != null) {
+            loadedDataInfo.addLoadedTableThroughput(tableDbName, fileName, writer.getLoadedRowSize(), costMillis);
+        }
+    }
+
     protected boolean isUnsupportedEncodingDirectory(String encoding) {
         try {
             new String(new byte[0], 0, 0, encoding);
@@ -170,6 +225,241 @@ public class DfDelimiterDataHandlerImpl implements DfDelimiterDataHandler {
         info.acceptImplicitClassificationLazyCheck(checkerList);
     }
 
+    // ===================================================================================
+    //                                                                       Parallel Load
+    //                                                                       =============
+    protected boolean isParallelLoading(SortedSet<String> sortedFileNameSet) {
+        if (_parallelPoolSize <= 1 || sortedFileNameSet.size() <= 1) {
+            return false;
+        }
+        // identity insert of the interceptor is effective in only one session
+        // and worker threads need their own connections
+        return _dataWritingInterceptor == null && _dataSource instanceof DfFittingDataSource;
+    }
+
+    /**
+     * Write the delimiter files in parallel. <br />
+     * Tables are grouped into levels of foreign-key dependency,
+     * and tables in the same level are loaded concurrently by the pool,
+     * and the next level waits for the previous level so parents are loaded before children.
+     * Several files of the same table are loaded in one task by the file order.
+     * @param resource The resource of delimiter data. (NotNull)
+     * @param loadedDataInfo The info of loaded data, registered after each level. (NotNull)
+     * @param resultInfo The info of result, merged after each level. (NotNull)
+     * @param encoding The encoding of the files. (NotNull)
+     * @param sortedFileNameSet The set of file names sorted by the name. (NotNull)
+     * @param convertValueMap The map of convert value. (NullAllowed)
+     * @param defaultValueMap The map of default value. (NullAllowed)
+     * @throws IOException When it fails to read the files.
+     */
+    protected void writeDataParallel(DfDelimiterDataResource resource, DfLoadedDataInfo loadedDataInfo,
+            DfDelimiterDataResultInfo resultInfo, String encoding, SortedSet<String> sortedFileNameSet,
+            Map<String, Map<String, String>> convertValueMap, Map<String, String> defaultValueMap)
+            throws IOException {
+        final Map<String, List<String>> tableFileListMap = StringKeyMap.createAsFlexibleOrdered();
+        for (String fileName : sortedFileNameSet) {
+            final String tableDbName = DfDelimiterDataWriterImpl.extractTableDbName(fileName);
+            List<String> fileNameList = tableFileListMap.get(tableDbName);
+            if (fileNameList == null) {
+                fileNameList = new ArrayList<String>();
+                tableFileListMap.put(tableDbName, fileNameList);
+            }
+            fileNameList.add(fileName);
+        }
+        // the loading control map is lazily cached so it is prepared before worker threads
+        _loadingControlProp.isCheckColumnDefExistence(resource.getBasePath() + "/" + encoding);
+        final Map<String, Set<String>> parentTableMap = extractParentTableMap(tableFileListMap.keySet());
+        final List<List<String>> levelList = _tableOrderAnalyzer.analyzeDependencyLevel(parentTableMap);
+        _log.info("...Loading tables in parallel: pool=" + _parallelPoolSize + ", levels=" + levelList.size());
+        final ExecutorService executorService = Executors.newFixedThreadPool(_parallelPoolSize);
+        try {
+            for (List<String> levelTableList : levelList) {
+                final List<TableLoadingTask> taskList = new ArrayList<TableLoadingTask>(levelTableList.size());
+                final List<Future<DfDelimiterDataResultInfo>> futureList = new ArrayList<Future<DfDelimiterDataResultInfo>>(
+                        levelTableList.size());
+                for (String tableDbName : levelTableList) {
+                    final List<String> fileNameList = tableFileListMap.get(tableDbName);
+                    final TableLoadingTask task = new TableLoadingTask(resource, encoding, fileNameList,
+                            convertValueMap, defaultValueMap);
+                    taskList.add(task);
+                    futureList.add(executorService.submit(task));
+                }
+                Throwable firstCause = null;
+                for (int i = 0; i < futureList.size(); i++) { // waits for all tasks in the level
+                    final TableLoadingTask task = taskList.get(i);
+                    try {
+                        final DfDelimiterDataResultInfo taskResultInfo = futureList.get(i).get();
+                        mergeResultInfo(resultInfo, taskResultInfo);
+                        for (int j = 0; j < task.getWriterList().size(); j++) { // registered in the file order
+                            final DfDelimiterDataWriterImpl writer = task.getWriterList().get(j);
+                            final String fileName = task.getFileNameList().get(j);
+                            final Long costMillis = task.getCostMillisList().get(j);
+                            registerLoadedFile(resource, loadedDataInfo, resultInfo, encoding, fileName, writer,
+                                    costMillis);
+                        }
+                    } catch (ExecutionException e) {
+                        if (firstCause == null) {
+                            firstCause = e.getCause();
+                        }
+                    } catch (InterruptedException e) {
+                        String msg = "Interrupted while loading tables in parallel: " + levelTableList;
+                        throw new DfDelimiterDataRegistrationFailureException(msg, e);
+                    }
+                }
+                if (firstCause != null) {
+                    throwParallelLoadingFailure(firstCause);
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    protected Map<String, Set<String>> extractParentTableMap(Set<String> tableDbNameSet) {
+        final Map<String, Set<String>> parentTableMap = StringKeyMap.createAsFlexibleOrdered();
+        final DfTableExtractor tableExtractor = new DfTableExtractor();
+        final DfForeignKeyExtractor foreignKeyExtractor = new DfForeignKeyExtractor();
+        Connection conn = null;
+        try {
+            conn = _dataSource.getConnection();
+            final DatabaseMetaData metaData = conn.getMetaData();
+            final List<DfTableMeta> tableList = tableExtractor.getTableList(metaData, _unifiedSchema);
+            final List<String> tableNameList = new ArrayList<String>();
+            for (DfTableMeta meta : tableList) {
+                tableNameList.add(meta.getTableDbName());
+            }
+            foreignKeyExtractor.enableTableCaseTranslation(tableNameList); // file name might be favorite case
+            for (String tableDbName : tableDbNameSet) {
+                final Set<String> parentTableSet = StringSet.createAsFlexibleOrdered();
+                final Map<String, DfForeignKeyMeta> foreignKeyMap = foreignKeyExtractor.getForeignKeyMap(metaData,
+                        _unifiedSchema, tableDbName);
+                for (DfForeignKeyMeta foreignKey : foreignKeyMap.values()) {
+                    parentTableSet.add(foreignKey.getForeignTablePureName());
+                }
+                parentTableMap.put(tableDbName, parentTableSet);
+            }
+            return parentTableMap;
+        } catch (SQLException e) {
+            String msg = "Failed to get foreign keys for parallel loading: tables=" + tableDbNameSet;
+            throw new IllegalStateException(msg, e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    protected void mergeResultInfo(DfDelimiterDataResultInfo resultInfo, DfDelimiterDataResultInfo taskResultInfo) {
+        for (Entry<String, Set<String>> entry : taskResultInfo.getNotFoundColumnMap().entrySet()) {
+            final Set<String> columnSet = resultInfo.getNotFoundColumnMap().get(entry.getKey());
+            if (columnSet != null) {
+                columnSet.addAll(entry.getValue());
+            } else {
+                resultInfo.getNotFoundColumnMap().put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Entry<String, List<String>> entry : taskResultInfo.getWarningFileMap().entrySet()) {
+            for (String message : entry.getValue()) {
+                resultInfo.registerWarningFile(entry.getKey(), message);
+            }
+        }
+    }
+
+    protected void throwParallelLoadingFailure(Throwable cause) throws IOException {
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        } else {
+            String msg = "Failed to load tables in parallel.";
+            throw new DfDelimiterDataRegistrationFailureException(msg, cause);
+        }
+    }
+
+    /**
+     * The task to load files of one table on the own connection.
+     */
+    protected class TableLoadingTask implements Callable<DfDelimiterDataResultInfo> {
+
+        protected final DfDelimiterDataResource _resource;
+        protected final String _encoding;
+        protected final List<String> _fileNameList;
+        protected final Map<String, Map<String, String>> _convertValueMap;
+        protected final Map<String, String> _defaultValueMap;
+        protected final List<DfDelimiterDataWriterImpl> _writerList = new ArrayList<DfDelimiterDataWriterImpl>();
+        protected final List<Long> _costMillisList = new ArrayList<Long>();
+
+        public TableLoadingTask(DfDelimiterDataResource resource, String encoding, List<String> fileNameList,
+                Map<String, Map<String, String>> convertValueMap, Map<String, String> defaultValueMap) {
+            _resource = resource;
+            _encoding = encoding;
+            _fileNameList = fileNameList;
+            _convertValueMap = convertValueMap;
+            _defaultValueMap = defaultValueMap;
+        }
+
+        public DfDelimiterDataResultInfo call() throws Exception {
+            final DfDelimiterDataResultInfo taskResultInfo = new DfDelimiterDataResultInfo(); // not shared
+            final Connection workerConn = ((DfFittingDataSource) _dataSource).newConnection();
+            final WorkerDataSource workerDataSource = new WorkerDataSource(workerConn);
+            try {
+                for (String fileName : _fileNameList) {
+                    final DfDelimiterDataWriterImpl writer = createDelimiterDataWriter(_resource, _encoding, fileName,
+                            _convertValueMap, _defaultValueMap, workerDataSource);
+                    final long before = System.currentTimeMillis();
+                    writer.writeData(taskResultInfo);
+                    _costMillisList.add(System.currentTimeMillis() - before);
+                    _writerList.add(writer);
+                }
+                if (!workerConn.getAutoCommit()) {
+                    workerConn.commit(); // for children in next levels
+                }
+                return taskResultInfo;
+            } finally {
+                try {
+                    workerConn.close();
+                } catch (SQLException ignored) {
+                    _log.info("Connection.close() threw the exception!", ignored);
+                }
+            }
+        }
+
+        public List<String> getFileNameList() {
+            return _fileNameList;
+        }
+
+        public List<DfDelimiterDataWriterImpl> getWriterList() {
+            return _writerList;
+        }
+
+        public List<Long> getCostMillisList() {
+            return _costMillisList;
+        }
+    }
+
+    /**
+     * The data source that always returns the connection of a worker thread. <br />
+     * The writer closes a connection per file so the connection is wrapped not to be closed by it.
+     */
+    protected static class WorkerDataSource extends DfCushionDataSource {
+
+        protected final Connection _connection;
+
+        public WorkerDataSource(Connection realConnection) {
+            _connection = new DfFittingConnection(realConnection);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return _connection;
+        }
+    }
+
     // ===================================================================================
     //                                                                            Accessor
     //                                                                            ========
@@ -244,4 +534,20 @@ public class DfDelimiterDataHandlerImpl implements DfDelimiterDataHandler {
     public void setLoadingControlProp(DfLoadingControlProp loadingControlProp) {
         this._loadingControlProp = loadingControlProp;
     }
+
+    public int getBatchSize() {
+        return _batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this._batchSize = batchSize;
+    }
+
+    public int getParallelPoolSize() {
+        return _parallelPoolSize;
+    }
+
+    public void setParallelPoolSize(int parallelPoolSize) {
+        this._parallelPoolSize = parallelPoolSize;
+    }
 }
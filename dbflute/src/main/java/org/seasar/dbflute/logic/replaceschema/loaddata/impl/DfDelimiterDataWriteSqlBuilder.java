@@ -15,6 +15,7 @@
  */
 package org.seasar.dbflute.logic.replaceschema.loaddata.impl;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -22,13 +23,15 @@ import java.util.Map;
 import java.util.Set;
 
 import org.seasar.dbflute.DfBuildProperties;
-import org.seasar.dbflute.exception.DfDelimiterDataRegistrationFailureException;
 import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfColumnBindTypeProvider;
 import org.seasar.dbflute.logic.replaceschema.loaddata.impl.dataprop.DfDefaultValueProp;
 import org.seasar.dbflute.properties.DfLittleAdjustmentProperties;
 
 /**
+ * The builder of SQL and parameters for delimiter data. <br />
+ * It is prepared per table (file) and reused for rows: the bound columns and their value indexes
+ * are analyzed once from the header, and the map of column values is recycled for each row.
  * @author jflute
  */
 public class DfDelimiterDataWriteSqlBuilder {
@@ -44,19 +47,33 @@ public class DfDelimiterDataWriteSqlBuilder {
     protected Map<String, Map<String, String>> _convertValueMap;
     protected Map<String, String> _defaultValueMap;
     protected DfColumnBindTypeProvider _bindTypeProvider;
-    protected Map<String, String> _basicColumnValueMap;
-    protected Map<String, String> _allColumnConvertMap;
     protected DfDefaultValueProp _defaultValueProp;
     protected Set<String> _sysdateColumnSet;
 
+    // -----------------------------------------------------
+    //                                          Binding Plan
+    //                                          ------------
+    /** The list of bound column (real) DB names, analyzed once from the header. (NullAllowed: before analyzed) */
+    protected List<String> _boundColumnNameList;
+
+    /** The array of value index for the bound columns, analyzed with the column names. (NullAllowed: same) */
+    protected int[] _boundValueIndexes;
+
+    /** The recycled map of column values for current row. (NullAllowed: before first row) */
+    protected Map<String, Object> _columnValueMap;
+
+    /** The converter of column value reused for rows. (NullAllowed: lazy-loaded) */
+    protected DfColumnValueConverter _columnValueConverter;
+
     // ===================================================================================
     //                                                                           Build SQL
     //                                                                           =========
     public String buildSql() {
-        final Map<String, String> columnValueMap = createBasicColumnValueMap();
+        prepareBindingPlan();
+        final Set<String> columnNameSet = new LinkedHashSet<String>(_boundColumnNameList); // unique as parameters
         final StringBuilder sb = new StringBuilder();
         final StringBuilder sbValues = new StringBuilder();
-        for (String columnDbName : columnValueMap.keySet()) {
+        for (String columnDbName : columnNameSet) {
             final String columnSqlName = quoteColumnNameIfNeeds(columnDbName);
             sb.append(", ").append(columnSqlName);
             sbValues.append(", ?");
@@ -68,9 +85,13 @@ public class DfDelimiterDataWriteSqlBuilder {
         return sb.toString();
     }
 
+    /**
+     * Set up the parameters of current value list. <br />
+     * The returned map instance is recycled so it is valid until next calling.
+     * @return The map of column values, which is ordered as the SQL. (NotNull)
+     */
     public Map<String, Object> setupParameter() {
-        @SuppressWarnings("unchecked")
-        final Map<String, Object> columnValueMap = (Map<String, Object>) ((Object) createBasicColumnValueMap());
+        final Map<String, Object> columnValueMap = prepareColumnValueMap();
         saveSysdateColumnSet(columnValueMap); // for relative date
         convertColumnValueIfNeeds(columnValueMap);
         return columnValueMap;
@@ -86,9 +107,11 @@ public class DfDelimiterDataWriteSqlBuilder {
         //        && (_defaultValueMap == null || _defaultValueMap.isEmpty())) { // and no default
         //    return;
         //}
-        final DfColumnValueConverter converter = createColumnValueConverter();
-        converter.emptyToNullIfNoConvert(); // e.g. TSV might have empty string (treated as null as default)
-        converter.convert(_tableDbName, columnValueMap, _columnMetaMap);
+        if (_columnValueConverter == null) {
+            _columnValueConverter = createColumnValueConverter();
+            _columnValueConverter.emptyToNullIfNoConvert(); // e.g. TSV might have empty string (treated as null as default)
+        }
+        _columnValueConverter.convert(_tableDbName, columnValueMap, _columnMetaMap);
     }
 
     protected DfColumnValueConverter createColumnValueConverter() {
@@ -106,13 +129,14 @@ public class DfDelimiterDataWriteSqlBuilder {
     }
 
     // ===================================================================================
-    //                                                                           SQL Parts
-    //                                                                           =========
-    protected Map<String, String> createBasicColumnValueMap() {
-        if (_basicColumnValueMap != null) {
-            return _basicColumnValueMap;
+    //                                                                        Binding Plan
+    //                                                                        ============
+    protected void prepareBindingPlan() {
+        if (_boundColumnNameList != null) {
+            return;
         }
-        _basicColumnValueMap = new LinkedHashMap<String, String>();
+        final List<String> boundColumnNameList = new ArrayList<String>(_columnNameList.size());
+        final List<Integer> boundValueIndexList = new ArrayList<Integer>(_columnNameList.size());
         int columnCount = -1;
         for (String columnName : _columnNameList) {
             columnCount++;
@@ -128,27 +152,34 @@ public class DfDelimiterDataWriteSqlBuilder {
                 notFoundColumnSet.add(columnName);
                 continue;
             }
-            final String value;
-            try {
-                if (columnCount < _valueList.size()) {
-                    value = _valueList.get(columnCount);
-                } else {
-                    value = null;
-                }
-            } catch (RuntimeException e) {
-                String msg = "valueList.get(columnCount) threw the exception:";
-                msg = msg + " tableName=" + _tableDbName + " columnNameList=" + _columnNameList;
-                msg = msg + " valueList=" + _valueList + " columnCount=" + columnCount;
-                throw new DfDelimiterDataRegistrationFailureException(msg, e);
-            }
             if (!_columnMetaMap.isEmpty() && _columnMetaMap.containsKey(columnName)) {
-                String realDbName = _columnMetaMap.get(columnName).getColumnName();
-                _basicColumnValueMap.put(realDbName, value);
+                boundColumnNameList.add(_columnMetaMap.get(columnName).getColumnName()); // real DB name
             } else {
-                _basicColumnValueMap.put(columnName, value);
+                boundColumnNameList.add(columnName);
             }
+            boundValueIndexList.add(columnCount);
+        }
+        final int[] boundValueIndexes = new int[boundValueIndexList.size()];
+        for (int i = 0; i < boundValueIndexes.length; i++) {
+            boundValueIndexes[i] = boundValueIndexList.get(i);
+        }
+        _boundValueIndexes = boundValueIndexes;
+        _boundColumnNameList = boundColumnNameList;
+    }
+
+    protected Map<String, Object> prepareColumnValueMap() {
+        prepareBindingPlan();
+        if (_columnValueMap == null) {
+            _columnValueMap = new LinkedHashMap<String, Object>();
+        }
+        final List<String> valueList = _valueList;
+        final int valueSize = valueList.size();
+        for (int i = 0; i < _boundValueIndexes.length; i++) {
+            final int valueIndex = _boundValueIndexes[i];
+            final String value = valueIndex < valueSize ? valueList.get(valueIndex) : null;
+            _columnValueMap.put(_boundColumnNameList.get(i), value); // same keys as previous row so no new entry
         }
-        return _basicColumnValueMap;
+        return _columnValueMap;
     }
 
     // ===================================================================================
@@ -60,6 +60,9 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
     /** Log instance. */
     private static final Log _log = LogFactory.getLog(DfDelimiterDataWriterImpl.class);
 
+    /** The default size of batch statements flushed at a time. */
+    public static final int DEFAULT_BATCH_SIZE = 100000;
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
@@ -69,6 +72,15 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
     protected Map<String, Map<String, String>> _convertValueMap;
     protected Map<String, String> _defaultValueMap;
 
+    /** The size of batch statements flushed at a time. (NotMinus, NotZero) */
+    protected int _batchSize = DEFAULT_BATCH_SIZE;
+
+    /** The DB name of the loaded table. (NullAllowed: before writing) */
+    protected String _loadedTableDbName;
+
+    /** The count of loaded rows. */
+    protected int _loadedRowSize;
+
     /** The cache map of meta info. The key is table name. */
     protected final Map<String, Map<String, DfColumnMeta>> _metaInfoCacheMap = StringKeyMap.createAsFlexible();
 
@@ -92,14 +104,7 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
 
         final String dataDirectory = Srl.substringLastFront(_fileName, "/");
         final LoggingInsertType loggingInsertType = getLoggingInsertType(dataDirectory);
-        final String tableDbName;
-        {
-            String tmp = _fileName.substring(_fileName.lastIndexOf("/") + 1, _fileName.lastIndexOf("."));
-            if (tmp.indexOf("-") >= 0) {
-                tmp = tmp.substring(tmp.indexOf("-") + "-".length());
-            }
-            tableDbName = tmp;
-        }
+        final String tableDbName = extractTableDbName(_fileName);
         final Map<String, DfColumnMeta> columnMetaMap = getColumnMetaMap(tableDbName);
         if (columnMetaMap.isEmpty()) {
             throwTableNotFoundException(_fileName, tableDbName);
@@ -116,6 +121,8 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
         final List<String> valueList = new ArrayList<String>();
 
         final File dataFile = new File(_fileName);
+        DfDelimiterDataWriteSqlBuilder sqlBuilder = null; // prepared once from the header
+        RowBindingPlan bindingPlan = null; // same
         Connection conn = null;
         PreparedStatement ps = null;
         try {
@@ -156,6 +163,7 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
                         additionalColumnList.add(defaultColumn);
                     }
                     columnNameList.addAll(additionalColumnList); // no DB column is ignored later
+                    sqlBuilder = createSqlBuilder(resultInfo, tableDbName, columnMetaMap, columnNameList, valueList);
                     continue;
                 }
 
@@ -199,20 +207,6 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
                 // /- - - - - - - - - - - - - - - -
                 // process registration to database
                 // - - - - - - - - - -/
-                final DfDelimiterDataWriteSqlBuilder sqlBuilder = new DfDelimiterDataWriteSqlBuilder();
-                sqlBuilder.setTableDbName(tableDbName);
-                sqlBuilder.setColumnMetaMap(columnMetaMap);
-                sqlBuilder.setColumnNameList(columnNameList);
-                sqlBuilder.setValueList(valueList);
-                sqlBuilder.setNotFoundColumnMap(resultInfo.getNotFoundColumnMap());
-                sqlBuilder.setConvertValueMap(_convertValueMap);
-                sqlBuilder.setDefaultValueMap(_defaultValueMap);
-                sqlBuilder.setBindTypeProvider(new DfColumnBindTypeProvider() {
-                    public Class<?> provide(String tableName, DfColumnMeta columnMeta) {
-                        return getBindType(tableName, columnMeta);
-                    }
-                });
-                sqlBuilder.setDefaultValueProp(_defaultValueProp);
                 if (conn == null) {
                     conn = _dataSource.getConnection();
                 }
@@ -226,17 +220,27 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
                         rowNumber);
                 handleLoggingInsert(tableDbName, columnValueMap, loggingInsertType, rowNumber);
 
+                if (bindingPlan == null) {
+                    bindingPlan = new RowBindingPlan(columnValueMap.size());
+                }
                 int bindCount = 1;
                 final Set<Entry<String, Object>> entrySet = columnValueMap.entrySet();
                 for (Entry<String, Object> entry : entrySet) {
                     final String columnName = entry.getKey();
                     final Object obj = entry.getValue();
+                    final int columnIndex = bindCount - 1;
 
                     // /- - - - - - - - - - - - - - - - - -
                     // process Null (against Null Headache)
                     // - - - - - - - - - -/
+                    if (obj == null && bindingPlan.hasNullType(columnIndex)) { // prepared by previous row
+                        ps.setNull(bindCount, bindingPlan.getNullType(columnIndex));
+                        bindCount++;
+                        continue;
+                    }
                     if (processNull(dataDirectory, tableDbName, columnName, obj, ps, bindCount, columnMetaMap,
                             rowNumber)) {
+                        bindingPlan.prepareNullType(columnIndex, findCachedNullType(tableDbName, columnName));
                         bindCount++;
                         continue;
                     }
@@ -256,8 +260,16 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
                     // process NotNull and StringExpression
                     // - - - - - - - - - -/
                     final String value = (String) obj;
-                    processNotNullString(dataDirectory, dataFile, tableDbName, columnName, value, conn, ps, bindCount,
-                            columnMetaMap, rowNumber);
+                    final StringProcessor processor = bindingPlan.getStringProcessor(columnIndex);
+                    if (processor != null) { // prepared by previous row
+                        processStringByProcessor(processor, dataDirectory, dataFile, tableDbName, columnName, value,
+                                conn, ps, bindCount, columnMetaMap, rowNumber);
+                    } else {
+                        processNotNullString(dataDirectory, dataFile, tableDbName, columnName, value, conn, ps,
+                                bindCount, columnMetaMap, rowNumber);
+                        bindingPlan.prepareStringProcessor(columnIndex,
+                                findCachedStringProcessor(tableDbName, columnName));
+                    }
                     bindCount++;
                 }
                 if (isMergedSuppressBatchUpdate(dataDirectory)) {
@@ -265,7 +277,7 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
                 } else {
                     ps.addBatch();
                     ++addedBatchSize;
-                    if (addedBatchSize == 100000) {
+                    if (addedBatchSize >= _batchSize) {
                         // this is supported in only delimiter data writer
                         // because delimiter data can treat large data
                         ps.executeBatch(); // to avoid OutOfMemory
@@ -285,6 +297,8 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
                 ps.executeBatch();
             }
             noticeLoadedRowSize(tableDbName, rowNumber);
+            _loadedTableDbName = tableDbName;
+            _loadedRowSize = rowNumber;
             checkImplicitClassification(dataFile, tableDbName, columnNameList);
         } catch (FileNotFoundException e) {
             throw e;
@@ -336,6 +350,39 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
         }
     }
 
+    /**
+     * Extract the table DB name from the path of delimiter file, e.g. 10-MEMBER.tsv to MEMBER.
+     * @param fileName The path or name of delimiter file. (NotNull)
+     * @return The DB name of table. (NotNull)
+     */
+    public static String extractTableDbName(String fileName) {
+        String tmp = fileName.substring(fileName.lastIndexOf("/") + 1, fileName.lastIndexOf("."));
+        if (tmp.indexOf("-") >= 0) {
+            tmp = tmp.substring(tmp.indexOf("-") + "-".length());
+        }
+        return tmp;
+    }
+
+    protected DfDelimiterDataWriteSqlBuilder createSqlBuilder(DfDelimiterDataResultInfo resultInfo,
+            String tableDbName, Map<String, DfColumnMeta> columnMetaMap, List<String> columnNameList,
+            List<String> valueList) {
+        final DfDelimiterDataWriteSqlBuilder sqlBuilder = new DfDelimiterDataWriteSqlBuilder();
+        sqlBuilder.setTableDbName(tableDbName);
+        sqlBuilder.setColumnMetaMap(columnMetaMap);
+        sqlBuilder.setColumnNameList(columnNameList);
+        sqlBuilder.setValueList(valueList); // recycled list so values are switched per row
+        sqlBuilder.setNotFoundColumnMap(resultInfo.getNotFoundColumnMap());
+        sqlBuilder.setConvertValueMap(_convertValueMap);
+        sqlBuilder.setDefaultValueMap(_defaultValueMap);
+        sqlBuilder.setBindTypeProvider(new DfColumnBindTypeProvider() {
+            public Class<?> provide(String tableName, DfColumnMeta columnMeta) {
+                return getBindType(tableName, columnMeta);
+            }
+        });
+        sqlBuilder.setDefaultValueProp(_defaultValueProp);
+        return sqlBuilder;
+    }
+
     protected void throwTableNotFoundException(String fileName, String tableDbName) {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice("The table specified on the delimiter file was not found in the schema.");
@@ -430,6 +477,49 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
         //return str.length() == 0 || str.equals("\"\"");
     }
 
+    // ===================================================================================
+    //                                                                        Binding Plan
+    //                                                                        ============
+    /**
+     * The plan of binding for rows of one file, which holds the resolved types by column index. <br />
+     * They are resolved by the first value of each column (by column name)
+     * and then rows are bound by the index without name lookups.
+     */
+    protected static class RowBindingPlan {
+
+        protected final Integer[] _nullTypes;
+        protected final StringProcessor[] _stringProcessors;
+
+        public RowBindingPlan(int columnSize) {
+            _nullTypes = new Integer[columnSize];
+            _stringProcessors = new StringProcessor[columnSize];
+        }
+
+        public boolean hasNullType(int columnIndex) {
+            return columnIndex < _nullTypes.length && _nullTypes[columnIndex] != null;
+        }
+
+        public int getNullType(int columnIndex) {
+            return _nullTypes[columnIndex];
+        }
+
+        public void prepareNullType(int columnIndex, Integer nullType) {
+            if (columnIndex < _nullTypes.length) {
+                _nullTypes[columnIndex] = nullType;
+            }
+        }
+
+        public StringProcessor getStringProcessor(int columnIndex) {
+            return columnIndex < _stringProcessors.length ? _stringProcessors[columnIndex] : null;
+        }
+
+        public void prepareStringProcessor(int columnIndex, StringProcessor processor) {
+            if (columnIndex < _stringProcessors.length) {
+                _stringProcessors[columnIndex] = processor;
+            }
+        }
+    }
+
     // ===================================================================================
     //                                                                     First Line Info
     //                                                                     ===============
@@ -714,4 +804,20 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
     public void setDefaultValueMap(Map<String, String> defaultValueMap) {
         this._defaultValueMap = defaultValueMap;
     }
+
+    public int getBatchSize() {
+        return _batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this._batchSize = batchSize;
+    }
+
+    public String getLoadedTableDbName() {
+        return _loadedTableDbName;
+    }
+
+    public int getLoadedRowSize() {
+        return _loadedRowSize;
+    }
 }
@@ -130,7 +130,7 @@ public class DfXlsDataHandlerImpl extends DfAbsractDataWriter implements DfXlsDa
             final DfDataSet dataSet = xlsReader.read();
             filterValidColumn(dataSet);
             setupDefaultValue(dataDirectory, dataSet);
-            doWriteDataSet(resource, file, dataSet, msgSb);
+            doWriteDataSet(resource, file, dataSet, msgSb, loadedDataInfo);
             final boolean warned = false; // this has no warning fixedly
             loadedDataInfo.addLoadedFile(resource.getEnvType(), "xls", null, file.getName(), warned);
         }
@@ -145,12 +145,19 @@ public class DfXlsDataHandlerImpl extends DfAbsractDataWriter implements DfXlsDa
     // -----------------------------------------------------
     //                                               DataSet
     //                                               -------
-    protected void doWriteDataSet(DfXlsDataResource resource, File file, DfDataSet dataSet, StringBuilder msgSb) {
+    protected void doWriteDataSet(DfXlsDataResource resource, File file, DfDataSet dataSet, StringBuilder msgSb,
+            DfLoadedDataInfo loadedDataInfo) {
         msgSb.append(ln()).append(ln()).append("[" + file.getName() + "]");
         for (int i = 0; i < dataSet.getTableSize(); i++) {
             final DfDataTable dataTable = dataSet.getTable(i);
+            final long before = System.currentTimeMillis();
             final int loadedCount = doWriteDataTable(resource, file, dataTable);
+            final long costMillis = System.currentTimeMillis() - before;
             msgSb.append(ln()).append("  " + dataTable.getTableDbName() + " (" + loadedCount + ")");
+            if (loadedCount > 0) {
+                loadedDataInfo.addLoadedTableThroughput(dataTable.getTableDbName(), file.getName(), loadedCount,
+                        costMillis);
+            }
         }
     }
 
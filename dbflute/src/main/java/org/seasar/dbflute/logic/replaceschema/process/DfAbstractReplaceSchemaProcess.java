@@ -52,13 +52,28 @@ public class DfAbstractReplaceSchemaProcess {
             runInfo.setAutoCommit(false);
             runInfo.setRollbackOnly(true);
         } else { // mainly here
-            runInfo.setAutoCommit(true);
+            final int commitCount = getSqlFileCommitCount();
+            if (commitCount > 0 && !runInfo.isErrorContinue()) { // commit per count (e.g. huge INSERT dump)
+                runInfo.setAutoCommit(false);
+                runInfo.setCommitCount(commitCount);
+            } else {
+                runInfo.setAutoCommit(true);
+            }
             runInfo.setRollbackOnly(false);
         }
         runInfo.setSuppressLoggingSql(isSuppressLoggingReplaceSql());
+        runInfo.setInsertBatchSize(getSqlFileInsertBatchSize());
         return runInfo;
     }
 
+    protected int getSqlFileInsertBatchSize() {
+        return getReplaceSchemaProperties().getSqlFileInsertBatchSize();
+    }
+
+    protected int getSqlFileCommitCount() {
+        return getReplaceSchemaProperties().getSqlFileCommitCount();
+    }
+
     protected String getSqlFileEncoding() {
         return getReplaceSchemaProperties().getSqlFileEncoding();
     }
@@ -438,6 +438,13 @@ public class DfCreateSchemaProcess extends DfAbstractReplaceSchemaProcess {
             super.processNonDispatch(sql);
         }
 
+        @Override
+        protected boolean isBatchAvailable() {
+            // statements for other users are dispatched to their connections
+            // so batch is only for the main user to keep the order of statements
+            return super.isBatchAvailable() && (_currentUser == null || _currentUser.trim().length() == 0);
+        }
+
         @Override
         protected void lazyConnectIfNeeds() throws SQLException {
             if (_lazyConnection) {
@@ -36,6 +36,7 @@ import org.seasar.dbflute.logic.replaceschema.loaddata.DfDelimiterDataResource;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfDelimiterDataResultInfo;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfLoadedDataInfo;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfLoadedFile;
+import org.seasar.dbflute.logic.replaceschema.loaddata.DfLoadedTableThroughput;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfXlsDataHandler;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfXlsDataResource;
 import org.seasar.dbflute.logic.replaceschema.loaddata.impl.DfDelimiterDataHandlerImpl;
@@ -208,6 +209,8 @@ public class DfLoadDataProcess extends DfAbstractReplaceSchemaProcess {
         handler.setDataWritingInterceptor(getDataWritingInterceptor());
         handler.setDefaultValueProp(_defaultValueProp);
         handler.setLoadingControlProp(_loadingControlProp);
+        handler.setBatchSize(getReplaceSchemaProperties().getLoadDataBatchSize());
+        handler.setParallelPoolSize(getReplaceSchemaProperties().getLoadDataParallelPoolSize());
         _delimiterDataHandlerImpl = handler;
         return _delimiterDataHandlerImpl;
     }
@@ -433,9 +436,31 @@ public class DfLoadDataProcess extends DfAbstractReplaceSchemaProcess {
         }
         finalInfo.setFailure(failure);
         finalInfo.setLoadEx(loadEx);
+        for (DfLoadedTableThroughput throughput : _loadedDataInfo.getLoadedTableThroughputList()) {
+            finalInfo.addLoadedTableThroughput(throughput);
+        }
+        showLoadedTableThroughput(finalInfo.getLoadedTableThroughputList());
         return finalInfo;
     }
 
+    protected void showLoadedTableThroughput(List<DfLoadedTableThroughput> throughputList) {
+        if (throughputList.isEmpty()) {
+            return;
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append("[Loaded Table Throughput]");
+        int totalRowSize = 0;
+        long totalCostMillis = 0;
+        for (DfLoadedTableThroughput throughput : throughputList) {
+            sb.append(ln()).append("  ").append(throughput);
+            totalRowSize = totalRowSize + throughput.getRowSize();
+            totalCostMillis = totalCostMillis + throughput.getCostMillis();
+        }
+        sb.append(ln()).append("  (total: ").append(throughputList.size()).append(" tables, ");
+        sb.append(totalRowSize).append(" rows, ").append(totalCostMillis).append("ms in tables)");
+        _log.info(sb.toString());
+    }
+
     protected void setupDetailMessage(List<String> detailMessageList) {
         final Map<String, Map<String, List<DfLoadedFile>>> hierarchyMap = _loadedDataInfo
                 .getLoadedFileListHierarchyMap();
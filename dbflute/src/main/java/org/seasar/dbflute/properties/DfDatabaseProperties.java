@@ -596,6 +596,19 @@ public final class DfDatabaseProperties extends DfAbstractHelperProperties {
         return isDatabaseOracle();
     }
 
+    // ===================================================================================
+    //                                                              Incremental Extraction
+    //                                                              ======================
+    /**
+     * Is the extraction of table meta data incremental? <br />
+     * If true, unchanged tables (by fingerprint, e.g. LAST_DDL_TIME) reuse their elements of previous SchemaXML.
+     * It is available only at supported databases (Oracle only for now).
+     * @return The determination, true or false. (default is false)
+     */
+    public boolean isMetaDataIncrementalExtraction() {
+        return isVariousBoolean("isMetaDataIncrementalExtraction", false);
+    }
+
     // ===================================================================================
     //                                                              Retry Case Insensitive
     //                                                              ======================
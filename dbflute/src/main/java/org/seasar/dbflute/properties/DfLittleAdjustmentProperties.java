@@ -1004,6 +1004,14 @@ public final class DfLittleAdjustmentProperties extends DfAbstractHelperProperti
         return isProperty("isSkipGenerateIfSameFile", true);
     }
 
+    // ===================================================================================
+    //                                                                   Generation Tuning
+    //                                                                   =================
+    public boolean isIncrementalGenerate() { // closet
+        // skips templates of unchanged tables by generation manifest (default false)
+        return isProperty("isIncrementalGenerate", false);
+    }
+
     // ===================================================================================
     //                                              ToLower in Generator Underscore Method
     //                                              ======================================
@@ -431,6 +431,71 @@ public final class DfReplaceSchemaProperties extends DfAbstractHelperProperties
         return isProperty("isSuppressBatchUpdate", false, getReplaceSchemaDefinitionMap());
     }
 
+    // ===================================================================================
+    //                                                                    Load Data Tuning
+    //                                                                    ================
+    /**
+     * Get the size of batch statements flushed at a time when loading delimiter data.
+     * @return The size of batch. (NotMinus, NotZero: default is 100000)
+     */
+    public int getLoadDataBatchSize() {
+        return getTuningInteger("loadDataBatchSize", 100000);
+    }
+
+    /**
+     * Get the size of thread pool to load independent tables of delimiter data in parallel. <br />
+     * Tables are loaded level by level of foreign-key dependency so parents are loaded before children.
+     * @return The size of pool. (NotMinus, NotZero: default is 1, which means no parallel)
+     */
+    public int getLoadDataParallelPoolSize() {
+        return getTuningInteger("loadDataParallelPoolSize", 1);
+    }
+
+    // ===================================================================================
+    //                                                                     SQL File Tuning
+    //                                                                     ===============
+    /**
+     * Get the size of JDBC batch for plain INSERT statements in SQL files, e.g. create-schema, take-finally. <br />
+     * Continuous INSERT statements are executed at once by the batch.
+     * @return The size of batch. (NotMinus, NotZero: default is 1, which means no batch)
+     */
+    public int getSqlFileInsertBatchSize() {
+        return getTuningInteger("sqlFileInsertBatchSize", 1);
+    }
+
+    /**
+     * Get the count of statements in SQL files to commit per it. <br />
+     * If specified, SQL files are executed in transaction and committed per the count. (except error-continue)
+     * @return The count of statements. (NotMinus: default is 0, which means auto-commit per statement)
+     */
+    public int getSqlFileCommitCount() {
+        return getTuningInteger("sqlFileCommitCount", 0, 0); // zero means no commit per count
+    }
+
+    protected int getTuningInteger(String key, int defaultValue) {
+        return getTuningInteger(key, defaultValue, 1);
+    }
+
+    protected int getTuningInteger(String key, int defaultValue, int minValue) {
+        final String exp = (String) getReplaceSchemaDefinitionMap().get(key);
+        if (Srl.is_Null_or_TrimmedEmpty(exp)) {
+            return defaultValue;
+        }
+        final int value;
+        try {
+            value = Integer.valueOf(exp.trim());
+        } catch (NumberFormatException e) {
+            String msg = "The property '" + key + "' of replaceSchemaDefinitionMap should be number but: value=" + exp;
+            throw new DfIllegalPropertyTypeException(msg, e);
+        }
+        if (value < minValue) {
+            String msg = "The property '" + key + "' of replaceSchemaDefinitionMap should be";
+            msg = msg + " " + minValue + " or more but: value=" + exp;
+            throw new DfIllegalPropertySettingException(msg);
+        }
+        return value;
+    }
+
     // ===================================================================================
     //                                                             Object Type Target List
     //                                                             =======================
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.friends.velocity;
+
+import java.io.File;
+
+import org.apache.torque.engine.database.model.Table;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/10 Sunday)
+ */
+public class DfGenerationManifestTest extends PlainTestCase {
+
+    public void test_registerFingerprint_basic() throws Exception {
+        // ## Arrange ##
+        File file = File.createTempFile("project-generation", ".manifest");
+        file.deleteOnExit();
+        MockGenerationManifest saved = new MockGenerationManifest(file.getPath(), "env", "fp1");
+        assertFalse(saved.registerFingerprint("bsentity/BsMember.java", "BaseEntity.vm", null)); // first time
+        saved.registerFingerprint("bsentity/dbmeta/MemberDbm.java", "DBMetaImpl.vm", null);
+        saved.save();
+
+        // ## Act ##
+        MockGenerationManifest loaded = new MockGenerationManifest(file.getPath(), "env", "fp1");
+        boolean available = loaded.load();
+
+        // ## Assert ##
+        assertTrue(available);
+        assertTrue(loaded.registerFingerprint("bsentity/BsMember.java", "BaseEntity.vm", null));
+        assertFalse(loaded.registerFingerprint("bsentity/dbmeta/MemberDbm.java", "Other.vm", null));
+        assertFalse(loaded.registerFingerprint("bsentity/BsPurchase.java", "BaseEntity.vm", null));
+        MockGenerationManifest changed = new MockGenerationManifest(file.getPath(), "env", "fp2");
+        changed.load();
+        assertFalse(changed.registerFingerprint("bsentity/BsMember.java", "BaseEntity.vm", null));
+    }
+
+    public void test_load_environmentChanged() throws Exception {
+        // ## Arrange ##
+        File file = File.createTempFile("project-generation", ".manifest");
+        file.deleteOnExit();
+        MockGenerationManifest saved = new MockGenerationManifest(file.getPath(), "env", "fp1");
+        saved.registerFingerprint("bsentity/BsMember.java", "BaseEntity.vm", null);
+        saved.save();
+
+        // ## Act ##
+        MockGenerationManifest loaded = new MockGenerationManifest(file.getPath(), "changed", "fp1");
+        boolean available = loaded.load();
+
+        // ## Assert ##
+        assertFalse(available);
+        assertFalse(loaded.registerFingerprint("bsentity/BsMember.java", "BaseEntity.vm", null));
+    }
+
+    protected static class MockGenerationManifest extends DfGenerationManifest {
+
+        protected final String _tableFingerprint;
+
+        public MockGenerationManifest(String manifestFile, String environmentStamp, String tableFingerprint) {
+            super(manifestFile, environmentStamp);
+            _tableFingerprint = tableFingerprint;
+        }
+
+        @Override
+        protected String findTableFingerprint(Table table) {
+            return _tableFingerprint; // table model is not needed here
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.jdbc.sqlfile;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import org.seasar.dbflute.helper.jdbc.DfRunnerInformation;
+import org.seasar.dbflute.helper.jdbc.sqlfile.DfSqlFileRunnerBase.SqlStatementReader;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/10 Sunday)
+ */
+public class DfSqlFileRunnerExecuteTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                            Read SQL
+    //                                                                            ========
+    public void test_readSql_basic() throws Exception {
+        // ## Arrange ##
+        DfSqlFileRunnerExecute runner = createRunner(new DfRunnerInformation(), false);
+        StringBuilder sb = new StringBuilder();
+        sb.append("insert into MEMBER values (1, 'foo');").append(ln());
+        sb.append("-- comment only;").append(ln());
+        sb.append("update MEMBER").append(ln());
+        sb.append("   set MEMBER_NAME = 'bar';").append(ln());
+        sb.append("-- #df:begin#").append(ln());
+        sb.append("begin; end;").append(ln());
+        sb.append("-- #df:end#").append(ln());
+        sb.append("delete from MEMBER");
+        SqlStatementReader reader = runner.newSqlStatementReader(toReader(sb.toString()));
+
+        // ## Act & Assert ##
+        assertEquals("insert into MEMBER values (1, 'foo')", reader.readSql());
+        assertEquals("update MEMBER" + ln() + "   set MEMBER_NAME = 'bar'", reader.readSql());
+        assertEquals("begin; end;" + ln(), reader.readSql());
+        assertEquals("delete from MEMBER", reader.readSql()); // last SQL without delimiter
+        assertNull(reader.readSql());
+        assertNull(reader.readSql());
+    }
+
+    public void test_readSql_delimiterChanger() throws Exception {
+        // ## Arrange ##
+        DfRunnerInformation runInfo = new DfRunnerInformation();
+        DfSqlFileRunnerExecute runner = createRunner(runInfo, true);
+        StringBuilder sb = new StringBuilder();
+        sb.append("delimiter //;").append(ln());
+        sb.append("create procedure SP_FOO() begin select 1; end//").append(ln());
+        sb.append("delimiter ;//").append(ln());
+        sb.append("insert into MEMBER values (1, 'foo');").append(ln());
+        SqlStatementReader reader = runner.newSqlStatementReader(toReader(sb.toString()));
+
+        // ## Act & Assert ##
+        assertEquals("create procedure SP_FOO() begin select 1; end", reader.readSql());
+        assertEquals("//", runInfo.getDelimiter());
+        assertEquals("insert into MEMBER values (1, 'foo')", reader.readSql());
+        assertEquals(";", runInfo.getDelimiter());
+        assertNull(reader.readSql());
+    }
+
+    // ===================================================================================
+    //                                                                        Batch Insert
+    //                                                                        ============
+    public void test_isBatchTargetSql_basic() throws Exception {
+        // ## Arrange ##
+        DfRunnerInformation runInfo = new DfRunnerInformation();
+        runInfo.setInsertBatchSize(100);
+        DfSqlFileRunnerExecute runner = createRunner(runInfo, false);
+
+        // ## Act & Assert ##
+        assertTrue(runner.isBatchTargetSql("insert into MEMBER values (1, 'foo')"));
+        assertTrue(runner.isBatchTargetSql("INSERT\tINTO MEMBER values (1, 'foo')"));
+        assertTrue(runner.isBatchTargetSql("-- comment" + ln() + "insert into MEMBER values (1, 'foo')"));
+        assertFalse(runner.isBatchTargetSql("update MEMBER set MEMBER_NAME = 'foo'"));
+        assertFalse(runner.isBatchTargetSql("inserted"));
+        assertFalse(runner.isBatchTargetSql("-- insert into MEMBER values (1, 'foo')"));
+    }
+
+    public void test_isBatchTargetSql_notAvailable() throws Exception {
+        // ## Arrange ##
+        DfRunnerInformation runInfo = new DfRunnerInformation();
+        DfSqlFileRunnerExecute runner = createRunner(runInfo, false);
+        String sql = "insert into MEMBER values (1, 'foo')";
+
+        // ## Act & Assert ##
+        assertFalse(runner.isBatchTargetSql(sql)); // default is no batch
+        runInfo.setInsertBatchSize(100);
+        assertTrue(runner.isBatchTargetSql(sql));
+        runInfo.setErrorContinue(true);
+        assertFalse(runner.isBatchTargetSql(sql));
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected DfSqlFileRunnerExecute createRunner(DfRunnerInformation runInfo, final boolean mysql) {
+        return new DfSqlFileRunnerExecute(runInfo, null) {
+            @Override
+            public DelimiterChanger newDelimterChanger() { // not to depend on properties
+                return mysql ? new DelimiterChanger_mysql() : new DelimiterChanger_null();
+            }
+        };
+    }
+
+    protected BufferedReader toReader(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+}
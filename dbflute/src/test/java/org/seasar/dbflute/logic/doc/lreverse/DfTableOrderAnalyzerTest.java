@@ -0,0 +1,79 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.doc.lreverse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.seasar.dbflute.helper.StringKeyMap;
+import org.seasar.dbflute.helper.StringSet;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/10 Sunday)
+ */
+public class DfTableOrderAnalyzerTest extends PlainTestCase {
+
+    public void test_analyzeDependencyLevel_basic() throws Exception {
+        // ## Arrange ##
+        DfTableOrderAnalyzer analyzer = new DfTableOrderAnalyzer();
+        Map<String, Set<String>> parentTableMap = StringKeyMap.createAsFlexibleOrdered();
+        parentTableMap.put("MEMBER", newParentSet("MEMBER_STATUS"));
+        parentTableMap.put("MEMBER_LOGIN", newParentSet("member", "MEMBER_STATUS"));
+        parentTableMap.put("MEMBER_STATUS", newParentSet());
+        parentTableMap.put("PRODUCT", newParentSet("PRODUCT_STATUS")); // not loaded here
+        parentTableMap.put("PURCHASE", newParentSet("MEMBER", "PRODUCT", "PURCHASE")); // self reference
+
+        // ## Act ##
+        List<List<String>> levelList = analyzer.analyzeDependencyLevel(parentTableMap);
+
+        // ## Assert ##
+        log(levelList);
+        assertEquals(3, levelList.size());
+        assertEquals(newArrayList("MEMBER_STATUS", "PRODUCT"), levelList.get(0));
+        assertEquals(newArrayList("MEMBER"), levelList.get(1));
+        assertEquals(newArrayList("MEMBER_LOGIN", "PURCHASE"), levelList.get(2));
+    }
+
+    public void test_analyzeDependencyLevel_cyclic() throws Exception {
+        // ## Arrange ##
+        DfTableOrderAnalyzer analyzer = new DfTableOrderAnalyzer();
+        Map<String, Set<String>> parentTableMap = StringKeyMap.createAsFlexibleOrdered();
+        parentTableMap.put("BAR", newParentSet("FOO"));
+        parentTableMap.put("FOO", newParentSet("BAR"));
+        parentTableMap.put("QUX", newParentSet());
+
+        // ## Act ##
+        List<List<String>> levelList = analyzer.analyzeDependencyLevel(parentTableMap);
+
+        // ## Assert ##
+        log(levelList);
+        assertEquals(3, levelList.size());
+        assertEquals(newArrayList("QUX"), levelList.get(0));
+        assertEquals(newArrayList("BAR"), levelList.get(1)); // one by one
+        assertEquals(newArrayList("FOO"), levelList.get(2));
+    }
+
+    protected Set<String> newParentSet(String... parents) {
+        Set<String> parentSet = StringSet.createAsFlexibleOrdered();
+        for (String parent : parents) {
+            parentSet.add(parent);
+        }
+        return parentSet;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.schemaxml;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.torque.engine.database.model.TypeMap;
+import org.apache.torque.engine.database.model.UnifiedSchema;
+import org.seasar.dbflute.DfBuildProperties;
+import org.seasar.dbflute.logic.doc.craftdiff.DfCraftDiffAssertDirection;
+import org.seasar.dbflute.logic.doc.craftdiff.DfCraftDiffAssertProvider;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfTableMeta;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+import org.seasar.dbflute.util.DfCollectionUtil;
+import org.w3c.dom.Element;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/10 Sunday)
+ */
+public class DfSchemaXmlSerializerTest extends PlainTestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Properties prop = new Properties();
+        prop.setProperty("torque.basicInfoMap", "map:{database=h2}");
+        DfBuildProperties.getInstance().setProperties(prop);
+        DfBuildProperties.getInstance().getHandler().reload();
+        TypeMap.reload();
+    }
+
+    // ===================================================================================
+    //                                                              Incremental Extraction
+    //                                                              ======================
+    public void test_doProcessTable_reused_withCraftDiff() throws Exception {
+        // ## Arrange ##
+        DfSchemaXmlSerializer serializer = new DfSchemaXmlSerializer(null, "unused.xml", null);
+        serializer._doc = serializer.createDocumentImpl();
+        Element tableElement = serializer._doc.createElement("table");
+        tableElement.setAttribute("name", "MEMBER");
+        tableElement.setAttribute("type", "TABLE");
+        tableElement.appendChild(createColumnElement(serializer, "MEMBER_ID", "INTEGER", "10", true));
+        tableElement.appendChild(createColumnElement(serializer, "MEMBER_NAME", "VARCHAR", "200", true));
+        tableElement.appendChild(createColumnElement(serializer, "MEMBER_POINT", "DECIMAL", "8, 2", false));
+        tableElement.appendChild(serializer._doc.createElement("foreign-key")); // not column
+        serializer._reusableTableElementMap.put("MEMBER", tableElement);
+        DfTableMeta tableMeta = new DfTableMeta();
+        tableMeta.setTableName("MEMBER");
+        tableMeta.setTableType("TABLE");
+        tableMeta.setUnifiedSchema(UnifiedSchema.createAsMainSchema(null, null));
+
+        // ## Act ##
+        boolean processed = serializer.doProcessTable(null, null, tableMeta); // no meta data access
+
+        // ## Assert ##
+        assertTrue(processed);
+        List<DfColumnMeta> columnList = tableMeta.getLazyColumnMetaList();
+        assertNotNull(columnList);
+        assertEquals(3, columnList.size());
+        DfColumnMeta pkColumn = columnList.get(0);
+        assertEquals("MEMBER_ID", pkColumn.getColumnName());
+        assertEquals("MEMBER", pkColumn.getTableName());
+        assertEquals(10, pkColumn.getColumnSize());
+        assertTrue(pkColumn.isRequired());
+        DfColumnMeta pointColumn = columnList.get(2);
+        assertEquals("MEMBER_POINT", pointColumn.getColumnName());
+        assertEquals("DECIMAL", pointColumn.getDbTypeName());
+        assertEquals(8, pointColumn.getColumnSize());
+        assertEquals(2, pointColumn.getDecimalDigits());
+        assertFalse(pointColumn.isRequired());
+
+        // CraftDiff table-equals reads the column meta after processing tables
+        List<DfTableMeta> tableList = DfCollectionUtil.newArrayList(tableMeta);
+        MockCraftDiffAssertProvider provider = new MockCraftDiffAssertProvider(tableList);
+        String tableSql = provider.toTableSqlMap("MEMBER", "except:MEMBER_POINT").get("MEMBER");
+        log(tableSql);
+        assertNotNull(tableSql);
+        assertTrue(tableSql.startsWith("select MEMBER_ID, MEMBER_NAME"));
+        assertTrue(tableSql.trim().endsWith("from MEMBER"));
+    }
+
+    public void test_isForeignTableAllSame_parentChanged() throws Exception {
+        // ## Arrange ##
+        DfSchemaXmlSerializer serializer = new DfSchemaXmlSerializer(null, "unused.xml", null);
+        serializer._doc = serializer.createDocumentImpl();
+        Element tableElement = serializer._doc.createElement("table");
+        tableElement.setAttribute("name", "PURCHASE");
+        tableElement.appendChild(createForeignKeyElement(serializer, "EXAMPLEDB", "MEMBER"));
+        tableElement.appendChild(createForeignKeyElement(serializer, "EXAMPLEDB", "PRODUCT"));
+        DfTableFingerprintSnapshot snapshot = new DfTableFingerprintSnapshot("unused.fingerprint");
+        snapshot.registerTableFingerprint("EXAMPLEDB.PURCHASE", "p1");
+        snapshot.registerTableFingerprint("EXAMPLEDB.MEMBER", "m1");
+        snapshot.registerTableFingerprint("EXAMPLEDB.PRODUCT", "d1");
+        serializer._tableFingerprintMap = DfCollectionUtil.newLinkedHashMap();
+        serializer._tableFingerprintMap.put("EXAMPLEDB.PURCHASE", "p1");
+        serializer._tableFingerprintMap.put("EXAMPLEDB.MEMBER", "m1");
+        serializer._tableFingerprintMap.put("EXAMPLEDB.PRODUCT", "d1");
+
+        // ## Act & Assert ##
+        assertTrue(serializer.isForeignTableAllSame(tableElement, snapshot));
+        serializer._tableFingerprintMap.put("EXAMPLEDB.PRODUCT", "d2"); // only parent changed
+        assertFalse(serializer.isForeignTableAllSame(tableElement, snapshot));
+        serializer._tableFingerprintMap.remove("EXAMPLEDB.PRODUCT"); // unknown parent
+        assertFalse(serializer.isForeignTableAllSame(tableElement, snapshot));
+    }
+
+    protected Element createForeignKeyElement(DfSchemaXmlSerializer serializer, String foreignSchema,
+            String foreignTable) {
+        Element fkElement = serializer._doc.createElement("foreign-key");
+        fkElement.setAttribute("foreignSchema", foreignSchema);
+        fkElement.setAttribute("foreignTable", foreignTable);
+        return fkElement;
+    }
+
+    protected Element createColumnElement(DfSchemaXmlSerializer serializer, String columnName, String dbType,
+            String size, boolean required) {
+        Element columnElement = serializer._doc.createElement("column");
+        columnElement.setAttribute("name", columnName);
+        columnElement.setAttribute("type", dbType);
+        columnElement.setAttribute("dbType", dbType);
+        columnElement.setAttribute("size", size);
+        if (required) {
+            columnElement.setAttribute("required", "true");
+        }
+        return columnElement;
+    }
+
+    protected static class MockCraftDiffAssertProvider extends DfCraftDiffAssertProvider {
+
+        public MockCraftDiffAssertProvider(List<DfTableMeta> tableList) {
+            super("unused", DfCraftDiffAssertDirection.ROLLING_NEXT, tableList);
+        }
+
+        @Override
+        public Map<String, String> toTableSqlMap(String tableHint, String exceptExp) {
+            return super.toTableSqlMap(tableHint, exceptExp);
+        }
+    }
+}
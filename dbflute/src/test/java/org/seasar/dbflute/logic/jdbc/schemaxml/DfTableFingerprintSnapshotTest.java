@@ -0,0 +1,85 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.schemaxml;
+
+import java.io.File;
+import java.util.Set;
+
+import org.seasar.dbflute.unit.core.PlainTestCase;
+import org.seasar.dbflute.util.DfCollectionUtil;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/10 Sunday)
+ */
+public class DfTableFingerprintSnapshotTest extends PlainTestCase {
+
+    public void test_saveAndLoad_basic() throws Exception {
+        // ## Arrange ##
+        File file = File.createTempFile("schema", ".xml.fingerprint");
+        file.deleteOnExit();
+        DfTableFingerprintSnapshot saved = new DfTableFingerprintSnapshot(file.getPath());
+        saved.setEnvironmentStamp("env");
+        saved.setSchemaXmlStamp("xml");
+        saved.registerTableFingerprint("main.MEMBER", "20140810120000:20140810120000/2");
+        saved.registerTableFingerprint("main.PURCHASE", "20140810120000:/0");
+        saved.registerTableFingerprint("main.VW_MEMBER", null); // e.g. view
+
+        // ## Act ##
+        saved.save();
+        DfTableFingerprintSnapshot loaded = new DfTableFingerprintSnapshot(file.getPath());
+        boolean exists = loaded.load();
+
+        // ## Assert ##
+        assertTrue(exists);
+        assertEquals("env", loaded.getEnvironmentStamp());
+        assertEquals("xml", loaded.getSchemaXmlStamp());
+        assertTrue(loaded.isSameFingerprint("main.MEMBER", "20140810120000:20140810120000/2"));
+        assertFalse(loaded.isSameFingerprint("main.MEMBER", "20140811120000:20140810120000/2"));
+        assertTrue(loaded.isSameFingerprint("main.PURCHASE", "20140810120000:/0"));
+        assertFalse(loaded.isSameFingerprint("main.VW_MEMBER", null));
+        assertFalse(loaded.isSameFingerprint("main.NOT_EXISTS", "20140810120000:/0"));
+    }
+
+    public void test_load_notExists() throws Exception {
+        // ## Arrange ##
+        File file = File.createTempFile("schema", ".xml.fingerprint");
+        file.delete();
+        DfTableFingerprintSnapshot snapshot = new DfTableFingerprintSnapshot(file.getPath());
+
+        // ## Act & Assert ##
+        assertFalse(snapshot.load());
+    }
+
+    public void test_isReusable_basic() throws Exception {
+        // ## Arrange ##
+        DfTableFingerprintSnapshot snapshot = new DfTableFingerprintSnapshot("unused");
+        snapshot.setEnvironmentStamp("env");
+        snapshot.setSchemaXmlStamp("xml");
+        snapshot.registerTableFingerprint("main.MEMBER", "foo");
+        snapshot.registerTableFingerprint("main.PURCHASE", "bar");
+        Set<String> sameSet = DfCollectionUtil.newHashSet("main.MEMBER", "main.PURCHASE");
+        Set<String> addedSet = DfCollectionUtil.newHashSet("main.MEMBER", "main.PURCHASE", "main.PRODUCT");
+        Set<String> removedSet = DfCollectionUtil.newHashSet("main.MEMBER");
+
+        // ## Act & Assert ##
+        assertTrue(snapshot.isReusable("env", "xml", sameSet));
+        assertTrue(snapshot.isReusable("env", "xml", addedSet));
+        assertFalse(snapshot.isReusable("env", "xml", removedSet)); // foreign keys may refer to removed table
+        assertFalse(snapshot.isReusable("changed", "xml", sameSet));
+        assertFalse(snapshot.isReusable("env", "changed", sameSet));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.replaceschema.loaddata.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.seasar.dbflute.helper.StringKeyMap;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
+import org.seasar.dbflute.logic.replaceschema.loaddata.impl.dataprop.DfDefaultValueProp;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/10 Sunday)
+ */
+public class DfDelimiterDataWriteSqlBuilderTest extends PlainTestCase {
+
+    public void test_setupParameter_recycled() throws Exception {
+        // ## Arrange ##
+        Map<String, DfColumnMeta> columnMetaMap = StringKeyMap.createAsFlexibleOrdered();
+        columnMetaMap.put("MEMBER_ID", createColumnMeta("MEMBER_ID"));
+        columnMetaMap.put("MEMBER_NAME", createColumnMeta("MEMBER_NAME"));
+        columnMetaMap.put("MEMBER_STATUS_CODE", createColumnMeta("MEMBER_STATUS_CODE"));
+        List<String> columnNameList = newArrayList("member_id", "NOT_EXISTS", "MEMBER_NAME", "MEMBER_STATUS_CODE");
+        List<String> valueList = new ArrayList<String>();
+        Map<String, Set<String>> notFoundColumnMap = new LinkedHashMap<String, Set<String>>();
+        Map<String, String> defaultValueMap = StringKeyMap.createAsFlexible();
+        defaultValueMap.put("MEMBER_STATUS_CODE", "FML");
+        DfDelimiterDataWriteSqlBuilder builder = new DfDelimiterDataWriteSqlBuilder();
+        builder.setTableDbName("MEMBER");
+        builder.setColumnMetaMap(columnMetaMap);
+        builder.setColumnNameList(columnNameList);
+        builder.setValueList(valueList);
+        builder.setNotFoundColumnMap(notFoundColumnMap);
+        builder.setConvertValueMap(new LinkedHashMap<String, Map<String, String>>());
+        builder.setDefaultValueMap(defaultValueMap);
+        builder.setDefaultValueProp(new DfDefaultValueProp());
+
+        // ## Act ##
+        valueList.addAll(newArrayList("1", "x", "Stojkovic", "PRV"));
+        Map<String, Object> firstMap = builder.setupParameter();
+        String firstExp = firstMap.toString();
+        valueList.clear();
+        valueList.addAll(newArrayList("2", "y", "")); // status is omitted
+        Map<String, Object> secondMap = builder.setupParameter();
+
+        // ## Assert ##
+        log(firstExp);
+        log(secondMap);
+        assertSame(firstMap, secondMap);
+        assertEquals("{MEMBER_ID=1, MEMBER_NAME=Stojkovic, MEMBER_STATUS_CODE=PRV}", firstExp);
+        assertEquals(newArrayList("MEMBER_ID", "MEMBER_NAME", "MEMBER_STATUS_CODE"),
+                new ArrayList<String>(secondMap.keySet()));
+        assertEquals("2", secondMap.get("MEMBER_ID"));
+        assertNull(secondMap.get("MEMBER_NAME")); // empty to null
+        assertEquals("FML", secondMap.get("MEMBER_STATUS_CODE")); // default value
+        assertEquals(1, notFoundColumnMap.size());
+        assertEquals(1, notFoundColumnMap.get("MEMBER").size()); // registered once
+        assertTrue(notFoundColumnMap.get("MEMBER").contains("NOT_EXISTS"));
+    }
+
+    protected DfColumnMeta createColumnMeta(String columnName) {
+        DfColumnMeta meta = new DfColumnMeta();
+        meta.setColumnName(columnName);
+        return meta;
+    }
+}
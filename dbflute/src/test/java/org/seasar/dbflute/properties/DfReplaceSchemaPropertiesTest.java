@@ -0,0 +1,51 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.properties;
+
+import java.util.Properties;
+
+import org.seasar.dbflute.exception.DfIllegalPropertySettingException;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/08/20 Wednesday)
+ */
+public class DfReplaceSchemaPropertiesTest extends PlainTestCase {
+
+    public void test_getSqlFileCommitCount_zeroAllowed() {
+        // ## Arrange ##
+        DfReplaceSchemaProperties prop = new DfReplaceSchemaProperties(new Properties());
+        prop.getReplaceSchemaDefinitionMap().put("sqlFileCommitCount", "0");
+        prop.getReplaceSchemaDefinitionMap().put("sqlFileInsertBatchSize", "0");
+
+        // ## Act & Assert ##
+        assertEquals(0, prop.getSqlFileCommitCount());
+        try {
+            prop.getSqlFileInsertBatchSize(); // zero is not allowed here
+            fail();
+        } catch (DfIllegalPropertySettingException e) {
+            log(e.getMessage());
+        }
+        prop.getReplaceSchemaDefinitionMap().put("sqlFileCommitCount", "-1");
+        try {
+            prop.getSqlFileCommitCount();
+            fail();
+        } catch (DfIllegalPropertySettingException e) {
+            log(e.getMessage());
+        }
+    }
+}